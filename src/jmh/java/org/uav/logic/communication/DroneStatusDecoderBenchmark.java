@@ -0,0 +1,76 @@
+package org.uav.logic.communication;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.uav.logic.state.drone.DroneStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+import java.util.Vector;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DroneStatusDecoderBenchmark {
+
+    @Param({"1", "200", "2000"})
+    int droneCount;
+
+    private byte[] frame;
+    private DroneStatusDecoder decoder;
+
+    @Setup
+    public void setUp() {
+        frame = DroneStatusFrames.csv(droneCount);
+        decoder = new DroneStatusDecoder();
+    }
+
+    @Benchmark
+    public void scannerParser(Blackhole blackhole) {
+        blackhole.consume(parse(new String(frame, StandardCharsets.UTF_8)));
+    }
+
+    @Benchmark
+    public void byteDecoder(Blackhole blackhole) {
+        blackhole.consume(decoder.decode(frame));
+    }
+
+    // Parser used by DroneStatusConsumer before DroneStatusDecoder.
+    private static List<DroneStatus> parse(String input) {
+        return Arrays.stream(input.split(";")).map(DroneStatusDecoderBenchmark::toDrone).toList();
+    }
+
+    private static DroneStatus toDrone(String input) {
+        var drone = new DroneStatus();
+        Scanner scanner = new Scanner(input);
+        scanner.useDelimiter(",");
+        drone.id = Integer.parseInt(scanner.next());
+        drone.time = Float.parseFloat(scanner.next());
+        drone.position.x = Float.parseFloat(scanner.next());
+        drone.position.y = Float.parseFloat(scanner.next());
+        drone.position.z = Float.parseFloat(scanner.next());
+        drone.rotation.w = Float.parseFloat(scanner.next());
+        drone.rotation.x = Float.parseFloat(scanner.next());
+        drone.rotation.y = Float.parseFloat(scanner.next());
+        drone.rotation.z = Float.parseFloat(scanner.next());
+        drone.linearVelocity.x = Float.parseFloat(scanner.next());
+        drone.linearVelocity.y = Float.parseFloat(scanner.next());
+        drone.linearVelocity.z = Float.parseFloat(scanner.next());
+        drone.angularVelocity.x = Float.parseFloat(scanner.next());
+        drone.angularVelocity.y = Float.parseFloat(scanner.next());
+        drone.angularVelocity.z = Float.parseFloat(scanner.next());
+        var propellers = new Vector<Float>();
+        while (scanner.hasNext())
+            propellers.add(Float.parseFloat(scanner.next()));
+        drone.propellersRadps = new float[propellers.size()];
+        for(int i = 0; i < propellers.size(); i++)
+            drone.propellersRadps[i] = propellers.get(i);
+        return drone;
+    }
+}
@@ -0,0 +1,27 @@
+package org.uav.logic.communication;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * CSV drone statuses frames shaped like the server's, shared by the decoder benchmarks.
+ */
+class DroneStatusFrames {
+
+    /**
+     * @return the same frame for the same drone count on every call
+     */
+    static byte[] csv(int droneCount) {
+        Random random = new Random(0);
+        return IntStream.range(0, droneCount)
+                .mapToObj(id -> String.format(Locale.US, "%d,%.2f,%s", id, 12.5f, IntStream.range(0, 17)
+                        // Short fixed-point literals like the server's, which the fast path handles
+                        .mapToObj(i -> String.format(Locale.US, "%.4f", random.nextDouble() * 200 - 100))
+                        .collect(Collectors.joining(","))))
+                .collect(Collectors.joining(";"))
+                .getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,46 @@
+package org.uav.logic.communication;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of CSV drone frame decoding with the number of fork-join workers; parallelism 1 is the sequential path.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelDroneStatusDecoderBenchmark {
+
+    @Param({"2000", "10000"})
+    int droneCount;
+
+    @Param({"1", "2", "4", "8"})
+    int parallelism;
+
+    private byte[] frame;
+    private ForkJoinPool pool;
+    private DroneStatusDecoder decoder;
+
+    @Setup
+    public void setUp() {
+        frame = DroneStatusFrames.csv(droneCount);
+        pool = new ForkJoinPool(parallelism);
+        decoder = parallelism == 1 ? new DroneStatusDecoder() : new DroneStatusDecoder(pool, 0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public void decode(Blackhole blackhole) {
+        blackhole.consume(decoder.decode(frame));
+    }
+}
@@ -0,0 +1,88 @@
+package org.uav.logic.communication;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.uav.logic.state.drone.DroneStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatusFrameFormatBenchmark {
+
+    @Param({"1", "200", "2000"})
+    int droneCount;
+
+    private byte[] csvFrame;
+    private byte[] binaryFrame;
+    private DroneStatusDecoder decoder;
+
+    // Reported next to the timings, so a result shows how large the frames it decoded were
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class FrameBytes {
+        public long csvBytes;
+        public long binaryBytes;
+    }
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(0);
+        List<DroneStatus> drones = IntStream.range(0, droneCount).mapToObj(id -> {
+            var drone = new DroneStatus();
+            drone.id = id;
+            drone.time = 12.5f;
+            drone.position.set(nextFloat(random), nextFloat(random), nextFloat(random));
+            drone.rotation.set(nextFloat(random), nextFloat(random), nextFloat(random), nextFloat(random));
+            drone.linearVelocity.set(nextFloat(random), nextFloat(random), nextFloat(random));
+            drone.angularVelocity.set(nextFloat(random), nextFloat(random), nextFloat(random));
+            drone.propellersRadps = new float[]{nextFloat(random), nextFloat(random), nextFloat(random), nextFloat(random)};
+            return drone;
+        }).toList();
+        csvFrame = drones.stream().map(StatusFrameFormatBenchmark::toCsv).collect(Collectors.joining(";"))
+                .getBytes(StandardCharsets.UTF_8);
+        binaryFrame = BinaryStatusFrame.encodeDroneStatuses(drones, 1);
+        decoder = new DroneStatusDecoder();
+    }
+
+    @Setup(Level.Iteration)
+    public void countBytes(FrameBytes frameBytes) {
+        frameBytes.csvBytes = csvFrame.length;
+        frameBytes.binaryBytes = binaryFrame.length;
+    }
+
+    @Benchmark
+    public void csvDecode(Blackhole blackhole, FrameBytes frameBytes) {
+        blackhole.consume(decoder.decode(csvFrame));
+    }
+
+    @Benchmark
+    public void binaryDecode(Blackhole blackhole, FrameBytes frameBytes) {
+        blackhole.consume(decoder.decode(binaryFrame));
+    }
+
+    private static float nextFloat(Random random) {
+        return random.nextFloat() * 200 - 100;
+    }
+
+    private static String toCsv(DroneStatus drone) {
+        var values = new StringBuilder().append(drone.id).append(',').append(drone.time)
+                .append(',').append(drone.position.x).append(',').append(drone.position.y).append(',').append(drone.position.z)
+                .append(',').append(drone.rotation.w).append(',').append(drone.rotation.x)
+                .append(',').append(drone.rotation.y).append(',').append(drone.rotation.z)
+                .append(',').append(drone.linearVelocity.x).append(',').append(drone.linearVelocity.y).append(',').append(drone.linearVelocity.z)
+                .append(',').append(drone.angularVelocity.x).append(',').append(drone.angularVelocity.y).append(',').append(drone.angularVelocity.z);
+        for(float radps : drone.propellersRadps)
+            values.append(',').append(radps);
+        return values.toString();
+    }
+}
@@ -12,8 +12,8 @@ import org.lwjgl.system.MemoryStack;
 import org.uav.logic.assets.AssetDownloader;
 import org.uav.logic.assets.AvailableControlModes;
 import org.uav.logic.audio.AudioManager;
+import org.uav.logic.communication.FrameSegmentReader;
 import org.uav.logic.audio.MusicPlayer;
-import org.uav.logic.communication.HeartbeatProducer;
 import org.uav.logic.config.BindingConfig;
 import org.uav.logic.config.Config;
 import org.uav.logic.config.DroneParameters;
@@ -21,6 +21,7 @@ import org.uav.logic.config.FullScreenMode;
 import org.uav.logic.input.bindingsGeneration.BindingsLoop;
 import org.uav.logic.input.handler.InputHandler;
 import org.uav.logic.messages.MessageBoard;
+import org.uav.logic.standin.ServerStandIn;
 import org.uav.logic.state.simulation.SimulationState;
 import org.uav.logic.state.simulation.SimulationStateProcessor;
 import org.uav.presentation.view.LoadingScreen;
@@ -52,12 +53,12 @@ public class UavVisualization {
     private OpenGlScene openGlScene;
     private SimulationState simulationState;
     private SimulationStateProcessor simulationStateProcessor;
-    private HeartbeatProducer heartbeatProducer;
     private InputHandler inputHandler;
     private Config config;
     private MusicPlayer musicPlayer;
     private AudioManager audioManager;
     private MessageBoard messageBoard;
+    private ServerStandIn serverStandIn;
 
     public void run() throws IOException {
         init();
@@ -69,6 +70,7 @@ public class UavVisualization {
         while (!glfwWindowShouldClose(window)) {
             update();
             openGlScene.render();
+            simulationStateProcessor.recordFrameRendered();
         }
     }
 
@@ -79,8 +81,6 @@ public class UavVisualization {
         audioManager.update(simulationState);
         musicPlayer.update();
         messageBoard.deprecateMessages();
-        if(simulationState.getCurrentlyControlledDrone().isPresent())
-            heartbeatProducer.sustainHeartBeat(simulationState.getCurrentlyControlledDrone().get());
         inputHandler.handleInput();
     }
 
@@ -111,19 +111,33 @@ public class UavVisualization {
         // Connection
         simulationState = new SimulationState(window, config, droneParameters);
         var context = new ZContext();
+        var standInDroneCount = config.getServerSettings().getStandInDroneCount();
+        if(standInDroneCount != null) {
+            serverStandIn = ServerStandIn.fromConfig(context, config, standInDroneCount, config.getServerSettings().getStandInRateHz());
+            serverStandIn.start();
+        }
         // Assets
         loadingScreen.render("Checking assets...");
         var assetDownloader = new AssetDownloader(context, config);
-        assetDownloader.checkAndUpdateAssets(config, simulationState, loadingScreen);
+        // A recording names the assets it was made with, so it can be replayed without the server
+        var replayFramesFrom = config.getServerSettings().getReplayFramesFrom();
+        var serverInfo = replayFramesFrom != null ?
+                FrameSegmentReader.readServerInfo(Paths.get(System.getProperty("user.dir"), replayFramesFrom)) :
+                assetDownloader.fetchServerInfo();
+        assetDownloader.checkAndUpdateAssets(config, serverInfo, simulationState, loadingScreen);
 
-        heartbeatProducer = new HeartbeatProducer(config);
         AvailableControlModes availableControlModes = FileMapper.load(AvailableControlModes.class, Paths.get(simulationState.getAssetsDirectory(), "data", "available_control_modes.yaml"), new YAMLMapper());
-        simulationStateProcessor = new SimulationStateProcessor(context, simulationState, config, availableControlModes, messageBoard);
+        simulationStateProcessor = new SimulationStateProcessor(context, simulationState, config, serverInfo, availableControlModes, messageBoard);
         audioManager = new AudioManager(simulationState, droneParameters, config);
         audioManager.play();
         inputHandler = new InputHandler(simulationStateProcessor, simulationState, config, bindingConfig, musicPlayer);
         inputHandler.subscribe(messageBoard.produceSubscriber());
         openGlScene = new OpenGlScene(simulationState, config, loadingScreen, droneParameters, messageBoard);
+        // A replayed recording has no server to spawn a drone on, it is only watched.
+        if(simulationStateProcessor.isReplaying()) {
+            simulationStateProcessor.openCommunication();
+            return;
+        }
         simulationStateProcessor.saveDroneModelChecksum(config.getDroneSettings().getDroneConfig());
         // Request drone for the player.
         loadingScreen.render("Spawning drone...");
@@ -133,6 +147,7 @@ public class UavVisualization {
 
     private void close() {
         simulationStateProcessor.close();
+        if(serverStandIn != null) serverStandIn.close();
         musicPlayer.close();
         closeOpenGlEnvironment();
         closeOpenAlEnvironment();
@@ -1,11 +1,5 @@
 package org.uav.logic.assets;
 
-import org.apache.commons.compress.archivers.ArchiveEntry;
-import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
-import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
-import org.apache.commons.io.input.CountingInputStream;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.uav.logic.config.Config;
@@ -16,17 +10,20 @@ import org.zeromq.ZContext;
 import org.zeromq.ZMQ;
 
 import java.io.*;
-import java.net.HttpURLConnection;
 import java.net.URL;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static org.uav.utils.ZmqUtils.checkErrno;
 
 public class AssetDownloader {
     public static final String ASSETS_ARCHIVE = "/assets.tar.gz";
+    public static final String ASSETS_DIGEST = ASSETS_ARCHIVE + ".sha256";
+    private static final long PROGRESS_POLL_MS = 100;
     private final ZMQ.Socket socket;
 
     public AssetDownloader(ZContext context, Config config) {
@@ -37,21 +34,26 @@ public class AssetDownloader {
         socket.connect(address);
     }
 
-    public void checkAndUpdateAssets(Config config, SimulationState simulationState, LoadingScreen loadingScreen) throws IOException {
-        var serverInfo = fetchServerInfo();
-        if(config.getServerSettings().getAssetsToUse() != null)
-            simulationState.setAssetsDirectory(Paths.get(System.getProperty("user.dir"), "assets", config.getServerSettings().getAssetsToUse()).toString());
-        else
-            simulationState.setAssetsDirectory(Paths.get(System.getProperty("user.dir"), "assets", serverInfo.assetChecksum.substring(0,8)).toString());
+    public void checkAndUpdateAssets(Config config, ServerInfo serverInfo, SimulationState simulationState, LoadingScreen loadingScreen) throws IOException {
+        String serverPack = serverInfo.assetChecksum.substring(0,8);
+        String packInUse = config.getServerSettings().getAssetsToUse() != null ? config.getServerSettings().getAssetsToUse() : serverPack;
+        simulationState.setAssetsDirectory(Paths.get(System.getProperty("user.dir"), "assets", packInUse).toString());
         simulationState.setServerMap(serverInfo.serverMap);
 
-        if(
-                config.getServerSettings().getDownloadMissingAssets()
-                        && !assetPackExists(serverInfo.assetChecksum.substring(0,8))
-        ) {
-            loadingScreen.render("Downloading new assets...");
-            downloadAssets(config.getServerSettings().getAssetsSourceUrl(), serverInfo.assetChecksum, loadingScreen);
+        var store = new AssetStore(Paths.get(System.getProperty("user.dir"), "assets"));
+        var legacyPacks = store.legacyPacks();
+        if(!legacyPacks.isEmpty()) {
+            loadingScreen.render("Indexing assets...");
+            for(String pack : legacyPacks) store.adopt(pack);
         }
+        if(config.getServerSettings().getDownloadMissingAssets() && !store.hasPack(serverPack))
+            downloadAssets(config, serverInfo.assetChecksum, store, loadingScreen);
+
+        if(store.hasPack(packInUse)) {
+            store.materialize(packInUse);
+            store.touch(packInUse);
+        }
+        store.evict(config.getServerSettings().getAssetStoreBudgetMb() * 1024L * 1024L, packInUse);
     }
 
     public ServerInfo fetchServerInfo() {
@@ -69,72 +71,52 @@ public class AssetDownloader {
         return new ServerInfo(assetChecksum, serverMap, configs);
     }
 
-    private boolean assetPackExists(String assetChecksum) throws IOException {
-        String assetsDirectory = Paths.get(System.getProperty("user.dir"), "assets").toString();
-        if(!Files.exists(Paths.get(assetsDirectory))) {
-            if(!new File(assetsDirectory).mkdir()) throw new IOException();
-            return false;
-        }
-        String assetPackDirectory = Paths.get(assetsDirectory, assetChecksum).toString();
-        return Files.exists(Paths.get(assetPackDirectory));
-    }
-
-    private void downloadAssets(String assetsSourceUrl, String assetChecksum, LoadingScreen loadingScreen) throws IOException {
-        String assetPackDirectory = Paths.get(System.getProperty("user.dir"), "assets", assetChecksum.substring(0,8)).toString();
-        if(!new File(assetPackDirectory).mkdir()) throw new IOException();
-        String saveAtPath = Paths.get(assetPackDirectory, ASSETS_ARCHIVE).toString();
-        String downloadUrlPath = assetsSourceUrl + assetChecksum + ASSETS_ARCHIVE;
-        URL downloadUrl = new URL(downloadUrlPath);
-        HttpURLConnection httpConnection = (HttpURLConnection) (downloadUrl.openConnection());
-        long completeFileSize = httpConnection.getContentLength();
-        float fileSizeMb = (float) (completeFileSize / 1000_00) / 10;
-
-        try(InputStream inputStream = downloadUrl.openStream();
-            CountingInputStream cis = new CountingInputStream(inputStream);
-            FileOutputStream fileOS = new FileOutputStream(saveAtPath)
-        ) {
-
-            new Thread(() -> {
-                try {
-                    IOUtils.copyLarge(cis, fileOS);
-                } catch (IOException e) {
-                    throw new RuntimeException();
-                }
-            }).start();
-
-            int byteStep = 100_000;
-            long lastStep = 0;
-            while (cis.getByteCount() < completeFileSize) {
-                if (cis.getByteCount() - lastStep > byteStep) {
-                    lastStep += byteStep;
-                    float currentMb = (float) (cis.getByteCount() / 100_000) / 10;
-                    loadingScreen.render("Downloading new assets... " + currentMb + "/" + fileSizeMb + " MB");
-                }
+    private void downloadAssets(Config config, String assetChecksum, AssetStore store, LoadingScreen loadingScreen) throws IOException {
+        var progress = new LinkedBlockingQueue<String>();
+        var installation = new CompletableFuture<Void>();
+        var installer = new Thread(() -> {
+            try {
+                var serverSettings = config.getServerSettings();
+                new AssetPackInstaller(
+                        serverSettings.getDownloadConnections(),
+                        serverSettings.getDownloadChunkSizeKb() * 1024,
+                        serverSettings.getServerTimeoutMs()
+                ).install(
+                        new URL(serverSettings.getAssetsSourceUrl() + assetChecksum + ASSETS_ARCHIVE),
+                        new URL(serverSettings.getAssetsSourceUrl() + assetChecksum + ASSETS_DIGEST),
+                        store,
+                        assetChecksum.substring(0,8),
+                        progress
+                );
+                installation.complete(null);
+            } catch(Throwable e) {
+                installation.completeExceptionally(e);
             }
-        }
+        }, "asset-install");
+        installer.setDaemon(true);
+        installer.start();
 
-        loadingScreen.render("Unpacking assets...");
-        unTar(saveAtPath, assetPackDirectory);
-        File unTarredDirectory = new File(Paths.get(assetPackDirectory, "assets").toString());
-        for(File file: unTarredDirectory.listFiles())
-            FileUtils.moveDirectoryToDirectory(file, new File(assetPackDirectory), false);
-        unTarredDirectory.delete();
-        new File(saveAtPath).delete();
-    }
-
-    public void unTar(String origin, String destination) throws IOException {
-        try (InputStream inputStream = new FileInputStream(origin);
-             BufferedInputStream bufferedInputStream = new BufferedInputStream(inputStream);
-             TarArchiveInputStream tar = new TarArchiveInputStream(new GzipCompressorInputStream(bufferedInputStream))) {
-            ArchiveEntry entry;
-            while ((entry = tar.getNextEntry()) != null) {
-                Path extractTo = Path.of(destination).resolve(entry.getName());
-                if (entry.isDirectory()) {
-                    Files.createDirectories(extractTo);
-                } else {
-                    Files.copy(tar, extractTo);
+        String status = "Downloading new assets...";
+        while(!installation.isDone()) {
+            loadingScreen.render(status);
+            try {
+                // Wakes up on new progress, or periodically to keep the window responsive
+                String next = progress.poll(PROGRESS_POLL_MS, TimeUnit.MILLISECONDS);
+                while(next != null) {
+                    status = next;
+                    next = progress.poll();
                 }
+            } catch(InterruptedException e) {
+                installer.interrupt();
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Asset download interrupted");
             }
         }
+        try {
+            installation.join();
+        } catch(CompletionException e) {
+            if(e.getCause() instanceof IOException ioException) throw ioException;
+            throw e;
+        }
     }
 }
@@ -0,0 +1,100 @@
+package org.uav.logic.assets;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Extracts a gzipped tar stream into the {@link AssetStore} as it arrives, dropping the archive's top level
+ * {@code assets/} directory. Every stored file is appended to the pack's journal, so extracting the same archive again
+ * after an interruption skips the files whose blobs are already stored instead of writing them again.
+ */
+public class AssetPackExtractor {
+    private final AssetStore store;
+    private final String pack;
+    private final Path journalPath;
+    private final Map<String, AssetStore.ManifestEntry> extracted;
+    private int skipped;
+
+    public AssetPackExtractor(AssetStore store, String pack) throws IOException {
+        this.store = store;
+        this.pack = pack;
+        journalPath = store.journalPath(pack);
+        extracted = new LinkedHashMap<>();
+        skipped = 0;
+        if(Files.exists(journalPath)) readJournal();
+    }
+
+    public void extract(InputStream archive) throws IOException {
+        try(var tar = new TarArchiveInputStream(new GzipCompressorInputStream(new BufferedInputStream(archive)));
+            var journal = Files.newBufferedWriter(journalPath, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)
+        ) {
+            TarArchiveEntry entry;
+            while((entry = tar.getNextTarEntry()) != null) {
+                String name = stripRoot(entry.getName());
+                if(name.isEmpty() || entry.isDirectory()) continue;
+                if(Path.of(name).isAbsolute() || Path.of(name).normalize().startsWith(".."))
+                    throw new IOException("Archive entry escapes the asset pack: " + entry.getName());
+                var stored = extracted.get(name);
+                if(stored != null && stored.size() == entry.getSize() && store.hasBlob(stored.hash())) {
+                    skipped++;
+                    continue;
+                }
+                var storedEntry = new AssetStore.ManifestEntry(store.putBlob(tar), entry.getSize(), name);
+                extracted.put(name, storedEntry);
+                journal.write(storedEntry.toLine());
+                journal.newLine();
+                journal.flush();
+            }
+            // Read the tar padding and gzip trailer too, so a digest over the archive stream sees every byte
+            archive.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    /**
+     * @return files left untouched because an earlier, interrupted extraction had already stored them
+     */
+    public int getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Turns the journal into the pack's manifest once the archive has been verified.
+     */
+    public void complete() throws IOException {
+        // Rewritten because a resumed journal may list a file twice
+        try(var journal = Files.newBufferedWriter(journalPath, StandardCharsets.UTF_8)) {
+            for(var entry : extracted.values()) {
+                journal.write(entry.toLine());
+                journal.newLine();
+            }
+        }
+        store.commitManifest(pack);
+    }
+
+    private void readJournal() throws IOException {
+        for(String line : Files.readAllLines(journalPath, StandardCharsets.UTF_8)) {
+            try {
+                var entry = AssetStore.ManifestEntry.parse(line);
+                extracted.put(entry.path(), entry);
+            } catch(IllegalArgumentException ignored) {
+                // A line torn by the interruption; its file is simply stored again
+            }
+        }
+    }
+
+    private static String stripRoot(String name) {
+        if(name.startsWith("./")) name = name.substring(2);
+        int separator = name.indexOf('/');
+        return separator < 0 ? "" : name.substring(separator + 1);
+    }
+}
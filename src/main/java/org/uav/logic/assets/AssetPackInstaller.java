@@ -0,0 +1,129 @@
+package org.uav.logic.assets;
+
+import javax.annotation.Nullable;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Downloads an asset pack archive with parallel range requests and pipes it straight through extraction into the
+ * {@link AssetStore}, without ever writing the archive itself to disk.
+ * <p>
+ * The checksum the server reports is the release tag the archive is published under, not a digest of it, so the
+ * archive is verified against the SHA-256 digest published next to it, in {@code sha256sum} format. Releases that
+ * publish no digest are installed unverified; a pack whose published digest cannot be read or does not match is not
+ * installed.
+ */
+public class AssetPackInstaller {
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final int DIGEST_HEX_LENGTH = 64;
+    private static final int MAX_DIGEST_FILE_BYTES = 1024;
+
+    private final int connections;
+    private final int chunkSizeBytes;
+    private final int timeoutMs;
+
+    public AssetPackInstaller(int connections, int chunkSizeBytes, int timeoutMs) {
+        this.connections = connections;
+        this.chunkSizeBytes = chunkSizeBytes;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Stores the archive's files in the asset store, verifies the archive against its published digest and only then
+     * commits the pack's manifest and materializes its directory. A journal left by an interrupted run is resumed.
+     * @param digestUrl location of the archive's SHA-256 digest, which the release may not have
+     * @param progress receives human-readable progress messages as the download advances
+     */
+    public void install(URL downloadUrl, URL digestUrl, AssetStore store, String pack, BlockingQueue<String> progress) throws IOException {
+        String expectedDigest = fetchDigest(digestUrl);
+        if(expectedDigest == null)
+            System.err.println("No asset pack digest at " + digestUrl + ", installing " + pack + " unverified");
+        var digest = newDigest();
+        var extractor = new AssetPackExtractor(store, pack);
+        try(var download = RangedHttpInputStream.open(downloadUrl, connections, chunkSizeBytes, timeoutMs)) {
+            InputStream archive = new ProgressInputStream(download, download.getLength(), progress);
+            extractor.extract(new DigestInputStream(archive, digest));
+        }
+        if(expectedDigest != null && !HexFormat.of().formatHex(digest.digest()).equalsIgnoreCase(expectedDigest)) {
+            store.discardJournal(pack);
+            throw new IOException("Downloaded asset pack does not match its published digest " + expectedDigest);
+        }
+        extractor.complete();
+        progress.add("Installing assets...");
+        store.materialize(pack);
+    }
+
+    // The first token of the file, as written by sha256sum, or null if there is no such file
+    @Nullable
+    private String fetchDigest(URL digestUrl) throws IOException {
+        var connection = digestUrl.openConnection();
+        connection.setConnectTimeout(timeoutMs);
+        connection.setReadTimeout(timeoutMs);
+        String contents;
+        try(var input = connection.getInputStream()) {
+            contents = new String(input.readNBytes(MAX_DIGEST_FILE_BYTES), StandardCharsets.US_ASCII).strip();
+        } catch(FileNotFoundException e) {
+            return null;
+        }
+        String digest = contents.split("\\s+", 2)[0];
+        if(digest.length() != DIGEST_HEX_LENGTH || !digest.chars().allMatch(c -> Character.digit(c, 16) >= 0))
+            throw new IOException("Asset pack digest at " + digestUrl + " is not a " + DIGEST_ALGORITHM + " digest");
+        return digest;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch(NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class ProgressInputStream extends FilterInputStream {
+        private static final int BYTE_STEP = 100_000;
+        private final long totalBytes;
+        private final BlockingQueue<String> progress;
+        private long readBytes;
+        private long lastStep;
+
+        ProgressInputStream(InputStream in, long totalBytes, BlockingQueue<String> progress) {
+            super(in);
+            this.totalBytes = totalBytes;
+            this.progress = progress;
+            readBytes = 0;
+            lastStep = 0;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if(read != -1) advance(1);
+            return read;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int count) throws IOException {
+            int read = super.read(buffer, offset, count);
+            if(read > 0) advance(read);
+            return read;
+        }
+
+        private void advance(int bytes) {
+            readBytes += bytes;
+            if(readBytes - lastStep < BYTE_STEP) return;
+            lastStep = readBytes;
+            float currentMb = (float) (readBytes / 100_000) / 10;
+            String total = totalBytes > 0 ? "/" + (float) (totalBytes / 100_000) / 10 : "";
+            progress.add("Downloading new assets... " + currentMb + total + " MB");
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package org.uav.logic.assets;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed storage shared by all asset packs. Every distinct file is kept once as a blob named after its
+ * SHA-256 under {@code store/blobs}; a pack is a manifest under {@code store/manifests} listing which blob sits at which
+ * path. Packs are materialized as {@code <assetsDirectory>/<pack>} directories of hard links to the blobs, falling back
+ * to copies where the file system has no hard links. The modification time of a manifest records when its pack was
+ * last used, which drives least-recently-used eviction.
+ */
+public class AssetStore {
+    public static final String MANIFEST_SUFFIX = ".manifest";
+    public static final String JOURNAL_SUFFIX = ".journal";
+    public static final String PARTIAL_SUFFIX = ".partial";
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private final Path assetsDirectory;
+    private final Path blobsDirectory;
+    private final Path manifestsDirectory;
+    private final Path temporaryDirectory;
+
+    public record ManifestEntry(String hash, long size, String path) {
+        public static ManifestEntry parse(String line) {
+            String[] fields = line.split(" ", 3);
+            if(fields.length != 3) throw new IllegalArgumentException("Malformed manifest line: " + line);
+            return new ManifestEntry(fields[0], Long.parseLong(fields[1]), fields[2]);
+        }
+
+        public String toLine() {
+            return hash + " " + size + " " + path;
+        }
+    }
+
+    public AssetStore(Path assetsDirectory) throws IOException {
+        this.assetsDirectory = assetsDirectory.toAbsolutePath().normalize();
+        Path storeDirectory = this.assetsDirectory.resolve("store");
+        blobsDirectory = storeDirectory.resolve("blobs");
+        manifestsDirectory = storeDirectory.resolve("manifests");
+        temporaryDirectory = storeDirectory.resolve("tmp");
+        Files.createDirectories(blobsDirectory);
+        Files.createDirectories(manifestsDirectory);
+        Files.createDirectories(temporaryDirectory);
+    }
+
+    public Path packDirectory(String pack) {
+        return assetsDirectory.resolve(pack);
+    }
+
+    public Path journalPath(String pack) {
+        return manifestsDirectory.resolve(pack + JOURNAL_SUFFIX);
+    }
+
+    /**
+     * A pack is present once its manifest is committed and every blob it lists is still in the store.
+     */
+    public boolean hasPack(String pack) throws IOException {
+        Path manifest = manifestPath(pack);
+        if(!Files.exists(manifest)) return false;
+        for(var entry : readEntries(manifest))
+            if(!hasBlob(entry.hash())) return false;
+        return true;
+    }
+
+    public boolean hasBlob(String hash) {
+        return Files.exists(blobPath(hash));
+    }
+
+    /**
+     * Stores the stream's content unless an identical blob already exists.
+     * @return hash naming the blob
+     */
+    public String putBlob(InputStream content) throws IOException {
+        Path temporary = Files.createTempFile(temporaryDirectory, "blob", null);
+        try {
+            var digest = newDigest();
+            try(OutputStream out = new DigestOutputStream(Files.newOutputStream(temporary), digest)) {
+                content.transferTo(out);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path blob = blobPath(hash);
+            if(!Files.exists(blob)) {
+                Files.createDirectories(blob.getParent());
+                Files.move(temporary, blob, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return hash;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    public void commitManifest(String pack) throws IOException {
+        Files.move(journalPath(pack), manifestPath(pack), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public void discardJournal(String pack) throws IOException {
+        Files.deleteIfExists(journalPath(pack));
+    }
+
+    /**
+     * Links the pack's blobs into its directory unless it is already there.
+     */
+    public void materialize(String pack) throws IOException {
+        Path directory = packDirectory(pack);
+        if(Files.isDirectory(directory)) return;
+        Path partial = Paths.get(directory + PARTIAL_SUFFIX);
+        FileUtils.deleteDirectory(partial.toFile());
+        for(var entry : readEntries(manifestPath(pack))) {
+            Path link = resolveInside(partial, entry.path());
+            Files.createDirectories(link.getParent());
+            try {
+                Files.createLink(link, blobPath(entry.hash()));
+            } catch(UnsupportedOperationException | FileSystemException e) {
+                Files.copy(blobPath(entry.hash()), link);
+            }
+        }
+        Files.move(partial, directory, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Pack directories that predate the store and so have no manifest yet. Nothing counts them against the budget or
+     * evicts them until they are adopted.
+     */
+    public List<String> legacyPacks() throws IOException {
+        var packs = new ArrayList<String>();
+        try(Stream<Path> list = Files.list(assetsDirectory)) {
+            for(Path path : list.toList()) {
+                String name = path.getFileName().toString();
+                if(!Files.isDirectory(path) || path.equals(blobsDirectory.getParent()) || name.endsWith(PARTIAL_SUFFIX)) continue;
+                if(!Files.exists(manifestPath(name))) packs.add(name);
+            }
+        }
+        Collections.sort(packs);
+        return packs;
+    }
+
+    /**
+     * Moves the files of a pack directory that predates the store into it, leaving links in their place. The pack
+     * counts as last used when its directory was last modified.
+     */
+    public void adopt(String pack) throws IOException {
+        Path directory = packDirectory(pack);
+        FileTime lastUsed = Files.getLastModifiedTime(directory);
+        List<Path> files;
+        try(Stream<Path> walk = Files.walk(directory)) {
+            files = walk.filter(Files::isRegularFile).toList();
+        }
+        try(BufferedWriter journal = Files.newBufferedWriter(journalPath(pack), StandardCharsets.UTF_8)) {
+            for(Path file : files) {
+                String hash;
+                try(var content = Files.newInputStream(file)) {
+                    hash = putBlob(content);
+                }
+                long size = Files.size(file);
+                Files.delete(file);
+                try {
+                    Files.createLink(file, blobPath(hash));
+                } catch(UnsupportedOperationException | FileSystemException e) {
+                    Files.copy(blobPath(hash), file);
+                }
+                String path = directory.relativize(file).toString().replace(directory.getFileSystem().getSeparator(), "/");
+                journal.write(new ManifestEntry(hash, size, path).toLine());
+                journal.newLine();
+            }
+        }
+        commitManifest(pack);
+        Files.setLastModifiedTime(manifestPath(pack), lastUsed);
+    }
+
+    /**
+     * Marks the pack as the most recently used one.
+     */
+    public void touch(String pack) throws IOException {
+        Files.setLastModifiedTime(manifestPath(pack), FileTime.fromMillis(System.currentTimeMillis()));
+    }
+
+    /**
+     * Deletes blobs no pack refers to, then removes least recently used packs other than {@code keepPack} until the
+     * blobs fit in {@code budgetBytes}.
+     * @return number of evicted packs
+     */
+    public int evict(long budgetBytes, String keepPack) throws IOException {
+        var referenceCounts = new HashMap<String, Integer>();
+        var manifests = new ArrayList<Path>();
+        try(Stream<Path> list = Files.list(manifestsDirectory)) {
+            for(Path path : list.toList()) {
+                String name = path.getFileName().toString();
+                // Journals of interrupted downloads keep their blobs so the download can resume
+                if(!name.endsWith(MANIFEST_SUFFIX) && !name.endsWith(JOURNAL_SUFFIX)) continue;
+                for(var entry : readEntries(path)) referenceCounts.merge(entry.hash(), 1, Integer::sum);
+                if(name.endsWith(MANIFEST_SUFFIX)) manifests.add(path);
+            }
+        }
+
+        long usage = 0;
+        try(Stream<Path> walk = Files.walk(blobsDirectory)) {
+            for(Path blob : walk.filter(Files::isRegularFile).toList()) {
+                if(referenceCounts.containsKey(blob.getFileName().toString())) usage += Files.size(blob);
+                else Files.delete(blob);
+            }
+        }
+
+        manifests.sort(Comparator.comparing(AssetStore::lastModified));
+        int evicted = 0;
+        for(Path manifest : manifests) {
+            if(usage <= budgetBytes) break;
+            String name = manifest.getFileName().toString();
+            String pack = name.substring(0, name.length() - MANIFEST_SUFFIX.length());
+            if(pack.equals(keepPack)) continue;
+            var entries = readEntries(manifest);
+            FileUtils.deleteDirectory(packDirectory(pack).toFile());
+            Files.delete(manifest);
+            for(var entry : entries) {
+                if(referenceCounts.merge(entry.hash(), -1, Integer::sum) > 0) continue;
+                Path blob = blobPath(entry.hash());
+                if(Files.exists(blob)) {
+                    usage -= Files.size(blob);
+                    Files.delete(blob);
+                }
+            }
+            evicted++;
+        }
+        return evicted;
+    }
+
+    public static List<ManifestEntry> readEntries(Path manifest) throws IOException {
+        var entries = new ArrayList<ManifestEntry>();
+        for(String line : Files.readAllLines(manifest, StandardCharsets.UTF_8))
+            if(!line.isBlank()) entries.add(ManifestEntry.parse(line));
+        return entries;
+    }
+
+    private Path manifestPath(String pack) {
+        return manifestsDirectory.resolve(pack + MANIFEST_SUFFIX);
+    }
+
+    private Path blobPath(String hash) {
+        return blobsDirectory.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    static Path resolveInside(Path directory, String path) throws IOException {
+        Path resolved = directory.resolve(path).normalize();
+        if(!resolved.startsWith(directory)) throw new IOException("Asset path escapes the pack: " + path);
+        return resolved;
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch(IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch(NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
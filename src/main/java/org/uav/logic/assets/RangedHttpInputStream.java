@@ -0,0 +1,186 @@
+package org.uav.logic.assets;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads a remote file as parallel HTTP range requests while handing the bytes out strictly in order, so it can be
+ * piped straight into a decompressor. At most {@code 2 * connections} chunks are in flight or buffered ahead of the
+ * reader. Servers that do not advertise range support are read with a single plain request instead.
+ */
+public class RangedHttpInputStream extends InputStream {
+    private static final int READ_AHEAD_PER_CONNECTION = 2;
+    private static final int ATTEMPTS = 3;
+
+    private final URL url;
+    private final long length;
+    private final int chunkSize;
+    private final int timeoutMs;
+    @Nullable
+    private final ExecutorService fetchers;
+    private final ArrayDeque<Future<byte[]>> pending;
+    private final int readAhead;
+    @Nullable
+    private InputStream single;
+    private long nextChunkStart;
+    private byte[] chunk;
+    private int chunkPosition;
+    private volatile long position;
+
+    private RangedHttpInputStream(URL url, long length, boolean ranged, int connections, int chunkSize, int timeoutMs) throws IOException {
+        this.url = url;
+        this.length = length;
+        this.chunkSize = chunkSize;
+        this.timeoutMs = timeoutMs;
+        pending = new ArrayDeque<>();
+        readAhead = READ_AHEAD_PER_CONNECTION * connections;
+        nextChunkStart = 0;
+        chunk = new byte[0];
+        chunkPosition = 0;
+        position = 0;
+        if(ranged) {
+            var threadNumber = new AtomicInteger();
+            fetchers = Executors.newFixedThreadPool(connections, runnable -> {
+                var thread = new Thread(runnable, "asset-download-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            single = null;
+            fillReadAhead();
+        } else {
+            fetchers = null;
+            single = connect(url, timeoutMs).getInputStream();
+        }
+    }
+
+    /**
+     * Resolves redirects and the file size with a HEAD request before any data is fetched.
+     */
+    public static RangedHttpInputStream open(URL url, int connections, int chunkSize, int timeoutMs) throws IOException {
+        var head = connect(url, timeoutMs);
+        head.setRequestMethod("HEAD");
+        if(head.getResponseCode() != HttpURLConnection.HTTP_OK) {
+            // Some servers refuse HEAD; a plain request still reports any real error
+            head.disconnect();
+            return new RangedHttpInputStream(url, -1, false, 1, chunkSize, timeoutMs);
+        }
+        var resolvedUrl = head.getURL();
+        long length = head.getContentLengthLong();
+        boolean ranged = length > 0 && "bytes".equalsIgnoreCase(head.getHeaderField("Accept-Ranges")) && connections > 1;
+        head.disconnect();
+        return new RangedHttpInputStream(resolvedUrl, length, ranged, Math.max(connections, 1), chunkSize, timeoutMs);
+    }
+
+    /**
+     * @return size of the remote file, or -1 if the server did not report it
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * @return bytes handed out to the reader so far; safe to call from any thread
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        return read(one, 0, 1) == -1 ? -1 : one[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int count) throws IOException {
+        if(count == 0) return 0;
+        if(single != null) {
+            int read = single.read(buffer, offset, count);
+            if(read > 0) position += read;
+            return read;
+        }
+        if(chunkPosition == chunk.length && !nextChunk()) return -1;
+        int read = Math.min(count, chunk.length - chunkPosition);
+        System.arraycopy(chunk, chunkPosition, buffer, offset, read);
+        chunkPosition += read;
+        position += read;
+        return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if(fetchers != null) {
+            pending.forEach(future -> future.cancel(true));
+            pending.clear();
+            fetchers.shutdownNow();
+        }
+        if(single != null) single.close();
+    }
+
+    private boolean nextChunk() throws IOException {
+        var next = pending.poll();
+        if(next == null) return false;
+        try {
+            chunk = next.get();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Asset download interrupted");
+        } catch(ExecutionException e) {
+            if(e.getCause() instanceof IOException ioException) throw ioException;
+            throw new IOException(e.getCause());
+        }
+        chunkPosition = 0;
+        fillReadAhead();
+        return true;
+    }
+
+    private void fillReadAhead() {
+        while(pending.size() < readAhead && nextChunkStart < length) {
+            long start = nextChunkStart;
+            long end = Math.min(start + chunkSize, length);
+            pending.add(fetchers.submit(() -> fetchRange(start, end)));
+            nextChunkStart = end;
+        }
+    }
+
+    private byte[] fetchRange(long start, long end) throws IOException {
+        IOException failure = null;
+        for(int attempt = 0; attempt < ATTEMPTS; attempt++) {
+            var connection = connect(url, timeoutMs);
+            connection.setRequestProperty("Range", "bytes=" + start + "-" + (end - 1));
+            try {
+                int status = connection.getResponseCode();
+                if(status != HttpURLConnection.HTTP_PARTIAL)
+                    throw new IOException("Server ignored range request with HTTP status " + status);
+                try(var stream = connection.getInputStream()) {
+                    byte[] bytes = stream.readNBytes((int) (end - start));
+                    if(bytes.length == end - start) return bytes;
+                    failure = new IOException("Range " + start + "-" + end + " ended after " + bytes.length + " bytes");
+                }
+            } catch(IOException e) {
+                if(Thread.currentThread().isInterrupted()) throw e;
+                failure = e;
+            } finally {
+                connection.disconnect();
+            }
+        }
+        throw failure;
+    }
+
+    private static HttpURLConnection connect(URL url, int timeoutMs) throws IOException {
+        var connection = (HttpURLConnection) url.openConnection();
+        connection.setConnectTimeout(timeoutMs);
+        connection.setReadTimeout(timeoutMs);
+        return connection;
+    }
+}
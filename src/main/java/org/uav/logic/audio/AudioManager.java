@@ -1,9 +1,11 @@
 package org.uav.logic.audio;
 
 import org.joml.Matrix3f;
+import org.joml.Quaternionf;
 import org.joml.Vector3f;
 import org.uav.logic.config.Config;
 import org.uav.logic.config.DroneParameters;
+import org.uav.logic.state.drone.DroneStateStore;
 import org.uav.logic.state.simulation.SimulationState;
 import org.uav.presentation.entity.camera.Camera;
 
@@ -45,18 +47,21 @@ public class AudioManager {
     }
 
     public void update(SimulationState simulationState) {
-        var drone = simulationState.getPlayerDrone();
-        if(drone.isPresent()) {
-            var droneStatus = drone.get().droneStatus;
-            var oms = droneStatus.propellersRadps;
-            for(int i=0; i<propellerSounds.size() && i<oms.size(); i++) {
+        int slot = simulationState.getPlayerDroneSlot();
+        if(slot != DroneStateStore.NO_SLOT) {
+            var drones = simulationState.getDronesInAir();
+            var droneRotation = drones.getRotation(slot, new Quaternionf());
+            var dronePosition = drones.getPosition(slot, new Vector3f());
+            var droneVelocity = drones.getLinearVelocity(slot, new Vector3f());
+            int propellerCount = drones.getPropellerCount(slot);
+            for(int i=0; i<propellerSounds.size() && i<propellerCount; i++) {
                 var propellerSound = propellerSounds.get(i);
-                var om = oms.get(i);
-                var propellerOffset = new Vector3f(propellerOffsets.get(i)).mul(new Matrix3f().rotate(droneStatus.rotation));
-                propellerSound.setGain(om*0.001f * soundVolumeMultiplier / oms.size());
+                var om = drones.getPropellerRadps(slot, i);
+                var propellerOffset = new Vector3f(propellerOffsets.get(i)).mul(new Matrix3f().rotate(droneRotation));
+                propellerSound.setGain(om*0.001f * soundVolumeMultiplier / propellerCount);
                 propellerSound.setPitch(0.5f + om*0.001f);
-                propellerSound.setPosition(new Vector3f(droneStatus.position).add(propellerOffset));
-                propellerSound.setVelocity(droneStatus.linearVelocity);
+                propellerSound.setPosition(new Vector3f(dronePosition).add(propellerOffset));
+                propellerSound.setVelocity(droneVelocity);
             }
             // Od 0 do 1000
 
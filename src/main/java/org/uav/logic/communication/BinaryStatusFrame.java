@@ -0,0 +1,159 @@
+package org.uav.logic.communication;
+
+import org.uav.logic.state.drone.DroneStatus;
+import org.uav.logic.state.projectile.ProjectileStatus;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Collection;
+
+/**
+ * Fixed layout, little-endian alternative to the CSV droneStatuses and projectileStatuses frames.
+ * <pre>
+ * header:     u8 0x00 marker, u8 frame type, u16 version, u32 sequence, i32 record count
+ * drone:      i32 id, f32 time, f32 x y z, f32 qw qx qy qz, f32 vx vy vz, f32 wx wy wz, i32 n, f32 om[n]
+ * projectile: i32 id, f32 x y z, f32 vx vy vz
+ * </pre>
+ * A drone delta frame carries only the drones that changed since the previous frame and ends with
+ * {@code i32 n, i32 despawnedId[n]}; the full drone statuses frame serves as its keyframe. The sequence counts the
+ * frames of a stream, wrapping around, so a subscriber can tell when a delta was lost on the way.
+ * CSV frames never contain a zero byte, so the first byte tells the formats apart frame by frame.
+ */
+public class BinaryStatusFrame {
+    public static final byte MARKER = 0;
+    public static final byte DRONE_STATUSES = 1;
+    public static final byte PROJECTILE_STATUSES = 2;
+    public static final byte DRONE_DELTA = 3;
+    public static final short VERSION = 2;
+    public static final int HEADER_BYTES = 12;
+    public static final int DRONE_RECORD_BYTES = 64;
+    public static final int PROJECTILE_RECORD_BYTES = 28;
+
+    private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle SHORT = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle FLOAT = MethodHandles.byteArrayViewVarHandle(float[].class, ByteOrder.LITTLE_ENDIAN);
+
+    public static boolean isBinary(byte[] frame, int offset, int length) {
+        return length > 0 && frame[offset] == MARKER;
+    }
+
+    /**
+     * CSV frames and full binary frames are keyframes; a drone delta frame depends on the frames before it.
+     */
+    public static boolean isKeyframe(byte[] frame) {
+        return !isBinary(frame, 0, frame.length) || frame.length < 2 || frame[1] != DRONE_DELTA;
+    }
+
+    /**
+     * Validates the header and returns the number of records that follow it.
+     */
+    public static int readHeader(byte[] frame, int offset, int length, byte frameType) {
+        if(length < HEADER_BYTES || frame[offset] != MARKER)
+            throw new IllegalArgumentException("Not a binary status frame");
+        if(frame[offset + 1] != frameType)
+            throw new IllegalArgumentException("Unexpected binary frame type " + frame[offset + 1]);
+        short version = (short) SHORT.get(frame, offset + 2);
+        if(version != VERSION)
+            throw new IllegalArgumentException("Unsupported binary frame version " + version);
+        return readInt(frame, offset + 8);
+    }
+
+    public static int readSequence(byte[] frame, int offset) {
+        return readInt(frame, offset + 4);
+    }
+
+    public static int readInt(byte[] frame, int offset) {
+        return (int) INT.get(frame, offset);
+    }
+
+    public static float readFloat(byte[] frame, int offset) {
+        return (float) FLOAT.get(frame, offset);
+    }
+
+    public static byte[] encodeDroneStatuses(Collection<DroneStatus> drones, int sequence) {
+        byte[] frame = new byte[droneStatusesLength(drones)];
+        writeDroneRecords(frame, DRONE_STATUSES, sequence, drones);
+        return frame;
+    }
+
+    /**
+     * Writes the drone statuses frame to the start of {@code frame}, which has to hold
+     * {@link #droneStatusesLength} bytes.
+     * @return frame length
+     */
+    public static int encodeDroneStatuses(Collection<DroneStatus> drones, int sequence, byte[] frame) {
+        return writeDroneRecords(frame, DRONE_STATUSES, sequence, drones);
+    }
+
+    public static byte[] encodeDroneDelta(Collection<DroneStatus> changedDrones, int[] despawnedIds, int sequence) {
+        byte[] frame = new byte[droneStatusesLength(changedDrones) + Integer.BYTES * (1 + despawnedIds.length)];
+        int offset = writeDroneRecords(frame, DRONE_DELTA, sequence, changedDrones);
+        INT.set(frame, offset, despawnedIds.length);
+        for(int id : despawnedIds) {
+            offset += Integer.BYTES;
+            INT.set(frame, offset, id);
+        }
+        return frame;
+    }
+
+    public static int droneStatusesLength(Collection<DroneStatus> drones) {
+        int length = HEADER_BYTES;
+        for(var drone : drones)
+            length += DRONE_RECORD_BYTES + Float.BYTES * drone.propellersRadps.length;
+        return length;
+    }
+
+    private static int writeDroneRecords(byte[] frame, byte frameType, int sequence, Collection<DroneStatus> drones) {
+        int offset = writeHeader(frame, frameType, sequence, drones.size());
+        for(var drone : drones) {
+            INT.set(frame, offset, drone.id);
+            FLOAT.set(frame, offset + 4, drone.time);
+            FLOAT.set(frame, offset + 8, drone.position.x);
+            FLOAT.set(frame, offset + 12, drone.position.y);
+            FLOAT.set(frame, offset + 16, drone.position.z);
+            FLOAT.set(frame, offset + 20, drone.rotation.w);
+            FLOAT.set(frame, offset + 24, drone.rotation.x);
+            FLOAT.set(frame, offset + 28, drone.rotation.y);
+            FLOAT.set(frame, offset + 32, drone.rotation.z);
+            FLOAT.set(frame, offset + 36, drone.linearVelocity.x);
+            FLOAT.set(frame, offset + 40, drone.linearVelocity.y);
+            FLOAT.set(frame, offset + 44, drone.linearVelocity.z);
+            FLOAT.set(frame, offset + 48, drone.angularVelocity.x);
+            FLOAT.set(frame, offset + 52, drone.angularVelocity.y);
+            FLOAT.set(frame, offset + 56, drone.angularVelocity.z);
+            INT.set(frame, offset + 60, drone.propellersRadps.length);
+            offset += DRONE_RECORD_BYTES;
+            for(float radps : drone.propellersRadps) {
+                FLOAT.set(frame, offset, radps);
+                offset += Float.BYTES;
+            }
+        }
+        return offset;
+    }
+
+    public static byte[] encodeProjectileStatuses(Collection<ProjectileStatus> projectiles, int sequence) {
+        byte[] frame = new byte[HEADER_BYTES + PROJECTILE_RECORD_BYTES * projectiles.size()];
+        int offset = writeHeader(frame, PROJECTILE_STATUSES, sequence, projectiles.size());
+        for(var projectile : projectiles) {
+            INT.set(frame, offset, projectile.id);
+            FLOAT.set(frame, offset + 4, projectile.position.x);
+            FLOAT.set(frame, offset + 8, projectile.position.y);
+            FLOAT.set(frame, offset + 12, projectile.position.z);
+            FLOAT.set(frame, offset + 16, projectile.velocity.x);
+            FLOAT.set(frame, offset + 20, projectile.velocity.y);
+            FLOAT.set(frame, offset + 24, projectile.velocity.z);
+            offset += PROJECTILE_RECORD_BYTES;
+        }
+        return frame;
+    }
+
+    private static int writeHeader(byte[] frame, byte frameType, int sequence, int count) {
+        frame[0] = MARKER;
+        frame[1] = frameType;
+        SHORT.set(frame, 2, VERSION);
+        INT.set(frame, 4, sequence);
+        INT.set(frame, 8, count);
+        return HEADER_BYTES;
+    }
+}
@@ -10,24 +10,42 @@ import org.uav.logic.state.simulation.SimulationState;
 import org.zeromq.SocketType;
 import org.zeromq.ZContext;
 import org.zeromq.ZMQ;
+import org.zeromq.ZMQException;
 import zmq.ZError;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Outbound channel of a single drone. All socket traffic happens on a dedicated I/O thread so a slow server never
+ * stalls the caller: joystick states are coalesced to the newest one, utils commands are queued and answered through
+ * futures, and heartbeats run on their own schedule. A socket failure drops the connection like a timeout does; a
+ * malformed reply is reported and skipped.
+ */
 public class DroneCommunication {
 
+    private static final String HEART_BEAT_MSG = "beep";
+    private static final String DEAD_DRONE_REPLY = "ok;";
+
     @Getter
     private final int id;
+    private final ZContext context;
     private final ZMQ.Socket steerSocket;
     private final ZMQ.Socket utilsSocket;
     private final SimulationState simulationState;
     private final AvailableControlModes availableControlModes;
+    private final DroneIoThread ioThread;
+    private final AtomicReference<String> pendingJoystickCommand;
+    private final AtomicBoolean closed;
+    private boolean connectionLost;
     @Getter @Setter
-    private FlightStatus flightStatus;
+    private volatile FlightStatus flightStatus;
 
     public DroneCommunication(
             ZContext context,
@@ -40,6 +58,7 @@ public class DroneCommunication {
     ) {
         this.simulationState = simulationState;
         this.availableControlModes = availableControlModes;
+        this.context = context;
         id = droneId;
 
         steerSocket = context.createSocket(SocketType.REQ);
@@ -55,18 +74,73 @@ public class DroneCommunication {
         utilsSocket.connect(address2);
 
         flightStatus = FlightStatus.INIT;
+        pendingJoystickCommand = new AtomicReference<>();
+        closed = new AtomicBoolean(false);
+        connectionLost = false;
+        ioThread = new DroneIoThread("drone-" + droneId + "-io");
+        ioThread.scheduleAtFixedRate(this::sustainHeartBeat, config.getServerSettings().getHeartBeatIntervalMs());
+    }
+
+    /**
+     * Replaces the joystick state waiting to be sent; states superseded before the I/O thread gets to them are never sent.
+     */
+    public void sendJoystickCommand(String command) {
+        if(flightStatus == FlightStatus.DEAD) return;
+        if(pendingJoystickCommand.getAndSet(command) == null)
+            ioThread.execute(this::flushJoystickCommand);
     }
 
     public void sendSteeringCommand(String command) {
         if(flightStatus == FlightStatus.DEAD) return;
+        ioThread.execute(() -> exchangeSteeringCommand(command));
+    }
+
+    public CompletableFuture<String> sendUtilsCommand(String command) {
+        if(flightStatus == FlightStatus.DEAD) return CompletableFuture.completedFuture(DEAD_DRONE_REPLY);
+        return ioThread.call(() -> exchangeUtilsCommand(command), DEAD_DRONE_REPLY);
+    }
+
+    /**
+     * Lets the commands queued so far go out, then closes the sockets and stops the I/O thread.
+     */
+    public void close() {
+        if(!closed.compareAndSet(false, true)) return;
+        ioThread.execute(() -> {
+            context.destroySocket(steerSocket);
+            context.destroySocket(utilsSocket);
+        });
+        ioThread.shutdown();
+    }
+
+    private void sustainHeartBeat() {
+        if(flightStatus == FlightStatus.DEAD) return;
+        exchangeUtilsCommand(HEART_BEAT_MSG);
+    }
+
+    private void flushJoystickCommand() {
+        exchangeSteeringCommand(pendingJoystickCommand.getAndSet(null));
+    }
+
+    private void exchangeSteeringCommand(String command) {
+        if(connectionLost) return;
+        String message;
         try {
             if (!steerSocket.send(command.getBytes(ZMQ.CHARSET), 0)) checkDroneErrno(steerSocket);
             byte[] reply = steerSocket.recv(0);
             if (reply == null) checkDroneErrno(steerSocket);
-            String message = new String(reply, ZMQ.CHARSET);
-            parseSteeringCommand(message);
+            message = new String(reply, ZMQ.CHARSET);
         } catch (DroneTimeoutException e) {
-            simulationState.setCurrentlyControlledDrone(null);
+            loseConnection();
+            return;
+        } catch (ZMQException e) {
+            System.err.println("Drone " + id + " steering socket failed: " + e.getMessage());
+            loseConnection();
+            return;
+        }
+        try {
+            parseSteeringCommand(message);
+        } catch (RuntimeException e) {
+            System.err.println("Drone " + id + " sent a malformed steering reply \"" + message + "\": " + e);
         }
     }
 
@@ -74,8 +148,10 @@ public class DroneCommunication {
         int commaIdx = message.indexOf(',');
         commaIdx = commaIdx == -1? message.length(): commaIdx;
         String mode = message.substring(0, commaIdx);
-        if (!mode.equals("ok"))
-            simulationState.setCurrentControlModeDemanded(parseControlModeMessage(mode, message.substring(commaIdx)));
+        if (!mode.equals("ok")) {
+            var demanded = parseControlModeMessage(mode, message.substring(commaIdx));
+            simulationState.getRenderThreadTasks().execute(() -> simulationState.setCurrentControlModeDemanded(demanded));
+        }
     }
 
     private ControlModeDemanded parseControlModeMessage(String mode, String message) {
@@ -91,23 +167,41 @@ public class DroneCommunication {
         return new ControlModeDemanded(mode, demanded);
     }
 
-    public String sendUtilsCommand(String command) {
-        if(flightStatus == FlightStatus.DEAD) return "ok;";
+    private String exchangeUtilsCommand(String command) {
+        if(connectionLost) return DEAD_DRONE_REPLY;
         try {
             if(!utilsSocket.send(command.getBytes(ZMQ.CHARSET), 0)) checkDroneErrno(utilsSocket);
             byte[] reply = utilsSocket.recv(0);
             if(reply == null)  checkDroneErrno(utilsSocket);
             return new String(reply, ZMQ.CHARSET);
         } catch (DroneTimeoutException e) {
-            simulationState.setCurrentlyControlledDrone(null);
-            return "ok;";
+            loseConnection();
+            return DEAD_DRONE_REPLY;
+        } catch (ZMQException e) {
+            System.err.println("Drone " + id + " utils socket failed: " + e.getMessage());
+            loseConnection();
+            return DEAD_DRONE_REPLY;
         }
     }
 
+    private void loseConnection() {
+        connectionLost = true;
+        close();
+        simulationState.getRenderThreadTasks().execute(() -> {
+            if(simulationState.getCurrentlyControlledDrone().orElse(null) == this)
+                simulationState.setCurrentlyControlledDrone(null);
+        });
+    }
+
 
+    /**
+     * Called after a failed send or receive, so it always throws.
+     */
     public static void checkDroneErrno(ZMQ.Socket socket) throws DroneTimeoutException {
-        if(socket.errno() == ZError.EAGAIN)
+        int errno = socket.errno();
+        if(errno == ZError.EAGAIN)
             throw new DroneTimeoutException("Drone communication reached timeout.");
+        throw new ZMQException(errno);
     }
 
     public static class DroneTimeoutException extends Exception {
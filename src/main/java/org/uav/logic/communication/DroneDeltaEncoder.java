@@ -0,0 +1,75 @@
+package org.uav.logic.communication;
+
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+import org.uav.logic.state.drone.DroneStatus;
+
+import java.util.*;
+
+/**
+ * Publisher side of the drone delta stream. Every {@code keyframeInterval}-th frame is a full keyframe; the frames in
+ * between only carry drones whose state drifted more than {@code threshold} from what was last sent, plus despawns.
+ */
+public class DroneDeltaEncoder {
+    private final float threshold;
+    private final int keyframeInterval;
+    private final Map<Integer, DroneStatus> lastSent;
+    private int framesSinceKeyframe;
+    private int sequence;
+
+    public DroneDeltaEncoder(float threshold, int keyframeInterval) {
+        this.threshold = threshold;
+        this.keyframeInterval = keyframeInterval;
+        lastSent = new HashMap<>();
+        framesSinceKeyframe = 0;
+        sequence = 0;
+    }
+
+    public byte[] encode(Collection<DroneStatus> drones) {
+        sequence++;
+        if(framesSinceKeyframe == 0) {
+            lastSent.clear();
+            drones.forEach(drone -> lastSent.put(drone.id, new DroneStatus().set(drone)));
+            framesSinceKeyframe = Math.max(keyframeInterval - 1, 0);
+            return BinaryStatusFrame.encodeDroneStatuses(drones, sequence);
+        }
+        framesSinceKeyframe--;
+
+        var changed = new ArrayList<DroneStatus>();
+        var alive = new HashSet<Integer>();
+        for(var drone : drones) {
+            alive.add(drone.id);
+            var sent = lastSent.get(drone.id);
+            if(sent != null && !exceedsThreshold(sent, drone)) continue;
+            changed.add(drone);
+            if(sent == null) lastSent.put(drone.id, new DroneStatus().set(drone));
+            else sent.set(drone);
+        }
+        int[] despawned = lastSent.keySet().stream().filter(id -> !alive.contains(id)).mapToInt(Integer::intValue).toArray();
+        for(int id : despawned) lastSent.remove(id);
+        return BinaryStatusFrame.encodeDroneDelta(changed, despawned, sequence);
+    }
+
+    private boolean exceedsThreshold(DroneStatus sent, DroneStatus drone) {
+        if(sent.propellersRadps.length != drone.propellersRadps.length) return true;
+        for(int i = 0; i < drone.propellersRadps.length; i++)
+            if(Math.abs(sent.propellersRadps[i] - drone.propellersRadps[i]) > threshold) return true;
+        return exceedsThreshold(sent.position, drone.position) ||
+                exceedsThreshold(sent.rotation, drone.rotation) ||
+                exceedsThreshold(sent.linearVelocity, drone.linearVelocity) ||
+                exceedsThreshold(sent.angularVelocity, drone.angularVelocity);
+    }
+
+    private boolean exceedsThreshold(Vector3f sent, Vector3f current) {
+        return Math.abs(sent.x - current.x) > threshold ||
+                Math.abs(sent.y - current.y) > threshold ||
+                Math.abs(sent.z - current.z) > threshold;
+    }
+
+    private boolean exceedsThreshold(Quaternionf sent, Quaternionf current) {
+        return Math.abs(sent.x - current.x) > threshold ||
+                Math.abs(sent.y - current.y) > threshold ||
+                Math.abs(sent.z - current.z) > threshold ||
+                Math.abs(sent.w - current.w) > threshold;
+    }
+}
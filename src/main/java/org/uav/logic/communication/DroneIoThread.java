@@ -0,0 +1,73 @@
+package org.uav.logic.communication;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Single daemon thread running the socket traffic of one drone. A task that throws is reported and, when a caller
+ * waits for its result, handed to that caller; it never cancels the tasks queued behind it or a periodic task's
+ * later runs, as a bare executor would.
+ */
+class DroneIoThread {
+    private final String name;
+    private final ScheduledExecutorService executor;
+
+    DroneIoThread(String name) {
+        this.name = name;
+        executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            var thread = new Thread(task, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return false if the thread has been shut down
+     */
+    boolean execute(Runnable task) {
+        try {
+            executor.execute(() -> runReported(task));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return future of the task's result, failed with its exception, or holding {@code rejectedValue} if the thread
+     * has been shut down
+     */
+    <T> CompletableFuture<T> call(Supplier<T> task, T rejectedValue) {
+        var result = new CompletableFuture<T>();
+        boolean queued = execute(() -> {
+            try {
+                result.complete(task.get());
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                throw e;
+            }
+        });
+        if(!queued) result.complete(rejectedValue);
+        return result;
+    }
+
+    void scheduleAtFixedRate(Runnable task, long periodMs) {
+        executor.scheduleAtFixedRate(() -> runReported(task), periodMs, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    boolean awaitTermination(long timeoutMs) throws InterruptedException {
+        return executor.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void runReported(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            System.err.println(name + " task failed: " + e);
+        }
+    }
+}
@@ -4,102 +4,192 @@ import org.uav.logic.config.Config;
 import org.uav.logic.state.drone.DroneStatus;
 import org.uav.logic.state.drone.DroneStatuses;
 import org.uav.logic.state.simulation.SimulationState;
-import org.zeromq.SocketType;
-import org.zeromq.ZContext;
-import org.zeromq.ZMQ;
-import org.zeromq.ZMQException;
+import org.uav.utils.TripleBuffer;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Scanner;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.function.Function;
-import java.util.stream.Collectors;
-
-import static org.uav.utils.ZmqUtils.checkErrno;
-
-public class DroneStatusConsumer {
-
-    private final DroneStatuses droneStatuses;
-    private final ReentrantLock droneStatusMutex;
-    private final ZMQ.Socket socket;
-    private final Thread thread;
-
-
-    public DroneStatusConsumer(ZContext context, SimulationState simulationState, Config config) {
-        this.droneStatuses = simulationState.getDroneStatuses();
-        this.droneStatusMutex = simulationState.getDroneStatusesMutex();
-        String address = "tcp://" + config.getServerSettings().getServerAddress() + ":" + config.getPorts().getDroneStatuses();
-        socket = context.createSocket(SocketType.SUB);
-        socket.subscribe("");
-        socket.setSendTimeOut(config.getServerSettings().getServerTimeoutMs());
-        socket.setReceiveTimeOut(config.getServerSettings().getServerTimeoutMs());
-        socket.connect(address);
-        thread = new PositionThread();
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+public class DroneStatusConsumer implements FrameHandler {
+    // Below this size splitting a CSV frame across cores costs more than it saves
+    private static final int PARALLEL_DECODE_THRESHOLD_BYTES = 64 * 1024;
+    // Past this many entries per drone in the air copying the change log costs more than copying every drone
+    private static final int CHANGE_LOG_ENTRIES_PER_DRONE = 4;
+    private static final int MIN_CHANGE_LOG_ENTRIES = 256;
+
+    private final TripleBuffer<DroneStatuses> droneStatusesBuffer;
+    private final DroneStatuses currentStatuses;
+    private final DroneStatusDecoder decoder;
+    private final IngestCounters counters;
+    private final StreamLatency latency;
+    private final boolean conflate;
+    private boolean awaitingKeyframe;
+    private int frameSequence;
+    // Ids of the drones each applied frame changed, in order, covering every frame after changeLogStart
+    private int[] changedIds;
+    private long[] changedSequences;
+    private int changedCount;
+    private long changeLogStart;
+    // Buffers of the triple buffer seen so far
+    private final Set<DroneStatuses> snapshots;
+
+    public DroneStatusConsumer(SimulationState simulationState, Config config) {
+        this.droneStatusesBuffer = simulationState.getDroneStatusesBuffer();
+        currentStatuses = new DroneStatuses();
+        decoder = new DroneStatusDecoder(ForkJoinPool.commonPool(), PARALLEL_DECODE_THRESHOLD_BYTES);
+        counters = simulationState.getDroneStatusesIngest();
+        latency = simulationState.getDroneStatusesLatency();
+        conflate = config.getServerSettings().getConflateIngest();
+        awaitingKeyframe = true;
+        frameSequence = 0;
+        changedIds = new int[MIN_CHANGE_LOG_ENTRIES];
+        changedSequences = new long[MIN_CHANGE_LOG_ENTRIES];
+        changedCount = 0;
+        changeLogStart = 0;
+        snapshots = Collections.newSetFromMap(new IdentityHashMap<>());
     }
 
-    public void start() {
-        if(!thread.isAlive())
-            thread.start();
+    @Override
+    public void handleFrames(List<byte[]> frames, long receivedNanos) {
+        counters.setQueued(frames.size() - 1);
+        // Deltas have to be applied in order, so frames can only be skipped up to the newest keyframe
+        int first = conflate ? newestKeyframe(frames) : 0;
+        counters.addDropped(first);
+        long previousSequence = currentStatuses.sequence;
+        double serverTimeS = Double.NaN;
+        for(int i = first; i < frames.size(); i++) {
+            int count = decoder.decode(frames.get(i));
+            counters.addParsed(1);
+            if(!acceptDecodedFrame()) {
+                counters.addDropped(1);
+                continue;
+            }
+            applyDecodedStatuses(count);
+            for(int j = 0; j < count; j++)
+                serverTimeS = Double.isNaN(serverTimeS) ? decoder.getSlot(j).time : Math.max(serverTimeS, decoder.getSlot(j).time);
+        }
+        if(currentStatuses.sequence == previousSequence) return;
+        var droneStatuses = droneStatusesBuffer.getWriteBuffer();
+        copyChangedStatuses(droneStatuses);
+        droneStatuses.timing.receivedNanos = receivedNanos;
+        droneStatuses.timing.parsedNanos = System.nanoTime();
+        latency.frameParsed(droneStatuses.timing, serverTimeS);
+        droneStatusesBuffer.publish();
     }
 
-    public void stop() {
-        thread.interrupt();
+    private static int newestKeyframe(List<byte[]> frames) {
+        for(int i = frames.size() - 1; i > 0; i--)
+            if(BinaryStatusFrame.isKeyframe(frames.get(i))) return i;
+        return 0;
     }
 
-    class PositionThread extends Thread {
-        public void run() {
-            while (!Thread.currentThread().isInterrupted()) {
-                try {
-                    byte[] reply = socket.recv(0);
-                    if(reply == null) checkErrno(socket);
-                    String message = new String(reply, ZMQ.CHARSET);
-                    droneStatusMutex.lock();
-                    droneStatuses.map = parse(message).stream()
-                            .collect(Collectors.toMap(drone -> drone.id, Function.identity()));
-                    droneStatusMutex.unlock();
+    // A delta only applies on top of every frame before it, so after a gap in the sequence deltas are skipped until
+    // the next keyframe
+    private boolean acceptDecodedFrame() {
+        int sequence = decoder.getSequence();
+        boolean consecutive = sequence == frameSequence + 1;
+        frameSequence = sequence;
+        if(decoder.isKeyframe()) awaitingKeyframe = false;
+        else if(!consecutive) awaitingKeyframe = true;
+        return !awaitingKeyframe;
+    }
 
-                } catch (ZMQException exception) {
-                    break;
-                }
+    private void applyDecodedStatuses(int count) {
+        long sequence = ++currentStatuses.sequence;
+        var map = currentStatuses.map;
+        for(int i = 0; i < count; i++) {
+            var decoded = decoder.getSlot(i);
+            var status = map.get(decoded.id);
+            if(status == null) {
+                status = new DroneStatus();
+                map.put(decoded.id, status);
+            }
+            status.set(decoded);
+            status.sequence = sequence;
+            logChange(decoded.id, sequence);
+        }
+        if(decoder.isKeyframe()) {
+            // Every drone in a keyframe was just stamped with this sequence, the rest have despawned
+            if(map.size() != count)
+                map.values().removeIf(status -> {
+                    if(status.sequence == sequence) return false;
+                    logChange(status.id, sequence);
+                    return true;
+                });
+        } else {
+            for(int i = 0; i < decoder.getDespawnedCount(); i++) {
+                map.remove(decoder.getDespawned(i));
+                logChange(decoder.getDespawned(i), sequence);
             }
         }
     }
 
-    private List<DroneStatus> parse(String input) {
-        return Arrays.stream(input.split(";")).map(this::toDrone).toList();
+    private void logChange(int droneId, long sequence) {
+        if(changedCount == changedIds.length) {
+            changedIds = Arrays.copyOf(changedIds, 2 * changedCount);
+            changedSequences = Arrays.copyOf(changedSequences, 2 * changedCount);
+        }
+        changedIds[changedCount] = droneId;
+        changedSequences[changedCount++] = sequence;
     }
 
-    private DroneStatus toDrone(String input) {
-        var drone = new DroneStatus();
-        Scanner scanner = new Scanner(input);
-        scanner.useDelimiter(",");
-
-        drone.id = Integer.parseInt(scanner.next());
-
-        drone.time = Float.parseFloat(scanner.next());
-
-        drone.position.x = Float.parseFloat(scanner.next());
-        drone.position.y = Float.parseFloat(scanner.next());
-        drone.position.z = Float.parseFloat(scanner.next());
-
-        drone.rotation.w = Float.parseFloat(scanner.next());
-        drone.rotation.x = Float.parseFloat(scanner.next());
-        drone.rotation.y = Float.parseFloat(scanner.next());
-        drone.rotation.z = Float.parseFloat(scanner.next());
+    // The write buffer holds an older snapshot, so only drones changed since then need copying.
+    private void copyChangedStatuses(DroneStatuses droneStatuses) {
+        snapshots.add(droneStatuses);
+        if(droneStatuses.sequence < changeLogStart) {
+            copyAllStatuses(droneStatuses);
+        } else {
+            int first = 0;
+            while(first < changedCount && changedSequences[first] <= droneStatuses.sequence) first++;
+            for(int i = first; i < changedCount; i++)
+                copyStatus(droneStatuses.map, changedIds[i]);
+        }
+        droneStatuses.sequence = currentStatuses.sequence;
+        trimChangeLog();
+    }
 
-        drone.linearVelocity.x = Float.parseFloat(scanner.next());
-        drone.linearVelocity.y = Float.parseFloat(scanner.next());
-        drone.linearVelocity.z = Float.parseFloat(scanner.next());
+    private void copyStatus(Map<Integer, DroneStatus> map, int droneId) {
+        var current = currentStatuses.map.get(droneId);
+        if(current == null) {
+            map.remove(droneId);
+            return;
+        }
+        var status = map.get(droneId);
+        if(status == null) {
+            status = new DroneStatus();
+            map.put(droneId, status);
+        }
+        status.set(current);
+    }
 
-        drone.angularVelocity.x = Float.parseFloat(scanner.next());
-        drone.angularVelocity.y = Float.parseFloat(scanner.next());
-        drone.angularVelocity.z = Float.parseFloat(scanner.next());
+    private void copyAllStatuses(DroneStatuses droneStatuses) {
+        var map = droneStatuses.map;
+        for(var current : currentStatuses.map.values())
+            if(current.sequence > droneStatuses.sequence) copyStatus(map, current.id);
+        if(map.size() != currentStatuses.map.size())
+            map.keySet().removeIf(id -> !currentStatuses.map.containsKey(id));
+    }
 
-        while (scanner.hasNext()){
-            drone.propellersRadps.add(Float.parseFloat(scanner.next()));
+    // Drops the entries every buffer already reflects. Sequences of buffers held by the render thread are only ever
+    // written here, before they were published.
+    private void trimChangeLog() {
+        if(changedCount > Math.max(MIN_CHANGE_LOG_ENTRIES, CHANGE_LOG_ENTRIES_PER_DRONE * currentStatuses.map.size())) {
+            changedCount = 0;
+            changeLogStart = currentStatuses.sequence;
+            return;
         }
-
-        return drone;
+        long oldest = currentStatuses.sequence;
+        for(var snapshot : snapshots) oldest = Math.min(oldest, snapshot.sequence);
+        int reflected = 0;
+        while(reflected < changedCount && changedSequences[reflected] <= oldest) reflected++;
+        if(reflected == 0) return;
+        System.arraycopy(changedIds, reflected, changedIds, 0, changedCount - reflected);
+        System.arraycopy(changedSequences, reflected, changedSequences, 0, changedCount - reflected);
+        changedCount -= reflected;
+        changeLogStart = Math.max(changeLogStart, oldest);
     }
 }
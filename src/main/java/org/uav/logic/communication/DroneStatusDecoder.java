@@ -0,0 +1,309 @@
+package org.uav.logic.communication;
+
+import org.uav.logic.state.drone.DroneStatus;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static org.uav.logic.communication.BinaryStatusFrame.readFloat;
+import static org.uav.logic.communication.BinaryStatusFrame.readInt;
+import static org.uav.utils.AsciiNumberParser.parseFloat;
+import static org.uav.utils.AsciiNumberParser.parseInt;
+
+/**
+ * Decodes droneStatuses frames ({@code id,time,x,y,z,qw,qx,qy,qz,vx,vy,vz,wx,wy,wz,om1,...;...}, or the
+ * {@link BinaryStatusFrame} layout) directly from the received bytes into a pool of reusable {@link DroneStatus} slots.
+ * Slots are only valid until the next call to {@code decode}. Keyframes carry every drone in the air, delta frames
+ * only the drones that changed plus the ids of drones that despawned.
+ * <p>
+ * CSV frames of at least {@code parallelThresholdBytes} are first split on record boundaries and the records are then
+ * decoded in chunks on a fork-join pool; smaller frames stay on the calling thread.
+ */
+public class DroneStatusDecoder {
+    private static final byte RECORD_SEPARATOR = ';';
+    private static final byte FIELD_SEPARATOR = ',';
+
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private final List<DroneStatus> slots;
+    @Nullable
+    private final ForkJoinPool pool;
+    private final int parallelThresholdBytes;
+    private final RecordCursor cursor;
+    private RecordCursor[] chunkCursors;
+    private int[] recordBounds;
+    private int[] despawned;
+    private int despawnedCount;
+    private boolean keyframe;
+    private int sequence;
+    private byte[] scratch;
+    private int count;
+
+    public DroneStatusDecoder() {
+        this(null, Integer.MAX_VALUE);
+    }
+
+    public DroneStatusDecoder(@Nullable ForkJoinPool pool, int parallelThresholdBytes) {
+        this.pool = pool;
+        this.parallelThresholdBytes = pool == null ? Integer.MAX_VALUE : parallelThresholdBytes;
+        slots = new ArrayList<>();
+        cursor = new RecordCursor();
+        chunkCursors = new RecordCursor[0];
+        recordBounds = new int[32];
+        despawned = new int[16];
+        despawnedCount = 0;
+        keyframe = true;
+        sequence = 0;
+        scratch = new byte[0];
+        count = 0;
+    }
+
+    public int decode(ByteBuffer frame) {
+        if(frame.hasArray())
+            return decode(frame.array(), frame.arrayOffset() + frame.position(), frame.remaining());
+        int length = frame.remaining();
+        if(scratch.length < length) scratch = new byte[length];
+        frame.get(frame.position(), scratch, 0, length);
+        return decode(scratch, 0, length);
+    }
+
+    public int decode(byte[] frame) {
+        return decode(frame, 0, frame.length);
+    }
+
+    public int decode(byte[] frame, int offset, int length) {
+        count = 0;
+        despawnedCount = 0;
+        keyframe = true;
+        sequence = 0;
+        if(BinaryStatusFrame.isBinary(frame, offset, length))
+            return decodeBinary(frame, offset, length);
+        if(length >= parallelThresholdBytes)
+            return decodeParallel(frame, offset, length);
+        int end = offset + length;
+        int recordStart = offset;
+        while(recordStart < end) {
+            int nextRecord = indexOf(frame, RECORD_SEPARATOR, recordStart, end);
+            if(nextRecord > recordStart)
+                cursor.decodeRecord(frame, recordStart, nextRecord, nextSlot());
+            recordStart = nextRecord + 1;
+        }
+        return count;
+    }
+
+    private int decodeParallel(byte[] frame, int offset, int length) {
+        int end = offset + length;
+        int records = 0;
+        int recordStart = offset;
+        while(recordStart < end) {
+            int nextRecord = indexOf(frame, RECORD_SEPARATOR, recordStart, end);
+            if(nextRecord > recordStart) {
+                if(2 * records + 2 > recordBounds.length) recordBounds = Arrays.copyOf(recordBounds, recordBounds.length * 2);
+                recordBounds[2 * records] = recordStart;
+                recordBounds[2 * records + 1] = nextRecord;
+                records++;
+                nextSlot();
+            }
+            recordStart = nextRecord + 1;
+        }
+        int chunks = Math.min(pool.getParallelism() * CHUNKS_PER_WORKER, records);
+        if(chunkCursors.length < chunks) {
+            int allocated = chunkCursors.length;
+            chunkCursors = Arrays.copyOf(chunkCursors, chunks);
+            for(int i = allocated; i < chunks; i++) chunkCursors[i] = new RecordCursor();
+        }
+        if(chunks > 0) pool.invoke(new DecodeChunks(frame, records, chunks, 0, chunks));
+        return count;
+    }
+
+    private class DecodeChunks extends RecursiveAction {
+        private final byte[] frame;
+        private final int records;
+        private final int chunks;
+        private final int firstChunk;
+        private final int lastChunk;
+
+        DecodeChunks(byte[] frame, int records, int chunks, int firstChunk, int lastChunk) {
+            this.frame = frame;
+            this.records = records;
+            this.chunks = chunks;
+            this.firstChunk = firstChunk;
+            this.lastChunk = lastChunk;
+        }
+
+        @Override
+        protected void compute() {
+            if(lastChunk - firstChunk > 1) {
+                int middle = (firstChunk + lastChunk) >>> 1;
+                invokeAll(new DecodeChunks(frame, records, chunks, firstChunk, middle),
+                        new DecodeChunks(frame, records, chunks, middle, lastChunk));
+                return;
+            }
+            var chunkCursor = chunkCursors[firstChunk];
+            int last = (int) ((long) lastChunk * records / chunks);
+            for(int record = (int) ((long) firstChunk * records / chunks); record < last; record++)
+                chunkCursor.decodeRecord(frame, recordBounds[2 * record], recordBounds[2 * record + 1], slots.get(record));
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public boolean isKeyframe() {
+        return keyframe;
+    }
+
+    /**
+     * @return stream sequence of the last binary frame, 0 for CSV frames, which carry none
+     */
+    public int getSequence() {
+        return sequence;
+    }
+
+    public int getDespawnedCount() {
+        return despawnedCount;
+    }
+
+    public int getDespawned(int index) {
+        if(index >= despawnedCount) throw new IndexOutOfBoundsException(index);
+        return despawned[index];
+    }
+
+    public DroneStatus getSlot(int index) {
+        if(index >= count) throw new IndexOutOfBoundsException(index);
+        return slots.get(index);
+    }
+
+    private int decodeBinary(byte[] frame, int offset, int length) {
+        keyframe = length < 2 || frame[offset + 1] != BinaryStatusFrame.DRONE_DELTA;
+        int records = BinaryStatusFrame.readHeader(frame, offset, length,
+                keyframe ? BinaryStatusFrame.DRONE_STATUSES : BinaryStatusFrame.DRONE_DELTA);
+        sequence = BinaryStatusFrame.readSequence(frame, offset);
+        int end = offset + length;
+        int position = offset + BinaryStatusFrame.HEADER_BYTES;
+        for(int i = 0; i < records; i++) {
+            if(position + BinaryStatusFrame.DRONE_RECORD_BYTES > end)
+                throw new NoSuchElementException("Binary drone status frame is truncated");
+            var drone = nextSlot();
+            drone.id = readInt(frame, position);
+            drone.time = readFloat(frame, position + 4);
+            drone.position.x = readFloat(frame, position + 8);
+            drone.position.y = readFloat(frame, position + 12);
+            drone.position.z = readFloat(frame, position + 16);
+            drone.rotation.w = readFloat(frame, position + 20);
+            drone.rotation.x = readFloat(frame, position + 24);
+            drone.rotation.y = readFloat(frame, position + 28);
+            drone.rotation.z = readFloat(frame, position + 32);
+            drone.linearVelocity.x = readFloat(frame, position + 36);
+            drone.linearVelocity.y = readFloat(frame, position + 40);
+            drone.linearVelocity.z = readFloat(frame, position + 44);
+            drone.angularVelocity.x = readFloat(frame, position + 48);
+            drone.angularVelocity.y = readFloat(frame, position + 52);
+            drone.angularVelocity.z = readFloat(frame, position + 56);
+            int propellerCount = readInt(frame, position + 60);
+            position += BinaryStatusFrame.DRONE_RECORD_BYTES;
+            if(propellerCount < 0 || position + Float.BYTES * propellerCount > end)
+                throw new NoSuchElementException("Binary drone status frame is truncated");
+            if(drone.propellersRadps.length != propellerCount) drone.propellersRadps = new float[propellerCount];
+            for(int j = 0; j < propellerCount; j++, position += Float.BYTES)
+                drone.propellersRadps[j] = readFloat(frame, position);
+        }
+        if(!keyframe) decodeDespawned(frame, position, end);
+        return count;
+    }
+
+    private void decodeDespawned(byte[] frame, int position, int end) {
+        if(position + Integer.BYTES > end)
+            throw new NoSuchElementException("Binary drone delta frame is truncated");
+        int despawnCount = readInt(frame, position);
+        position += Integer.BYTES;
+        if(despawnCount < 0 || position + (long) Integer.BYTES * despawnCount > end)
+            throw new NoSuchElementException("Binary drone delta frame is truncated");
+        if(despawned.length < despawnCount) despawned = new int[despawnCount];
+        for(int i = 0; i < despawnCount; i++, position += Integer.BYTES)
+            despawned[i] = readInt(frame, position);
+        despawnedCount = despawnCount;
+    }
+
+    private DroneStatus nextSlot() {
+        if(count == slots.size()) slots.add(new DroneStatus());
+        return slots.get(count++);
+    }
+
+    private static int indexOf(byte[] frame, byte separator, int from, int to) {
+        for(int i = from; i < to; i++)
+            if(frame[i] == separator) return i;
+        return to;
+    }
+
+    // Parsing position within one record; every thread decoding records needs its own.
+    private static class RecordCursor {
+        private float[] propellers;
+        private int cursor;
+        private int recordEnd;
+
+        RecordCursor() {
+            propellers = new float[8];
+        }
+
+        void decodeRecord(byte[] frame, int from, int to, DroneStatus drone) {
+            cursor = from;
+            recordEnd = to;
+
+            drone.id = nextInt(frame);
+
+            drone.time = nextFloat(frame);
+
+            drone.position.x = nextFloat(frame);
+            drone.position.y = nextFloat(frame);
+            drone.position.z = nextFloat(frame);
+
+            drone.rotation.w = nextFloat(frame);
+            drone.rotation.x = nextFloat(frame);
+            drone.rotation.y = nextFloat(frame);
+            drone.rotation.z = nextFloat(frame);
+
+            drone.linearVelocity.x = nextFloat(frame);
+            drone.linearVelocity.y = nextFloat(frame);
+            drone.linearVelocity.z = nextFloat(frame);
+
+            drone.angularVelocity.x = nextFloat(frame);
+            drone.angularVelocity.y = nextFloat(frame);
+            drone.angularVelocity.z = nextFloat(frame);
+
+            int propellerCount = 0;
+            while(cursor < recordEnd) {
+                if(propellerCount == propellers.length) propellers = Arrays.copyOf(propellers, propellers.length * 2);
+                propellers[propellerCount++] = nextFloat(frame);
+            }
+            if(drone.propellersRadps.length != propellerCount) drone.propellersRadps = new float[propellerCount];
+            System.arraycopy(propellers, 0, drone.propellersRadps, 0, propellerCount);
+        }
+
+        private int nextInt(byte[] frame) {
+            int fieldEnd = nextFieldEnd(frame);
+            int value = parseInt(frame, cursor, fieldEnd);
+            cursor = fieldEnd + 1;
+            return value;
+        }
+
+        private float nextFloat(byte[] frame) {
+            int fieldEnd = nextFieldEnd(frame);
+            float value = parseFloat(frame, cursor, fieldEnd);
+            cursor = fieldEnd + 1;
+            return value;
+        }
+
+        private int nextFieldEnd(byte[] frame) {
+            if(cursor >= recordEnd) throw new NoSuchElementException("Drone status record is missing fields");
+            return indexOf(frame, FIELD_SEPARATOR, cursor, recordEnd);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.uav.logic.communication;
+
+import java.util.List;
+
+public interface FrameHandler {
+    /**
+     * @param frames raw frames in the order they were received, the first one received at {@code receivedNanos} and the
+     *               rest already queued behind it
+     */
+    void handleFrames(List<byte[]> frames, long receivedNanos);
+}
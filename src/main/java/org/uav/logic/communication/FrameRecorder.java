@@ -0,0 +1,114 @@
+package org.uav.logic.communication;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends raw subscribed frames to memory-mapped segment files {@code <file>.000}, {@code <file>.001}, ...
+ * <pre>
+ * segment: u8[8] magic, record*, u8 0x00 end marker (or the zeroed unused tail of the mapping)
+ * record:  u8 stream tag, i32 frame length, i64 receive time in ns, u8 frame[length]
+ * </pre>
+ * All numbers are little-endian. A segment is rolled over once the next record does not fit. A recording opens with a
+ * server info record, tagged {@link #SERVER_INFO_TAG}, whose frame is the UTF-8 asset checksum and map name separated
+ * by a newline, so it can be replayed without the server.
+ */
+public class FrameRecorder implements AutoCloseable {
+    public static final byte[] MAGIC = {'U', 'A', 'V', 'F', 'R', 'M', '0', '1'};
+    public static final int RECORD_HEADER_BYTES = 1 + Integer.BYTES + Long.BYTES;
+    public static final byte SERVER_INFO_TAG = (byte) 0x7F;
+    public static final String SERVER_INFO_SEPARATOR = "\n";
+    private static final byte END_MARKER = 0;
+
+    private final Path file;
+    private final int segmentBytes;
+    private int segmentIndex;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private boolean closed;
+
+    public FrameRecorder(Path file, int segmentBytes) {
+        this.file = file;
+        this.segmentBytes = segmentBytes;
+        segmentIndex = -1;
+        channel = null;
+        segment = null;
+        closed = false;
+    }
+
+    public static Path segmentPath(Path file, int segmentIndex) {
+        return file.resolveSibling(file.getFileName() + String.format(".%03d", segmentIndex));
+    }
+
+    /**
+     * Safe to call from several consumer threads, records of one call stay adjacent.
+     */
+    public synchronized void append(StatusStream stream, long receivedNanos, List<byte[]> frames) {
+        for(byte[] frame : frames)
+            append(stream, receivedNanos, frame);
+    }
+
+    public synchronized void append(StatusStream stream, long receivedNanos, byte[] frame) {
+        append(stream.tag, receivedNanos, frame);
+    }
+
+    /**
+     * Writes the server info record; call it before any frame is appended.
+     */
+    public synchronized void appendServerInfo(String assetChecksum, String serverMap) {
+        append(SERVER_INFO_TAG, System.nanoTime(), (assetChecksum + SERVER_INFO_SEPARATOR + serverMap).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void append(byte tag, long receivedNanos, byte[] frame) {
+        if(closed) return;
+        int recordBytes = RECORD_HEADER_BYTES + frame.length;
+        // Leave room for the end marker
+        if(segment == null || segment.remaining() < recordBytes + 1)
+            openNextSegment(recordBytes + 1);
+        segment.put(tag);
+        segment.putInt(frame.length);
+        segment.putLong(receivedNanos);
+        segment.put(frame);
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        closeSegment();
+    }
+
+    private void openNextSegment(int minimumRecordBytes) {
+        closeSegment();
+        segmentIndex++;
+        try {
+            channel = FileChannel.open(segmentPath(file, segmentIndex),
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentBytes, MAGIC.length + minimumRecordBytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+        segment.put(MAGIC);
+    }
+
+    private void closeSegment() {
+        if(segment == null) return;
+        segment.put(END_MARKER);
+        segment.force();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segment = null;
+        channel = null;
+    }
+}
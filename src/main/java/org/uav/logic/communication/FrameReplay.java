@@ -0,0 +1,66 @@
+package org.uav.logic.communication;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Feeds recorded frames to the stream consumers in place of the live sockets, keeping the recorded spacing scaled by
+ * {@code speed}; a speed of 0 replays as fast as the consumers keep up.
+ */
+public class FrameReplay extends Thread {
+    private final Path file;
+    private final float speed;
+    private final Map<StatusStream, FrameHandler> handlers;
+    private final List<byte[]> frames;
+
+    public FrameReplay(Path file, float speed, Map<StatusStream, FrameHandler> handlers) {
+        super("frame-replay");
+        this.file = file;
+        this.speed = speed;
+        this.handlers = handlers;
+        frames = new ArrayList<>(1);
+    }
+
+    /**
+     * Returns once no more frames are being handed to the consumers.
+     */
+    public void stopReplay() {
+        interrupt();
+        try {
+            join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void run() {
+        var reader = new FrameSegmentReader(file);
+        long firstRecordedNanos = 0;
+        long replayStartNanos = System.nanoTime();
+        boolean first = true;
+        while(!Thread.currentThread().isInterrupted() && reader.next()) {
+            if(first) {
+                firstRecordedNanos = reader.getReceivedNanos();
+                first = false;
+            }
+            if(speed > 0) {
+                long dueNanos = replayStartNanos + (long) ((reader.getReceivedNanos() - firstRecordedNanos) / speed);
+                long waitNanos;
+                while((waitNanos = dueNanos - System.nanoTime()) > 0 && !Thread.currentThread().isInterrupted())
+                    LockSupport.parkNanos(waitNanos);
+            }
+            var handler = handlers.get(reader.getStream());
+            if(handler == null) continue;
+            frames.clear();
+            frames.add(reader.getFrame());
+            try {
+                handler.handleFrames(frames, System.nanoTime());
+            } catch (RuntimeException exception) {
+                // Skipped, as the live ingest loop does
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.uav.logic.communication;
+
+import lombok.Getter;
+import org.uav.logic.assets.ServerInfo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Iterates the frame records written by {@link FrameRecorder} across all of its segments.
+ */
+public class FrameSegmentReader {
+    private final Path file;
+    private int segmentIndex;
+    private MappedByteBuffer segment;
+    @Getter
+    private StatusStream stream;
+    @Getter
+    private long receivedNanos;
+    @Getter
+    private byte[] frame;
+
+    public FrameSegmentReader(Path file) {
+        this.file = file;
+        segmentIndex = -1;
+        segment = null;
+    }
+
+    /**
+     * @return false once every segment is exhausted
+     */
+    public boolean next() {
+        while(true) {
+            while(segment == null || !hasRecord()) {
+                if(!openNextSegment()) return false;
+            }
+            byte tag = segment.get();
+            int length = segment.getInt();
+            receivedNanos = segment.getLong();
+            if(tag == FrameRecorder.SERVER_INFO_TAG) {
+                segment.position(segment.position() + length);
+                continue;
+            }
+            stream = StatusStream.fromTag(tag);
+            frame = new byte[length];
+            segment.get(frame);
+            return true;
+        }
+    }
+
+    /**
+     * @return asset checksum and map the recording was made with, read from its opening record
+     */
+    public static ServerInfo readServerInfo(Path file) {
+        var reader = new FrameSegmentReader(file);
+        if(!reader.openNextSegment() || !reader.hasRecord() || reader.segment.get() != FrameRecorder.SERVER_INFO_TAG)
+            throw new IllegalArgumentException(file + " does not start with server info, it cannot be replayed without the server");
+        byte[] info = new byte[reader.segment.getInt()];
+        reader.segment.getLong();
+        reader.segment.get(info);
+        String[] fields = new String(info, StandardCharsets.UTF_8).split(FrameRecorder.SERVER_INFO_SEPARATOR, 2);
+        if(fields.length != 2) throw new IllegalArgumentException(file + " has malformed server info");
+        return new ServerInfo(fields[0], fields[1], new ArrayList<>());
+    }
+
+    private boolean hasRecord() {
+        return segment.remaining() >= FrameRecorder.RECORD_HEADER_BYTES && segment.get(segment.position()) != 0;
+    }
+
+    private boolean openNextSegment() {
+        var path = FrameRecorder.segmentPath(file, segmentIndex + 1);
+        if(!Files.exists(path)) return false;
+        segmentIndex++;
+        try (var channel = FileChannel.open(path)) {
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+        byte[] magic = new byte[FrameRecorder.MAGIC.length];
+        if(segment.remaining() < magic.length)
+            throw new IllegalArgumentException(path + " is not a frame segment");
+        segment.get(magic);
+        if(!Arrays.equals(magic, FrameRecorder.MAGIC))
+            throw new IllegalArgumentException(path + " is not a frame segment");
+        return true;
+    }
+}
@@ -0,0 +1,26 @@
+package org.uav.logic.communication;
+
+/**
+ * Local timestamps of the frame a status snapshot was built from, taken with {@link System#nanoTime()}.
+ */
+public class FrameTiming {
+    public static final long UNKNOWN = -1;
+
+    public long receivedNanos;
+    public long parsedNanos;
+    // Time spent between the server stamping the frame and its receipt, UNKNOWN when the frame carried no timestamp
+    public long networkDelayNanos;
+
+    public FrameTiming() {
+        receivedNanos = 0;
+        parsedNanos = 0;
+        networkDelayNanos = UNKNOWN;
+    }
+
+    public FrameTiming set(FrameTiming other) {
+        receivedNanos = other.receivedNanos;
+        parsedNanos = other.parsedNanos;
+        networkDelayNanos = other.networkDelayNanos;
+        return this;
+    }
+}
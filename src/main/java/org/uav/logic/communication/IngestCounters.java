@@ -0,0 +1,97 @@
+package org.uav.logic.communication;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Frame accounting of a single subscribed stream, written by the ingest thread and read by the GUI.
+ */
+public class IngestCounters {
+    private static final long THROUGHPUT_WINDOW_NS = 1_000_000_000L;
+    private static final float NANOSECONDS_IN_SECOND = 1e9f;
+
+    private final AtomicLong parsed;
+    private final AtomicLong dropped;
+    private final AtomicLong failed;
+    private volatile int queued;
+    private volatile float framesPerSecond;
+    private volatile float bytesPerSecond;
+    private long windowStartNanos;
+    private long windowFrames;
+    private long windowBytes;
+
+    public IngestCounters() {
+        parsed = new AtomicLong();
+        dropped = new AtomicLong();
+        failed = new AtomicLong();
+        queued = 0;
+        framesPerSecond = 0;
+        bytesPerSecond = 0;
+        windowStartNanos = System.nanoTime();
+        windowFrames = 0;
+        windowBytes = 0;
+    }
+
+    public void addReceived(int frames, long bytes) {
+        windowFrames += frames;
+        windowBytes += bytes;
+    }
+
+    /**
+     * Publishes the received frame and byte rates once a full window has passed since the previous update.
+     */
+    public void updateThroughput(long nowNanos) {
+        long elapsedNanos = nowNanos - windowStartNanos;
+        if(elapsedNanos < THROUGHPUT_WINDOW_NS) return;
+        framesPerSecond = windowFrames * NANOSECONDS_IN_SECOND / elapsedNanos;
+        bytesPerSecond = windowBytes * NANOSECONDS_IN_SECOND / elapsedNanos;
+        windowStartNanos = nowNanos;
+        windowFrames = 0;
+        windowBytes = 0;
+    }
+
+    public void addParsed(int frames) {
+        parsed.addAndGet(frames);
+    }
+
+    public void addDropped(int frames) {
+        dropped.addAndGet(frames);
+    }
+
+    /**
+     * Counts a batch of frames its handler threw on, which is then skipped.
+     */
+    public void addFailed(int frames) {
+        failed.addAndGet(frames);
+    }
+
+    /**
+     * @param frames frames that were already waiting behind the one just received
+     */
+    public void setQueued(int frames) {
+        queued = frames;
+    }
+
+    public long getParsed() {
+        return parsed.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public float getFramesPerSecond() {
+        return framesPerSecond;
+    }
+
+    public float getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+}
@@ -0,0 +1,119 @@
+package org.uav.logic.communication;
+
+import org.uav.logic.config.Config;
+import org.zeromq.SocketType;
+import org.zeromq.ZContext;
+import org.zeromq.ZMQ;
+import org.zeromq.ZMQException;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.uav.utils.ZmqUtils.drain;
+
+/**
+ * Single thread serving every subscribed stream: one poller wakes it for whichever sockets have frames, each of those
+ * is drained and the batch handed to the stream's {@link FrameHandler}. A batch its handler throws on is counted as
+ * failed and skipped, so one malformed frame does not stop the other streams. The poll timeout bounds how long
+ * {@link #stop()} waits for the thread to finish.
+ */
+public class IngestLoop {
+    private static final int POLL_TIMEOUT_MS = 100;
+
+    private final ZContext context;
+    private final String serverAddress;
+    private final List<Subscription> subscriptions;
+    private final List<byte[]> frames;
+    @Nullable
+    private final FrameRecorder recorder;
+    private final Thread thread;
+    private volatile boolean running;
+
+    public IngestLoop(ZContext context, Config config, @Nullable FrameRecorder recorder) {
+        this.context = context;
+        this.recorder = recorder;
+        serverAddress = config.getServerSettings().getServerAddress();
+        subscriptions = new ArrayList<>();
+        frames = new ArrayList<>();
+        thread = new Thread(this::run, "status-ingest");
+        running = false;
+    }
+
+    public void subscribe(StatusStream stream, int port, FrameHandler handler, IngestCounters counters) {
+        if(running) throw new IllegalStateException("Streams have to be subscribed before the ingest loop starts");
+        var socket = context.createSocket(SocketType.SUB);
+        socket.connect("tcp://" + serverAddress + ":" + port);
+        socket.subscribe("");
+        subscriptions.add(new Subscription(stream, socket, handler, counters));
+    }
+
+    public void start() {
+        if(running) return;
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Returns once the ingest thread has finished and the sockets are closed.
+     */
+    public void stop() {
+        running = false;
+        if(thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        subscriptions.forEach(subscription -> context.destroySocket(subscription.socket));
+    }
+
+    private void run() {
+        var poller = context.createPoller(subscriptions.size());
+        subscriptions.forEach(subscription -> poller.register(subscription.socket, ZMQ.Poller.POLLIN));
+        try {
+            while(running) {
+                int ready = poller.poll(POLL_TIMEOUT_MS);
+                long receivedNanos = System.nanoTime();
+                for(int i = 0; ready > 0 && i < subscriptions.size(); i++)
+                    if(poller.pollin(i)) dispatch(subscriptions.get(i), receivedNanos);
+                for(var subscription : subscriptions)
+                    subscription.counters.updateThroughput(receivedNanos);
+            }
+        } catch (ZMQException exception) {
+            // Context terminated
+        } finally {
+            poller.close();
+        }
+    }
+
+    private void dispatch(Subscription subscription, long receivedNanos) {
+        frames.clear();
+        drain(subscription.socket, frames);
+        if(frames.isEmpty()) return;
+        long bytes = 0;
+        for(byte[] frame : frames) bytes += frame.length;
+        subscription.counters.addReceived(frames.size(), bytes);
+        if(recorder != null) recorder.append(subscription.stream, receivedNanos, frames);
+        try {
+            subscription.handler.handleFrames(frames, receivedNanos);
+        } catch (RuntimeException exception) {
+            subscription.counters.addFailed(frames.size());
+        }
+    }
+
+    private static class Subscription {
+        final StatusStream stream;
+        final ZMQ.Socket socket;
+        final FrameHandler handler;
+        final IngestCounters counters;
+
+        Subscription(StatusStream stream, ZMQ.Socket socket, FrameHandler handler, IngestCounters counters) {
+            this.stream = stream;
+            this.socket = socket;
+            this.handler = handler;
+            this.counters = counters;
+        }
+    }
+}
@@ -6,13 +6,14 @@ import org.uav.logic.input.handler.JoystickStatus;
 import java.text.MessageFormat;
 import java.util.Arrays;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 public class JoystickProducer {
 
     public void send(DroneCommunication drone, JoystickStatus joystickStatus) {
         String message = serialize(joystickStatus);
-        drone.sendSteeringCommand(message);
+        drone.sendJoystickCommand(message);
     }
 
     public void send(DroneCommunication drone, String mode) {
@@ -20,7 +21,7 @@ public class JoystickProducer {
         drone.sendSteeringCommand(message);
     }
 
-    public String send(DroneCommunication drone, Action action, Integer ...params) {
+    public CompletableFuture<String> send(DroneCommunication drone, Action action, Integer ...params) {
         String message = serializeWithParams(action, params);
         return drone.sendUtilsCommand(message);
     }
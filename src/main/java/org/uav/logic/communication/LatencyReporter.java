@@ -0,0 +1,72 @@
+package org.uav.logic.communication;
+
+import org.uav.utils.LatencyHistogram;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically appends the latency percentiles every stream recorded since the previous report to a CSV file.
+ */
+public class LatencyReporter implements AutoCloseable {
+    private static final String HEADER = "timestampMs,stream,stage,count,p50Us,p99Us,maxUs\n";
+
+    private final Path file;
+    private final List<StreamLatency> streams;
+    // Per stream, what it recorded during the interval being reported
+    private final List<StreamLatency> intervals;
+    private final ScheduledExecutorService thread;
+
+    public LatencyReporter(Path file, int intervalMs, List<StreamLatency> streams) {
+        this.file = file;
+        this.streams = streams;
+        intervals = streams.stream().map(stream -> new StreamLatency(stream.getName())).toList();
+        thread = Executors.newSingleThreadScheduledExecutor(task -> {
+            var reporterThread = new Thread(task, "latency-reporter");
+            reporterThread.setDaemon(true);
+            return reporterThread;
+        });
+        thread.scheduleAtFixedRate(this::dump, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        thread.shutdown();
+    }
+
+    private void dump() {
+        var report = new StringBuilder();
+        if(!Files.exists(file)) report.append(HEADER);
+        long timestampMs = System.currentTimeMillis();
+        for(int i = 0; i < streams.size(); i++) {
+            var interval = intervals.get(i);
+            streams.get(i).takeInterval(interval);
+            append(report, timestampMs, interval.getName(), "network", interval.getNetwork());
+            append(report, timestampMs, interval.getName(), "parse", interval.getParse());
+            append(report, timestampMs, interval.getName(), "render", interval.getRender());
+            append(report, timestampMs, interval.getName(), "total", interval.getTotal());
+        }
+        try {
+            Files.writeString(file, report, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Failed to write latency report: " + e.getMessage());
+        }
+    }
+
+    private static void append(StringBuilder report, long timestampMs, String stream, String stage, LatencyHistogram histogram) {
+        report.append(timestampMs).append(',')
+                .append(stream).append(',')
+                .append(stage).append(',')
+                .append(histogram.getCount()).append(',')
+                .append(histogram.getValueAtQuantile(0.5)).append(',')
+                .append(histogram.getValueAtQuantile(0.99)).append(',')
+                .append(histogram.getMax()).append('\n');
+    }
+}
@@ -8,10 +8,7 @@ import org.uav.logic.messages.Publisher;
 import org.uav.logic.state.notifications.Notifications;
 import org.uav.logic.state.simulation.SimulationState;
 import org.uav.presentation.entity.rope.Rope;
-import org.zeromq.SocketType;
-import org.zeromq.ZContext;
 import org.zeromq.ZMQ;
-import org.zeromq.ZMQException;
 
 import java.awt.*;
 import java.util.List;
@@ -19,40 +16,57 @@ import java.util.*;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
-import static org.uav.utils.ZmqUtils.checkErrno;
 
-public class NotificationsConsumer extends Thread implements Publisher {
+public class NotificationsConsumer implements Publisher, FrameHandler {
+    private static final String STATE_MESSAGE_TYPES = "tol";
     private final SimulationState simulationState;
     private final Notifications notifications;
-    private final ZMQ.Socket socket;
     private final List<Consumer<Message>> subscribers;
+    private final IngestCounters counters;
+    private final boolean conflate;
+    private final int[] newestStateFrame;
 
-    public NotificationsConsumer(ZContext context, Config config, SimulationState simulationState) {
+    public NotificationsConsumer(Config config, SimulationState simulationState) {
         this.simulationState = simulationState;
         subscribers = new ArrayList<>();
         notifications = simulationState.getNotifications();
-        String address = "tcp://" + config.getServerSettings().getServerAddress() + ":" + config.getPorts().getNotifications();
-        socket = context.createSocket(SocketType.SUB);
-        socket.setSendTimeOut(config.getServerSettings().getServerTimeoutMs());
-        socket.setReceiveTimeOut(config.getServerSettings().getServerTimeoutMs());
-        socket.connect(address);
-        socket.subscribe("");
+        counters = simulationState.getNotificationsIngest();
+        conflate = config.getServerSettings().getConflateIngest();
+        newestStateFrame = new int[STATE_MESSAGE_TYPES.length()];
     }
 
-    public void run() {
-        while (!Thread.currentThread().isInterrupted()) {
-            try {
-                byte[] reply = socket.recv(0);
-                if(reply == null) checkErrno(socket);
-                String message = new String(reply, ZMQ.CHARSET);
-                parseMessage(message);
-
-            } catch (ZMQException exception) {
-                break;
+    @Override
+    public void handleFrames(List<byte[]> frames, long receivedNanos) {
+        counters.setQueued(frames.size() - 1);
+        if(conflate) findNewestStateFrames(frames);
+        for(int i = 0; i < frames.size(); i++) {
+            if(conflate && isSuperseded(frames, i)) {
+                counters.addDropped(1);
+                continue;
             }
+            parseMessage(new String(frames.get(i), ZMQ.CHARSET));
+            counters.addParsed(1);
+        }
+    }
+
+    // Model maps and ropes replace the previous state, server notifications are events and are all delivered in order.
+    private void findNewestStateFrames(List<byte[]> frames) {
+        Arrays.fill(newestStateFrame, -1);
+        for(int i = 0; i < frames.size(); i++) {
+            int stateIndex = STATE_MESSAGE_TYPES.indexOf(messageType(frames.get(i)));
+            if(stateIndex >= 0) newestStateFrame[stateIndex] = i;
         }
     }
 
+    private boolean isSuperseded(List<byte[]> frames, int index) {
+        int stateIndex = STATE_MESSAGE_TYPES.indexOf(messageType(frames.get(index)));
+        return stateIndex >= 0 && newestStateFrame[stateIndex] != index;
+    }
+
+    private static char messageType(byte[] frame) {
+        return frame.length == 0 ? 0 : (char) frame[0];
+    }
+
     private void parseMessage(String message) {
         switch(message.charAt(0)) {
             case 't' -> notifications.droneModelsNames = parseModelMapMessage(message);
@@ -64,9 +78,10 @@ public class NotificationsConsumer extends Thread implements Publisher {
     }
 
     private void notifySubscriberOfServerNotification(String message) {
-        var drone = simulationState.getPlayerDrone();
-        if(drone.isEmpty()) return;
-        Message notification = parseServerNotification(message, drone.get().droneStatus.id);
+        // Runs off the render thread, so the drone store is not consulted here
+        var drone = simulationState.getCurrentlyControlledDrone();
+        if(drone.isEmpty() || drone.get().getFlightStatus() != DroneCommunication.FlightStatus.FLIGHT) return;
+        Message notification = parseServerNotification(message, drone.get().getId());
         if(notification != null)
             notifySubscribers(notification);
     }
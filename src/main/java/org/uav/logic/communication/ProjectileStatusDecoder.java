@@ -0,0 +1,94 @@
+package org.uav.logic.communication;
+
+import org.uav.logic.state.projectile.ProjectileTable;
+
+import java.util.NoSuchElementException;
+
+import static org.uav.logic.communication.BinaryStatusFrame.readFloat;
+import static org.uav.logic.communication.BinaryStatusFrame.readInt;
+import static org.uav.utils.AsciiNumberParser.parseFloat;
+import static org.uav.utils.AsciiNumberParser.parseInt;
+
+/**
+ * Decodes projectileStatuses frames ({@code header;id,x,y,z,vx,vy,vz;...}, or the {@link BinaryStatusFrame} layout)
+ * straight from the received bytes into a {@link ProjectileTable}, replacing whatever the table held before. The CSV
+ * header is the server's simulation time.
+ */
+public class ProjectileStatusDecoder {
+    private static final byte RECORD_SEPARATOR = ';';
+    private static final byte FIELD_SEPARATOR = ',';
+    private static final int FIELDS = 7;
+
+    private final float[] fields;
+    private double serverTimeS;
+
+    public ProjectileStatusDecoder() {
+        fields = new float[FIELDS - 1];
+        serverTimeS = Double.NaN;
+    }
+
+    /**
+     * @return simulation time in the header of the last decoded frame, NaN when it carried none
+     */
+    public double getServerTimeS() {
+        return serverTimeS;
+    }
+
+    public int decode(byte[] frame, ProjectileTable dest) {
+        dest.clear();
+        serverTimeS = Double.NaN;
+        if(BinaryStatusFrame.isBinary(frame, 0, frame.length))
+            return decodeBinary(frame, dest);
+        int end = frame.length;
+        // The first record is the frame header
+        int headerEnd = indexOf(frame, RECORD_SEPARATOR, 0, end);
+        serverTimeS = parseServerTime(frame, headerEnd);
+        int recordStart = headerEnd + 1;
+        while(recordStart < end) {
+            int nextRecord = indexOf(frame, RECORD_SEPARATOR, recordStart, end);
+            if(nextRecord > recordStart)
+                decodeRecord(frame, recordStart, nextRecord, dest);
+            recordStart = nextRecord + 1;
+        }
+        return dest.size();
+    }
+
+    private int decodeBinary(byte[] frame, ProjectileTable dest) {
+        int records = BinaryStatusFrame.readHeader(frame, 0, frame.length, BinaryStatusFrame.PROJECTILE_STATUSES);
+        if(records < 0 || BinaryStatusFrame.HEADER_BYTES + (long) records * BinaryStatusFrame.PROJECTILE_RECORD_BYTES > frame.length)
+            throw new NoSuchElementException("Binary projectile status frame is truncated");
+        int offset = BinaryStatusFrame.HEADER_BYTES;
+        for(int i = 0; i < records; i++, offset += BinaryStatusFrame.PROJECTILE_RECORD_BYTES)
+            dest.put(readInt(frame, offset),
+                    readFloat(frame, offset + 4), readFloat(frame, offset + 8), readFloat(frame, offset + 12),
+                    readFloat(frame, offset + 16), readFloat(frame, offset + 20), readFloat(frame, offset + 24));
+        return dest.size();
+    }
+
+    private void decodeRecord(byte[] frame, int from, int to, ProjectileTable dest) {
+        int fieldEnd = indexOf(frame, FIELD_SEPARATOR, from, to);
+        int id = parseInt(frame, from, fieldEnd);
+        for(int i = 0; i < fields.length; i++) {
+            int fieldStart = fieldEnd + 1;
+            if(fieldStart >= to) throw new NoSuchElementException("Projectile status record is missing fields");
+            fieldEnd = indexOf(frame, FIELD_SEPARATOR, fieldStart, to);
+            fields[i] = parseFloat(frame, fieldStart, fieldEnd);
+        }
+        dest.put(id, fields[0], fields[1], fields[2], fields[3], fields[4], fields[5]);
+    }
+
+    private static double parseServerTime(byte[] frame, int headerEnd) {
+        if(headerEnd == 0) return Double.NaN;
+        try {
+            return parseFloat(frame, 0, headerEnd);
+        } catch(NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static int indexOf(byte[] frame, byte separator, int from, int to) {
+        for(int i = from; i < to; i++)
+            if(frame[i] == separator) return i;
+        return to;
+    }
+}
@@ -1,90 +1,43 @@
 package org.uav.logic.communication;
 
-import org.joml.Vector3f;
 import org.uav.logic.config.Config;
-import org.uav.logic.state.projectile.ProjectileStatus;
 import org.uav.logic.state.projectile.ProjectileStatuses;
 import org.uav.logic.state.simulation.SimulationState;
-import org.zeromq.SocketType;
-import org.zeromq.ZContext;
-import org.zeromq.ZMQ;
-import org.zeromq.ZMQException;
+import org.uav.utils.TripleBuffer;
 
-import java.util.Arrays;
 import java.util.List;
-import java.util.Scanner;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
-import static org.uav.utils.ZmqUtils.checkErrno;
+public class ProjectileStatusesConsumer implements FrameHandler {
+    private final TripleBuffer<ProjectileStatuses> projectileStatusesBuffer;
+    private final IngestCounters counters;
+    private final StreamLatency latency;
+    private final boolean conflate;
+    private final ProjectileStatusDecoder decoder;
 
-public class ProjectileStatusesConsumer {
-    private final ProjectileStatuses projectileStatuses;
-    private final ReentrantLock projectileStatusesMutex;
-    private final ZMQ.Socket socket;
-    private final Thread thread;
 
-
-    public ProjectileStatusesConsumer(ZContext context, SimulationState simulationState, Config config) {
-        this.projectileStatuses = simulationState.getProjectileStatuses();
-        this.projectileStatusesMutex = simulationState.getProjectileStatusesMutex();
-        String address = "tcp://" + config.getServerSettings().getServerAddress() + ":" + config.getPorts().getProjectileStatuses();
-        socket = context.createSocket(SocketType.SUB);
-        socket.setSendTimeOut(config.getServerSettings().getServerTimeoutMs());
-        socket.setReceiveTimeOut(config.getServerSettings().getServerTimeoutMs());
-        socket.connect(address);
-        socket.subscribe("");
-        thread = new ProjectileStatusesThread();
-    }
-
-    public void start() {
-        if(!thread.isAlive())
-            thread.start();
+    public ProjectileStatusesConsumer(SimulationState simulationState, Config config) {
+        this.projectileStatusesBuffer = simulationState.getProjectileStatusesBuffer();
+        counters = simulationState.getProjectileStatusesIngest();
+        latency = simulationState.getProjectileStatusesLatency();
+        conflate = config.getServerSettings().getConflateIngest();
+        decoder = new ProjectileStatusDecoder();
     }
 
-    public void stop() {
-        thread.interrupt();
-    }
-
-    class ProjectileStatusesThread extends Thread {
-        public void run() {
-            while (!Thread.currentThread().isInterrupted()) {
-                try {
-                    byte[] reply = socket.recv(0);
-                    if(reply == null) checkErrno(socket);
-                    String message = new String(reply, ZMQ.CHARSET);
-                    projectileStatusesMutex.lock();
-                    projectileStatuses.map = parse(message).stream()
-                            .collect(Collectors.toMap(projectile -> projectile.id, Function.identity()));
-                    projectileStatusesMutex.unlock();
-
-                } catch (ZMQException exception) {
-                    break;
-                }
-            }
+    @Override
+    public void handleFrames(List<byte[]> frames, long receivedNanos) {
+        counters.setQueued(frames.size() - 1);
+        // Every frame is a full snapshot, so only the newest one matters
+        int first = conflate ? frames.size() - 1 : 0;
+        counters.addDropped(first);
+        for(int i = first; i < frames.size(); i++) {
+            byte[] frame = frames.get(i);
+            var projectileStatuses = projectileStatusesBuffer.getWriteBuffer();
+            decoder.decode(frame, projectileStatuses.table);
+            counters.addParsed(1);
+            projectileStatuses.timing.receivedNanos = receivedNanos;
+            projectileStatuses.timing.parsedNanos = System.nanoTime();
+            latency.frameParsed(projectileStatuses.timing, decoder.getServerTimeS());
+            projectileStatusesBuffer.publish();
         }
     }
-
-    private List<ProjectileStatus> parse(String input) {
-        return Arrays.stream(input.split(";")).skip(1).map(this::toProjectile).toList();
-    }
-
-    private ProjectileStatus toProjectile(String input) {
-        Scanner scanner = new Scanner(input);
-        scanner.useDelimiter(",");
-
-        return new ProjectileStatus(
-                Integer.parseInt(scanner.next()),
-                new Vector3f(
-                        Float.parseFloat(scanner.next()),
-                        Float.parseFloat(scanner.next()),
-                        Float.parseFloat(scanner.next())),
-                new Vector3f(
-                        Float.parseFloat(scanner.next()),
-                        Float.parseFloat(scanner.next()),
-                        Float.parseFloat(scanner.next())
-                )
-        );
-    }
 }
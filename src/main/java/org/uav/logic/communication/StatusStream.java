@@ -0,0 +1,22 @@
+package org.uav.logic.communication;
+
+/**
+ * Subscribed streams of the aggregator, identified by the byte they are tagged with in recorded frame segments.
+ */
+public enum StatusStream {
+    NOTIFICATIONS((byte) 1),
+    DRONE_STATUSES((byte) 2),
+    PROJECTILE_STATUSES((byte) 3);
+
+    public final byte tag;
+
+    StatusStream(byte tag) {
+        this.tag = tag;
+    }
+
+    public static StatusStream fromTag(byte tag) {
+        for(var stream : values())
+            if(stream.tag == tag) return stream;
+        throw new IllegalArgumentException("Unknown stream tag " + tag);
+    }
+}
@@ -0,0 +1,90 @@
+package org.uav.logic.communication;
+
+import lombok.Getter;
+import org.uav.utils.LatencyHistogram;
+
+/**
+ * Latency breakdown of a single status stream: server timestamp to receipt, receipt to parsed snapshot, parsed
+ * snapshot to the first rendered frame showing it, and the whole path.
+ * <p>
+ * Server timestamps are simulation time, not wall-clock time, so the network stage is measured against the smallest
+ * clock offset seen so far: it shows how much later than the quickest frame a frame arrived.
+ */
+public class StreamLatency {
+    private static final double NANOSECONDS_IN_SECOND = 1e9;
+
+    @Getter
+    private final String name;
+    @Getter
+    private final LatencyHistogram network;
+    @Getter
+    private final LatencyHistogram parse;
+    @Getter
+    private final LatencyHistogram render;
+    @Getter
+    private final LatencyHistogram total;
+    private final FrameTiming acquired;
+    private boolean acquiredPending;
+    private long minClockOffsetNanos;
+    private double lastServerTimeS;
+
+    public StreamLatency(String name) {
+        this.name = name;
+        network = new LatencyHistogram();
+        parse = new LatencyHistogram();
+        render = new LatencyHistogram();
+        total = new LatencyHistogram();
+        acquired = new FrameTiming();
+        acquiredPending = false;
+        minClockOffsetNanos = Long.MAX_VALUE;
+        lastServerTimeS = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Called by the consumer thread once a frame is parsed.
+     * @param serverTimeS newest timestamp carried by the frame, NaN when it carried none
+     */
+    public void frameParsed(FrameTiming timing, double serverTimeS) {
+        timing.networkDelayNanos = FrameTiming.UNKNOWN;
+        if(!Double.isNaN(serverTimeS)) {
+            // The simulation restarted, the old offset no longer applies
+            if(serverTimeS < lastServerTimeS) minClockOffsetNanos = Long.MAX_VALUE;
+            lastServerTimeS = serverTimeS;
+            long clockOffsetNanos = timing.receivedNanos - (long) (serverTimeS * NANOSECONDS_IN_SECOND);
+            minClockOffsetNanos = Math.min(minClockOffsetNanos, clockOffsetNanos);
+            timing.networkDelayNanos = clockOffsetNanos - minClockOffsetNanos;
+            network.recordNanos(timing.networkDelayNanos);
+        }
+        parse.recordNanos(timing.parsedNanos - timing.receivedNanos);
+    }
+
+    /**
+     * Called by the render thread when it takes over a new snapshot.
+     */
+    public void snapshotAcquired(FrameTiming timing) {
+        acquired.set(timing);
+        acquiredPending = true;
+    }
+
+    /**
+     * Called by the render thread after a frame was presented.
+     */
+    public void frameRendered(long renderedNanos) {
+        if(!acquiredPending) return;
+        acquiredPending = false;
+        render.recordNanos(renderedNanos - acquired.parsedNanos);
+        long networkDelayNanos = acquired.networkDelayNanos == FrameTiming.UNKNOWN ? 0 : acquired.networkDelayNanos;
+        total.recordNanos(networkDelayNanos + renderedNanos - acquired.receivedNanos);
+    }
+
+    /**
+     * Moves what every stage recorded since the previous call with the same {@code interval} into its histograms. Each
+     * reader keeps its own interval.
+     */
+    public void takeInterval(StreamLatency interval) {
+        network.takeInterval(interval.network);
+        parse.takeInterval(interval.parse);
+        render.takeInterval(interval.render);
+        total.takeInterval(interval.total);
+    }
+}
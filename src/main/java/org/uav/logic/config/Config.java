@@ -39,9 +39,22 @@ public class Config {
         Boolean downloadMissingAssets;
         @Nullable
         String assetsToUse;
+        Integer downloadConnections;
+        Integer downloadChunkSizeKb;
+        Integer assetStoreBudgetMb;
         Integer heartBeatIntervalMs;
         Integer serverTimeoutMs;
         Integer droneTimeoutMs;
+        Boolean conflateIngest;
+        @Nullable
+        String recordFramesTo;
+        Integer recordSegmentSizeMb;
+        @Nullable
+        String replayFramesFrom;
+        Float replaySpeed;
+        @Nullable
+        Integer standInDroneCount;
+        Integer standInRateHz;
     }
 
     @Value
@@ -88,6 +101,8 @@ public class Config {
         Float gammaCorrection;
         Integer shadowsTextureResolution;
         Integer shadowsRenderingDistance;
+        @Nullable
+        Integer shadowsCascadeCount;
         Boolean showDebugInfo;
     }
 
@@ -97,6 +112,9 @@ public class Config {
         Boolean enableMusic;
         String musicDirectory;
         Boolean musicOnStartup;
+        @Nullable
+        String latencyDumpFile;
+        Integer latencyDumpIntervalMs;
     }
 
     @Value
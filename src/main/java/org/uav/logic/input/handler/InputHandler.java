@@ -69,8 +69,8 @@ public class InputHandler implements Publisher {
             initAction(mode, () -> {if(modeId < config.getDroneSettings().getModes().size()) changeControlMode(config.getDroneSettings().getModes().get(modeId));});
         }
         var actions = bindingConfig.getActions();
-        initAction(actions.getShoot(), () -> {if(simulationState.getCurrentlyControlledDrone().isPresent()) simulationState.getAmmos().get(simulationState.getCurrentlyChosenAmmo()).parseProjectileMessage(joystickProducer.send(simulationState.getCurrentlyControlledDrone().get(), Action.shoot, simulationState.getCurrentlyChosenAmmo()));});
-        initAction(actions.getDrop(), () ->{if(simulationState.getCurrentlyControlledDrone().isPresent()) simulationState.getCargos().get(simulationState.getCurrentlyChosenCargo()).parseProjectileMessage(joystickProducer.send(simulationState.getCurrentlyControlledDrone().get(), Action.drop, simulationState.getCurrentlyChosenCargo()));});
+        initAction(actions.getShoot(), () -> {if(simulationState.getCurrentlyControlledDrone().isPresent()) sendProjectileCommand(Action.shoot, simulationState.getAmmos().get(simulationState.getCurrentlyChosenAmmo()), simulationState.getCurrentlyChosenAmmo());});
+        initAction(actions.getDrop(), () ->{if(simulationState.getCurrentlyControlledDrone().isPresent()) sendProjectileCommand(Action.drop, simulationState.getCargos().get(simulationState.getCurrentlyChosenCargo()), simulationState.getCurrentlyChosenCargo());});
         initAction(actions.getRelease(), () ->{if(simulationState.getCurrentlyControlledDrone().isPresent()) joystickProducer.send(simulationState.getCurrentlyControlledDrone().get(), Action.release);});
         initAction(actions.getMap(), () -> simulationState.setMapOverlay(!simulationState.isMapOverlay()));
         initAction(actions.getPrevCamera_or_mapZoomOut(), () -> {
@@ -167,6 +167,11 @@ public class InputHandler implements Publisher {
             joystickProducer.send(simulationState.getCurrentlyControlledDrone().get(), joystickStatus);
     }
 
+    private void sendProjectileCommand(Action action, Projectile projectile, int projectileId) {
+        joystickProducer.send(simulationState.getCurrentlyControlledDrone().get(), action, projectileId)
+                .thenAcceptAsync(projectile::parseProjectileMessage, simulationState.getRenderThreadTasks());
+    }
+
     private void changeControlMode(String controlMode) {
         if(simulationState.getCurrentlyControlledDrone().isPresent())
             joystickProducer.send(simulationState.getCurrentlyControlledDrone().get(), controlMode);
@@ -0,0 +1,224 @@
+package org.uav.logic.standin;
+
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import org.uav.logic.assets.AssetStore;
+import org.uav.logic.communication.BinaryStatusFrame;
+import org.uav.logic.config.Config;
+import org.uav.utils.FileMapper;
+import org.zeromq.SocketType;
+import org.zeromq.ZContext;
+import org.zeromq.ZMQ;
+import org.zeromq.ZMQException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Local replacement for the aggregator speaking the same protocol: it answers the drone requester and the steer and
+ * utils sockets of spawned drones, and publishes a {@link SyntheticSwarm} as binary status frames.
+ * Runs in-process when {@code serverSettings.standInDroneCount} is set, or standalone through {@link #main}.
+ */
+public class ServerStandIn implements AutoCloseable {
+    public static final int MIN_DRONES = 1;
+    public static final int MAX_DRONES = 10_000;
+    public static final int STEER_PORT = 10000;
+    public static final int UTILS_PORT = 11000;
+    private static final int POLL_TIMEOUT_MS = 100;
+    private static final long NOTIFICATIONS_INTERVAL_NS = 1_000_000_000L;
+    private static final double NANOSECONDS_IN_SECOND = 1e9;
+
+    private final ZContext context;
+    private final ZMQ.Socket requesterSocket;
+    private final ZMQ.Socket steerSocket;
+    private final ZMQ.Socket utilsSocket;
+    private final ZMQ.Socket notificationsSocket;
+    private final ZMQ.Socket droneStatusesSocket;
+    private final ZMQ.Socket projectileStatusesSocket;
+    private final SyntheticSwarm swarm;
+    private final String serverInfo;
+    private final int rateHz;
+    private final Deque<Integer> playerDrones;
+    private final Thread replyThread;
+    private final ScheduledExecutorService publisher;
+    private volatile boolean running;
+    private long startNanos;
+    private long lastNotificationsNanos;
+    private int frameSequence;
+
+    public ServerStandIn(ZContext context, Config config, int droneCount, int rateHz, String assetChecksum, String map) {
+        if(droneCount < MIN_DRONES || droneCount > MAX_DRONES)
+            throw new IllegalArgumentException("Stand-in drone count has to be between " + MIN_DRONES + " and " + MAX_DRONES);
+        if(rateHz <= 0)
+            throw new IllegalArgumentException("Stand-in rate has to be positive");
+        this.context = context;
+        this.rateHz = rateHz;
+        var ports = config.getPorts();
+        requesterSocket = bind(SocketType.REP, ports.getDroneRequester());
+        steerSocket = bind(SocketType.REP, STEER_PORT);
+        utilsSocket = bind(SocketType.REP, UTILS_PORT);
+        notificationsSocket = bind(SocketType.PUB, ports.getNotifications());
+        droneStatusesSocket = bind(SocketType.PUB, ports.getDroneStatuses());
+        projectileStatusesSocket = bind(SocketType.PUB, ports.getProjectileStatuses());
+        swarm = new SyntheticSwarm(droneCount);
+        serverInfo = "{\"checksum\":\"" + assetChecksum + "\",\"configs\":[],\"map\":\"" + map + "\"}";
+        playerDrones = new ArrayDeque<>();
+        replyThread = new Thread(this::serveRequests, "stand-in-replies");
+        replyThread.setDaemon(true);
+        publisher = Executors.newSingleThreadScheduledExecutor(task -> {
+            var thread = new Thread(task, "stand-in-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = false;
+    }
+
+    /**
+     * Answers with the asset pack the client is configured to use, or else the most recently installed one under
+     * {@code assets}, and the first map found in it.
+     */
+    public static ServerStandIn fromConfig(ZContext context, Config config, int droneCount, int rateHz) throws IOException {
+        var assetsDirectory = Paths.get(System.getProperty("user.dir"), "assets");
+        var assetChecksum = config.getServerSettings().getAssetsToUse() != null ?
+                config.getServerSettings().getAssetsToUse() : newestInstalledPack(assetsDirectory);
+        var maps = assetsDirectory.resolve(assetChecksum).resolve("maps").toFile().listFiles(File::isDirectory);
+        if(maps == null || maps.length == 0)
+            throw new IllegalStateException("Asset pack " + assetChecksum + " for the stand-in has no maps under " + assetsDirectory);
+        return new ServerStandIn(context, config, droneCount, rateHz, assetChecksum, maps[0].getName());
+    }
+
+    private static String newestInstalledPack(Path assetsDirectory) throws IOException {
+        if(Files.isDirectory(assetsDirectory)) {
+            try(var packs = Files.list(assetsDirectory)) {
+                var newest = packs
+                        .filter(pack -> !pack.getFileName().toString().endsWith(AssetStore.PARTIAL_SUFFIX))
+                        .filter(pack -> Files.isDirectory(pack.resolve("maps")))
+                        .max(Comparator.comparing(pack -> pack.toFile().lastModified()));
+                if(newest.isPresent()) return newest.get().getFileName().toString();
+            }
+        }
+        throw new IllegalStateException("The stand-in needs serverSettings.assetsToUse or an asset pack installed under " + assetsDirectory);
+    }
+
+    public void start() {
+        running = true;
+        startNanos = System.nanoTime();
+        lastNotificationsNanos = startNanos - NOTIFICATIONS_INTERVAL_NS;
+        frameSequence = 0;
+        replyThread.start();
+        long periodUs = 1_000_000L / rateHz;
+        publisher.scheduleAtFixedRate(this::publish, 0, periodUs, TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        publisher.shutdown();
+        try {
+            publisher.awaitTermination(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            replyThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for(var socket : new ZMQ.Socket[]{requesterSocket, steerSocket, utilsSocket, notificationsSocket, droneStatusesSocket, projectileStatusesSocket})
+            context.destroySocket(socket);
+    }
+
+    private ZMQ.Socket bind(SocketType type, int port) {
+        var socket = context.createSocket(type);
+        socket.bind("tcp://*:" + port);
+        return socket;
+    }
+
+    private void serveRequests() {
+        var poller = context.createPoller(3);
+        poller.register(requesterSocket, ZMQ.Poller.POLLIN);
+        poller.register(steerSocket, ZMQ.Poller.POLLIN);
+        poller.register(utilsSocket, ZMQ.Poller.POLLIN);
+        try {
+            while(running) {
+                if(poller.poll(POLL_TIMEOUT_MS) <= 0) continue;
+                if(poller.pollin(0)) reply(requesterSocket, answerRequester(receive(requesterSocket)));
+                if(poller.pollin(1)) reply(steerSocket, answerSteering(receive(steerSocket)));
+                if(poller.pollin(2)) reply(utilsSocket, answerUtils(receive(utilsSocket)));
+            }
+        } catch (ZMQException exception) {
+            // Context terminated
+        } finally {
+            poller.close();
+        }
+    }
+
+    private static String receive(ZMQ.Socket socket) {
+        return new String(socket.recv(0), ZMQ.CHARSET);
+    }
+
+    private static void reply(ZMQ.Socket socket, String message) {
+        socket.send(message.getBytes(ZMQ.CHARSET), 0);
+    }
+
+    String answerRequester(String request) {
+        if(request.equals("i")) return serverInfo;
+        if(request.startsWith("c:")) {
+            var checksum = new CRC32();
+            checksum.update(request.substring(2).getBytes(ZMQ.CHARSET));
+            return "ok;" + String.format("%08x", checksum.getValue());
+        }
+        if(request.startsWith("s:")) {
+            int droneId = swarm.spawnPlayerDrone();
+            playerDrones.addLast(droneId);
+            return droneId + "," + STEER_PORT + "," + UTILS_PORT;
+        }
+        return "-1";
+    }
+
+    String answerSteering(String request) {
+        return "ok";
+    }
+
+    String answerUtils(String request) {
+        // A respawning client requests its new drone before killing the old one
+        if(request.equals("kill") && !playerDrones.isEmpty()) swarm.despawn(playerDrones.removeFirst());
+        if(request.startsWith("shoot") || request.startsWith("drop")) return "ok;-1,-1";
+        return "ok";
+    }
+
+    private void publish() {
+        long now = System.nanoTime();
+        swarm.update((float) ((now - startNanos) / NANOSECONDS_IN_SECOND));
+        frameSequence++;
+        int droneFrameLength = swarm.encodeDroneStatuses(frameSequence);
+        droneStatusesSocket.send(swarm.getDroneFrame(), 0, droneFrameLength, ZMQ.DONTWAIT);
+        projectileStatusesSocket.send(BinaryStatusFrame.encodeProjectileStatuses(swarm.getCargos(), frameSequence), ZMQ.DONTWAIT);
+        if(now - lastNotificationsNanos >= NOTIFICATIONS_INTERVAL_NS) {
+            lastNotificationsNanos = now;
+            notificationsSocket.send(swarm.droneModelsMessage().getBytes(ZMQ.CHARSET), ZMQ.DONTWAIT);
+            notificationsSocket.send(swarm.projectileModelsMessage().getBytes(ZMQ.CHARSET), ZMQ.DONTWAIT);
+            notificationsSocket.send(swarm.ropesMessage().getBytes(ZMQ.CHARSET), ZMQ.DONTWAIT);
+        }
+    }
+
+    /**
+     * Standalone entry point reading ports from the working directory's config.yaml.
+     * Arguments: [drone count] [rate in Hz]
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Config config = FileMapper.load(Config.class, Paths.get(System.getProperty("user.dir"), "config.yaml"), new YAMLMapper());
+        int droneCount = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int rateHz = args.length > 1 ? Integer.parseInt(args[1]) : config.getServerSettings().getStandInRateHz();
+        try(var context = new ZContext(); var standIn = fromConfig(context, config, droneCount, rateHz)) {
+            standIn.start();
+            System.out.println("Stand-in publishing " + droneCount + " drones at " + rateHz + " Hz");
+            Thread.sleep(Long.MAX_VALUE);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package org.uav.logic.standin;
+
+import org.joml.Vector3f;
+import org.uav.logic.communication.BinaryStatusFrame;
+import org.uav.logic.state.drone.DroneStatus;
+import org.uav.logic.state.projectile.ProjectileStatus;
+
+import java.util.*;
+
+/**
+ * Deterministic traffic for the server stand-in: drones circling on a grid, every {@value CARGO_EVERY}-th one
+ * carrying a cargo on a rope, plus a hovering drone for each player that requested one.
+ */
+public class SyntheticSwarm {
+    private static final int CARGO_EVERY = 10;
+    private static final float GRID_SPACING_M = 12;
+    private static final float ORBIT_RADIUS_M = 4;
+    private static final float ORBIT_RADPS = 0.5f;
+    private static final float ALTITUDE_M = -20;
+    private static final float ROPE_LENGTH_M = 2;
+    private static final float PROPELLER_RADPS = 600;
+    private static final int PROPELLERS = 4;
+    private static final String DRONE_MODEL = "defaultDrone";
+    private static final String CARGO_MODEL = "defaultProjectile";
+
+    private final int droneCount;
+    private final int gridSide;
+    private final Map<Integer, DroneStatus> drones;
+    private final List<ProjectileStatus> cargos;
+    // Drone statuses frame rewritten every tick, grown when player drones join
+    private byte[] droneFrame;
+
+    public SyntheticSwarm(int droneCount) {
+        this.droneCount = droneCount;
+        gridSide = (int) Math.ceil(Math.sqrt(droneCount));
+        drones = new LinkedHashMap<>();
+        cargos = new ArrayList<>();
+        droneFrame = new byte[0];
+        for(int id = 1; id <= droneCount; id++) {
+            var drone = new DroneStatus();
+            drone.id = id;
+            drone.propellersRadps = new float[PROPELLERS];
+            drones.put(id, drone);
+            if(id % CARGO_EVERY == 1)
+                cargos.add(new ProjectileStatus(id, new Vector3f(), new Vector3f()));
+        }
+        update(0);
+    }
+
+    /**
+     * @return id of the new hovering drone
+     */
+    public synchronized int spawnPlayerDrone() {
+        int id = droneCount + 1;
+        while(drones.containsKey(id)) id++;
+        var drone = new DroneStatus();
+        drone.id = id;
+        drone.position.set(0, 0, ALTITUDE_M / 4);
+        drone.propellersRadps = new float[PROPELLERS];
+        Arrays.fill(drone.propellersRadps, PROPELLER_RADPS);
+        drones.put(id, drone);
+        return id;
+    }
+
+    public synchronized void despawn(int id) {
+        if(id > droneCount) drones.remove(id);
+    }
+
+    public synchronized void update(float timeS) {
+        for(int id = 1; id <= droneCount; id++) {
+            var drone = drones.get(id);
+            float phase = ORBIT_RADPS * timeS + id;
+            float centerX = ((id - 1) % gridSide) * GRID_SPACING_M;
+            float centerY = ((id - 1) / gridSide) * GRID_SPACING_M;
+            float sin = (float) Math.sin(phase);
+            float cos = (float) Math.cos(phase);
+            drone.position.set(centerX + ORBIT_RADIUS_M * cos, centerY + ORBIT_RADIUS_M * sin, ALTITUDE_M - id % 5);
+            drone.linearVelocity.set(-ORBIT_RADIUS_M * ORBIT_RADPS * sin, ORBIT_RADIUS_M * ORBIT_RADPS * cos, 0);
+            drone.angularVelocity.set(0, 0, ORBIT_RADPS);
+            // Nose along the orbit tangent
+            drone.rotation.rotationZ(phase + (float) Math.PI / 2);
+            Arrays.fill(drone.propellersRadps, PROPELLER_RADPS);
+        }
+        for(var cargo : cargos) {
+            var owner = drones.get(cargo.id);
+            cargo.position.set(owner.position).add(0, 0, ROPE_LENGTH_M);
+            cargo.velocity.set(owner.linearVelocity);
+        }
+        for(var drone : drones.values())
+            drone.time = timeS;
+    }
+
+    /**
+     * Encodes every drone into {@link #getDroneFrame} as a binary drone statuses frame.
+     * @return frame length
+     */
+    public synchronized int encodeDroneStatuses(int sequence) {
+        int length = BinaryStatusFrame.droneStatusesLength(drones.values());
+        if(droneFrame.length < length) droneFrame = new byte[length];
+        return BinaryStatusFrame.encodeDroneStatuses(drones.values(), sequence, droneFrame);
+    }
+
+    /**
+     * Buffer reused by {@link #encodeDroneStatuses}, only valid until its next call.
+     */
+    public byte[] getDroneFrame() {
+        return droneFrame;
+    }
+
+    public Collection<ProjectileStatus> getCargos() {
+        return cargos;
+    }
+
+    public synchronized String droneModelsMessage() {
+        var message = new StringBuilder("t:");
+        for(int id : drones.keySet())
+            message.append(id).append(',').append(DRONE_MODEL).append(';');
+        return message.toString();
+    }
+
+    public String projectileModelsMessage() {
+        var message = new StringBuilder("o:");
+        for(var cargo : cargos)
+            message.append(cargo.id).append(',').append(CARGO_MODEL).append(';');
+        return message.toString();
+    }
+
+    /**
+     * Cargos share the id of the drone carrying them.
+     */
+    public String ropesMessage() {
+        var message = new StringBuilder("l:");
+        for(var cargo : cargos)
+            message.append(cargo.id).append(',').append(cargo.id).append(',').append(ROPE_LENGTH_M).append(",0,0,0;");
+        return message.toString();
+    }
+}
@@ -0,0 +1,194 @@
+package org.uav.logic.state.drone;
+
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+import org.uav.utils.IntIntMap;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Drones in the air kept as parallel primitive arrays. Drones occupy the dense slots {@code 0..size()-1};
+ * removing a drone moves the last one into its slot, so a slot is only stable until the next removal.
+ */
+public class DroneStateStore {
+    public static final int NO_SLOT = IntIntMap.MISSING;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_PROPELLER_STRIDE = 4;
+
+    private final IntIntMap slotsById;
+    private int[] ids;
+    private float[] times;
+    private float[] positions;
+    private float[] rotations;
+    private float[] linearVelocities;
+    private float[] angularVelocities;
+    private int[] propellerCounts;
+    private float[] propellersRadps;
+    private int propellerStride;
+    private String[] modelNames;
+    private int size;
+
+    public DroneStateStore() {
+        slotsById = new IntIntMap(INITIAL_CAPACITY);
+        ids = new int[INITIAL_CAPACITY];
+        times = new float[INITIAL_CAPACITY];
+        positions = new float[INITIAL_CAPACITY * 3];
+        rotations = new float[INITIAL_CAPACITY * 4];
+        linearVelocities = new float[INITIAL_CAPACITY * 3];
+        angularVelocities = new float[INITIAL_CAPACITY * 3];
+        propellerCounts = new int[INITIAL_CAPACITY];
+        propellerStride = INITIAL_PROPELLER_STRIDE;
+        propellersRadps = new float[INITIAL_CAPACITY * propellerStride];
+        modelNames = new String[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getSlot(int droneId) {
+        return slotsById.get(droneId);
+    }
+
+    public boolean contains(int droneId) {
+        return slotsById.containsKey(droneId);
+    }
+
+    public int getId(int slot) {
+        return ids[slot];
+    }
+
+    /**
+     * Inserts the drone or overwrites the one with the same id.
+     * @return slot of the drone
+     */
+    public int put(DroneStatus status) {
+        int slot = slotsById.get(status.id);
+        if(slot == NO_SLOT) {
+            if(size == ids.length) grow(size * 2);
+            slot = size++;
+            ids[slot] = status.id;
+            modelNames[slot] = null;
+            slotsById.put(status.id, slot);
+        }
+        times[slot] = status.time;
+        set3(positions, slot, status.position);
+        set3(linearVelocities, slot, status.linearVelocity);
+        set3(angularVelocities, slot, status.angularVelocity);
+        rotations[4 * slot] = status.rotation.x;
+        rotations[4 * slot + 1] = status.rotation.y;
+        rotations[4 * slot + 2] = status.rotation.z;
+        rotations[4 * slot + 3] = status.rotation.w;
+        setPropellers(slot, status.propellersRadps);
+        return slot;
+    }
+
+    public void remove(int droneId) {
+        int slot = slotsById.remove(droneId);
+        if(slot == NO_SLOT) return;
+        int last = --size;
+        if(slot != last) {
+            ids[slot] = ids[last];
+            times[slot] = times[last];
+            System.arraycopy(positions, 3 * last, positions, 3 * slot, 3);
+            System.arraycopy(rotations, 4 * last, rotations, 4 * slot, 4);
+            System.arraycopy(linearVelocities, 3 * last, linearVelocities, 3 * slot, 3);
+            System.arraycopy(angularVelocities, 3 * last, angularVelocities, 3 * slot, 3);
+            propellerCounts[slot] = propellerCounts[last];
+            System.arraycopy(propellersRadps, propellerStride * last, propellersRadps, propellerStride * slot, propellerCounts[last]);
+            modelNames[slot] = modelNames[last];
+            slotsById.put(ids[slot], slot);
+        }
+        modelNames[last] = null;
+    }
+
+    public void removeIf(IntPredicate droneIdFilter) {
+        for(int slot = size - 1; slot >= 0; slot--)
+            if(droneIdFilter.test(ids[slot])) remove(ids[slot]);
+    }
+
+    public float getTime(int slot) {
+        return times[slot];
+    }
+
+    public Vector3f getPosition(int slot, Vector3f dest) {
+        return dest.set(positions[3 * slot], positions[3 * slot + 1], positions[3 * slot + 2]);
+    }
+
+    public Quaternionf getRotation(int slot, Quaternionf dest) {
+        return dest.set(rotations[4 * slot], rotations[4 * slot + 1], rotations[4 * slot + 2], rotations[4 * slot + 3]);
+    }
+
+    public Vector3f getLinearVelocity(int slot, Vector3f dest) {
+        return dest.set(linearVelocities[3 * slot], linearVelocities[3 * slot + 1], linearVelocities[3 * slot + 2]);
+    }
+
+    public Vector3f getAngularVelocity(int slot, Vector3f dest) {
+        return dest.set(angularVelocities[3 * slot], angularVelocities[3 * slot + 1], angularVelocities[3 * slot + 2]);
+    }
+
+    public int getPropellerCount(int slot) {
+        return propellerCounts[slot];
+    }
+
+    public float getPropellerRadps(int slot, int propeller) {
+        return propellersRadps[propellerStride * slot + propeller];
+    }
+
+    @Nullable
+    public String getModelName(int slot) {
+        return modelNames[slot];
+    }
+
+    public void setModelName(int slot, @Nullable String modelName) {
+        modelNames[slot] = modelName;
+    }
+
+    public DroneStatus get(int slot, DroneStatus dest) {
+        dest.id = ids[slot];
+        dest.time = times[slot];
+        getPosition(slot, dest.position);
+        getRotation(slot, dest.rotation);
+        getLinearVelocity(slot, dest.linearVelocity);
+        getAngularVelocity(slot, dest.angularVelocity);
+        int propellerCount = propellerCounts[slot];
+        if(dest.propellersRadps.length != propellerCount) dest.propellersRadps = new float[propellerCount];
+        System.arraycopy(propellersRadps, propellerStride * slot, dest.propellersRadps, 0, propellerCount);
+        return dest;
+    }
+
+    private void setPropellers(int slot, float[] radps) {
+        if(radps.length > propellerStride) widenPropellers(radps.length);
+        System.arraycopy(radps, 0, propellersRadps, propellerStride * slot, radps.length);
+        propellerCounts[slot] = radps.length;
+    }
+
+    private static void set3(float[] array, int slot, Vector3f value) {
+        array[3 * slot] = value.x;
+        array[3 * slot + 1] = value.y;
+        array[3 * slot + 2] = value.z;
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        times = Arrays.copyOf(times, capacity);
+        positions = Arrays.copyOf(positions, capacity * 3);
+        rotations = Arrays.copyOf(rotations, capacity * 4);
+        linearVelocities = Arrays.copyOf(linearVelocities, capacity * 3);
+        angularVelocities = Arrays.copyOf(angularVelocities, capacity * 3);
+        propellerCounts = Arrays.copyOf(propellerCounts, capacity);
+        propellersRadps = Arrays.copyOf(propellersRadps, capacity * propellerStride);
+        modelNames = Arrays.copyOf(modelNames, capacity);
+    }
+
+    private void widenPropellers(int stride) {
+        var widened = new float[ids.length * stride];
+        for(int slot = 0; slot < size; slot++)
+            System.arraycopy(propellersRadps, propellerStride * slot, widened, stride * slot, propellerCounts[slot]);
+        propellersRadps = widened;
+        propellerStride = stride;
+    }
+}
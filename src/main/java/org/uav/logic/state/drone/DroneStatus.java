@@ -3,8 +3,6 @@ package org.uav.logic.state.drone;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
 
-import java.util.Vector;
-
 public class DroneStatus {
     public int id;
     public float time;
@@ -12,7 +10,9 @@ public class DroneStatus {
     public Quaternionf rotation;
     public Vector3f linearVelocity;
     public Vector3f angularVelocity;
-    public Vector<Float> propellersRadps;
+    public float[] propellersRadps;
+    // Number of the received frame that last changed this drone
+    public long sequence;
 
     public DroneStatus() {
         id = 0;
@@ -20,6 +20,21 @@ public class DroneStatus {
         rotation = new Quaternionf();
         linearVelocity = new Vector3f();
         angularVelocity = new Vector3f();
-        propellersRadps = new Vector<>();
+        propellersRadps = new float[0];
+        sequence = 0;
+    }
+
+    public DroneStatus set(DroneStatus other) {
+        id = other.id;
+        time = other.time;
+        position.set(other.position);
+        rotation.set(other.rotation);
+        linearVelocity.set(other.linearVelocity);
+        angularVelocity.set(other.angularVelocity);
+        if(propellersRadps.length != other.propellersRadps.length)
+            propellersRadps = new float[other.propellersRadps.length];
+        System.arraycopy(other.propellersRadps, 0, propellersRadps, 0, propellersRadps.length);
+        sequence = other.sequence;
+        return this;
     }
 }
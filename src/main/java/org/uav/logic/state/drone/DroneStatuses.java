@@ -1,16 +1,25 @@
 package org.uav.logic.state.drone;
 
+import org.uav.logic.communication.FrameTiming;
+
 import java.util.HashMap;
 import java.util.Map;
 
 public class DroneStatuses {
     public Map<Integer, DroneStatus> map;
+    // Number of the latest received frame reflected in the map
+    public long sequence;
+    public final FrameTiming timing;
 
     public DroneStatuses() {
         map = new HashMap<>();
+        sequence = 0;
+        timing = new FrameTiming();
     }
 
     public DroneStatuses(Map<Integer, DroneStatus> map) {
         this.map = map;
+        sequence = 0;
+        timing = new FrameTiming();
     }
 }
@@ -1,16 +1,18 @@
 package org.uav.logic.state.projectile;
 
-import java.util.HashMap;
-import java.util.Map;
+import org.uav.logic.communication.FrameTiming;
 
 public class ProjectileStatuses {
-    public Map<Integer, ProjectileStatus> map;
+    public ProjectileTable table;
+    public final FrameTiming timing;
 
     public ProjectileStatuses() {
-        map = new HashMap<>();
+        table = new ProjectileTable();
+        timing = new FrameTiming();
     }
 
-    public ProjectileStatuses(Map<Integer, ProjectileStatus> map) {
-        this.map = map;
+    public ProjectileStatuses(ProjectileTable table) {
+        this.table = table;
+        timing = new FrameTiming();
     }
 }
@@ -0,0 +1,105 @@
+package org.uav.logic.state.projectile;
+
+import org.joml.Vector3f;
+import org.uav.utils.IntIntMap;
+
+import java.util.Arrays;
+
+/**
+ * Projectiles in flight kept as parallel primitive arrays. Projectiles occupy the dense slots {@code 0..size()-1};
+ * removing a projectile moves the last one into its slot and {@link #clear()} keeps the arrays, so a table that is
+ * refilled every frame stops allocating once it has grown to the largest volley seen.
+ */
+public class ProjectileTable {
+    public static final int NO_SLOT = IntIntMap.MISSING;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final IntIntMap slotsById;
+    private int[] ids;
+    private float[] positions;
+    private float[] velocities;
+    private int size;
+
+    public ProjectileTable() {
+        slotsById = new IntIntMap(INITIAL_CAPACITY);
+        ids = new int[INITIAL_CAPACITY];
+        positions = new float[INITIAL_CAPACITY * 3];
+        velocities = new float[INITIAL_CAPACITY * 3];
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getSlot(int projectileId) {
+        return slotsById.get(projectileId);
+    }
+
+    public boolean contains(int projectileId) {
+        return slotsById.containsKey(projectileId);
+    }
+
+    public int getId(int slot) {
+        return ids[slot];
+    }
+
+    /**
+     * Inserts the projectile or overwrites the one with the same id.
+     * @return slot of the projectile
+     */
+    public int put(int projectileId, float x, float y, float z, float vx, float vy, float vz) {
+        int slot = slotsById.get(projectileId);
+        if(slot == NO_SLOT) {
+            if(size == ids.length) grow(size * 2);
+            slot = size++;
+            ids[slot] = projectileId;
+            slotsById.put(projectileId, slot);
+        }
+        positions[3 * slot] = x;
+        positions[3 * slot + 1] = y;
+        positions[3 * slot + 2] = z;
+        velocities[3 * slot] = vx;
+        velocities[3 * slot + 1] = vy;
+        velocities[3 * slot + 2] = vz;
+        return slot;
+    }
+
+    public int put(ProjectileStatus status) {
+        return put(status.id,
+                status.position.x, status.position.y, status.position.z,
+                status.velocity.x, status.velocity.y, status.velocity.z);
+    }
+
+    public void remove(int projectileId) {
+        int slot = slotsById.remove(projectileId);
+        if(slot == NO_SLOT) return;
+        int last = --size;
+        if(slot != last) {
+            ids[slot] = ids[last];
+            System.arraycopy(positions, 3 * last, positions, 3 * slot, 3);
+            System.arraycopy(velocities, 3 * last, velocities, 3 * slot, 3);
+            slotsById.put(ids[slot], slot);
+        }
+    }
+
+    public void clear() {
+        if(size == 0) return;
+        slotsById.clear();
+        size = 0;
+    }
+
+    public Vector3f getPosition(int slot, Vector3f dest) {
+        return dest.set(positions[3 * slot], positions[3 * slot + 1], positions[3 * slot + 2]);
+    }
+
+    public Vector3f getVelocity(int slot, Vector3f dest) {
+        return dest.set(velocities[3 * slot], velocities[3 * slot + 1], velocities[3 * slot + 2]);
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        positions = Arrays.copyOf(positions, capacity * 3);
+        velocities = Arrays.copyOf(velocities, capacity * 3);
+    }
+}
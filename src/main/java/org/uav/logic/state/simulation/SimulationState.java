@@ -1,25 +1,30 @@
 package org.uav.logic.state.simulation;
 
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.Getter;
 import org.apache.commons.lang3.ArrayUtils;
 import org.joml.Vector3f;
 import org.uav.logic.communication.DroneCommunication;
+import org.uav.logic.communication.IngestCounters;
+import org.uav.logic.communication.StreamLatency;
 import org.uav.logic.config.Config;
 import org.uav.logic.config.DroneParameters;
 import org.uav.logic.fps.FpsCounter;
 import org.uav.logic.input.handler.JoystickStatus;
 import org.uav.logic.state.controlMode.ControlModeDemanded;
+import org.uav.logic.state.drone.DroneStateStore;
+import org.uav.logic.state.drone.DroneStatus;
 import org.uav.logic.state.drone.DroneStatuses;
 import org.uav.logic.state.notifications.Notifications;
 import org.uav.logic.state.projectile.Projectile;
 import org.uav.logic.state.projectile.ProjectileStatuses;
 import org.uav.presentation.entity.camera.Camera;
 import org.uav.presentation.entity.camera.CameraMode;
-import org.uav.presentation.entity.drone.DroneState;
+import org.uav.utils.DeferredExecutor;
+import org.uav.utils.TripleBuffer;
 
 import java.util.*;
-import java.util.concurrent.locks.ReentrantLock;
 
 @Data
 public class SimulationState {
@@ -34,13 +39,17 @@ public class SimulationState {
     final Camera camera;
 
     JoystickStatus joystickStatus;
-    final DroneStatuses droneStatuses;
-    final ReentrantLock droneStatusesMutex;
-    final ProjectileStatuses projectileStatuses;
-    final ReentrantLock projectileStatusesMutex;
+    final TripleBuffer<DroneStatuses> droneStatusesBuffer;
+    final TripleBuffer<ProjectileStatuses> projectileStatusesBuffer;
     final Notifications notifications;
+    final IngestCounters droneStatusesIngest;
+    final IngestCounters projectileStatusesIngest;
+    final IngestCounters notificationsIngest;
+    final StreamLatency droneStatusesLatency;
+    final StreamLatency projectileStatusesLatency;
+    final DeferredExecutor renderThreadTasks;
 
-    final Map<Integer, DroneState> dronesInAir;
+    final DroneStateStore dronesInAir;
     final ProjectileStatuses currPassProjectileStatuses;
 
     CameraMode currentCameraMode;
@@ -56,22 +65,29 @@ public class SimulationState {
     final List<Projectile>ammos;
     int currentlyChosenCargo;
     final List<Projectile> cargos;
+    @Getter(AccessLevel.NONE)
+    final DroneStatus playerDrone;
 
 
     public SimulationState(long window, Config config, DroneParameters droneParameters) {
         this.window = window;
         lastSimulationTimeS = 0;
         simulationTimeS = 0;
-        droneStatuses = new DroneStatuses();
-        droneStatusesMutex = new ReentrantLock();
-        projectileStatuses = new ProjectileStatuses();
-        projectileStatusesMutex = new ReentrantLock();
+        droneStatusesBuffer = new TripleBuffer<>(DroneStatuses::new);
+        projectileStatusesBuffer = new TripleBuffer<>(ProjectileStatuses::new);
         notifications = new Notifications();
+        droneStatusesIngest = new IngestCounters();
+        projectileStatusesIngest = new IngestCounters();
+        notificationsIngest = new IngestCounters();
+        droneStatusesLatency = new StreamLatency("droneStatuses");
+        projectileStatusesLatency = new StreamLatency("projectileStatuses");
+        renderThreadTasks = new DeferredExecutor();
         currentCameraMode = config.getDroneSettings().getDefaultCamera();
         currentControlModeDemanded = null;
         currentlyControlledDrone = null;
-        dronesInAir = new HashMap<>();
-        currPassProjectileStatuses = new ProjectileStatuses(projectileStatuses.map);
+        dronesInAir = new DroneStateStore();
+        playerDrone = new DroneStatus();
+        currPassProjectileStatuses = new ProjectileStatuses(projectileStatusesBuffer.getReadBuffer().table);
         camera = new Camera(this, config);
         mapOverlay = false;
         mapZoom = 1;
@@ -91,10 +107,18 @@ public class SimulationState {
         this.simulationTimeS = simulationTimeS;
     }
 
-    public Optional<DroneState> getPlayerDrone() {
-        if(getCurrentlyControlledDrone().isEmpty()) return Optional.empty();
-        var drone = dronesInAir.get(getCurrentlyControlledDrone().get().getId());
-        return Optional.ofNullable(drone);
+    /**
+     * Copy of the controlled drone's state, overwritten on every call.
+     */
+    public Optional<DroneStatus> getPlayerDrone() {
+        int slot = getPlayerDroneSlot();
+        if(slot == DroneStateStore.NO_SLOT) return Optional.empty();
+        return Optional.of(dronesInAir.get(slot, playerDrone));
+    }
+
+    public int getPlayerDroneSlot() {
+        if(getCurrentlyControlledDrone().isEmpty()) return DroneStateStore.NO_SLOT;
+        return dronesInAir.getSlot(getCurrentlyControlledDrone().get().getId());
     }
 
     public Optional<DroneCommunication> getCurrentlyControlledDrone() {
@@ -2,19 +2,20 @@ package org.uav.logic.state.simulation;
 
 import org.lwjgl.glfw.GLFW;
 import org.uav.logic.assets.AvailableControlModes;
+import org.uav.logic.assets.ServerInfo;
 import org.uav.logic.communication.*;
 import org.uav.logic.config.Config;
 import org.uav.logic.messages.Message;
 import org.uav.logic.messages.MessageBoard;
 import org.uav.logic.messages.Publisher;
 import org.uav.logic.state.projectile.Projectile;
-import org.uav.presentation.entity.drone.DroneState;
 import org.zeromq.ZContext;
 
 import java.awt.*;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
 
@@ -27,25 +28,65 @@ public class SimulationStateProcessor implements AutoCloseable, Publisher {
     private final DroneStatusConsumer droneStatusConsumer;
     private final ProjectileStatusesConsumer projectileStatusesConsumer;
     private final NotificationsConsumer notificationsConsumer;
+    private final IngestLoop ingestLoop;
     private final List<Consumer<Message>> subscribers;
+    private final LatencyReporter latencyReporter;
+    private final FrameRecorder frameRecorder;
+    private final FrameReplay frameReplay;
+    private long appliedDroneStatusesSequence;
+    private Map<Integer, String> appliedDroneModels;
 
 
-    public SimulationStateProcessor(ZContext context, SimulationState simulationState, Config config, AvailableControlModes availableControlModes, MessageBoard messageBoard) {
+    public SimulationStateProcessor(ZContext context, SimulationState simulationState, Config config, ServerInfo serverInfo, AvailableControlModes availableControlModes, MessageBoard messageBoard) {
         this.simulationState = simulationState;
         this.config = config;
         droneRequester = new DroneRequester(context, simulationState, config, availableControlModes);
-        droneStatusConsumer = new DroneStatusConsumer(context, simulationState, config);
-        projectileStatusesConsumer = new ProjectileStatusesConsumer(context, simulationState, config);
-        notificationsConsumer = new NotificationsConsumer(context, config, simulationState);
+        var recordFramesTo = config.getServerSettings().getRecordFramesTo();
+        frameRecorder = recordFramesTo == null ? null : new FrameRecorder(
+                Paths.get(System.getProperty("user.dir"), recordFramesTo),
+                config.getServerSettings().getRecordSegmentSizeMb() * 1024 * 1024
+        );
+        if(frameRecorder != null) frameRecorder.appendServerInfo(serverInfo.assetChecksum, serverInfo.serverMap);
+        droneStatusConsumer = new DroneStatusConsumer(simulationState, config);
+        projectileStatusesConsumer = new ProjectileStatusesConsumer(simulationState, config);
+        notificationsConsumer = new NotificationsConsumer(config, simulationState);
+        ingestLoop = new IngestLoop(context, config, frameRecorder);
+        var ports = config.getPorts();
+        ingestLoop.subscribe(StatusStream.NOTIFICATIONS, ports.getNotifications(), notificationsConsumer, simulationState.getNotificationsIngest());
+        ingestLoop.subscribe(StatusStream.DRONE_STATUSES, ports.getDroneStatuses(), droneStatusConsumer, simulationState.getDroneStatusesIngest());
+        ingestLoop.subscribe(StatusStream.PROJECTILE_STATUSES, ports.getProjectileStatuses(), projectileStatusesConsumer, simulationState.getProjectileStatusesIngest());
+        frameReplay = isReplaying() ? new FrameReplay(
+                Paths.get(System.getProperty("user.dir"), config.getServerSettings().getReplayFramesFrom()),
+                config.getServerSettings().getReplaySpeed(),
+                Map.of(
+                        StatusStream.NOTIFICATIONS, notificationsConsumer,
+                        StatusStream.DRONE_STATUSES, droneStatusConsumer,
+                        StatusStream.PROJECTILE_STATUSES, projectileStatusesConsumer
+                )
+        ) : null;
         notificationsConsumer.subscribe(messageBoard.produceSubscriber());
         subscribers = new ArrayList<>();
+        var latencyDumpFile = config.getMiscSettings().getLatencyDumpFile();
+        latencyReporter = latencyDumpFile == null ? null : new LatencyReporter(
+                Paths.get(System.getProperty("user.dir"), latencyDumpFile),
+                config.getMiscSettings().getLatencyDumpIntervalMs(),
+                List.of(simulationState.getDroneStatusesLatency(), simulationState.getProjectileStatusesLatency())
+        );
+        appliedDroneStatusesSequence = 0;
+        appliedDroneModels = null;
         subscribe(messageBoard.produceSubscriber());
     }
 
+    public boolean isReplaying() {
+        return config.getServerSettings().getReplayFramesFrom() != null;
+    }
+
     public void openCommunication() {
-        droneStatusConsumer.start();
-        projectileStatusesConsumer.start();
-        notificationsConsumer.start();
+        if(frameReplay != null) {
+            frameReplay.start();
+            return;
+        }
+        ingestLoop.start();
     }
 
     public Optional<DroneCommunication> requestNewDrone() {
@@ -53,12 +94,15 @@ public class SimulationStateProcessor implements AutoCloseable, Publisher {
     }
 
     public void updateSimulationState() {
+        simulationState.getRenderThreadTasks().runPending();
         updateDronesInAir();
         updateControlledDroneCommunication();
 
-        simulationState.getProjectileStatusesMutex().lock();
-        simulationState.getCurrPassProjectileStatuses().map = simulationState.getProjectileStatuses().map;
-        simulationState.getProjectileStatusesMutex().unlock();
+        var projectileStatusesBuffer = simulationState.getProjectileStatusesBuffer();
+        if(projectileStatusesBuffer.acquire()) {
+            simulationState.getCurrPassProjectileStatuses().table = projectileStatusesBuffer.getReadBuffer().table;
+            simulationState.getProjectileStatusesLatency().snapshotAcquired(projectileStatusesBuffer.getReadBuffer().timing);
+        }
 
         simulationState.getAmmos().forEach(Projectile::update);
         simulationState.getCargos().forEach(Projectile::update);
@@ -69,26 +113,36 @@ public class SimulationStateProcessor implements AutoCloseable, Publisher {
     private void updateControlledDroneCommunication() {
         var droneComm = simulationState.getCurrentlyControlledDrone();
         if(droneComm.isEmpty()) return;
-        if(droneComm.get().getFlightStatus() == DroneCommunication.FlightStatus.INIT && simulationState.getDronesInAir().containsKey(droneComm.get().getId())) {
+        if(droneComm.get().getFlightStatus() == DroneCommunication.FlightStatus.INIT && simulationState.getDronesInAir().contains(droneComm.get().getId())) {
             notifySubscribers(new Message("TAKE OFF", "takeoff",1, Color.GREEN, true));
             droneComm.get().setFlightStatus(DroneCommunication.FlightStatus.FLIGHT);
         }
-        else if(droneComm.get().getFlightStatus() == DroneCommunication.FlightStatus.FLIGHT && !simulationState.getDronesInAir().containsKey(droneComm.get().getId())) {
+        else if(droneComm.get().getFlightStatus() == DroneCommunication.FlightStatus.FLIGHT && !simulationState.getDronesInAir().contains(droneComm.get().getId())) {
             droneComm.get().setFlightStatus(DroneCommunication.FlightStatus.DEAD);
         }
     }
 
     private void updateDronesInAir() {
-        simulationState.getDroneStatusesMutex().lock();
+        var droneStatusesBuffer = simulationState.getDroneStatusesBuffer();
         var droneModels = simulationState.getNotifications().droneModelsNames;
-        var previousDrones = simulationState.getDronesInAir().keySet().stream().toList();
-        for(int key : previousDrones)
-            if (!simulationState.getDroneStatuses().map.containsKey(key)) simulationState.getDronesInAir().remove(key);
-        for(var status : simulationState.getDroneStatuses().map.values()) {
-            simulationState.getDronesInAir().computeIfPresent(status.id, (id, droneState) -> droneState.update(status, droneModels));
-            simulationState.getDronesInAir().putIfAbsent(status.id, new DroneState(simulationState, status));
+        var dronesInAir = simulationState.getDronesInAir();
+        if(droneStatusesBuffer.acquire()) {
+            var droneStatuses = droneStatusesBuffer.getReadBuffer();
+            simulationState.getDroneStatusesLatency().snapshotAcquired(droneStatuses.timing);
+            for(var status : droneStatuses.map.values()) {
+                if(status.sequence <= appliedDroneStatusesSequence && dronesInAir.contains(status.id)) continue;
+                int slot = dronesInAir.put(status);
+                dronesInAir.setModelName(slot, droneModels.get(status.id));
+            }
+            if(dronesInAir.size() != droneStatuses.map.size())
+                dronesInAir.removeIf(id -> !droneStatuses.map.containsKey(id));
+            appliedDroneStatusesSequence = droneStatuses.sequence;
+        }
+        if(droneModels != appliedDroneModels) {
+            for(int slot = 0; slot < dronesInAir.size(); slot++)
+                dronesInAir.setModelName(slot, droneModels.get(dronesInAir.getId(slot)));
+            appliedDroneModels = droneModels;
         }
-        simulationState.getDroneStatusesMutex().unlock();
     }
 
     public void requestFirstDrone() {
@@ -106,8 +160,10 @@ public class SimulationStateProcessor implements AutoCloseable, Publisher {
             return;
         }
         simulationState.setCurrentlyControlledDrone(newDrone.get());
-        if(oldDrone != null)
+        if(oldDrone != null) {
             oldDrone.sendUtilsCommand(KILL_COMMAND);
+            oldDrone.close();
+        }
         simulationState.setCurrentControlModeDemanded(null);
         simulationState.getCargos().forEach(Projectile::reset);
         simulationState.getAmmos().forEach(Projectile::reset);
@@ -123,16 +179,23 @@ public class SimulationStateProcessor implements AutoCloseable, Publisher {
         simulationState.getCamera().updateCamera();
     }
 
+    public void recordFrameRendered() {
+        long renderedNanos = System.nanoTime();
+        simulationState.getDroneStatusesLatency().frameRendered(renderedNanos);
+        simulationState.getProjectileStatusesLatency().frameRendered(renderedNanos);
+    }
+
     public void nextFrame() {
         simulationState.getFpsCounter().nextFrame();
     }
 
     @Override
     public void close() {
-        droneStatusConsumer.stop();
-        projectileStatusesConsumer.stop();
-        notificationsConsumer.interrupt();
-//        heartbeatProducer.stop();
+        ingestLoop.stop();
+        if(frameReplay != null) frameReplay.stopReplay();
+        if(frameRecorder != null) frameRecorder.close();
+        simulationState.getCurrentlyControlledDrone().ifPresent(DroneCommunication::close);
+        if(latencyReporter != null) latencyReporter.close();
     }
 
     @Override
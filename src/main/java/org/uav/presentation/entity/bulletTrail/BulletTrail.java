@@ -6,8 +6,6 @@ import org.lwjgl.system.MemoryStack;
 import org.uav.presentation.rendering.Shader;
 
 import java.nio.FloatBuffer;
-import java.util.ArrayList;
-import java.util.List;
 
 import static org.lwjgl.opengl.GL11.GL_POINTS;
 import static org.lwjgl.opengl.GL11.glDrawArrays;
@@ -18,12 +16,15 @@ import static org.lwjgl.opengl.GL30C.glGenVertexArrays;
 public class BulletTrail {
     private static final int POINTS_COUNT = 20;
     private int VAO;
-    private final List<Vector3f> trailPoints;
+    private final Vector3f[] trailPoints;
+    private int pointCount;
     private final Shader bulletTrailShader;
     private final int emptyVertexArray;
 
     public BulletTrail(Shader bulletTrailShader) {
-        trailPoints = new ArrayList<>();
+        trailPoints = new Vector3f[POINTS_COUNT];
+        for(int i = 0; i < POINTS_COUNT; i++) trailPoints[i] = new Vector3f();
+        pointCount = 0;
         this.bulletTrailShader = bulletTrailShader;
         emptyVertexArray = glGenVertexArrays();
         setupModel();
@@ -39,15 +40,24 @@ public class BulletTrail {
     }
 
     public void addPoint(Vector3f point) {
-        trailPoints.add(point);
-        if(trailPoints.size() > POINTS_COUNT)
-            trailPoints.remove(0);
+        if(pointCount == POINTS_COUNT) {
+            // Recycle the oldest point as the newest one
+            var oldest = trailPoints[0];
+            System.arraycopy(trailPoints, 1, trailPoints, 0, POINTS_COUNT - 1);
+            trailPoints[POINTS_COUNT - 1] = oldest;
+            pointCount--;
+        }
+        trailPoints[pointCount++].set(point);
+    }
+
+    public void reset() {
+        pointCount = 0;
     }
 
     public void draw(MemoryStack stack) {
         bulletTrailShader.use();
-        bulletTrailShader.setVec3Array(stack, "trailPoints", trailPoints);
-        bulletTrailShader.setInt("pointCount", trailPoints.size());
+        bulletTrailShader.setVec3Array(stack, "trailPoints", trailPoints, pointCount);
+        bulletTrailShader.setInt("pointCount", pointCount);
 
         glBindVertexArray(VAO);
         glDrawArrays(GL_POINTS, 0, 1);
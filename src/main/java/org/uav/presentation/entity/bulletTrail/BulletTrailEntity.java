@@ -3,22 +3,33 @@ package org.uav.presentation.entity.bulletTrail;
 import org.joml.Vector3f;
 import org.lwjgl.system.MemoryStack;
 import org.uav.UavVisualization;
-import org.uav.logic.state.projectile.ProjectileStatus;
+import org.uav.logic.state.projectile.ProjectileTable;
 import org.uav.presentation.rendering.Shader;
+import org.uav.utils.IntIntMap;
 
 import java.io.IOException;
-import java.nio.FloatBuffer;
-import java.util.Collection;
-import java.util.HashMap;
+import java.util.ArrayDeque;
 import java.util.Objects;
 
 
 public class BulletTrailEntity {
-    private HashMap<Integer, BulletTrail> bulletTrails;
     private final Shader bulletTrailShader;
+    private final ArrayDeque<BulletTrail> spareTrails;
+    private final Vector3f position;
+    private BulletTrail[] trails;
+    private BulletTrail[] nextTrails;
+    private IntIntMap trailsById;
+    private IntIntMap nextTrailsById;
+    private int trailCount;
 
     public BulletTrailEntity() throws IOException {
-        bulletTrails = new HashMap<>();
+        spareTrails = new ArrayDeque<>();
+        position = new Vector3f();
+        trails = new BulletTrail[0];
+        nextTrails = new BulletTrail[0];
+        trailsById = new IntIntMap();
+        nextTrailsById = new IntIntMap();
+        trailCount = 0;
 
         var bulletTrailVertexShaderSource = Objects.requireNonNull(UavVisualization.class.getClassLoader().getResourceAsStream("shaders/bullets/bulletTrailShader.vert"));
         var bulletTrailGeometryShaderSource = Objects.requireNonNull(UavVisualization.class.getClassLoader().getResourceAsStream("shaders/bullets/bulletTrailShader.geom"));
@@ -29,25 +40,42 @@ public class BulletTrailEntity {
         bulletTrailShader.setFloat("startingOpacity", 1f);
     }
 
-    public void draw(FloatBuffer viewBuffer, FloatBuffer projectionBuffer, Collection<ProjectileStatus> projectiles) {
+    public void draw(ProjectileTable projectiles) {
         bulletTrailShader.use();
-        bulletTrailShader.setMatrix4f("view", viewBuffer);
-        bulletTrailShader.setMatrix4f("projection", projectionBuffer);
 
+        if(nextTrails.length < projectiles.size())
+            nextTrails = new BulletTrail[Math.max(projectiles.size(), 2 * nextTrails.length)];
+        nextTrailsById.clear();
         try (MemoryStack stack = MemoryStack.stackPush()) {
-            HashMap<Integer, BulletTrail> newBulletTrails = new HashMap<>();
-            for(ProjectileStatus status: projectiles) {
+            for(int slot = 0; slot < projectiles.size(); slot++) {
+                int id = projectiles.getId(slot);
+                int index = trailsById.get(id);
                 BulletTrail bt;
-                if(bulletTrails.containsKey(status.id)) {
-                    bt = bulletTrails.get(status.id);
+                if(index != IntIntMap.MISSING) {
+                    bt = trails[index];
+                    trails[index] = null;
                 } else {
-                    bt = new BulletTrail(bulletTrailShader);
+                    bt = spareTrails.isEmpty() ? new BulletTrail(bulletTrailShader) : spareTrails.pop();
                 }
-                bt.addPoint(status.position);
-                newBulletTrails.put(status.id, bt);
+                bt.addPoint(projectiles.getPosition(slot, position));
+                nextTrailsById.put(id, slot);
+                nextTrails[slot] = bt;
                 bt.draw(stack);
             }
-            bulletTrails = newBulletTrails;
         }
+        // Trails of projectiles that are gone keep their vertex arrays for the next projectiles fired
+        for(int i = 0; i < trailCount; i++) {
+            if(trails[i] == null) continue;
+            trails[i].reset();
+            spareTrails.push(trails[i]);
+            trails[i] = null;
+        }
+        var swappedTrails = trails;
+        trails = nextTrails;
+        nextTrails = swappedTrails;
+        var swappedTrailsById = trailsById;
+        trailsById = nextTrailsById;
+        nextTrailsById = swappedTrailsById;
+        trailCount = projectiles.size();
     }
 }
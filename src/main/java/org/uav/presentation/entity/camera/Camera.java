@@ -7,6 +7,7 @@ import org.joml.Matrix4f;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
 import org.uav.logic.config.Config;
+import org.uav.logic.state.drone.DroneStateStore;
 import org.uav.logic.state.simulation.SimulationState;
 import org.uav.utils.Convert;
 
@@ -62,12 +63,16 @@ public class Camera {
     }
 
     public void updateCamera() {
-        var drone = simulationState.getPlayerDrone();
-        var dronePosition = drone.isPresent() ? drone.get().droneStatus.position : lastDronePosition;
-        var droneRotation = drone.isPresent() ? drone.get().droneStatus.rotation : lastDroneRotation;
-        var droneVelocity = drone.isPresent() ? drone.get().droneStatus.linearVelocity : new Vector3f();
-        lastDronePosition = dronePosition;
-        lastDroneRotation = droneRotation;
+        int slot = simulationState.getPlayerDroneSlot();
+        var droneVelocity = new Vector3f();
+        if(slot != DroneStateStore.NO_SLOT) {
+            var drones = simulationState.getDronesInAir();
+            drones.getPosition(slot, lastDronePosition);
+            drones.getRotation(slot, lastDroneRotation);
+            drones.getLinearVelocity(slot, droneVelocity);
+        }
+        var dronePosition = lastDronePosition;
+        var droneRotation = lastDroneRotation;
         float currTime = simulationState.getSimulationTimeS();
         deltaTime = currTime - lastTime;
         lastTime = currTime;
@@ -0,0 +1,149 @@
+package org.uav.presentation.entity.drone;
+
+import org.uav.logic.input.handler.JoystickStatus;
+import org.uav.logic.state.drone.DroneStateStore;
+import org.uav.logic.state.simulation.SimulationState;
+import org.uav.presentation.model.Model;
+import org.uav.utils.IntIntMap;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Keeps the animation state of every drone in air. Propeller phases are tracked per drone, so drones sharing a model
+ * spin their propellers independently; {@link #applyAnimation} writes one drone's state into the animation channels
+ * of the shared model right before it is drawn or batched.
+ */
+public class DroneAnimator {
+    private static final float VISUALIZATION_MODIFIER = 0.2f;
+    private static final String ANIMATION_PROPELLER = "propeller";
+    private static final String ANIMATION_RUDDER = "rudder";
+    private static final String ANIMATION_ELEVATOR = "elevator";
+    private static final String ANIMATION_AILERON = "aileron";
+    private static final String ANIMATION_MISSILE = "missile";
+    private static final String ANIMATION_LEFT = "left";
+    private static final String ANIMATION_RIGHT = "right";
+    private final SimulationState simulationState;
+    private final Map<Model, AnimatedParts> animatedParts;
+    private final IntIntMap rowsById;
+    private int[] rowIds;
+    private float[][] propellerPhases;
+    private int rowCount;
+    private boolean leftMissileLaunched;
+    private boolean rightMissileLaunched;
+
+    public DroneAnimator(SimulationState simulationState) {
+        this.simulationState = simulationState;
+        animatedParts = new IdentityHashMap<>();
+        rowsById = new IntIntMap();
+        rowIds = new int[16];
+        propellerPhases = new float[16][];
+        rowCount = 0;
+    }
+
+    /**
+     * Advances the propellers of every drone in air by the frame's time step. Called once per frame, before any pass
+     * draws the drones.
+     */
+    public void update(DroneStateStore drones, float deltaTimeS) {
+        for(int row = rowCount - 1; row >= 0; row--)
+            if(!drones.contains(rowIds[row])) removeRow(row);
+        for(int slot = 0; slot < drones.size(); slot++) {
+            float[] phases = propellerPhases(drones.getId(slot), drones.getPropellerCount(slot));
+            for(int i = 0; i < drones.getPropellerCount(slot); i++) {
+                float rotation = drones.getPropellerRadps(slot, i) / (2 * (float) Math.PI) / 3600 * VISUALIZATION_MODIFIER * deltaTimeS;
+                phases[i] = (phases[i] + rotation) % 1;
+            }
+        }
+        leftMissileLaunched = isMissileLaunched(ANIMATION_LEFT);
+        rightMissileLaunched = isMissileLaunched(ANIMATION_RIGHT);
+    }
+
+    public void applyAnimation(Model model, DroneStateStore drones, int slot, JoystickStatus joystickStatus) {
+        var parts = animatedParts.computeIfAbsent(model, AnimatedParts::new);
+        int row = rowsById.get(drones.getId(slot));
+        float[] phases = row == IntIntMap.MISSING ? null : propellerPhases[row];
+        for(int i = 0; i < parts.propellers.length; i++)
+            model.setAnimationProgress(parts.propellers[i], phases != null && i < phases.length ? phases[i] : 0);
+        updateFlightControlSurfaceAnimation(model, parts.ailerons, joystickStatus, 1);
+        updateFlightControlSurfaceAnimation(model, parts.elevators, joystickStatus, 2);
+        updateFlightControlSurfaceAnimation(model, parts.rudders, joystickStatus, 3);
+        for(int channel : parts.leftMissiles) model.setAnimationProgress(channel, leftMissileLaunched ? 1 : 0);
+        for(int channel : parts.rightMissiles) model.setAnimationProgress(channel, rightMissileLaunched ? 1 : 0);
+    }
+
+    private boolean isMissileLaunched(String identificator) {
+        return simulationState.getAmmos().stream()
+                .anyMatch(a -> a.name.toLowerCase().contains(identificator) && a.name.toLowerCase().contains(ANIMATION_MISSILE) && a.currentAmount == 0);
+    }
+
+    private void updateFlightControlSurfaceAnimation(Model model, int[] controlSurfaces, JoystickStatus joystickStatus, int axisId) {
+        if(joystickStatus == null || joystickStatus.axes.size() <= axisId) return;
+        float progress = (joystickStatus.axes.get(axisId) + 1) / 2;
+        for(int channel : controlSurfaces) model.setAnimationProgress(channel, progress);
+    }
+
+    private float[] propellerPhases(int droneId, int propellerCount) {
+        int row = rowsById.get(droneId);
+        if(row == IntIntMap.MISSING) {
+            if(rowCount == rowIds.length) {
+                rowIds = Arrays.copyOf(rowIds, 2 * rowCount);
+                propellerPhases = Arrays.copyOf(propellerPhases, 2 * rowCount);
+            }
+            row = rowCount++;
+            rowIds[row] = droneId;
+            propellerPhases[row] = new float[propellerCount];
+            rowsById.put(droneId, row);
+        } else if(propellerPhases[row].length < propellerCount)
+            propellerPhases[row] = Arrays.copyOf(propellerPhases[row], propellerCount);
+        return propellerPhases[row];
+    }
+
+    private void removeRow(int row) {
+        rowsById.remove(rowIds[row]);
+        int last = --rowCount;
+        if(row != last) {
+            rowIds[row] = rowIds[last];
+            propellerPhases[row] = propellerPhases[last];
+            rowsById.put(rowIds[row], row);
+        }
+        propellerPhases[last] = null;
+    }
+
+    // Animation channels of a model grouped by the part they move, found once per model instead of once per drone
+    private static class AnimatedParts {
+        final int[] propellers;
+        final int[] ailerons;
+        final int[] elevators;
+        final int[] rudders;
+        final int[] leftMissiles;
+        final int[] rightMissiles;
+
+        AnimatedParts(Model model) {
+            var animations = model.getAnimationInfos();
+            propellers = animations.stream()
+                    .filter(info -> info.getAnimatedModelName().toLowerCase().contains(ANIMATION_PROPELLER))
+                    .sorted(Comparator.comparing(Model.AnimationInfo::getAnimatedModelName))
+                    .mapToInt(Model.AnimationInfo::getChannel)
+                    .toArray();
+            ailerons = channels(animations, ANIMATION_AILERON, null);
+            elevators = channels(animations, ANIMATION_ELEVATOR, null);
+            rudders = channels(animations, ANIMATION_RUDDER, null);
+            leftMissiles = channels(animations, ANIMATION_MISSILE, ANIMATION_LEFT);
+            rightMissiles = channels(animations, ANIMATION_MISSILE, ANIMATION_RIGHT);
+        }
+
+        private static int[] channels(List<Model.AnimationInfo> animations, String identificator, @Nullable String side) {
+            return animations.stream()
+                    .filter(info -> info.getAnimatedModelName().toLowerCase().contains(identificator))
+                    .filter(info -> side == null || info.getAnimatedModelName().toLowerCase().contains(side))
+                    .mapToInt(Model.AnimationInfo::getChannel)
+                    .toArray();
+        }
+    }
+}
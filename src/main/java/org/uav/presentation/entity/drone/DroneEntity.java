@@ -1,29 +1,60 @@
 package org.uav.presentation.entity.drone;
 
-import lombok.AllArgsConstructor;
+import org.joml.FrustumIntersection;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
 import org.uav.logic.input.handler.JoystickStatus;
+import org.uav.logic.state.drone.DroneStateStore;
+import org.uav.logic.state.simulation.SimulationState;
 import org.uav.presentation.model.Model;
+import org.uav.presentation.rendering.InstanceBatch;
 import org.uav.presentation.rendering.Shader;
 
-import java.util.Collection;
 import java.util.Map;
 
-@AllArgsConstructor
 public class DroneEntity {
     private final static String DEFAULT_DRONE_MODEL = "defaultDrone";
     private final Map<String, Model> droneModels;
+    private final DroneAnimator droneAnimator;
+    private final InstanceBatch instanceBatch;
+    private final Vector3f position;
+    private final Quaternionf rotation;
 
-    public void draw(Shader shader, float deltaTimeS, Collection<DroneState> droneStates, JoystickStatus joystickStatus) {
-        for(DroneState state: droneStates) {
-            draw(shader, deltaTimeS, state, joystickStatus);
+    public DroneEntity(Map<String, Model> droneModels, SimulationState simulationState) {
+        this.droneModels = droneModels;
+        droneAnimator = new DroneAnimator(simulationState);
+        instanceBatch = new InstanceBatch();
+        position = new Vector3f();
+        rotation = new Quaternionf();
+    }
+
+    public void update(float deltaTimeS, DroneStateStore drones) {
+        droneAnimator.update(drones, deltaTimeS);
+    }
+
+    /**
+     * Draws the drones inside the frustum; the others are not animated either.
+     */
+    public void draw(Shader shader, DroneStateStore drones, FrustumIntersection frustum, JoystickStatus joystickStatus) {
+        for(int slot = 0; slot < drones.size(); slot++) {
+            Model droneModel = place(drones, slot);
+            if(!droneModel.isVisible(frustum)) continue;
+            droneAnimator.applyAnimation(droneModel, drones, slot, joystickStatus);
+            droneModel.addToBatch(instanceBatch);
         }
+        instanceBatch.render(shader);
     }
 
-    public void draw(Shader shader, float deltaTimeS, DroneState state, JoystickStatus joystickStatus) {
-        Model droneModel = droneModels.getOrDefault(state.modelName, droneModels.get(DEFAULT_DRONE_MODEL));
-        droneModel.setPosition(state.droneStatus.position);
-        droneModel.setRotation(state.droneStatus.rotation);
-        state.updateAnimation(droneModel, joystickStatus,deltaTimeS);
+    public void draw(Shader shader, DroneStateStore drones, int slot, JoystickStatus joystickStatus) {
+        Model droneModel = place(drones, slot);
+        droneAnimator.applyAnimation(droneModel, drones, slot, joystickStatus);
         droneModel.draw(shader);
     }
+
+    private Model place(DroneStateStore drones, int slot) {
+        Model droneModel = droneModels.getOrDefault(drones.getModelName(slot), droneModels.get(DEFAULT_DRONE_MODEL));
+        droneModel.setPosition(drones.getPosition(slot, position));
+        droneModel.setRotation(drones.getRotation(slot, rotation));
+        return droneModel;
+    }
 }
@@ -1,20 +1,33 @@
 package org.uav.presentation.entity.environment;
 
+import org.joml.FrustumIntersection;
+import org.joml.Matrix4f;
 import org.uav.logic.state.simulation.SimulationState;
+import org.uav.presentation.model.Mesh;
 import org.uav.presentation.model.Model;
-import org.uav.presentation.rendering.OrderedRenderQueue;
 import org.uav.presentation.rendering.Shader;
+import org.uav.presentation.rendering.StaticDrawList;
 
+import java.util.ArrayList;
+
+/**
+ * The map. It never moves, so it is compiled once into a static draw list and each pass only picks the meshes inside
+ * its frustum.
+ */
 public class EnvironmentEntity {
-    private final Model environmentModel;
+    private final StaticDrawList drawList;
 
     public EnvironmentEntity(Model environmentModel) {
-        this.environmentModel = environmentModel;
+        var meshes = new ArrayList<Mesh>();
+        var modelMatrices = new ArrayList<Matrix4f>();
+        environmentModel.forEachMesh((mesh, modelMatrix) -> {
+            meshes.add(mesh);
+            modelMatrices.add(new Matrix4f(modelMatrix));
+        });
+        drawList = new StaticDrawList(meshes, modelMatrices);
     }
 
-    public void draw(SimulationState simulationState, Shader shader) {
-        var renderQueue = new OrderedRenderQueue(simulationState.getCamera().getCameraPos());
-        environmentModel.addToQueue(renderQueue, shader);
-        renderQueue.render();
+    public void draw(SimulationState simulationState, Shader shader, FrustumIntersection frustum) {
+        drawList.draw(shader, frustum, simulationState.getCamera().getCameraPos());
     }
 }
@@ -57,7 +57,7 @@ public class ArtificialHorizonBackgroundLayer {
     public void update(SimulationState simulationState) {
         var drone = simulationState.getPlayerDrone();
         if(drone.isEmpty()) return;
-        var rotation = Convert.toEuler(drone.get().droneStatus.rotation);
+        var rotation = Convert.toEuler(drone.get().rotation);
         rotX = rotation.x;
         rotY = rotation.y / (0.5f * (float) Math.PI) * distanceToMax / ((float) horizonTexture.getHeight() / 2) / 2;
         updateDemanded(simulationState);
@@ -50,7 +50,7 @@ public class ArtificialHorizonCompassLayer {
     public void update(SimulationState simulationState) {
         var drone = simulationState.getPlayerDrone();
         if(drone.isEmpty()) return;
-        var rotation = Convert.toEuler(drone.get().droneStatus.rotation);
+        var rotation = Convert.toEuler(drone.get().rotation);
         compassOffset = (int) ((rotation.z+Math.PI)/(2*Math.PI) * 1440);
 
         updateDemanded(simulationState);
@@ -125,7 +125,7 @@ public class ArtificialHorizonMetersLayer {
     public void update(SimulationState simulationState) {
         var drone = simulationState.getPlayerDrone();
         if(drone.isEmpty()) return;
-        var droneStatus = drone.get().droneStatus;
+        var droneStatus = drone.get();
         position = new Vector2f(droneStatus.position.x, droneStatus.position.y);
         climbRate = droneStatus.linearVelocity.z * Z_AXIS_INVERSION;
         height = droneStatus.position.z * Z_AXIS_INVERSION;
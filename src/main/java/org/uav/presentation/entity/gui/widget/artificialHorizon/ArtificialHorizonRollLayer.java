@@ -47,7 +47,7 @@ public class ArtificialHorizonRollLayer {
     public void update(SimulationState simulationState) {
         var drone = simulationState.getPlayerDrone();
         if(drone.isEmpty()) return;
-        var rotation = Convert.toEuler(drone.get().droneStatus.rotation);
+        var rotation = Convert.toEuler(drone.get().rotation);
         rotX = rotation.x;
         updateDemanded(simulationState);
     }
@@ -1,12 +1,14 @@
 package org.uav.presentation.entity.gui.widget.debug;
 
 import org.joml.Vector4f;
+import org.uav.logic.communication.StreamLatency;
 import org.uav.logic.config.Config;
 import org.uav.logic.state.simulation.SimulationState;
 import org.uav.presentation.entity.gui.GuiAnchorPoint;
 import org.uav.presentation.entity.gui.Widget;
 import org.uav.presentation.entity.sprite.Sprite;
 import org.uav.presentation.entity.text.TextEngine;
+import org.uav.presentation.rendering.GlStateCounters;
 import org.uav.presentation.rendering.Shader;
 
 import java.awt.image.BufferedImage;
@@ -15,9 +17,15 @@ import java.text.DecimalFormatSymbols;
 
 public class DebugWidget extends Widget {
     private static final float FONT_SIZE_NORM = 40f / 1080;
+    private static final long LATENCY_INTERVAL_NANOS = 1_000_000_000L;
     private final SimulationState simulationState;
     private final Sprite backgroundSprite;
     private final TextEngine textEngine;
+    private final StreamLatency droneStatusesInterval;
+    private final StreamLatency projectileStatusesInterval;
+    private long intervalStartNanos;
+    private String droneStatusesLatencyText;
+    private String projectileStatusesLatencyText;
     private String text;
 
     public DebugWidget(BufferedImage background, SimulationState simulationState, Shader spriteShader, Shader textShader,  Config config) {
@@ -25,11 +33,16 @@ public class DebugWidget extends Widget {
         this.simulationState = simulationState;
         backgroundSprite = new Sprite(background, spriteShader);
         textEngine = new TextEngine(getScaledPosition(), FONT_SIZE_NORM * config.getGraphicsSettings().getGuiScale(), textShader, config);
-        textEngine.setPosition(-0.95f, 0.2f);
+        textEngine.setPosition(-0.95f, 1f);
+        droneStatusesInterval = new StreamLatency("droneStatuses");
+        projectileStatusesInterval = new StreamLatency("projectileStatuses");
+        intervalStartNanos = System.nanoTime();
+        droneStatusesLatencyText = "";
+        projectileStatusesLatencyText = "";
     }
 
     private static Vector4f getWidgetPosition() {
-        return new Vector4f(1f, 0.8f, -1f, -0.6f);
+        return new Vector4f(1f, 0.2f, -1f, -0.6f);
     }
 
     public void update() {
@@ -37,8 +50,43 @@ public class DebugWidget extends Widget {
         var ds = DecimalFormatSymbols.getInstance();
         ds.setDecimalSeparator('.');
         var df = new DecimalFormat("#.##", ds);
+        long now = System.nanoTime();
+        if(now - intervalStartNanos >= LATENCY_INTERVAL_NANOS) {
+            intervalStartNanos = now;
+            simulationState.getDroneStatusesLatency().takeInterval(droneStatusesInterval);
+            simulationState.getProjectileStatusesLatency().takeInterval(projectileStatusesInterval);
+            droneStatusesLatencyText = formatLatency(droneStatusesInterval, df);
+            projectileStatusesLatencyText = formatLatency(projectileStatusesInterval, df);
+        }
         text =  df.format(fpsCounter.getFramesPerSecond()) + " fps\n";
-        text += df.format(fpsCounter.getMillisecondsPerFrame()) + " mspf";
+        text += df.format(fpsCounter.getMillisecondsPerFrame()) + " mspf\n";
+        text += "skip " + simulationState.getDroneStatusesBuffer().getSupersededCount() + "/"
+                + simulationState.getProjectileStatusesBuffer().getSupersededCount() + "\n";
+        text += "drop " + simulationState.getDroneStatusesIngest().getDropped() + "/"
+                + simulationState.getProjectileStatusesIngest().getDropped() + "/"
+                + simulationState.getNotificationsIngest().getDropped() + " bad "
+                + simulationState.getDroneStatusesIngest().getFailed() + "/"
+                + simulationState.getProjectileStatusesIngest().getFailed() + "/"
+                + simulationState.getNotificationsIngest().getFailed() + "\n";
+        text += "queue " + simulationState.getDroneStatusesIngest().getQueued() + "/"
+                + simulationState.getProjectileStatusesIngest().getQueued() + "/"
+                + simulationState.getNotificationsIngest().getQueued() + "\n";
+        text += "rate " + df.format(simulationState.getDroneStatusesIngest().getFramesPerSecond()) + "/"
+                + df.format(simulationState.getProjectileStatusesIngest().getFramesPerSecond()) + "/"
+                + df.format(simulationState.getNotificationsIngest().getFramesPerSecond()) + " fr/s\n";
+        text += "lat d " + droneStatusesLatencyText + "\n";
+        text += "lat p " + projectileStatusesLatencyText + "\n";
+        text += "gl " + GlStateCounters.getLastFrameIssued() + "/" + GlStateCounters.getLastFrameSkipped() + " set/skip "
+                + GlStateCounters.getLastFrameProgramSwitches() + "/"
+                + GlStateCounters.getLastFrameMaterialSwitches() + "/"
+                + GlStateCounters.getLastFrameVertexArraySwitches() + " prog/mat/vao";
+    }
+
+    // p99 of every stage over the last interval, in milliseconds
+    private static String formatLatency(StreamLatency interval, DecimalFormat df) {
+        return df.format(interval.getNetwork().getValueAtQuantile(0.99) / 1000f) + "/"
+                + df.format(interval.getParse().getValueAtQuantile(0.99) / 1000f) + "/"
+                + df.format(interval.getRender().getValueAtQuantile(0.99) / 1000f) + " ms net/parse/render p99";
     }
 
     @Override
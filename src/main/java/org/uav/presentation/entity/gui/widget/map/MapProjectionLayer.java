@@ -63,7 +63,7 @@ public class MapProjectionLayer {
     public void update(SimulationState simulationState) {
         var drone = simulationState.getPlayerDrone();
         if(drone.isEmpty()) return;
-        var droneStatus = drone.get().droneStatus;
+        var droneStatus = drone.get();
         var rotation = Convert.toEuler(droneStatus.rotation);
         rotZ = -rotation.z;
         dronePosition = new Vector2f(-droneStatus.position.y, droneStatus.position.x).mul(mapScale);
@@ -145,9 +145,13 @@ public class PropellersDisplayLayer {
     }
 
     public void update(SimulationState simulationState) {
-        simulationState.getPlayerDrone().ifPresent(drone ->
-                propellerRPMs = drone.droneStatus.propellersRadps.stream().map(radps -> radps / (2 * (float) Math.PI) * 60).toList()
-        );
+        simulationState.getPlayerDrone().ifPresent(drone -> {
+            var propellersRadps = drone.propellersRadps;
+            var rpms = new ArrayList<Float>(propellersRadps.length);
+            for(float radps: propellersRadps)
+                rpms.add(radps / (2 * (float) Math.PI) * 60);
+            propellerRPMs = rpms;
+        });
     }
 
     public void draw() {
@@ -1,9 +1,11 @@
 package org.uav.presentation.entity.gui.widget.radar;
 
+import org.joml.Quaternionf;
 import org.joml.Vector2f;
+import org.joml.Vector3f;
 import org.joml.Vector4f;
 import org.uav.logic.config.Config;
-import org.uav.logic.state.drone.DroneStatus;
+import org.uav.logic.state.drone.DroneStateStore;
 import org.uav.logic.state.simulation.SimulationState;
 import org.uav.presentation.entity.gui.GuiAnchorPoint;
 import org.uav.presentation.entity.gui.Widget;
@@ -71,25 +73,21 @@ public class RadarWidget extends Widget {
         radarPoints.forEach(point -> point.traceStrength--);
         radarPoints.removeIf(point -> point.traceStrength <= 0);
         var drones = simulationState.getDronesInAir();
-        var radarDrone = simulationState.getPlayerDrone();
-        if(radarDrone.isEmpty())
+        int radarSlot = simulationState.getPlayerDroneSlot();
+        if(radarSlot == DroneStateStore.NO_SLOT)
         {    
             return;
         }
-        List<RadarPoint> newPoints = drones.values().stream()
-                .filter(drone -> drone != radarDrone.get())
-                .map(drone -> getRelativePoints(drone.droneStatus, radarDrone.get().droneStatus))
-                .filter(this::isInsideSector)
-                .map(coordinates -> new RadarPoint(coordinates, startingTraceStrength))
-                .toList();
-        radarPoints.addAll(newPoints);
-    }
-
-    private static Vector2f getRelativePoints(DroneStatus drone, DroneStatus radarDrone) {
-        float relX = drone.position.x - radarDrone.position.x;
-        float relY = drone.position.y - radarDrone.position.y;
-        var rotation = Convert.toEuler(radarDrone.rotation);
-        return rotatePoint(-rotation.z, new Vector2f(relX, relY));
+        var radarPosition = drones.getPosition(radarSlot, new Vector3f());
+        var radarYaw = Convert.toEuler(drones.getRotation(radarSlot, new Quaternionf())).z;
+        var dronePosition = new Vector3f();
+        for(int slot = 0; slot < drones.size(); slot++) {
+            if(slot == radarSlot) continue;
+            drones.getPosition(slot, dronePosition);
+            var coordinates = rotatePoint(-radarYaw, new Vector2f(dronePosition.x - radarPosition.x, dronePosition.y - radarPosition.y));
+            if(isInsideSector(coordinates))
+                radarPoints.add(new RadarPoint(coordinates, startingTraceStrength));
+        }
     }
 
     private static Vector2f rotatePoint(float angle, Vector2f point) {
@@ -3,7 +3,7 @@ package org.uav.presentation.entity.light;
 import lombok.AllArgsConstructor;
 import lombok.Setter;
 import org.joml.Vector3f;
-import org.uav.presentation.rendering.Shader;
+import org.uav.presentation.rendering.FrameUniforms;
 
 @AllArgsConstructor
 public class PointLight {
@@ -16,15 +16,9 @@ public class PointLight {
     private float linearDecay;
     private float quadraticDecay;
 
-    public void applyTo(Shader shader) {
-        shader.use();
-        shader.setVec3("cameraPointLight.position", position);
-        shader.setVec3("cameraPointLight.ambient", ambientComponent);
-        shader.setVec3("cameraPointLight.diffuse", diffuseComponent);
-        shader.setVec3("cameraPointLight.specular", specularComponent);
-        shader.setFloat("cameraPointLight.constant", constantDecay);
-        shader.setFloat("cameraPointLight.linear", linearDecay);
-        shader.setFloat("cameraPointLight.quadratic", quadraticDecay);
+    public void applyTo(FrameUniforms frameUniforms) {
+        frameUniforms.setPointLight(position, ambientComponent, diffuseComponent, specularComponent,
+                constantDecay, linearDecay, quadraticDecay);
     }
 
     public static class PointLightFactory {
@@ -3,7 +3,7 @@ package org.uav.presentation.entity.light;
 import lombok.AllArgsConstructor;
 import lombok.Setter;
 import org.joml.Vector3f;
-import org.uav.presentation.rendering.Shader;
+import org.uav.presentation.rendering.FrameUniforms;
 
 import static org.joml.Math.cos;
 import static org.joml.Math.toRadians;
@@ -25,19 +25,10 @@ public class SpotLight {
     private float linearDecay;
     private float quadraticDecay;
 
-    public void applyTo(Shader shader) {
-        shader.use();
-        shader.setBool("spotLightOn",  spotLightOn);
-        shader.setVec3("spotLight.position", position);
-        shader.setVec3("spotLight.direction", direction);
-        shader.setFloat("spotLight.cutOff", innerCutOff);
-        shader.setFloat("spotLight.outerCutOff", outerCutOff);
-        shader.setVec3("spotLight.ambient", ambientComponent);
-        shader.setVec3("spotLight.diffuse", diffuseComponent);
-        shader.setVec3("spotLight.specular", specularComponent);
-        shader.setFloat("spotLight.constant", constantDecay);
-        shader.setFloat("spotLight.linear", linearDecay);
-        shader.setFloat("spotLight.quadratic", quadraticDecay);
+    public void applyTo(FrameUniforms frameUniforms) {
+        frameUniforms.setSpotLight(spotLightOn, position, direction, innerCutOff, outerCutOff,
+                ambientComponent, diffuseComponent, specularComponent,
+                constantDecay, linearDecay, quadraticDecay);
     }
     public static class SpotlightFactory {
         public static SpotLight createDroneSpotlight() {
@@ -2,13 +2,14 @@ package org.uav.presentation.entity.outline;
 
 import org.joml.Vector4f;
 import org.uav.UavVisualization;
+import org.uav.logic.state.drone.DroneStateStore;
 import org.uav.logic.state.simulation.SimulationState;
 import org.uav.presentation.entity.drone.DroneEntity;
 import org.uav.presentation.rendering.Shader;
+import org.uav.presentation.rendering.TextureUnits;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.FloatBuffer;
 import java.util.Objects;
 
 import static org.lwjgl.opengl.GL11C.*;
@@ -28,7 +29,7 @@ public class OutlineEntity {
         // Drone mask framebuffer initialization
         droneMaskFBO = glGenFramebuffers();
         droneMask = glGenTextures();
-        glBindTexture(GL_TEXTURE_2D, droneMask);
+        TextureUnits.bind(0, droneMask);
         glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, screenWidth, screenHeight,0, GL_RGBA, GL_FLOAT, (ByteBuffer) null);
         // Check if it can be RED
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
@@ -57,33 +58,27 @@ public class OutlineEntity {
         outlineShader.setInt("droneMask", OUTLINE_TEXTURE_ID);
     }
 
-    public void generateDroneMask(DroneEntity droneEntity, SimulationState simulationState, float time, FloatBuffer viewBuffer, FloatBuffer projectionBuffer) {
+    public void generateDroneMask(DroneEntity droneEntity, SimulationState simulationState) {
         flatShader.use();
-        flatShader.setMatrix4f("view", viewBuffer);
-        flatShader.setMatrix4f("projection", projectionBuffer);
 
         glBindFramebuffer(GL_FRAMEBUFFER, droneMaskFBO);
         glClearColor(0.0f, 0.0f, 0.0f, 1.0f);
         glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT | GL_STENCIL_BUFFER_BIT);
-        drawOutline(droneEntity, simulationState, flatShader, time);
+        drawOutline(droneEntity, simulationState, flatShader);
         glBindFramebuffer(GL_FRAMEBUFFER, 0);
     }
 
-    private void drawOutline(DroneEntity droneEntity, SimulationState simulationState, Shader shader, float time) {
-        glActiveTexture(GL_TEXTURE0 + OUTLINE_TEXTURE_ID);
-        glBindTexture(GL_TEXTURE_2D, droneMask);
-        simulationState.getPlayerDrone().ifPresent(
-                drone -> drawWithDepthFunc(
-                        () -> droneEntity.draw(shader, time, drone, simulationState.getJoystickStatus()), GL_GREATER
-                )
-        );
+    private void drawOutline(DroneEntity droneEntity, SimulationState simulationState, Shader shader) {
+        TextureUnits.bind(OUTLINE_TEXTURE_ID, droneMask);
+        int slot = simulationState.getPlayerDroneSlot();
+        if(slot != DroneStateStore.NO_SLOT)
+            drawWithDepthFunc(
+                    () -> droneEntity.draw(shader, simulationState.getDronesInAir(), slot, simulationState.getJoystickStatus()), GL_GREATER
+            );
     }
 
-    public void draw(DroneEntity droneEntity, SimulationState simulationState, float time, FloatBuffer viewBuffer, FloatBuffer projectionBuffer) {
+    public void draw(DroneEntity droneEntity, SimulationState simulationState) {
         outlineShader.use();
-        outlineShader.setMatrix4f("view", viewBuffer);
-        outlineShader.setMatrix4f("projection", projectionBuffer);
-
-        drawOutline(droneEntity, simulationState, outlineShader, time);
+        drawOutline(droneEntity, simulationState, outlineShader);
     }
 }
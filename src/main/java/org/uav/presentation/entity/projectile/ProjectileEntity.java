@@ -1,34 +1,50 @@
 package org.uav.presentation.entity.projectile;
 
-import lombok.AllArgsConstructor;
+import org.joml.FrustumIntersection;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
-import org.uav.logic.state.projectile.ProjectileStatus;
+import org.uav.logic.state.projectile.ProjectileTable;
 import org.uav.logic.state.simulation.SimulationState;
 import org.uav.presentation.model.Model;
+import org.uav.presentation.rendering.InstanceBatch;
 import org.uav.presentation.rendering.Shader;
 
-import java.util.Collection;
 import java.util.Map;
 
-@AllArgsConstructor
 public class ProjectileEntity {
     private static final String DEFAULT_PROJECTILE_MODEL = "defaultProjectile";
     private final SimulationState simulationState;
     private final Map<String, Model> projectileModels;
+    private final InstanceBatch instanceBatch;
+    private final Vector3f position;
+    private final Vector3f velocity;
+    private final Quaternionf rotation;
 
-    public void draw(Shader shader, Collection<ProjectileStatus> projectileStatuses) {
-        for(ProjectileStatus status: projectileStatuses) {
-            if(!simulationState.getNotifications().projectileModelsNames.containsKey(status.id)) continue;
-            String projectileModelName = simulationState.getNotifications().projectileModelsNames.get(status.id);
+    public ProjectileEntity(SimulationState simulationState, Map<String, Model> projectileModels) {
+        this.simulationState = simulationState;
+        this.projectileModels = projectileModels;
+        instanceBatch = new InstanceBatch();
+        position = new Vector3f();
+        velocity = new Vector3f();
+        rotation = new Quaternionf();
+    }
+
+    public void draw(Shader shader, ProjectileTable projectiles, FrustumIntersection frustum) {
+        var projectileModelsNames = simulationState.getNotifications().projectileModelsNames;
+        for(int slot = 0; slot < projectiles.size(); slot++) {
+            String projectileModelName = projectileModelsNames.get(projectiles.getId(slot));
+            if(projectileModelName == null) continue;
             Model projectileModel = projectileModels.getOrDefault(projectileModelName, projectileModels.get(DEFAULT_PROJECTILE_MODEL));
 
-            projectileModel.setPosition(status.position);
+            projectileModel.setPosition(projectiles.getPosition(slot, position));
+            if(!projectileModel.isVisible(frustum)) continue;
 
-            Vector3f rot = new Vector3f(1f, 0, 0).cross(status.velocity);
-            float w = status.velocity.length() + new Vector3f(1f,0,0).dot(status.velocity);
-            projectileModel.setRotation(new Quaternionf(rot.x, rot.y, rot.z, w).normalize());
-            projectileModel.draw(shader);
+            // Shortest arc from the model's forward axis (1, 0, 0) to the direction of flight
+            projectiles.getVelocity(slot, velocity);
+            float w = velocity.length() + velocity.x;
+            projectileModel.setRotation(rotation.set(0, -velocity.z, velocity.y, w).normalize());
+            projectileModel.addToBatch(instanceBatch);
         }
+        instanceBatch.render(shader);
     }
 }
@@ -3,16 +3,13 @@ package org.uav.presentation.entity.rope;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
 import org.uav.UavVisualization;
-import org.uav.logic.state.projectile.ProjectileStatus;
-import org.uav.presentation.entity.drone.DroneState;
-import org.uav.presentation.entity.light.DirectionalLight;
+import org.uav.logic.state.drone.DroneStateStore;
+import org.uav.logic.state.projectile.ProjectileTable;
 import org.uav.presentation.model.importer.VerticesLoader;
 import org.uav.presentation.rendering.Shader;
 
 import java.io.IOException;
-import java.nio.FloatBuffer;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.function.Function;
 import java.util.stream.IntStream;
@@ -28,8 +25,9 @@ public class RopeEntity {
     private Shader ropeShader;
     private final int segmentCount;
     private int VAO;
-    private Vector3f pointA;
-    private Vector3f pointB;
+    private final Vector3f pointA;
+    private final Vector3f pointB;
+    private final Vector3f objectPosition;
     private final Vector3f color1;
     private final Vector3f color2;
     private float ropeLength;
@@ -39,12 +37,13 @@ public class RopeEntity {
     private float yOffset;
     private boolean useLinear;
 
-    public RopeEntity(int segmentCount, float ropeThickness, Vector3f color1, Vector3f color2, DirectionalLight directionalLight, Vector3f skyColor) throws IOException {
+    public RopeEntity(int segmentCount, float ropeThickness, Vector3f color1, Vector3f color2, Vector3f skyColor) throws IOException {
         this.segmentCount = segmentCount;
         this.ropeLength = 0;
         this.ropeThickness = ropeThickness;
         pointA = new Vector3f();
         pointB = new Vector3f();
+        objectPosition = new Vector3f();
         this.color1 = color1;
         this.color2 = color2;
         a = 0;
@@ -52,7 +51,7 @@ public class RopeEntity {
         yOffset = 0;
         useLinear = false;
         setupPoints();
-        SetUpShader(directionalLight, skyColor);
+        SetUpShader(skyColor);
     }
 
     private void setupPoints() {
@@ -75,40 +74,30 @@ public class RopeEntity {
         glBindVertexArray(0);
     }
 
-    private void SetUpShader(DirectionalLight directionalLight, Vector3f skyColor) throws IOException {
+    private void SetUpShader(Vector3f skyColor) throws IOException {
         var ropeVertexShaderSource = Objects.requireNonNull(UavVisualization.class.getClassLoader().getResourceAsStream("shaders/rope/ropeShader.vert"));
         var ropeGeometryShaderSource = Objects.requireNonNull(UavVisualization.class.getClassLoader().getResourceAsStream("shaders/rope/ropeShader.geom"));
         var ropeFragmentShaderSource = Objects.requireNonNull(UavVisualization.class.getClassLoader().getResourceAsStream("shaders/rope/ropeShader.frag"));
         ropeShader = new Shader(ropeVertexShaderSource, ropeGeometryShaderSource, ropeFragmentShaderSource);
         ropeShader.use();
-        directionalLight.applyTo(ropeShader);
         ropeShader.setVec3("backgroundColor", skyColor);
     }
 
     public void setParameters(Vector3f pointA, Vector3f pointB, float ropeLength) {
-        this.pointA = pointA;
-        this.pointB = pointB;
+        this.pointA.set(pointA);
+        this.pointB.set(pointB);
         this.ropeLength = ropeLength;
         recalculateCatenary();
     }
 
-    public void draw(Vector3f viewPos,
-                     FloatBuffer viewBuffer,
-                     FloatBuffer projectionBuffer,
-                     List<Rope> ropes,
-                     Map<Integer, DroneState> drones,
-                     Map<Integer, ProjectileStatus> projectiles
-    ) {
+    public void draw(List<Rope> ropes, DroneStateStore drones, ProjectileTable projectiles) {
         ropeShader.use();
-        ropeShader.setVec3("viewPos", viewPos);
-        ropeShader.setMatrix4f("view", viewBuffer);
-        ropeShader.setMatrix4f("projection", projectionBuffer);
-
         for (Rope rope: ropes) {
-            if(drones.containsKey(rope.ownerId) && projectiles.containsKey(rope.objectId)) {
-                var owner = drones.get(rope.ownerId);
-                var object = projectiles.get(rope.objectId);
-                setParameters(new Vector3f(owner.droneStatus.position).add(rope.ownerOffset), object.position, rope.ropeLength);
+            int ownerSlot = drones.getSlot(rope.ownerId);
+            int objectSlot = projectiles.getSlot(rope.objectId);
+            if(ownerSlot != DroneStateStore.NO_SLOT && objectSlot != ProjectileTable.NO_SLOT) {
+                drones.getPosition(ownerSlot, pointA).add(rope.ownerOffset);
+                setParameters(pointA, projectiles.getPosition(objectSlot, objectPosition), rope.ropeLength);
                 draw();
             }
         }
@@ -3,11 +3,11 @@ package org.uav.presentation.entity.skybox;
 import org.uav.UavVisualization;
 import org.uav.presentation.model.importer.VerticesLoader;
 import org.uav.presentation.rendering.Shader;
+import org.uav.presentation.rendering.TextureUnits;
 
 import javax.imageio.ImageIO;
 import java.io.File;
 import java.io.IOException;
-import java.nio.FloatBuffer;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
@@ -75,15 +75,13 @@ public class SkyboxEntity {
         loadCubemap(assetsDirectory);
     }
 
-    public void draw(FloatBuffer viewNoTranslationBuffer, FloatBuffer projectionBuffer) {
+    public void draw() {
         glDepthFunc(GL_LEQUAL);
 
         skyboxShader.use();
-        skyboxShader.setMatrix4f("view", viewNoTranslationBuffer);
-        skyboxShader.setMatrix4f("projection", projectionBuffer);
 
         glBindVertexArray(VAO);
-        glActiveTexture(GL_TEXTURE0);
+        TextureUnits.activate(0);
         glBindTexture(GL_TEXTURE_CUBE_MAP, textureID);
         glDrawArrays(GL_TRIANGLES, 0, 36);
         glBindVertexArray(0);
@@ -94,6 +92,7 @@ public class SkyboxEntity {
         var skyboxDir = Paths.get(assetsDirectory, "core", "skybox").toString();
 
         textureID = glGenTextures();
+        TextureUnits.activate(0);
         glBindTexture(GL_TEXTURE_CUBE_MAP, textureID);
 
         var sides = List.of(
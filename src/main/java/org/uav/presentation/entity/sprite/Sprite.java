@@ -8,14 +8,13 @@ import org.uav.presentation.model.Texture;
 import org.uav.presentation.model.importer.IndicesLoader;
 import org.uav.presentation.model.importer.VerticesLoader;
 import org.uav.presentation.rendering.Shader;
+import org.uav.presentation.rendering.TextureUnits;
 
 import java.awt.image.BufferedImage;
 import java.nio.FloatBuffer;
 import java.util.List;
 
 import static org.lwjgl.opengl.GL11.*;
-import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
-import static org.lwjgl.opengl.GL13.glActiveTexture;
 import static org.lwjgl.opengl.GL15.*;
 import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
 import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
@@ -69,9 +68,8 @@ public class Sprite implements AutoCloseable {
         spriteShader.setMatrix3x2f("transform", transform);
         spriteShader.setFloat("opacity", opacity);
 
-        glActiveTexture(GL_TEXTURE0);
         spriteShader.setInt("sprite", 0);
-        glBindTexture(GL_TEXTURE_2D, texture.getId());
+        TextureUnits.bind(0, texture.getId());
 
         glBindVertexArray(VAO);
         glDrawElements(GL_TRIANGLES, indices.size(), GL_UNSIGNED_INT, 0);
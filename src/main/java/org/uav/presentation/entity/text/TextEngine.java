@@ -13,6 +13,7 @@ import org.uav.presentation.entity.sprite.SpriteVertex;
 import org.uav.presentation.model.importer.IndicesLoader;
 import org.uav.presentation.model.importer.VerticesLoader;
 import org.uav.presentation.rendering.Shader;
+import org.uav.presentation.rendering.TextureUnits;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -171,7 +172,7 @@ public class TextEngine implements AutoCloseable {
                 textShader.setVec4("color", color);
                 textShader.setVec4("cropRectangle", cropRectangle);
                 glBindVertexArray(VAO);
-                glBindTexture(GL_TEXTURE_2D, texID);
+                TextureUnits.bind(0, texID);
                 glBindBuffer(GL_ARRAY_BUFFER, VBO);
                 glBufferSubData(GL_ARRAY_BUFFER, 0, VerticesLoader.loadToFloatBuffer(vertices));
                 glBindBuffer(GL_ARRAY_BUFFER, 0);
@@ -198,7 +199,7 @@ public class TextEngine implements AutoCloseable {
         if(res < 0) throw new IllegalArgumentException("BakeFontBitmap result: " + res + ". Not enough space for characters to fit!");
 
         glPixelStorei(GL_UNPACK_ALIGNMENT, 1);
-        glBindTexture(GL_TEXTURE_2D, texID);
+        TextureUnits.bind(0, texID);
         glTexImage2D(GL_TEXTURE_2D, 0, GL_ALPHA, bitmapW, bitmapH, 0, GL_ALPHA, GL_UNSIGNED_BYTE, bitmap);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
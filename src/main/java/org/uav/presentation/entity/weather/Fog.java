@@ -2,16 +2,14 @@ package org.uav.presentation.entity.weather;
 
 import lombok.AllArgsConstructor;
 import org.joml.Vector3f;
-import org.uav.presentation.rendering.Shader;
+import org.uav.presentation.rendering.FrameUniforms;
 
 @AllArgsConstructor
 public class Fog {
     private final Vector3f color;
     private final float density;
 
-    public void applyTo(Shader shader) {
-        shader.use();
-        shader.setVec3("fog.color", color);
-        shader.setFloat("fog.density", density);
+    public void applyTo(FrameUniforms frameUniforms) {
+        frameUniforms.setFog(color, density);
     }
 }
@@ -1,14 +1,18 @@
 package org.uav.presentation.model;
 
 import org.joml.Matrix4f;
+import org.joml.Vector3f;
 import org.lwjgl.system.MemoryUtil;
 import org.uav.presentation.model.importer.IndicesLoader;
 import org.uav.presentation.model.importer.VerticesLoader;
 import org.uav.presentation.rendering.Shader;
+import org.uav.presentation.rendering.TextureUnits;
 
 import javax.annotation.Nullable;
 import java.nio.FloatBuffer;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.lwjgl.opengl.GL11.GL_FLOAT;
 import static org.lwjgl.opengl.GL15.*;
@@ -16,8 +20,18 @@ import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
 import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
 import static org.lwjgl.opengl.GL30.glBindVertexArray;
 import static org.lwjgl.opengl.GL30.glGenVertexArrays;
+import static org.lwjgl.opengl.GL31.glDrawArraysInstanced;
+import static org.lwjgl.opengl.GL31.glDrawElementsInstanced;
+import static org.lwjgl.opengl.GL33.glVertexAttribDivisor;
+import static org.lwjgl.opengl.GL42.glDrawArraysInstancedBaseInstance;
+import static org.lwjgl.opengl.GL42.glDrawElementsInstancedBaseInstance;
 
 public class Mesh implements AutoCloseable {
+    private static final int INSTANCE_TRANSFORM_LOCATION = 3;
+    private static final int MATRIX_FLOATS = 16;
+    private static final int INITIAL_INSTANCE_CAPACITY = 16;
+    // Meshes with the same textures and material share an id, so draws can be ordered to keep that state bound
+    private static final Map<MaterialState, Integer> materialStateIds = new HashMap<>();
     private final List<ModelVertex> vertices;
     private final List<Integer> indices;
     @Nullable
@@ -31,8 +45,17 @@ public class Mesh implements AutoCloseable {
     private final List<Texture> textures;
     private final boolean isTransparentTexture;
     private final Material material;
+    private final int materialStateId;
+    // Axis aligned bounds of the vertices, in the mesh's own space
+    private final Vector3f boundsMin;
+    private final Vector3f boundsMax;
     private int VAO;
+    private int instanceVBO;
     private final FloatBuffer modelMatrixBuffer;
+    private FloatBuffer instanceTransforms;
+    private int instanceCount;
+    // Set once the instance transforms come from a buffer owned by a static draw list
+    private boolean staticInstances;
 
     public Mesh(
             List<ModelVertex> vertices,
@@ -54,11 +77,92 @@ public class Mesh implements AutoCloseable {
         this.textures = textures;
         this.isTransparentTexture = isTransparentTexture;
         this.material = material;
-        modelMatrixBuffer = MemoryUtil.memCallocFloat(16);
+        materialStateId = materialStateIds.computeIfAbsent(
+                MaterialState.of(albedoTexture, normalTexture, metallicRoughnessTexture, ambientOcclusionTexture, material),
+                state -> materialStateIds.size() + 1);
+        boundsMin = new Vector3f();
+        boundsMax = new Vector3f();
+        computeBounds();
+        modelMatrixBuffer = MemoryUtil.memCallocFloat(MATRIX_FLOATS);
+        instanceTransforms = MemoryUtil.memAllocFloat(INITIAL_INSTANCE_CAPACITY * MATRIX_FLOATS);
+        instanceCount = 0;
+        staticInstances = false;
         setupMesh();
     }
 
     public void draw(Shader shader, Matrix4f modelMatrix) {
+        applyMaterial(shader);
+        modelMatrix.get(modelMatrixBuffer);
+        shader.setMatrix4f("model", modelMatrixBuffer);
+        shader.setBool("instanced", false);
+        glBindVertexArray(VAO);
+        if (indices.isEmpty())
+            glDrawArrays(GL_TRIANGLES, 0, vertices.size());
+        else
+            glDrawElements(GL_TRIANGLES, indices.size(), GL_UNSIGNED_INT, 0);
+        glBindVertexArray(0);
+    }
+
+    /**
+     * Queues one more copy of the mesh for {@link #drawInstances}.
+     * @return number of copies queued so far
+     */
+    public int addInstance(Matrix4f modelMatrix) {
+        if(staticInstances) throw new IllegalStateException("Mesh draws its instances from a static buffer");
+        if(instanceTransforms.capacity() < (instanceCount + 1) * MATRIX_FLOATS)
+            instanceTransforms = MemoryUtil.memRealloc(instanceTransforms, 2 * instanceTransforms.capacity());
+        modelMatrix.get(instanceCount * MATRIX_FLOATS, instanceTransforms);
+        return ++instanceCount;
+    }
+
+    /**
+     * Draws every queued copy with a single draw call, reading the model matrices from the instance buffer.
+     */
+    public void drawInstances(Shader shader) {
+        if(instanceCount == 0) return;
+        applyMaterial(shader);
+        shader.setBool("instanced", true);
+        instanceTransforms.limit(instanceCount * MATRIX_FLOATS);
+        glBindBuffer(GL_ARRAY_BUFFER, instanceVBO);
+        glBufferData(GL_ARRAY_BUFFER, instanceTransforms, GL_STREAM_DRAW);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        instanceTransforms.clear();
+        glBindVertexArray(VAO);
+        if (indices.isEmpty())
+            glDrawArraysInstanced(GL_TRIANGLES, 0, vertices.size(), instanceCount);
+        else
+            glDrawElementsInstanced(GL_TRIANGLES, indices.size(), GL_UNSIGNED_INT, 0, instanceCount);
+        glBindVertexArray(0);
+        instanceCount = 0;
+    }
+
+    /**
+     * Makes the mesh read its per instance model matrices from a buffer filled once by the caller, to be drawn with
+     * {@link #drawStaticInstances}. The mesh can no longer be batched with {@link #addInstance} afterwards.
+     */
+    public void useStaticInstances(int buffer) {
+        glBindVertexArray(VAO);
+        pointInstanceTransformsAt(buffer);
+        glBindVertexArray(0);
+        staticInstances = true;
+    }
+
+    /**
+     * Draws the copies whose model matrices are at {@code first} to {@code first + count - 1} in the static instance
+     * buffer, with a single draw call.
+     */
+    public void drawStaticInstances(Shader shader, int first, int count) {
+        applyMaterial(shader);
+        shader.setBool("instanced", true);
+        glBindVertexArray(VAO);
+        if (indices.isEmpty())
+            glDrawArraysInstancedBaseInstance(GL_TRIANGLES, 0, vertices.size(), count, first);
+        else
+            glDrawElementsInstancedBaseInstance(GL_TRIANGLES, indices.size(), GL_UNSIGNED_INT, 0, count, first);
+        glBindVertexArray(0);
+    }
+
+    private void applyMaterial(Shader shader) {
         shader.use();
 
         bindTextures(shader, albedoTexture, "useAlbedoMap", "albedoMap", 0);
@@ -67,32 +171,32 @@ public class Mesh implements AutoCloseable {
         bindTextures(shader, ambientOcclusionTexture, "useAmbientOcclusionMap", "ambientOcclusionMap", 3);
 
         // TODO TEXCOORD_1 2 3 4 ...
-        // draw mesh
-        modelMatrix.get(modelMatrixBuffer);
-        shader.setMatrix4f("model", modelMatrixBuffer);
         shader.setVec4("material.albedo", material.getAlbedo());
         shader.setFloat("material.normalScale", material.getNormalScale());
         shader.setFloat("material.roughness", material.getRoughness());
         shader.setFloat("material.metallic", material.getMetallic());
         shader.setFloat("material.aoStrength", material.getAoStrength());
-        glBindVertexArray(VAO);
-        if (indices.isEmpty())
-            glDrawArrays(GL_TRIANGLES, 0, vertices.size());
-        else
-            glDrawElements(GL_TRIANGLES, indices.size(), GL_UNSIGNED_INT, 0);
-        glBindVertexArray(0);
     }
 
     private void bindTextures(Shader shader, Texture texture, String useVariable, String textureName, int index) {
         if(texture != null) {
             shader.setInt(textureName, index);
-            glActiveTexture(GL_TEXTURE0 + index);
-            glBindTexture(GL_TEXTURE_2D, texture.getId());
+            TextureUnits.bind(index, texture.getId());
             shader.setBool(useVariable, true);
         } else
             shader.setBool(useVariable, false);
     }
 
+    private void computeBounds() {
+        if(vertices.isEmpty()) return;
+        boundsMin.set(Float.POSITIVE_INFINITY);
+        boundsMax.set(Float.NEGATIVE_INFINITY);
+        for(ModelVertex vertex : vertices) {
+            boundsMin.min(vertex.getPosition());
+            boundsMax.max(vertex.getPosition());
+        }
+    }
+
     private void setupMesh() {
         IndicesLoader indicesLoader = new IndicesLoader(indices);
         VAO = glGenVertexArrays();
@@ -112,15 +216,77 @@ public class Mesh implements AutoCloseable {
         glVertexAttribPointer(2, 2, GL_FLOAT, false, ModelVertex.NUMBER_OF_FLOATS * 4, 6 * 4);
         glEnableVertexAttribArray(2);
 
+        // The instance attributes stay enabled for plain draws too, which read the first matrix: keep one there
+        instanceVBO = glGenBuffers();
+        new Matrix4f().get(modelMatrixBuffer);
+        glBindBuffer(GL_ARRAY_BUFFER, instanceVBO);
+        glBufferData(GL_ARRAY_BUFFER, modelMatrixBuffer, GL_STREAM_DRAW);
+        pointInstanceTransformsAt(instanceVBO);
+
         glBindVertexArray(0);
     }
 
+    // Per instance model matrix, one vec4 column per attribute location, read from the buffer; the VAO must be bound
+    private void pointInstanceTransformsAt(int buffer) {
+        glBindBuffer(GL_ARRAY_BUFFER, buffer);
+        for(int column = 0; column < 4; column++) {
+            int location = INSTANCE_TRANSFORM_LOCATION + column;
+            glVertexAttribPointer(location, 4, GL_FLOAT, false, MATRIX_FLOATS * 4, column * 4 * 4L);
+            glEnableVertexAttribArray(location);
+            glVertexAttribDivisor(location, 1);
+        }
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+    }
+
     public boolean isTransparent() {
         return isTransparentTexture;
     }
 
+    public int getMaterialStateId() {
+        return materialStateId;
+    }
+
+    public int getVertexArray() {
+        return VAO;
+    }
+
+    /**
+     * Writes the mesh's bounding box, transformed by the model matrix, to the destination vectors.
+     */
+    public void getBounds(Matrix4f modelMatrix, Vector3f destMin, Vector3f destMax) {
+        modelMatrix.transformAab(boundsMin, boundsMax, destMin, destMax);
+    }
+
+    private static int textureId(@Nullable Texture texture) {
+        return texture == null ? 0 : texture.getId();
+    }
+
+    // Holds copies of the material's values, as its albedo vector is mutable. A texture id the driver hands out again
+    // after the old texture was deleted names the same bound state, so keying on ids stays correct across map reloads.
+    private record MaterialState(
+            int albedoTexture, int normalTexture, int metallicRoughnessTexture, int ambientOcclusionTexture,
+            float albedoR, float albedoG, float albedoB, float albedoA,
+            float normalScale, float roughness, float metallic, float aoStrength
+    ) {
+        static MaterialState of(
+                @Nullable Texture albedoTexture,
+                @Nullable Texture normalTexture,
+                @Nullable Texture metallicRoughnessTexture,
+                @Nullable Texture ambientOcclusionTexture,
+                Material material
+        ) {
+            var albedo = material.getAlbedo();
+            return new MaterialState(
+                    textureId(albedoTexture), textureId(normalTexture), textureId(metallicRoughnessTexture), textureId(ambientOcclusionTexture),
+                    albedo.x, albedo.y, albedo.z, albedo.w,
+                    material.getNormalScale(), material.getRoughness(), material.getMetallic(), material.getAoStrength()
+            );
+        }
+    }
+
     @Override
     public void close() throws Exception {
         MemoryUtil.memFree(modelMatrixBuffer);
+        MemoryUtil.memFree(instanceTransforms);
     }
 }
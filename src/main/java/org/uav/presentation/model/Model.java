@@ -4,22 +4,37 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Getter;
 import lombok.Setter;
+import org.joml.FrustumIntersection;
 import org.joml.Matrix4f;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
-import org.uav.presentation.rendering.OrderedRenderQueue;
+import org.uav.presentation.rendering.InstanceBatch;
 import org.uav.presentation.rendering.Shader;
 
 import javax.annotation.Nullable;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.function.BiConsumer;
 
 public class Model {
 
-    private final ModelNode rootNode;
+    private static final int NO_PARENT = -1;
+    // Nodes in depth-first order, so a parent always comes before its children
+    private final ModelNode[] nodes;
+    private final int[] parents;
+    // Set for nodes that are animated or have an animated ancestor; the others never move relative to the model
+    private final boolean[] dynamic;
+    // Relative to the model for static nodes, relative to the parent for dynamic ones
+    private final Matrix4f[] cachedTransformations;
+    private final Matrix4f[] animatedLocalTransformations;
+    private final Matrix4f[] globalTransformations;
+    private final Matrix4f modelTransformation;
+    // Encloses the meshes in their rest pose, around the model's origin and before scaling
+    private final float boundingRadius;
     @Getter
     private final List<AnimationInfo> animationInfos;
+    // Indexed by animation channel, the position of the channel's info in animationInfos
+    private final float[] animationProgress;
 
     @Getter @Setter @Nullable
     private Vector3f position;
@@ -29,41 +44,112 @@ public class Model {
     private Vector3f scale;
 
     public Model(ModelNode rootNode, List<AnimationInfo> animationInfos) {
-        this.rootNode = rootNode;
         this.animationInfos = animationInfos;
+        animationProgress = new float[animationInfos.size()];
+        var nodeList = new ArrayList<ModelNode>();
+        var parentList = new ArrayList<Integer>();
+        flatten(rootNode, NO_PARENT, nodeList, parentList);
+        nodes = nodeList.toArray(new ModelNode[0]);
+        parents = parentList.stream().mapToInt(Integer::intValue).toArray();
+        dynamic = new boolean[nodes.length];
+        cachedTransformations = new Matrix4f[nodes.length];
+        animatedLocalTransformations = new Matrix4f[nodes.length];
+        globalTransformations = new Matrix4f[nodes.length];
+        for(int i = 0; i < nodes.length; i++) {
+            int parent = parents[i];
+            dynamic[i] = nodes[i].isAnimated() || (parent != NO_PARENT && dynamic[parent]);
+            cachedTransformations[i] = nodes[i].getLocalTransformation(new Matrix4f());
+            if(!dynamic[i] && parent != NO_PARENT)
+                cachedTransformations[parent].mul(cachedTransformations[i], cachedTransformations[i]);
+            if(nodes[i].isAnimated()) animatedLocalTransformations[i] = new Matrix4f();
+            globalTransformations[i] = new Matrix4f();
+        }
+        modelTransformation = new Matrix4f();
+        boundingRadius = computeBoundingRadius();
         position = null;
         rotation = null;
         scale = new Vector3f(1);
     }
 
+    private static void flatten(ModelNode node, int parent, List<ModelNode> nodeList, List<Integer> parentList) {
+        int index = nodeList.size();
+        nodeList.add(node);
+        parentList.add(parent);
+        for(ModelNode child : node.getChildren()) flatten(child, index, nodeList, parentList);
+    }
+
+    private float computeBoundingRadius() {
+        var restTransformations = new Matrix4f[nodes.length];
+        var min = new Vector3f();
+        var max = new Vector3f();
+        float radius = 0;
+        for(int i = 0; i < nodes.length; i++) {
+            restTransformations[i] = nodes[i].getLocalTransformation(new Matrix4f());
+            if(parents[i] != NO_PARENT)
+                restTransformations[parents[i]].mul(restTransformations[i], restTransformations[i]);
+            for(Mesh mesh : nodes[i].getMeshes()) {
+                mesh.getBounds(restTransformations[i], min, max);
+                radius = Math.max(radius, min.absolute().max(max.absolute()).length());
+            }
+        }
+        return radius;
+    }
+
+    /**
+     * Tests a sphere around the model at its current position against the frustum. Animated parts are taken at rest,
+     * so parts animated far from their rest pose may be culled with the model.
+     */
+    public boolean isVisible(FrustumIntersection frustum) {
+        if(position == null) return false;
+        float maxScale = Math.max(Math.abs(scale.x), Math.max(Math.abs(scale.y), Math.abs(scale.z)));
+        return frustum.testSphere(position, boundingRadius * maxScale);
+    }
+
     public void draw(Shader shader) {
-        var modelTransformation = getModelTransformation();
-        if(modelTransformation == null) return;
-        var map = new HashMap<String, Map<String, Float>>();
-        map.put("translation", new HashMap<>());
-        map.put("rotation", new HashMap<>());
-        map.put("scale", new HashMap<>());
-        animationInfos.forEach(info -> map.get(info.animationType).put(info.animatedModelName, info.animationProgress));
-        rootNode.draw(shader, modelTransformation, map);
+        if(!updateGlobalTransformations()) return;
+        for(int i = 0; i < nodes.length; i++)
+            for(Mesh mesh : nodes[i].getMeshes()) mesh.draw(shader, globalTransformations[i]);
+    }
+
+    /**
+     * Adds the model's meshes at its current position, rotation and animation state to the batch instead of drawing
+     * them right away.
+     */
+    public void addToBatch(InstanceBatch instanceBatch) {
+        if(!updateGlobalTransformations()) return;
+        for(int i = 0; i < nodes.length; i++)
+            for(Mesh mesh : nodes[i].getMeshes()) instanceBatch.addMesh(mesh, globalTransformations[i]);
+    }
+
+    /**
+     * Calls the visitor with every mesh and its transformation at the model's current position, rotation and animation
+     * state. The transformations are reused by the model, so the visitor has to copy the ones it keeps.
+     */
+    public void forEachMesh(BiConsumer<Mesh, Matrix4f> visitor) {
+        if(!updateGlobalTransformations()) return;
+        for(int i = 0; i < nodes.length; i++)
+            for(Mesh mesh : nodes[i].getMeshes()) visitor.accept(mesh, globalTransformations[i]);
     }
 
-    public void addToQueue(OrderedRenderQueue orderedRenderQueue, Shader shader) {
-        var modelTransformation = getModelTransformation();
-        if(modelTransformation == null) return;
-        var map = new HashMap<String, Map<String, Float>>();
-        map.put("translation", new HashMap<>());
-        map.put("rotation", new HashMap<>());
-        map.put("scale", new HashMap<>());
-        animationInfos.forEach(info -> map.get(info.animationType).put(info.animatedModelName, info.animationProgress));
-        rootNode.addToQueue(orderedRenderQueue, modelTransformation, shader, map);
+    public void setAnimationProgress(int channel, float progress) {
+        animationProgress[channel] = progress;
     }
 
-    public Matrix4f getModelTransformation() {
-        return position == null || rotation == null ? null :
-            new Matrix4f()
-                .translate(position)
-                .rotate(rotation)
-                .scale(scale);
+    private boolean updateGlobalTransformations() {
+        if(position == null || rotation == null) return false;
+        modelTransformation.translationRotateScale(position, rotation, scale);
+        for(int i = 0; i < nodes.length; i++) {
+            if(!dynamic[i]) {
+                modelTransformation.mul(cachedTransformations[i], globalTransformations[i]);
+                continue;
+            }
+            Matrix4f localTransformation = cachedTransformations[i];
+            if(nodes[i].isAnimated())
+                localTransformation = nodes[i].getAnimatedLocalTransformation(animationProgress, animatedLocalTransformations[i]);
+            Matrix4f parentTransformation = parents[i] == NO_PARENT ? modelTransformation : globalTransformations[parents[i]];
+            parentTransformation.mul(localTransformation, globalTransformations[i]);
+        }
+        return true;
     }
 
     @AllArgsConstructor
@@ -73,6 +159,6 @@ public class Model {
         String animationType;
         String animatedModelName;
         float animationTimeSpan;
-        float animationProgress;
+        int channel;
     }
 }
@@ -1,24 +1,37 @@
 package org.uav.presentation.model;
 
+import lombok.Getter;
 import org.joml.Matrix4f;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
 import org.uav.presentation.model.animation.AnimationPlayer;
-import org.uav.presentation.rendering.OrderedRenderQueue;
-import org.uav.presentation.rendering.Shader;
 
 import java.util.List;
-import java.util.Map;
 
+/**
+ * Node of a model as imported. {@link Model} flattens the tree once and draws from that, so nodes only describe their
+ * local transformation.
+ */
 public class ModelNode {
+    public static final int NO_CHANNEL = -1;
 
+    @Getter
     private final String name;
+    @Getter
     private final List<Mesh> meshes;
+    @Getter
     private final List<ModelNode> children;
     private final Vector3f localTranslation;
     private final Quaternionf localRotation;
     private final Vector3f localScale;
     private final AnimationPlayer animationPlayer;
+    // Indices into the model's animation progress, NO_CHANNEL where the node is not animated that way
+    private final int translationChannel;
+    private final int rotationChannel;
+    private final int scaleChannel;
+    private final Vector3f animatedTranslation;
+    private final Quaternionf animatedRotation;
+    private final Vector3f animatedScale;
 
     public ModelNode(
             String name,
@@ -27,7 +40,10 @@ public class ModelNode {
             Vector3f localTranslation,
             Quaternionf localRotation,
             Vector3f localScale,
-            AnimationPlayer animationPlayer) {
+            AnimationPlayer animationPlayer,
+            int translationChannel,
+            int rotationChannel,
+            int scaleChannel) {
         this.name = name;
         this.meshes = meshes;
         this.children = children;
@@ -35,25 +51,29 @@ public class ModelNode {
         this.localRotation = localRotation;
         this.localScale = localScale;
         this.animationPlayer = animationPlayer;
+        this.translationChannel = translationChannel;
+        this.rotationChannel = rotationChannel;
+        this.scaleChannel = scaleChannel;
+        animatedTranslation = new Vector3f();
+        animatedRotation = new Quaternionf();
+        animatedScale = new Vector3f();
     }
 
-    public void draw(Shader shader, Matrix4f parentTransform, Map<String, Map<String, Float>> animationProgressPerModelNode) {
-        Matrix4f globalTransformation = getGlobalTransformation(parentTransform, animationProgressPerModelNode);
-        meshes.forEach(m -> m.draw(shader, globalTransformation));
-        children.forEach(n -> n.draw(shader, globalTransformation, animationProgressPerModelNode));
+    public boolean isAnimated() {
+        return !animationPlayer.isEmpty();
     }
 
-    public void addToQueue(OrderedRenderQueue orderedRenderQueue, Matrix4f parentTransform, Shader shader, Map<String, Map<String, Float>> animationProgressPerModelNode) {
-        Matrix4f globalTransformation = getGlobalTransformation(parentTransform, animationProgressPerModelNode);
-        meshes.forEach(m -> orderedRenderQueue.addMesh(m, globalTransformation, shader));
-        children.forEach(n -> n.addToQueue(orderedRenderQueue, globalTransformation, shader, animationProgressPerModelNode));
+    public Matrix4f getLocalTransformation(Matrix4f dest) {
+        return dest.translationRotateScale(localTranslation, localRotation, localScale);
     }
 
-    private Matrix4f getGlobalTransformation(Matrix4f parentTransform, Map<String, Map<String, Float>> animationProgressPerModelNode) {
-        Matrix4f localTransformation = new Matrix4f()
-                .translate(animationPlayer.getTranslationOrDefault(localTranslation, animationProgressPerModelNode.get("translation").get(name)))
-                .rotate(animationPlayer.getRotationOrDefault(localRotation, animationProgressPerModelNode.get("rotation").get(name)))
-                .scale(animationPlayer.getScaleOrDefault(localScale, animationProgressPerModelNode.get("scale").get(name)));
-        return new Matrix4f(parentTransform).mul(localTransformation);
+    public Matrix4f getAnimatedLocalTransformation(float[] animationProgress, Matrix4f dest) {
+        return dest.translationRotateScale(
+                translationChannel == NO_CHANNEL ? localTranslation :
+                        animationPlayer.getTranslationOrDefault(localTranslation, animationProgress[translationChannel], animatedTranslation),
+                rotationChannel == NO_CHANNEL ? localRotation :
+                        animationPlayer.getRotationOrDefault(localRotation, animationProgress[rotationChannel], animatedRotation),
+                scaleChannel == NO_CHANNEL ? localScale :
+                        animationPlayer.getScaleOrDefault(localScale, animationProgress[scaleChannel], animatedScale));
     }
 }
@@ -1,6 +1,7 @@
 package org.uav.presentation.model;
 
 
+import lombok.Getter;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
 import org.uav.presentation.rendering.ShaderVertex;
@@ -9,6 +10,7 @@ import java.nio.FloatBuffer;
 
 public class ModelVertex extends ShaderVertex {
     public static int NUMBER_OF_FLOATS = 8;
+    @Getter
     private final Vector3f position;
     private final Vector3f normal;
     private final Vector2f texCoords;
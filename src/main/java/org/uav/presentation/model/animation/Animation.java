@@ -3,11 +3,8 @@ package org.uav.presentation.model.animation;
 import org.javatuples.Pair;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
-import org.uav.utils.PentaFunction;
 import org.uav.utils.SlerpQuaternionInterpolator;
 
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 
 public class Animation {
@@ -26,44 +23,56 @@ public class Animation {
         this.scaleAnimation = scaleAnimation;
     }
 
-    public Vector3f getTranslationFrame(float progress) {
-        return getFrame(translationAnimation, this::calcLinearInterpolation, progress);
+    /**
+     * @return false, leaving {@code dest} untouched, if the animation does not move the node
+     */
+    public boolean getTranslationFrame(float progress, Vector3f dest) {
+        return getVectorFrame(translationAnimation, progress, dest);
     }
 
-    public Quaternionf getRotationFrame(float progress) {
-        return getFrame(rotationAnimation, SlerpQuaternionInterpolator::interpolate, progress);
+    public boolean getRotationFrame(float progress, Quaternionf dest) {
+        if(rotationAnimation.isEmpty()) return false;
+        float position = findFramePosition(rotationAnimation, progress);
+        int frame = (int) position;
+        var lower = rotationAnimation.get(frame).getValue1();
+        if(position == frame) dest.set(lower);
+        else SlerpQuaternionInterpolator.interpolate(position - frame, lower, rotationAnimation.get(frame + 1).getValue1(), dest);
+        return true;
     }
 
-    public Vector3f getScaleFrame(float progress) {
-        return getFrame(scaleAnimation, this::calcLinearInterpolation, progress);
+    public boolean getScaleFrame(float progress, Vector3f dest) {
+        return getVectorFrame(scaleAnimation, progress, dest);
     }
 
-    public <T> T getFrame(List<Pair<Float, T>> animation, PentaFunction<Float, Float, Float, T, T, T> interpolator, float progress) {
-        if(animation.isEmpty()) return null;
-        float timeSpan = animation.get(animation.size()-1).getValue0() - animation.get(0).getValue0();
-        float time = progress * timeSpan;
-
-        int currentFrame = findFrame(time, animation);
-        if(currentFrame >= 0) return animation.get(currentFrame).getValue1(); // Found the exact frame
-        currentFrame = Math.abs(currentFrame + 1);
-        if(currentFrame == 0) return animation.get(0).getValue1();
-        if(currentFrame >= animation.size()) return animation.get(animation.size()-1).getValue1();
-        var p1 = animation.get(currentFrame - 1);
-        var p2 = animation.get(currentFrame);
-        return interpolator.apply(time, p1.getValue0(), p2.getValue0(), p1.getValue1(), p2.getValue1());
-    }
-
-    private Vector3f calcLinearInterpolation(float point, float lowerBound, float upperBound, Vector3f lowerValue, Vector3f upperValue) {
-        float ratio = (point - lowerBound) / (upperBound - lowerBound);
-        return new Vector3f(
-                (upperValue.x - lowerValue.x) * ratio + lowerValue.x,
-                (upperValue.y - lowerValue.y) * ratio + lowerValue.y,
-                (upperValue.z - lowerValue.z) * ratio + lowerValue.z
-        );
+    private static boolean getVectorFrame(List<Pair<Float, Vector3f>> animation, float progress, Vector3f dest) {
+        if(animation.isEmpty()) return false;
+        float position = findFramePosition(animation, progress);
+        int frame = (int) position;
+        var lower = animation.get(frame).getValue1();
+        if(position == frame) dest.set(lower);
+        else lower.lerp(animation.get(frame + 1).getValue1(), position - frame, dest);
+        return true;
     }
 
-    private static <T> int findFrame(float time, List<Pair<Float, T>> animation) {
-        return Collections.binarySearch(animation, new Pair<>(time, null), Comparator.comparing(Pair::getValue0));
+    /**
+     * @return index of the key frame at or before the progress, plus how far it is towards the next key frame
+     */
+    private static <T> float findFramePosition(List<Pair<Float, T>> animation, float progress) {
+        int last = animation.size() - 1;
+        float firstTime = animation.get(0).getValue0();
+        float lastTime = animation.get(last).getValue0();
+        float time = progress * (lastTime - firstTime);
+        if(time <= firstTime) return 0;
+        if(time >= lastTime) return last;
+        int lower = 0;
+        int upper = last;
+        while(upper - lower > 1) {
+            int middle = (lower + upper) >>> 1;
+            if(animation.get(middle).getValue0() <= time) lower = middle;
+            else upper = middle;
+        }
+        float lowerTime = animation.get(lower).getValue0();
+        return lower + (time - lowerTime) / (animation.get(upper).getValue0() - lowerTime);
     }
 
     public void startAnimation(float time, boolean loop) {
@@ -8,49 +8,47 @@ import java.util.Map;
 
 public class AnimationPlayer {
     private final Map<String, Animation> animations;
+    private Animation[] playedAnimations;
+    private final Vector3f vectorFrame;
+    private final Quaternionf rotationFrame;
 
     public AnimationPlayer() {
         animations = new HashMap<>();
+        playedAnimations = new Animation[0];
+        vectorFrame = new Vector3f();
+        rotationFrame = new Quaternionf();
     }
 
     public void put(String name, Animation animation) {
         animations.put(name, animation);
+        playedAnimations = animations.values().toArray(new Animation[0]);
     }
 
+    public boolean isEmpty() {
+        return playedAnimations.length == 0;
+    }
 
-    public Vector3f getTranslationOrDefault(Vector3f defaultTranslation, Float progress) { // TODO Zwinąć
-        if(progress == null) return defaultTranslation;
-        var translation = new Vector3f();
-        animations.values().forEach(animation -> {
-            var frame = animation.getTranslationFrame(progress);
-            if(frame == null) return;
-            translation.add(frame);
-        });
-        if(translation.equals(new Vector3f())) return defaultTranslation;
-        return translation;
+    public Vector3f getTranslationOrDefault(Vector3f defaultTranslation, float progress, Vector3f dest) { // TODO Zwinąć
+        dest.zero();
+        for(Animation animation : playedAnimations)
+            if(animation.getTranslationFrame(progress, vectorFrame)) dest.add(vectorFrame);
+        if(dest.x == 0 && dest.y == 0 && dest.z == 0) return dest.set(defaultTranslation);
+        return dest;
     }
 
-    public Quaternionf getRotationOrDefault(Quaternionf defaultRotation, Float progress) {
-        if(progress == null) return defaultRotation;
-        var rotation = new Quaternionf();
-        animations.values().forEach(animation -> {
-            var frame = animation.getRotationFrame(progress);
-            if(frame == null) return;
-            rotation.mul(frame);
-        });
-        if(rotation.equals(new Quaternionf())) return defaultRotation;
-        return rotation;
+    public Quaternionf getRotationOrDefault(Quaternionf defaultRotation, float progress, Quaternionf dest) {
+        dest.identity();
+        for(Animation animation : playedAnimations)
+            if(animation.getRotationFrame(progress, rotationFrame)) dest.mul(rotationFrame);
+        if(dest.x == 0 && dest.y == 0 && dest.z == 0 && dest.w == 1) return dest.set(defaultRotation);
+        return dest;
     }
 
-    public Vector3f getScaleOrDefault(Vector3f defaultScale, Float progress) {
-        if(progress == null) return defaultScale;
-        var scale = new Vector3f(1);
-        animations.values().forEach(animation -> {
-            var frame = animation.getScaleFrame(progress);
-            if(frame == null) return;
-            scale.mul(frame);
-        });
-        if(scale.equals(new Vector3f(1))) return defaultScale;
-        return scale;
+    public Vector3f getScaleOrDefault(Vector3f defaultScale, float progress, Vector3f dest) {
+        dest.set(1);
+        for(Animation animation : playedAnimations)
+            if(animation.getScaleFrame(progress, vectorFrame)) dest.mul(vectorFrame);
+        if(dest.x == 1 && dest.y == 1 && dest.z == 1) return dest.set(defaultScale);
+        return dest;
     }
 }
@@ -12,6 +12,7 @@ import org.uav.logic.config.Config;
 import org.uav.presentation.model.*;
 import org.uav.presentation.model.animation.Animation;
 import org.uav.presentation.model.animation.AnimationPlayer;
+import org.uav.presentation.rendering.TextureUnits;
 import org.uav.presentation.view.LoadingScreen;
 
 import javax.imageio.ImageIO;
@@ -92,7 +93,10 @@ public class GltfImporter {
                         new Vector3f(),
                         new Quaternionf(0,0,0,1),
                         new Vector3f(1f),
-                        new AnimationPlayer()),
+                        new AnimationPlayer(),
+                        ModelNode.NO_CHANNEL,
+                        ModelNode.NO_CHANNEL,
+                        ModelNode.NO_CHANNEL),
                 animationInfos
         );
     }
@@ -102,9 +106,9 @@ public class GltfImporter {
         var translationAnimation = getAnimation(nodeModel, translationAnimationSamplers);
         var rotationAnimation = getRotationAnimation(nodeModel, rotationAnimationSamplers);
         var scaleAnimation = getAnimation(nodeModel, scaleAnimationSamplers);
-        addAnimationInfo(nodeModel.getName(), "Hover", translationAnimation, "translation");
-        addAnimationInfo(nodeModel.getName(), "Hover", rotationAnimation, "rotation");
-        addAnimationInfo(nodeModel.getName(), "Hover", scaleAnimation, "scale");
+        int translationChannel = addAnimationInfo(nodeModel.getName(), "Hover", translationAnimation, "translation");
+        int rotationChannel = addAnimationInfo(nodeModel.getName(), "Hover", rotationAnimation, "rotation");
+        int scaleChannel = addAnimationInfo(nodeModel.getName(), "Hover", scaleAnimation, "scale");
         var animationPlayer = new AnimationPlayer();
         if(!translationAnimation.isEmpty() || !rotationAnimation.isEmpty() || !scaleAnimation.isEmpty()) {
             animationPlayer.put(
@@ -132,7 +136,10 @@ public class GltfImporter {
                     localTranslation,
                     localRotation,
                     localScale,
-                    animationPlayer
+                    animationPlayer,
+                    translationChannel,
+                    rotationChannel,
+                    scaleChannel
             );
         }
         float[] translation = nodeModel.getTranslation() != null ? nodeModel.getTranslation(): new float[]{0, 0, 0};
@@ -153,17 +160,25 @@ public class GltfImporter {
                 localTranslation,
                 localRotation,
                 localScale,
-                animationPlayer
+                animationPlayer,
+                translationChannel,
+                rotationChannel,
+                scaleChannel
         );
     }
 
-    private <T> void addAnimationInfo(String modelName, String animationName, List<Pair<Float, T>> animation, String type) {
-        if(animation.isEmpty()) return;
+    /**
+     * @return index of the channel the node reads its animation progress from
+     */
+    private <T> int addAnimationInfo(String modelName, String animationName, List<Pair<Float, T>> animation, String type) {
+        if(animation.isEmpty()) return ModelNode.NO_CHANNEL;
+        int channel = animationInfos.size();
         animationInfos.add(
                 new Model.AnimationInfo(
-                        animationName, type, modelName, animation.get(animation.size()-1).getValue0() - animation.get(0).getValue0(), 0
+                        animationName, type, modelName, animation.get(animation.size()-1).getValue0() - animation.get(0).getValue0(), channel
                 )
         );
+        return channel;
     }
 
     private List<Pair<Float, Vector3f>> getAnimation(NodeModel nodeModel, Map<String, AnimationModel.Sampler> samplerMap) throws IOException {
@@ -292,7 +307,7 @@ public class GltfImporter {
             ).anyMatch((rgb -> ((rgb >> 24) & 0xFF) != 0xFF));
 
             int texture = glGenTextures();
-            glBindTexture(GL_TEXTURE_2D, texture);
+            TextureUnits.bind(0, texture);
             glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_REPEAT);
             glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_REPEAT);
             glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
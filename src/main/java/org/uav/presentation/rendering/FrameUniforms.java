@@ -0,0 +1,113 @@
+package org.uav.presentation.rendering;
+
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+
+import static org.lwjgl.opengl.GL15C.*;
+import static org.lwjgl.opengl.GL30C.glBindBufferBase;
+import static org.lwjgl.opengl.GL31C.GL_UNIFORM_BUFFER;
+
+/**
+ * Data every program reads once per frame: camera and light-space matrices, lights and fog. It lives in one std140
+ * uniform buffer, written once per frame with {@link #upload()}, instead of being set on each program separately.
+ * Programs declaring the {@code FrameData} block from {@code shaders/common/frameData.glsl} are bound to it by
+ * {@link Shader}; the offsets below follow that declaration.
+ */
+public class FrameUniforms {
+    public static final String BLOCK_NAME = "FrameData";
+    public static final int BINDING = 0;
+
+    private static final int VIEW = 0;
+    private static final int PROJECTION = 64;
+    private static final int CASCADE_LIGHT_SPACE = 128;
+    private static final int CASCADE_SPLITS = CASCADE_LIGHT_SPACE + 64 * ShadowCascades.MAX_CASCADES;
+    private static final int VIEW_POS = CASCADE_SPLITS + 16;
+    private static final int SPOT_LIGHT_ON = VIEW_POS + 12;
+    private static final int CASCADE_COUNT = VIEW_POS + 16;
+    private static final int DIR_LIGHT = CASCADE_COUNT + 16;
+    private static final int POINT_LIGHT = DIR_LIGHT + 64;
+    private static final int SPOT_LIGHT = POINT_LIGHT + 80;
+    private static final int FOG = SPOT_LIGHT + 96;
+    private static final int SIZE = FOG + 16;
+
+    private final int ubo;
+    private final ByteBuffer data;
+
+    public FrameUniforms() {
+        data = MemoryUtil.memCalloc(SIZE);
+        ubo = glGenBuffers();
+        glBindBuffer(GL_UNIFORM_BUFFER, ubo);
+        glBufferData(GL_UNIFORM_BUFFER, SIZE, GL_DYNAMIC_DRAW);
+        glBindBuffer(GL_UNIFORM_BUFFER, 0);
+        glBindBufferBase(GL_UNIFORM_BUFFER, BINDING, ubo);
+    }
+
+    public void setView(Matrix4f view) {
+        view.get(VIEW, data);
+    }
+
+    public void setProjection(Matrix4f projection) {
+        projection.get(PROJECTION, data);
+    }
+
+    public void setShadowCascades(ShadowCascades cascades) {
+        data.putInt(CASCADE_COUNT, cascades.getCount());
+        for(int i = 0; i < cascades.getCount(); i++) {
+            cascades.getLightSpace(i).get(CASCADE_LIGHT_SPACE + 64 * i, data);
+            data.putFloat(CASCADE_SPLITS + 4 * i, cascades.getSplitDistance(i));
+        }
+    }
+
+    public void setViewPos(Vector3f viewPos) {
+        viewPos.get(VIEW_POS, data);
+    }
+
+    public void setDirectionalLight(Vector3f direction, Vector3f ambient, Vector3f diffuse, Vector3f specular) {
+        direction.get(DIR_LIGHT, data);
+        ambient.get(DIR_LIGHT + 16, data);
+        diffuse.get(DIR_LIGHT + 32, data);
+        specular.get(DIR_LIGHT + 48, data);
+    }
+
+    public void setPointLight(Vector3f position, Vector3f ambient, Vector3f diffuse, Vector3f specular,
+                              float constant, float linear, float quadratic) {
+        position.get(POINT_LIGHT, data);
+        data.putFloat(POINT_LIGHT + 12, constant);
+        data.putFloat(POINT_LIGHT + 16, linear);
+        data.putFloat(POINT_LIGHT + 20, quadratic);
+        ambient.get(POINT_LIGHT + 32, data);
+        diffuse.get(POINT_LIGHT + 48, data);
+        specular.get(POINT_LIGHT + 64, data);
+    }
+
+    public void setSpotLight(boolean on, Vector3f position, Vector3f direction, float cutOff, float outerCutOff,
+                             Vector3f ambient, Vector3f diffuse, Vector3f specular,
+                             float constant, float linear, float quadratic) {
+        data.putInt(SPOT_LIGHT_ON, on ? 1 : 0);
+        position.get(SPOT_LIGHT, data);
+        direction.get(SPOT_LIGHT + 16, data);
+        data.putFloat(SPOT_LIGHT + 28, cutOff);
+        data.putFloat(SPOT_LIGHT + 32, outerCutOff);
+        data.putFloat(SPOT_LIGHT + 36, constant);
+        data.putFloat(SPOT_LIGHT + 40, linear);
+        data.putFloat(SPOT_LIGHT + 44, quadratic);
+        ambient.get(SPOT_LIGHT + 48, data);
+        diffuse.get(SPOT_LIGHT + 64, data);
+        specular.get(SPOT_LIGHT + 80, data);
+    }
+
+    public void setFog(Vector3f color, float density) {
+        color.get(FOG, data);
+        data.putFloat(FOG + 12, density);
+    }
+
+    public void upload() {
+        glBindBuffer(GL_UNIFORM_BUFFER, ubo);
+        glBufferSubData(GL_UNIFORM_BUFFER, 0, data);
+        glBindBuffer(GL_UNIFORM_BUFFER, 0);
+        GlStateCounters.countIssued();
+    }
+}
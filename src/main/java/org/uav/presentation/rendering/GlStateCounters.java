@@ -0,0 +1,72 @@
+package org.uav.presentation.rendering;
+
+/**
+ * Counts GL state calls (programs, uniforms, texture bindings) that were issued and those skipped because the state
+ * was already set, and the program, material and vertex array switches between consecutive draws of sorted render
+ * queues. Render thread only.
+ */
+public class GlStateCounters {
+    private static int issued = 0;
+    private static int skipped = 0;
+    private static int lastFrameIssued = 0;
+    private static int lastFrameSkipped = 0;
+    private static int programSwitches = 0;
+    private static int materialSwitches = 0;
+    private static int vertexArraySwitches = 0;
+    private static int lastFrameProgramSwitches = 0;
+    private static int lastFrameMaterialSwitches = 0;
+    private static int lastFrameVertexArraySwitches = 0;
+
+    private GlStateCounters() {
+    }
+
+    static void countIssued() {
+        issued++;
+    }
+
+    static void countSkipped() {
+        skipped++;
+    }
+
+    static void countSwitches(int programs, int materials, int vertexArrays) {
+        programSwitches += programs;
+        materialSwitches += materials;
+        vertexArraySwitches += vertexArrays;
+    }
+
+    /**
+     * Publishes the counts of the frame that just ended and starts counting the next one.
+     */
+    public static void startFrame() {
+        lastFrameIssued = issued;
+        lastFrameSkipped = skipped;
+        lastFrameProgramSwitches = programSwitches;
+        lastFrameMaterialSwitches = materialSwitches;
+        lastFrameVertexArraySwitches = vertexArraySwitches;
+        issued = 0;
+        skipped = 0;
+        programSwitches = 0;
+        materialSwitches = 0;
+        vertexArraySwitches = 0;
+    }
+
+    public static int getLastFrameIssued() {
+        return lastFrameIssued;
+    }
+
+    public static int getLastFrameSkipped() {
+        return lastFrameSkipped;
+    }
+
+    public static int getLastFrameProgramSwitches() {
+        return lastFrameProgramSwitches;
+    }
+
+    public static int getLastFrameMaterialSwitches() {
+        return lastFrameMaterialSwitches;
+    }
+
+    public static int getLastFrameVertexArraySwitches() {
+        return lastFrameVertexArraySwitches;
+    }
+}
@@ -0,0 +1,37 @@
+package org.uav.presentation.rendering;
+
+import org.joml.Matrix4f;
+import org.uav.presentation.model.Mesh;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects copies of meshes shared by many objects, so each mesh is drawn with one instanced draw call no matter how
+ * many objects use it. Opaque meshes are drawn before transparent ones.
+ */
+public class InstanceBatch {
+
+    private final List<Mesh> standardMeshes;
+    private final List<Mesh> transparentMeshes;
+
+    public InstanceBatch() {
+        standardMeshes = new ArrayList<>();
+        transparentMeshes = new ArrayList<>();
+    }
+
+    public void addMesh(Mesh mesh, Matrix4f modelMatrix) {
+        if(mesh.addInstance(modelMatrix) > 1) return;
+        if(mesh.isTransparent())
+            transparentMeshes.add(mesh);
+        else
+            standardMeshes.add(mesh);
+    }
+
+    public void render(Shader shader) {
+        for(Mesh mesh : standardMeshes) mesh.drawInstances(shader);
+        for(Mesh mesh : transparentMeshes) mesh.drawInstances(shader);
+        standardMeshes.clear();
+        transparentMeshes.clear();
+    }
+}
@@ -1,47 +1,99 @@
 package org.uav.presentation.rendering;
 
-import org.javatuples.Triplet;
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
 import org.uav.presentation.model.Mesh;
+import org.uav.utils.RadixSorter;
 
-import java.util.ArrayDeque;
-import java.util.Comparator;
-import java.util.PriorityQueue;
-import java.util.Queue;
+import java.util.Arrays;
 
+/**
+ * Collects meshes and draws them ordered by a 64-bit sort key packed when the queue is rendered. Opaque meshes come
+ * first, grouped by program, then by textures and material, then by vertex array, so consecutive draws share as much
+ * bound state as possible. Transparent meshes follow, farthest from the camera first. The queue is meant to be kept
+ * and reused: its arrays only grow, and it keeps references to the matrices it was given until it is rendered.
+ */
 public class OrderedRenderQueue {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final long TRANSPARENT = 1L << 63;
+    // Opaque key layout below the transparency bit: program, material state, vertex array
+    private static final int PROGRAM_SHIFT = 48;
+    private static final long PROGRAM_MASK = (1L << 15) - 1;
+    private static final int MATERIAL_SHIFT = 24;
+    private static final long MATERIAL_MASK = (1L << 24) - 1;
+    private static final long VERTEX_ARRAY_MASK = (1L << 24) - 1;
+    // Transparent key layout: inverted distance, so the farthest mesh sorts first
+    private static final int DEPTH_SHIFT = 32;
 
-    private final Queue<Triplet<Mesh, Matrix4f, Shader>> transparentMeshes;
-    private final Queue<Triplet<Mesh, Matrix4f, Shader>> standardMeshes;
-
-    public OrderedRenderQueue(Vector3f cameraPosition) {
-        Comparator<Triplet<Mesh, Matrix4f, Shader>> comparator =
-                (Triplet<Mesh, Matrix4f, Shader> p1, Triplet<Mesh, Matrix4f, Shader> p2) -> {
-            Vector3f distance1 = p1.getValue1().getTranslation(new Vector3f()).sub(cameraPosition);
-            Vector3f distance2 = p2.getValue1().getTranslation(new Vector3f()).sub(cameraPosition);
-            return Float.compare(distance1.length(), distance2.length());
-        };
-        transparentMeshes = new PriorityQueue<>(comparator);
-        standardMeshes = new ArrayDeque<>();
+    private final RadixSorter sorter;
+    private Mesh[] meshes;
+    private Matrix4f[] modelMatrices;
+    private Shader[] shaders;
+    private long[] keys;
+    private int[] order;
+    private final StateSwitchCounter switches;
+    private int count;
+
+    public OrderedRenderQueue() {
+        sorter = new RadixSorter();
+        meshes = new Mesh[INITIAL_CAPACITY];
+        modelMatrices = new Matrix4f[INITIAL_CAPACITY];
+        shaders = new Shader[INITIAL_CAPACITY];
+        keys = new long[INITIAL_CAPACITY];
+        order = new int[INITIAL_CAPACITY];
+        switches = new StateSwitchCounter();
+        count = 0;
     }
 
     public void addMesh(Mesh mesh, Matrix4f modelMatrix, Shader shader) {
-        if(mesh.isTransparent())
-            transparentMeshes.add(Triplet.with(mesh, modelMatrix, shader));
-        else
-            standardMeshes.add(Triplet.with(mesh, modelMatrix, shader));
+        if(count == meshes.length) grow();
+        meshes[count] = mesh;
+        modelMatrices[count] = modelMatrix;
+        shaders[count] = shader;
+        count++;
     }
 
-    public void render() {
-        while(!standardMeshes.isEmpty()) {
-            var drawable = standardMeshes.remove();
-            drawable.getValue0().draw(drawable.getValue2(), drawable.getValue1());
+    public void render(Vector3f cameraPosition) {
+        for(int i = 0; i < count; i++) {
+            keys[i] = sortKey(meshes[i], modelMatrices[i], shaders[i], cameraPosition);
+            order[i] = i;
         }
-        while(!transparentMeshes.isEmpty()) {
-            var drawable = transparentMeshes.remove();
-            drawable.getValue0().draw(drawable.getValue2(), drawable.getValue1());
+        sorter.sort(keys, order, count);
+
+        for(int i = 0; i < count; i++) {
+            int item = order[i];
+            var mesh = meshes[item];
+            switches.draw(shaders[item].shaderProgram, mesh.getMaterialStateId(), mesh.getVertexArray());
+            mesh.draw(shaders[item], modelMatrices[item]);
         }
+        switches.publish();
+
+        Arrays.fill(meshes, 0, count, null);
+        Arrays.fill(modelMatrices, 0, count, null);
+        Arrays.fill(shaders, 0, count, null);
+        count = 0;
+    }
+
+    private static long sortKey(Mesh mesh, Matrix4f modelMatrix, Shader shader, Vector3f cameraPosition) {
+        if(mesh.isTransparent()) {
+            float dx = modelMatrix.m30() - cameraPosition.x;
+            float dy = modelMatrix.m31() - cameraPosition.y;
+            float dz = modelMatrix.m32() - cameraPosition.z;
+            // Bits of a non-negative float order the same way as its value
+            int depth = Float.floatToIntBits(dx * dx + dy * dy + dz * dz);
+            return TRANSPARENT | ((~depth & 0x7FFFFFFFL) << DEPTH_SHIFT);
+        }
+        return ((shader.shaderProgram & PROGRAM_MASK) << PROGRAM_SHIFT)
+                | ((mesh.getMaterialStateId() & MATERIAL_MASK) << MATERIAL_SHIFT)
+                | (mesh.getVertexArray() & VERTEX_ARRAY_MASK);
+    }
 
+    private void grow() {
+        int capacity = 2 * meshes.length;
+        meshes = Arrays.copyOf(meshes, capacity);
+        modelMatrices = Arrays.copyOf(modelMatrices, capacity);
+        shaders = Arrays.copyOf(shaders, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        order = Arrays.copyOf(order, capacity);
     }
 }
@@ -1,6 +1,5 @@
 package org.uav.presentation.rendering;
 
-import com.google.common.primitives.Floats;
 import org.apache.commons.io.IOUtils;
 import org.joml.Matrix4f;
 import org.joml.Vector2f;
@@ -14,21 +13,34 @@ import java.io.InputStream;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.nio.charset.StandardCharsets;
-import java.util.List;
-import java.util.stream.Stream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
 
 import static org.lwjgl.opengl.GL20.*;
 import static org.lwjgl.opengl.GL21C.glUniformMatrix3x2fv;
+import static org.lwjgl.opengl.GL31C.GL_INVALID_INDEX;
+import static org.lwjgl.opengl.GL31C.glGetUniformBlockIndex;
+import static org.lwjgl.opengl.GL31C.glUniformBlockBinding;
 import static org.lwjgl.opengl.GL32C.GL_GEOMETRY_SHADER;
 
+/**
+ * Program with its uniform locations resolved once after linking. Each setter remembers the values it uploaded and
+ * skips the GL call when they did not change; {@link GlStateCounters} counts both outcomes.
+ */
 public class Shader {
+    private static final String INCLUDE = "#include";
+    // The program in use; one GL context renders everything
+    private static int currentProgram = 0;
 
     public int shaderProgram;
+    private final Map<String, Uniform> uniforms;
+    private float[] scratch;
 
     public Shader(InputStream vertexShaderStream, InputStream fragmentShaderStream) throws IOException {
         // Read GLSL files
-        String vertexShaderSource = IOUtils.toString(vertexShaderStream, StandardCharsets.UTF_8);
-        String fragmentShaderSource = IOUtils.toString(fragmentShaderStream, StandardCharsets.UTF_8);
+        String vertexShaderSource = expandIncludes(IOUtils.toString(vertexShaderStream, StandardCharsets.UTF_8));
+        String fragmentShaderSource = expandIncludes(IOUtils.toString(fragmentShaderStream, StandardCharsets.UTF_8));
 
         IntBuffer success = BufferUtils.createIntBuffer(1);
         int vertexShader = getVertexShader(vertexShaderSource, success);
@@ -46,13 +58,16 @@ public class Shader {
         // Clean up
         glDeleteShader(vertexShader);
         glDeleteShader(fragmentShader);
+        uniforms = findUniforms(shaderProgram);
+        scratch = new float[16];
+        bindFrameUniforms(shaderProgram);
     }
 
     public Shader(InputStream vertexShaderStream, InputStream geometryShaderStream, InputStream fragmentShaderStream) throws IOException {
         // Read GLSL files
-        String vertexShaderSource = IOUtils.toString(vertexShaderStream, StandardCharsets.UTF_8);
-        String geometryShaderSource = IOUtils.toString(geometryShaderStream, StandardCharsets.UTF_8);
-        String fragmentShaderSource = IOUtils.toString(fragmentShaderStream, StandardCharsets.UTF_8);
+        String vertexShaderSource = expandIncludes(IOUtils.toString(vertexShaderStream, StandardCharsets.UTF_8));
+        String geometryShaderSource = expandIncludes(IOUtils.toString(geometryShaderStream, StandardCharsets.UTF_8));
+        String fragmentShaderSource = expandIncludes(IOUtils.toString(fragmentShaderStream, StandardCharsets.UTF_8));
 
         IntBuffer success = BufferUtils.createIntBuffer(1);
         int vertexShader = getVertexShader(vertexShaderSource, success);
@@ -72,6 +87,36 @@ public class Shader {
         // Clean up
         glDeleteShader(vertexShader);
         glDeleteShader(fragmentShader);
+        uniforms = findUniforms(shaderProgram);
+        scratch = new float[16];
+        bindFrameUniforms(shaderProgram);
+    }
+
+    /**
+     * Replaces {@code #include "path"} lines with the contents of {@code shaders/path}, so blocks shared by several
+     * programs, like the per-frame uniforms, are declared once.
+     */
+    private static String expandIncludes(String source) throws IOException {
+        var expanded = new StringBuilder();
+        for(String line : source.split("\n", -1)) {
+            var trimmed = line.trim();
+            if(trimmed.startsWith(INCLUDE)) {
+                var path = trimmed.substring(INCLUDE.length()).trim().replace("\"", "");
+                var includedStream = Objects.requireNonNull(Shader.class.getClassLoader().getResourceAsStream("shaders/" + path));
+                try(includedStream) {
+                    expanded.append(expandIncludes(IOUtils.toString(includedStream, StandardCharsets.UTF_8)));
+                }
+            } else
+                expanded.append(line);
+            expanded.append('\n');
+        }
+        return expanded.toString();
+    }
+
+    private static void bindFrameUniforms(int program) {
+        int blockIndex = glGetUniformBlockIndex(program, FrameUniforms.BLOCK_NAME);
+        if(blockIndex != GL_INVALID_INDEX)
+            glUniformBlockBinding(program, blockIndex, FrameUniforms.BINDING);
     }
 
     private static int getGeometryShader(String geometryShaderSource, IntBuffer success) {
@@ -114,50 +159,120 @@ public class Shader {
     }
 
     public void use() {
+        if(currentProgram == shaderProgram) {
+            GlStateCounters.countSkipped();
+            return;
+        }
         glUseProgram(shaderProgram);
+        currentProgram = shaderProgram;
+        GlStateCounters.countIssued();
     }
 
     public void setBool(String name, Boolean value) {
-        glUniform1i(glGetUniformLocation(shaderProgram, name), value.compareTo(false));
+        setInt(name, value.compareTo(false));
     }
 
     public void setInt(String name, int value) {
-        glUniform1i(glGetUniformLocation(shaderProgram, name), value);
+        var uniform = uniforms.get(name);
+        scratch[0] = Float.intBitsToFloat(value);
+        if(isUnchanged(uniform, 1)) return;
+        glUniform1i(uniform.location, value);
     }
 
     public void setFloat(String name, float value) {
-        glUniform1f(glGetUniformLocation(shaderProgram, name), value);
+        var uniform = uniforms.get(name);
+        scratch[0] = value;
+        if(isUnchanged(uniform, 1)) return;
+        glUniform1f(uniform.location, value);
 
     }
     public void setVec4(String name, Vector4f vec) {
-        glUniform4f(glGetUniformLocation(shaderProgram, name), vec.x, vec.y, vec.z, vec.w);
+        var uniform = uniforms.get(name);
+        scratch[0] = vec.x;
+        scratch[1] = vec.y;
+        scratch[2] = vec.z;
+        scratch[3] = vec.w;
+        if(isUnchanged(uniform, 4)) return;
+        glUniform4f(uniform.location, vec.x, vec.y, vec.z, vec.w);
     }
 
     public void setVec3(String name, Vector3f vec) {
-        glUniform3f(glGetUniformLocation(shaderProgram, name), vec.x, vec.y, vec.z);
+        var uniform = uniforms.get(name);
+        scratch[0] = vec.x;
+        scratch[1] = vec.y;
+        scratch[2] = vec.z;
+        if(isUnchanged(uniform, 3)) return;
+        glUniform3f(uniform.location, vec.x, vec.y, vec.z);
     }
 
     public void setMatrix4f(String name, FloatBuffer matrix) {
-        glUniformMatrix4fv(glGetUniformLocation(shaderProgram, name), false, matrix);
+        var uniform = uniforms.get(name);
+        matrix.get(matrix.position(), scratch, 0, 16);
+        if(isUnchanged(uniform, 16)) return;
+        glUniformMatrix4fv(uniform.location, false, matrix);
     }
 
     public void setMatrix4f(MemoryStack stack, String name, Matrix4f matrix) {
-        glUniformMatrix4fv(glGetUniformLocation(shaderProgram, name), false, matrix.get(stack.mallocFloat(16)));
+        var uniform = uniforms.get(name);
+        matrix.get(scratch);
+        if(isUnchanged(uniform, 16)) return;
+        glUniformMatrix4fv(uniform.location, false, matrix.get(stack.mallocFloat(16)));
     }
 
-    public void setVec3Array(MemoryStack stack, String name, List<Vector3f> value) {
-        float[] array = Floats.toArray(value.stream().flatMap(v -> Stream.of(v.x, v.y, v.z)).toList());
-        FloatBuffer buffer = stack.mallocFloat(value.size() * 3);
-        buffer.put(array);
+    public void setVec3Array(MemoryStack stack, String name, Vector3f[] value, int count) {
+        var uniform = uniforms.get(name);
+        if(scratch.length < count * 3) scratch = new float[count * 3];
+        for(int i = 0; i < count; i++) {
+            scratch[3 * i] = value[i].x;
+            scratch[3 * i + 1] = value[i].y;
+            scratch[3 * i + 2] = value[i].z;
+        }
+        if(isUnchanged(uniform, count * 3)) return;
+        FloatBuffer buffer = stack.mallocFloat(count * 3);
+        buffer.put(scratch, 0, count * 3);
         buffer.rewind();
-        glUniform3fv(glGetUniformLocation(shaderProgram, name), buffer);
+        glUniform3fv(uniform.location, buffer);
     }
 
     public void setMatrix3x2f(String name, FloatBuffer matrix) {
-        glUniformMatrix3x2fv(glGetUniformLocation(shaderProgram, name), false, matrix);
+        var uniform = uniforms.get(name);
+        matrix.get(matrix.position(), scratch, 0, 6);
+        if(isUnchanged(uniform, 6)) return;
+        glUniformMatrix3x2fv(uniform.location, false, matrix);
     }
 
     public void setVec2(String name, Vector2f vec) {
-        glUniform2f(glGetUniformLocation(shaderProgram, name), vec.x, vec.y);
+        var uniform = uniforms.get(name);
+        scratch[0] = vec.x;
+        scratch[1] = vec.y;
+        if(isUnchanged(uniform, 2)) return;
+        glUniform2f(uniform.location, vec.x, vec.y);
+    }
+
+    /**
+     * Compares the first {@code count} scratch values with the ones last uploaded to the uniform and remembers them
+     * when they differ. Uniforms the program does not use count as unchanged.
+     */
+    private boolean isUnchanged(Uniform uniform, int count) {
+        if(uniform == null || !uniform.update(scratch, count)) {
+            GlStateCounters.countSkipped();
+            return true;
+        }
+        GlStateCounters.countIssued();
+        return false;
+    }
+
+    private static Map<String, Uniform> findUniforms(int program) {
+        var uniforms = new HashMap<String, Uniform>();
+        try(MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer size = stack.mallocInt(1);
+            IntBuffer type = stack.mallocInt(1);
+            int count = glGetProgrami(program, GL_ACTIVE_UNIFORMS);
+            for(int i = 0; i < count; i++) {
+                String name = glGetActiveUniform(program, i, size, type);
+                Uniform.register(uniforms, name, glGetUniformLocation(program, name));
+            }
+        }
+        return uniforms;
     }
 }
@@ -0,0 +1,144 @@
+package org.uav.presentation.rendering;
+
+import lombok.Getter;
+import org.joml.FrustumIntersection;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+
+/**
+ * Splits the camera's view up to the shadow distance into slices, each covered by its own orthographic light volume
+ * and shadow map layer, so near slices get more shadow texels per metre than far ones. Each volume is anchored in the
+ * world: it bounds a sphere around the camera that holds its slice however the camera turns, plus a margin, and only
+ * moves once the camera leaves that margin. Until then its light space stays the same, so the depth of casters that
+ * never move can be cached per cascade. A moving volume is placed in whole texels, so shadow edges do not shimmer.
+ */
+public class ShadowCascades {
+    public static final int MAX_CASCADES = 4;
+    // Blend between logarithmic (1) and uniform (0) split distances
+    private static final float SPLIT_LAMBDA = 0.5f;
+    // How far the camera may move from a volume's anchor, as a share of the distance its slice reaches
+    private static final float ANCHOR_MARGIN = 0.25f;
+    // Radii are rounded up to this step, so float noise cannot change the volume size between frames
+    private static final float RADIUS_STEP = 1f / 16;
+
+    @Getter
+    private final int count;
+    @Getter
+    private final int resolution;
+    private final float casterDistance;
+    private final Vector3f towardsLight;
+    // Rotation from world space into the light's view space, where the light shines along -z
+    private final Matrix4f lightRotation;
+    // Far end of each cascade, as distance along the camera's view direction
+    private final float[] splitDistances;
+    private final Matrix4f[] lightSpaces;
+    private final FrustumIntersection[] frusta;
+    // World position each volume is centered on, with the radius of the sphere it bounds
+    private final Vector3f[] anchors;
+    private final float[] radii;
+    private final boolean[] staticLayersValid;
+    private final Matrix4f lightView;
+    private final Vector3f cameraPosition;
+    private final Vector3f center;
+
+    /**
+     * @param distance how far from the camera shadows are drawn
+     * @param towardsLight direction from the scene towards the light
+     */
+    public ShadowCascades(int count, int resolution, float near, float distance, Vector3f towardsLight) {
+        this.count = Math.max(1, Math.min(MAX_CASCADES, count));
+        this.resolution = resolution;
+        casterDistance = distance;
+        this.towardsLight = new Vector3f(towardsLight).normalize();
+        var up = Math.abs(this.towardsLight.z) > 0.99f ? new Vector3f(1, 0, 0) : new Vector3f(0, 0, -1);
+        lightRotation = new Matrix4f().setLookAlong(new Vector3f(this.towardsLight).negate(), up);
+        splitDistances = new float[this.count + 1];
+        splitDistances[0] = near;
+        for(int i = 1; i <= this.count; i++) {
+            float ratio = (float) i / this.count;
+            float logarithmic = near * (float) Math.pow(distance / near, ratio);
+            float uniform = near + (distance - near) * ratio;
+            splitDistances[i] = SPLIT_LAMBDA * logarithmic + (1 - SPLIT_LAMBDA) * uniform;
+        }
+        lightSpaces = new Matrix4f[this.count];
+        frusta = new FrustumIntersection[this.count];
+        anchors = new Vector3f[this.count];
+        radii = new float[this.count];
+        staticLayersValid = new boolean[this.count];
+        for(int i = 0; i < this.count; i++) {
+            lightSpaces[i] = new Matrix4f();
+            frusta[i] = new FrustumIntersection();
+            anchors[i] = new Vector3f();
+        }
+        lightView = new Matrix4f();
+        cameraPosition = new Vector3f();
+        center = new Vector3f();
+    }
+
+    public void update(Matrix4f view, float fovY, float aspect) {
+        view.origin(cameraPosition);
+        float tanHalfFov = (float) Math.tan(fovY / 2);
+        // Distance from the camera to a far corner of the view, per metre of depth
+        float cornerScale = (float) Math.sqrt(1 + tanHalfFov * tanHalfFov * (1 + aspect * aspect));
+        for(int i = 0; i < count; i++) {
+            float reach = splitDistances[i + 1] * cornerScale;
+            float radius = (float) Math.ceil(reach * (1 + ANCHOR_MARGIN) / RADIUS_STEP) * RADIUS_STEP;
+            // The slice stays inside the volume while the sphere of its reach around the camera does
+            if(radius == radii[i] && cameraPosition.distance(anchors[i]) <= radius - reach) continue;
+            anchors[i].set(cameraPosition);
+            radii[i] = radius;
+            anchor(i, radius);
+        }
+    }
+
+    private void anchor(int cascade, float radius) {
+        // Snapping moves the center by up to half a texel, so the volume gets a texel of margin on every side
+        float texel = 2 * radius / (resolution - 2);
+        float halfSize = radius + texel;
+        // Moving the center in whole texels, along depth too, keeps texels on the same world positions
+        lightRotation.transformPosition(anchors[cascade], center);
+        float x = snap(center.x, texel);
+        float y = snap(center.y, texel);
+        // Casters up to casterDistance beyond the sphere, towards the light, still throw shadows into it
+        float z = snap(center.z, texel) + halfSize + casterDistance;
+        lightView.translation(-x, -y, -z).mul(lightRotation);
+        lightSpaces[cascade]
+                .setOrtho(-halfSize, halfSize, -halfSize, halfSize, 0, 2 * halfSize + casterDistance)
+                .mul(lightView);
+        frusta[cascade].set(lightSpaces[cascade]);
+        staticLayersValid[cascade] = false;
+    }
+
+    private static float snap(float value, float step) {
+        return Math.round(value / step) * step;
+    }
+
+    /**
+     * @return whether the cascade's static layer was drawn since its volume last moved, so it can be reused
+     */
+    public boolean isStaticLayerValid(int cascade) {
+        return staticLayersValid[cascade];
+    }
+
+    /**
+     * Records that the cascade's static layer has been drawn with its current light space.
+     */
+    public void staticLayerDrawn(int cascade) {
+        staticLayersValid[cascade] = true;
+    }
+
+    /**
+     * @return projection and view of the cascade's light volume, combined
+     */
+    public Matrix4f getLightSpace(int cascade) {
+        return lightSpaces[cascade];
+    }
+
+    public FrustumIntersection getFrustum(int cascade) {
+        return frusta[cascade];
+    }
+
+    public float getSplitDistance(int cascade) {
+        return splitDistances[cascade + 1];
+    }
+}
@@ -0,0 +1,43 @@
+package org.uav.presentation.rendering;
+
+/**
+ * Counts how often the program, the material state and the vertex array change between consecutive draws, each on its
+ * own, and adds the counts to {@link GlStateCounters}.
+ */
+class StateSwitchCounter {
+    private static final int NONE = -1;
+
+    private int program;
+    private int materialState;
+    private int vertexArray;
+    private int programSwitches;
+    private int materialSwitches;
+    private int vertexArraySwitches;
+
+    StateSwitchCounter() {
+        reset();
+    }
+
+    void reset() {
+        program = NONE;
+        materialState = NONE;
+        vertexArray = NONE;
+        programSwitches = 0;
+        materialSwitches = 0;
+        vertexArraySwitches = 0;
+    }
+
+    void draw(int program, int materialState, int vertexArray) {
+        if(program != this.program) programSwitches++;
+        if(materialState != this.materialState) materialSwitches++;
+        if(vertexArray != this.vertexArray) vertexArraySwitches++;
+        this.program = program;
+        this.materialState = materialState;
+        this.vertexArray = vertexArray;
+    }
+
+    void publish() {
+        GlStateCounters.countSwitches(programSwitches, materialSwitches, vertexArraySwitches);
+        reset();
+    }
+}
@@ -0,0 +1,121 @@
+package org.uav.presentation.rendering;
+
+import org.joml.FrustumIntersection;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.lwjgl.system.MemoryUtil;
+import org.uav.presentation.model.Mesh;
+import org.uav.utils.Bvh;
+import org.uav.utils.RadixSorter;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import static org.lwjgl.opengl.GL15.*;
+
+/**
+ * Meshes that never move, compiled once. Opaque items are sorted by material and vertex array and their model matrices
+ * are uploaded to one static buffer, in that order; each frame only the visible items are picked with a bounding volume
+ * hierarchy, and neighbouring visible copies of a mesh are drawn with one call. Transparent items are depth sorted per
+ * frame through an {@link OrderedRenderQueue}.
+ */
+public class StaticDrawList {
+    private static final int MATRIX_FLOATS = 16;
+    private static final int MATERIAL_SHIFT = 24;
+    private static final long VERTEX_ARRAY_MASK = (1L << 24) - 1;
+
+    // Opaque items first, in state order, then transparent ones
+    private final Mesh[] meshes;
+    private final Matrix4f[] modelMatrices;
+    private final int opaqueCount;
+    private final int matrixBuffer;
+    private final Bvh bvh;
+    private final int[] visible;
+    private final OrderedRenderQueue transparentQueue;
+    private final StateSwitchCounter switches;
+
+    /**
+     * @param matrixList model matrix of each mesh, kept by the list, so they must not change afterwards
+     */
+    public StaticDrawList(List<Mesh> meshList, List<Matrix4f> matrixList) {
+        int count = meshList.size();
+        long[] keys = new long[count];
+        int[] order = new int[count];
+        int opaque = 0;
+        for(int i = 0; i < count; i++) {
+            var mesh = meshList.get(i);
+            if(mesh.isTransparent()) continue;
+            keys[opaque] = ((long) mesh.getMaterialStateId() << MATERIAL_SHIFT) | (mesh.getVertexArray() & VERTEX_ARRAY_MASK);
+            order[opaque++] = i;
+        }
+        new RadixSorter().sort(keys, order, opaque);
+        for(int i = 0, next = opaque; i < count; i++)
+            if(meshList.get(i).isTransparent()) order[next++] = i;
+
+        opaqueCount = opaque;
+        meshes = new Mesh[count];
+        modelMatrices = new Matrix4f[count];
+        for(int i = 0; i < count; i++) {
+            meshes[i] = meshList.get(order[i]);
+            modelMatrices[i] = matrixList.get(order[i]);
+        }
+
+        matrixBuffer = uploadOpaqueMatrices();
+        var staticMeshes = new IdentityHashMap<Mesh, Boolean>();
+        for(int i = 0; i < opaqueCount; i++)
+            if(staticMeshes.put(meshes[i], true) == null) meshes[i].useStaticInstances(matrixBuffer);
+
+        bvh = new Bvh(worldBounds(), count);
+        visible = new int[count];
+        transparentQueue = new OrderedRenderQueue();
+        switches = new StateSwitchCounter();
+    }
+
+    public void draw(Shader shader, FrustumIntersection frustum, Vector3f cameraPosition) {
+        int visibleCount = bvh.query(frustum, visible);
+        // Item indices follow state order
+        Arrays.sort(visible, 0, visibleCount);
+
+        int i = 0;
+        for(; i < visibleCount && visible[i] < opaqueCount; i++) {
+            int first = visible[i];
+            switches.draw(shader.shaderProgram, meshes[first].getMaterialStateId(), meshes[first].getVertexArray());
+            while(i + 1 < visibleCount && visible[i + 1] == visible[i] + 1 && meshes[visible[i + 1]] == meshes[first]) i++;
+            meshes[first].drawStaticInstances(shader, first, visible[i] - first + 1);
+        }
+        switches.publish();
+
+        for(; i < visibleCount; i++)
+            transparentQueue.addMesh(meshes[visible[i]], modelMatrices[visible[i]], shader);
+        transparentQueue.render(cameraPosition);
+    }
+
+    private int uploadOpaqueMatrices() {
+        FloatBuffer matrices = MemoryUtil.memAllocFloat(Math.max(1, opaqueCount) * MATRIX_FLOATS);
+        for(int i = 0; i < opaqueCount; i++) modelMatrices[i].get(i * MATRIX_FLOATS, matrices);
+        int buffer = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, buffer);
+        glBufferData(GL_ARRAY_BUFFER, matrices, GL_STATIC_DRAW);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        MemoryUtil.memFree(matrices);
+        return buffer;
+    }
+
+    private float[] worldBounds() {
+        float[] bounds = new float[6 * meshes.length];
+        var min = new Vector3f();
+        var max = new Vector3f();
+        for(int i = 0; i < meshes.length; i++) {
+            meshes[i].getBounds(modelMatrices[i], min, max);
+            bounds[6 * i] = min.x;
+            bounds[6 * i + 1] = min.y;
+            bounds[6 * i + 2] = min.z;
+            bounds[6 * i + 3] = max.x;
+            bounds[6 * i + 4] = max.y;
+            bounds[6 * i + 5] = max.z;
+        }
+        return bounds;
+    }
+}
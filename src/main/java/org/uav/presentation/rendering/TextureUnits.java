@@ -0,0 +1,53 @@
+package org.uav.presentation.rendering;
+
+import java.util.Arrays;
+
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
+import static org.lwjgl.opengl.GL11.glBindTexture;
+import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
+import static org.lwjgl.opengl.GL13.glActiveTexture;
+
+/**
+ * Shadows the active texture unit and the 2D texture bound to each unit, so binding a texture that is already bound
+ * costs no GL call. A bind made around it leaves the shadow stale, so every unit switch and 2D bind, including those
+ * made while creating textures, goes through here; binds of other targets select their unit with {@link #activate}.
+ * It is also invalidated at the start of every frame, in case other code touched the units.
+ */
+public class TextureUnits {
+    private static final int UNKNOWN = -1;
+    private static final int UNITS = 32;
+    private static final int[] boundTextures = new int[UNITS];
+    private static int activeUnit = UNKNOWN;
+
+    static {
+        invalidate();
+    }
+
+    private TextureUnits() {
+    }
+
+    public static void bind(int unit, int texture) {
+        if(boundTextures[unit] == texture) {
+            GlStateCounters.countSkipped();
+            return;
+        }
+        activate(unit);
+        glBindTexture(GL_TEXTURE_2D, texture);
+        boundTextures[unit] = texture;
+        GlStateCounters.countIssued();
+    }
+
+    /**
+     * Selects the unit for binds of other texture targets, which are not shadowed.
+     */
+    public static void activate(int unit) {
+        if(activeUnit == unit) return;
+        glActiveTexture(GL_TEXTURE0 + unit);
+        activeUnit = unit;
+    }
+
+    public static void invalidate() {
+        Arrays.fill(boundTextures, UNKNOWN);
+        activeUnit = UNKNOWN;
+    }
+}
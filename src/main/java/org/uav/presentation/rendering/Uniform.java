@@ -0,0 +1,42 @@
+package org.uav.presentation.rendering;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Location of a uniform with the values last uploaded to it, exactly as they were passed.
+ */
+class Uniform {
+    final int location;
+    private float[] values;
+    private int length;
+
+    Uniform(int location) {
+        this.location = location;
+        values = new float[0];
+        length = -1;
+    }
+
+    /**
+     * Adds a uniform reported by the program under its name, and an array under its own name as well. Members of
+     * uniform blocks have no location and are left out.
+     */
+    static void register(Map<String, Uniform> uniforms, String name, int location) {
+        if(location < 0) return;
+        var uniform = new Uniform(location);
+        uniforms.put(name, uniform);
+        // Arrays are reported by their first element
+        if(name.endsWith("[0]")) uniforms.put(name.substring(0, name.length() - 3), uniform);
+    }
+
+    /**
+     * @return false if the values are bit for bit the ones already uploaded
+     */
+    boolean update(float[] candidate, int count) {
+        if(length == count && Arrays.equals(values, 0, count, candidate, 0, count)) return false;
+        if(values.length < count) values = new float[count];
+        System.arraycopy(candidate, 0, values, 0, count);
+        length = count;
+        return true;
+    }
+}
@@ -1,14 +1,15 @@
 package org.uav.presentation.view;
 
 import org.apache.commons.lang3.ArrayUtils;
-import org.joml.Matrix3f;
+import org.joml.FrustumIntersection;
 import org.joml.Matrix4f;
+import org.joml.Quaternionf;
 import org.joml.Vector3f;
-import org.lwjgl.system.MemoryUtil;
 import org.uav.UavVisualization;
 import org.uav.logic.config.Config;
 import org.uav.logic.config.DroneParameters;
 import org.uav.logic.messages.MessageBoard;
+import org.uav.logic.state.drone.DroneStateStore;
 import org.uav.logic.state.simulation.SimulationState;
 import org.uav.presentation.entity.abstraction.XMarkEntity;
 import org.uav.presentation.entity.bulletTrail.BulletTrailEntity;
@@ -26,11 +27,14 @@ import org.uav.presentation.entity.skybox.SkyboxEntity;
 import org.uav.presentation.entity.weather.Fog;
 import org.uav.presentation.model.importer.GltfImporter;
 import org.uav.presentation.model.importer.ModelImporter;
+import org.uav.presentation.rendering.FrameUniforms;
+import org.uav.presentation.rendering.GlStateCounters;
 import org.uav.presentation.rendering.Shader;
+import org.uav.presentation.rendering.ShadowCascades;
+import org.uav.presentation.rendering.TextureUnits;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.FloatBuffer;
 import java.nio.file.Paths;
 import java.util.Objects;
 
@@ -39,23 +43,31 @@ import static org.lwjgl.glfw.GLFW.glfwPollEvents;
 import static org.lwjgl.glfw.GLFW.glfwSwapBuffers;
 import static org.lwjgl.opengl.GL11C.*;
 import static org.lwjgl.opengl.GL30C.*;
+import static org.lwjgl.opengl.GL14C.GL_DEPTH_COMPONENT24;
+import static org.lwjgl.opengl.GL12C.glTexImage3D;
 import static org.uav.utils.OpenGLUtils.getSunDirectionVector;
 
 public class OpenGlScene {
     public static final int SHADOW_TEXTURE_ID = 4;
+    private static final float NEAR_PLANE = 0.1f;
+    private static final float FAR_PLANE = 1000f;
     private final SimulationState simulationState;
     private final Config config;
     private Shader objectShader;
-    private final FloatBuffer viewBuffer;
-    private final FloatBuffer viewBufferNoTranslation;
-    private final FloatBuffer projectionBuffer;
+    private final FrameUniforms frameUniforms;
+    private final Matrix4f view;
+    private final Matrix4f projection;
+    private final Matrix4f viewProjection;
+    private final FrustumIntersection cameraFrustum;
 
     // Shading
     private int depthMapFBO;
     private int depthMap;
+    // Depth of the map alone, redrawn only when a cascade's light volume changes
+    private int staticDepthMapFBO;
+    private int staticDepthMap;
     private Shader shadingShader;
-    private final FloatBuffer shadowViewBuffer;
-    private final FloatBuffer shadowProjectionBuffer;
+    private final ShadowCascades shadowCascades;
 
     private final DirectionalLight directionalLight;
     private final PointLight pointLight;
@@ -86,46 +98,72 @@ public class OpenGlScene {
         spotLight = SpotLight.SpotlightFactory.createDroneSpotlight();
 
         var modelImporter = new ModelImporter(new GltfImporter(loadingScreen, config), simulationState.getAssetsDirectory());
-        droneEntity = new DroneEntity(modelImporter.loadModelMap("drones"));
+        droneEntity = new DroneEntity(modelImporter.loadModelMap("drones"), simulationState);
         environmentEntity = new EnvironmentEntity(modelImporter.loadModel(Paths.get("maps", simulationState.getServerMap()).toString()));
         projectileEntity = new ProjectileEntity(simulationState, modelImporter.loadModelMap("projectiles"));
         xMarkEntity = new XMarkEntity(modelImporter.loadModel(Paths.get("core", "xMark").toString()));
-        ropeEntity = new RopeEntity(Rope.SEGMENT_COUNT, Rope.THICKNESS, Rope.ROPE_COLOR_1, Rope.ROPE_COLOR_2, directionalLight, simulationState.getSkyColor());
+        ropeEntity = new RopeEntity(Rope.SEGMENT_COUNT, Rope.THICKNESS, Rope.ROPE_COLOR_1, Rope.ROPE_COLOR_2, simulationState.getSkyColor());
         bulletTrailEntity = new BulletTrailEntity();
         skyboxEntity = new SkyboxEntity(simulationState.getAssetsDirectory());
         guiEntity = new GuiEntity(simulationState, config, droneParameters, messageBoard);
         outlineEntity = new OutlineEntity(config.getGraphicsSettings().getWindowWidth(), config.getGraphicsSettings().getWindowHeight());
 
-        viewBuffer = MemoryUtil.memCallocFloat(16);
-        viewBufferNoTranslation = MemoryUtil.memCallocFloat(16);
-        projectionBuffer = MemoryUtil.memCallocFloat(16);
-        shadowViewBuffer = MemoryUtil.memCallocFloat(16);
-        shadowProjectionBuffer = MemoryUtil.memCallocFloat(16);
+        frameUniforms = new FrameUniforms();
+        view = new Matrix4f();
+        projection = new Matrix4f();
+        viewProjection = new Matrix4f();
+        cameraFrustum = new FrustumIntersection();
+        // Configs from before cascades have no count; they keep a single shadow map
+        var cascadeCount = config.getGraphicsSettings().getShadowsCascadeCount() != null ?
+                config.getGraphicsSettings().getShadowsCascadeCount() : 1;
+        shadowCascades = new ShadowCascades(
+                cascadeCount,
+                config.getGraphicsSettings().getShadowsTextureResolution(),
+                NEAR_PLANE,
+                config.getGraphicsSettings().getShadowsRenderingDistance(),
+                getSunDirectionVector(new Vector3f(0, 0, -1), config.getSceneSettings().getSunAngleYearCycle(), config.getSceneSettings().getSunAngleDayCycle())
+        );
+        directionalLight.applyTo(frameUniforms);
+        fog.applyTo(frameUniforms);
 
         setUpShaders();
-        setUpShadingFrameBuffer();
+        setUpShadingFrameBuffers();
     }
 
-    private void setUpShadingFrameBuffer() {
-        depthMapFBO = glGenFramebuffers();
-        depthMap = glGenTextures();
-        glBindTexture(GL_TEXTURE_2D, depthMap);
-        glTexImage2D(GL_TEXTURE_2D, 0, GL_DEPTH_COMPONENT,
-                config.getGraphicsSettings().getShadowsTextureResolution(),
-                config.getGraphicsSettings().getShadowsTextureResolution(),
+    private void setUpShadingFrameBuffers() {
+        depthMap = createShadowTexture();
+        depthMapFBO = createShadowFrameBuffer(depthMap);
+        staticDepthMap = createShadowTexture();
+        staticDepthMapFBO = createShadowFrameBuffer(staticDepthMap);
+    }
+
+    private int createShadowTexture() {
+        int texture = glGenTextures();
+        // One layer per cascade
+        glBindTexture(GL_TEXTURE_2D_ARRAY, texture);
+        glTexImage3D(GL_TEXTURE_2D_ARRAY, 0, GL_DEPTH_COMPONENT24,
+                shadowCascades.getResolution(),
+                shadowCascades.getResolution(),
+                shadowCascades.getCount(),
                 0, GL_DEPTH_COMPONENT, GL_FLOAT, (ByteBuffer) null
         );
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_BORDER);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_BORDER);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_BORDER);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_BORDER);
         float[] borderColor = { 1.0f, 1.0f, 1.0f, 1.0f };
-        glTexParameterfv(GL_TEXTURE_2D, GL_TEXTURE_BORDER_COLOR, borderColor);
-        glBindFramebuffer(GL_FRAMEBUFFER, depthMapFBO);
-        glFramebufferTexture2D(GL_FRAMEBUFFER, GL_DEPTH_ATTACHMENT, GL_TEXTURE_2D, depthMap, 0);
+        glTexParameterfv(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_BORDER_COLOR, borderColor);
+        return texture;
+    }
+
+    private int createShadowFrameBuffer(int texture) {
+        int frameBuffer = glGenFramebuffers();
+        glBindFramebuffer(GL_FRAMEBUFFER, frameBuffer);
+        glFramebufferTextureLayer(GL_FRAMEBUFFER, GL_DEPTH_ATTACHMENT, texture, 0, 0);
         glDrawBuffer(GL_NONE);
         glReadBuffer(GL_NONE);
         glBindFramebuffer(GL_FRAMEBUFFER, 0);
+        return frameBuffer;
     }
 
     private void setUpShaders() throws IOException {
@@ -137,9 +175,6 @@ public class OpenGlScene {
         objectShader.setBool("useGammaCorrection", config.getGraphicsSettings().getUseGammaCorrection());
         objectShader.setFloat("gammaCorrection", config.getGraphicsSettings().getGammaCorrection());
         objectShader.setInt("shadowMap", SHADOW_TEXTURE_ID);
-        directionalLight.applyTo(objectShader);
-        spotLight.applyTo(objectShader);
-        fog.applyTo(objectShader);
 
         var shadingVertexShaderSource = Objects.requireNonNull(UavVisualization.class.getClassLoader().getResourceAsStream("shaders/shading/shadowShader.vert"));
         var shadingFragmentShaderSource = Objects.requireNonNull(UavVisualization.class.getClassLoader().getResourceAsStream("shaders/shading/shadowShader.frag"));
@@ -148,34 +183,34 @@ public class OpenGlScene {
     }
 
     public void render() {
+        GlStateCounters.startFrame();
+        TextureUnits.invalidate();
         float deltaTimeS = simulationState.getSimulationTimeS() - simulationState.getLastSimulationTimeS();
+        droneEntity.update(deltaTimeS, simulationState.getDronesInAir());
+        updateFrameUniforms();
 
-        // Shading pass
-        glViewport(0, 0, config.getGraphicsSettings().getShadowsTextureResolution(), config.getGraphicsSettings().getShadowsTextureResolution());
-        glBindFramebuffer(GL_FRAMEBUFFER, depthMapFBO);
-        glClear(GL_DEPTH_BUFFER_BIT);
-        prepareShadingShader(getShadowShaderViewMatrix(), getShadowShaderProjectionMatrix());
-        renderSceneShadows(shadingShader);
+        // Shading pass, one layer per cascade
+        glViewport(0, 0, shadowCascades.getResolution(), shadowCascades.getResolution());
+        shadingShader.use();
+        for(int cascade = 0; cascade < shadowCascades.getCount(); cascade++) {
+            shadingShader.setInt("cascade", cascade);
+            renderStaticShadows(shadingShader, cascade);
+            renderDynamicShadows(shadingShader, cascade);
+        }
         glBindFramebuffer(GL_FRAMEBUFFER, 0);
         glViewport(0, 0, config.getGraphicsSettings().getWindowWidth(), config.getGraphicsSettings().getWindowHeight());
 
         // Drone Mask
-        outlineEntity.generateDroneMask(droneEntity, simulationState, deltaTimeS, getSceneShaderViewMatrix(), getSceneShaderProjectionMatrix());
+        outlineEntity.generateDroneMask(droneEntity, simulationState);
 
         // Scene pass
         var skyColor = simulationState.getSkyColor();
         glClearColor(skyColor.x, skyColor.y, skyColor.z, 0.0f);
         glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT | GL_STENCIL_BUFFER_BIT);
         objectShader.use();
-        objectShader.setVec3("viewPos", getSceneShaderViewPos());
-        objectShader.setMatrix4f("view", getSceneShaderViewMatrix());
-        objectShader.setMatrix4f("projection", getSceneShaderProjectionMatrix());
-        objectShader.setMatrix4f("directionalLightView", getShadowShaderViewMatrix());
-        objectShader.setMatrix4f("directionalLightProjection", getShadowShaderProjectionMatrix());
-        updateLights();
-        glActiveTexture(GL_TEXTURE0 + SHADOW_TEXTURE_ID);
-        glBindTexture(GL_TEXTURE_2D, depthMap);
-        renderScene(objectShader, deltaTimeS);
+        TextureUnits.activate(SHADOW_TEXTURE_ID);
+        glBindTexture(GL_TEXTURE_2D_ARRAY, depthMap);
+        renderScene(objectShader);
 
         // UI pass
         guiEntity.draw(simulationState);
@@ -184,137 +219,105 @@ public class OpenGlScene {
         glfwPollEvents();
     }
 
-    private void renderScene(Shader shader, float deltaTimeS) {
+    private void renderScene(Shader shader) {
 
         glStencilMask(0x00);
 
-        skyboxEntity.draw(
-                getSceneShaderViewMatrixNoTranslation(),
-                getSceneShaderProjectionMatrix()
-        );
+        skyboxEntity.draw();
 
-        environmentEntity.draw(simulationState, shader);
-        projectileEntity.draw(shader, simulationState.getCurrPassProjectileStatuses().map.values());
+        environmentEntity.draw(simulationState, shader, cameraFrustum);
+        projectileEntity.draw(shader, simulationState.getCurrPassProjectileStatuses().table, cameraFrustum);
         if(config.getSceneSettings().getDrawInWorldDemandedPositionalCoords())
             xMarkEntity.draw(simulationState.getCurrentControlModeDemanded(), shader);
 
         glStencilMask(0xFF);
         glStencilFunc(GL_ALWAYS, 1, 0xFF);
         glStencilOp(GL_KEEP, GL_KEEP, GL_REPLACE);
-        outlineEntity.draw(droneEntity, simulationState, deltaTimeS, getSceneShaderViewMatrix(), getSceneShaderProjectionMatrix());
+        outlineEntity.draw(droneEntity, simulationState);
         glStencilOp(GL_KEEP, GL_KEEP, GL_KEEP);
 
         glStencilFunc(GL_EQUAL, 0, 0xFF);
-        droneEntity.draw(shader, deltaTimeS, simulationState.getDronesInAir().values(), simulationState.getJoystickStatus());
+        droneEntity.draw(shader, simulationState.getDronesInAir(), cameraFrustum, simulationState.getJoystickStatus());
         glStencilFunc(GL_ALWAYS, 1, 0xFF);
 
         ropeEntity.draw(
-                getSceneShaderViewPos(),
-                getSceneShaderViewMatrix(),
-                getSceneShaderProjectionMatrix(),
                 simulationState.getNotifications().ropes,
                 simulationState.getDronesInAir(),
-                simulationState.getCurrPassProjectileStatuses().map);
-        bulletTrailEntity.draw(getSceneShaderViewMatrix(), getSceneShaderProjectionMatrix(), simulationState.getCurrPassProjectileStatuses().map.values());
+                simulationState.getCurrPassProjectileStatuses().table);
+        bulletTrailEntity.draw(simulationState.getCurrPassProjectileStatuses().table);
 
     }
 
-    private void renderSceneShadows(Shader shader) {
-        var skyColor = simulationState.getSkyColor();
-        glClearColor(skyColor.x, skyColor.y, skyColor.z, 0.0f);
-        float time = simulationState.getSimulationTimeS();
-        environmentEntity.draw(simulationState, shader);
-        projectileEntity.draw(shader, simulationState.getCurrPassProjectileStatuses().map.values());
-        if(config.getSceneSettings().getDrawInWorldDemandedPositionalCoords())
-            xMarkEntity.draw(simulationState.getCurrentControlModeDemanded(), shader);
-        droneEntity.draw(shader, time, simulationState.getDronesInAir().values(), simulationState.getJoystickStatus());
-
-        ropeEntity.draw(
-                getSceneShaderViewPos(),
-                getSceneShaderViewMatrix(),
-                getSceneShaderProjectionMatrix(),
-                simulationState.getNotifications().ropes,
-                simulationState.getDronesInAir(),
-                simulationState.getCurrPassProjectileStatuses().map);
-        bulletTrailEntity.draw(getSceneShaderViewMatrix(), getSceneShaderProjectionMatrix(), simulationState.getCurrPassProjectileStatuses().map.values());
+    private void renderStaticShadows(Shader shader, int cascade) {
+        if(shadowCascades.isStaticLayerValid(cascade)) return;
+        glBindFramebuffer(GL_FRAMEBUFFER, staticDepthMapFBO);
+        glFramebufferTextureLayer(GL_FRAMEBUFFER, GL_DEPTH_ATTACHMENT, staticDepthMap, 0, cascade);
+        glClear(GL_DEPTH_BUFFER_BIT);
+        environmentEntity.draw(simulationState, shader, shadowCascades.getFrustum(cascade));
+        shadowCascades.staticLayerDrawn(cascade);
     }
 
-    private void prepareShadingShader(FloatBuffer view, FloatBuffer projection) {
-        shadingShader.use();
-        shadingShader.setMatrix4f("view", view);
-        shadingShader.setMatrix4f("projection", projection);
-    }
+    // Starts from a copy of the static layer; only solid models cast shadows, ropes, bullet trails and the demanded
+    // position marker do not
+    private void renderDynamicShadows(Shader shader, int cascade) {
+        int resolution = shadowCascades.getResolution();
+        glBindFramebuffer(GL_READ_FRAMEBUFFER, staticDepthMapFBO);
+        glFramebufferTextureLayer(GL_READ_FRAMEBUFFER, GL_DEPTH_ATTACHMENT, staticDepthMap, 0, cascade);
+        glBindFramebuffer(GL_DRAW_FRAMEBUFFER, depthMapFBO);
+        glFramebufferTextureLayer(GL_DRAW_FRAMEBUFFER, GL_DEPTH_ATTACHMENT, depthMap, 0, cascade);
+        glBlitFramebuffer(0, 0, resolution, resolution, 0, 0, resolution, resolution, GL_DEPTH_BUFFER_BIT, GL_NEAREST);
 
-    private FloatBuffer getShadowShaderProjectionMatrix() {
-        float near_plane = 100f;
-        float far_plane = config.getGraphicsSettings().getShadowsRenderingDistance();
-        new Matrix4f().ortho(
-                -config.getGraphicsSettings().getShadowsRenderingDistance(),
-                config.getGraphicsSettings().getShadowsRenderingDistance(),
-                -config.getGraphicsSettings().getShadowsRenderingDistance(),
-                config.getGraphicsSettings().getShadowsRenderingDistance(),
-                near_plane,
-                far_plane
-        ).get(shadowProjectionBuffer);
-        return shadowProjectionBuffer;
+        glBindFramebuffer(GL_FRAMEBUFFER, depthMapFBO);
+        var frustum = shadowCascades.getFrustum(cascade);
+        projectileEntity.draw(shader, simulationState.getCurrPassProjectileStatuses().table, frustum);
+        droneEntity.draw(shader, simulationState.getDronesInAir(), frustum, simulationState.getJoystickStatus());
     }
 
-    private FloatBuffer getShadowShaderViewMatrix() {
-        if(simulationState.getCurrentlyControlledDrone().isEmpty()) return shadowViewBuffer;
-        var drone = simulationState.getDronesInAir().get(simulationState.getCurrentlyControlledDrone().get().getId());
-        if(drone == null) return shadowViewBuffer;
-        new Matrix4f().lookAt(
-                new Vector3f(drone.droneStatus.position).add( // TODO lookAt function breaks down when looking stright down
-                        new Vector3f(0, 0, -config.getGraphicsSettings().getShadowsRenderingDistance()*0.5f)
-                                .rotateY((90 - config.getSceneSettings().getSunAngleYearCycle()) / 180 * (float) Math.PI)
-                                .rotateX(-config.getSceneSettings().getSunAngleDayCycle() / 180 * (float) Math.PI)
-                ),
-                new Vector3f(drone.droneStatus.position),
-                new Vector3f(0, 0, -1f)
-        ).get(shadowViewBuffer);
-        return shadowViewBuffer;
+    // Camera, light-space matrices and lights for every program, uploaded in one call before the first pass
+    private void updateFrameUniforms() {
+        frameUniforms.setView(updateSceneViewMatrix());
+        frameUniforms.setProjection(updateSceneProjectionMatrix());
+        frameUniforms.setViewPos(simulationState.getCamera().getCameraPos());
+        shadowCascades.update(view, toRadians(simulationState.getCamera().getFov()), getAspectRatio());
+        frameUniforms.setShadowCascades(shadowCascades);
+        updateLights();
+        frameUniforms.upload();
+        cameraFrustum.set(projection.mul(view, viewProjection));
     }
 
     private void updateLights() {
-        var drone = simulationState.getPlayerDrone();
+        int slot = simulationState.getPlayerDroneSlot();
 
-        if(!simulationState.isSpotLightOn() || drone.isEmpty()) {
+        if(!simulationState.isSpotLightOn() || slot == DroneStateStore.NO_SLOT) {
             spotLight.setSpotLightOn(false);
         } else {
-            var droneStatus = drone.get().droneStatus;
+            var drones = simulationState.getDronesInAir();
+            var droneRotation = drones.getRotation(slot, new Quaternionf());
             spotLight.setSpotLightOn(true);
-            var spotlightPos = new Vector3f(ArrayUtils.toPrimitive(config.getSceneSettings().getCameraFPP(), 0.0F)).rotate(droneStatus.rotation).add(droneStatus.position);
+            var spotlightPos = new Vector3f(ArrayUtils.toPrimitive(config.getSceneSettings().getCameraFPP(), 0.0F)).rotate(droneRotation).add(drones.getPosition(slot, new Vector3f()));
             spotLight.setPosition(spotlightPos);
-            spotLight.setDirection(new Vector3f(1, 0, 0).rotate(droneStatus.rotation));
+            spotLight.setDirection(new Vector3f(1, 0, 0).rotate(droneRotation));
         }
-        spotLight.applyTo(objectShader);
+        spotLight.applyTo(frameUniforms);
 
         pointLight.setPosition(simulationState.getCamera().getCameraPos());
-        pointLight.applyTo(objectShader);
-    }
-
-    private FloatBuffer getSceneShaderProjectionMatrix() {
-        new Matrix4f()
-                .perspective(
-                        toRadians(simulationState.getCamera().getFov()),
-                        (float) config.getGraphicsSettings().getWindowWidth() / config.getGraphicsSettings().getWindowHeight(),
-                        0.1f,
-                        1000f
-                ).get(projectionBuffer);
-        return projectionBuffer;
+        pointLight.applyTo(frameUniforms);
     }
 
-    private FloatBuffer getSceneShaderViewMatrix() {
-        simulationState.getCamera().getViewMatrix().get(viewBuffer);
-        return viewBuffer;
+    private Matrix4f updateSceneProjectionMatrix() {
+        return projection.setPerspective(
+                toRadians(simulationState.getCamera().getFov()),
+                getAspectRatio(),
+                NEAR_PLANE,
+                FAR_PLANE
+        );
     }
 
-    private FloatBuffer getSceneShaderViewMatrixNoTranslation() {
-        new Matrix4f(new Matrix3f(simulationState.getCamera().getViewMatrix())).get(viewBufferNoTranslation);
-        return viewBufferNoTranslation;
+    private float getAspectRatio() {
+        return (float) config.getGraphicsSettings().getWindowWidth() / config.getGraphicsSettings().getWindowHeight();
     }
 
-    private Vector3f getSceneShaderViewPos() {
-        return simulationState.getCamera().getCameraPos();
+    private Matrix4f updateSceneViewMatrix() {
+        return view.set(simulationState.getCamera().getViewMatrix());
     }
 }
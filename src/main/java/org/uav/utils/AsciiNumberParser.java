@@ -0,0 +1,115 @@
+package org.uav.utils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses numbers straight out of ASCII byte ranges without building intermediate strings.
+ * Results are identical to {@link Integer#parseInt(String)} and {@link Float#parseFloat(String)}.
+ * Literals that cannot be rounded exactly on the fast path fall back to the JDK parsers.
+ */
+public class AsciiNumberParser {
+
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final int MAX_EXACT_POWER = 22;
+    private static final int MAX_MANTISSA_DIGITS = 18;
+    private static final int MAX_EXPONENT = 9999;
+    private static final long FLOAT_DROPPED_BITS_MASK = (1L << 29) - 1;
+    private static final long FLOAT_HALFWAY_BITS = 1L << 28;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    public static int parseInt(byte[] bytes, int from, int to) {
+        int start = from;
+        boolean negative = false;
+        if(start < to && (bytes[start] == '-' || bytes[start] == '+')) {
+            negative = bytes[start] == '-';
+            start++;
+        }
+        if(start == to || to - start > 10) return Integer.parseInt(toString(bytes, from, to));
+        long value = 0;
+        for(int i = start; i < to; i++) {
+            int digit = bytes[i] - '0';
+            if(digit < 0 || digit > 9) return Integer.parseInt(toString(bytes, from, to));
+            value = value * 10 + digit;
+        }
+        if(negative) value = -value;
+        if(value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) return Integer.parseInt(toString(bytes, from, to));
+        return (int) value;
+    }
+
+    public static float parseFloat(byte[] bytes, int from, int to) {
+        int start = from;
+        int end = to;
+        while(start < end && bytes[start] <= ' ') start++;
+        while(end > start && bytes[end - 1] <= ' ') end--;
+
+        int i = start;
+        boolean negative = false;
+        if(i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+            negative = bytes[i] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int mantissaDigits = 0;
+        int digits = 0;
+        int exponent = 0;
+        for(; i < end && isDigit(bytes[i]); i++, digits++) {
+            if(mantissaDigits == MAX_MANTISSA_DIGITS) return fallback(bytes, from, to);
+            mantissa = mantissa * 10 + (bytes[i] - '0');
+            if(mantissa != 0) mantissaDigits++;
+        }
+        if(i < end && bytes[i] == '.') {
+            for(i++; i < end && isDigit(bytes[i]); i++, digits++) {
+                if(mantissaDigits == MAX_MANTISSA_DIGITS) return fallback(bytes, from, to);
+                mantissa = mantissa * 10 + (bytes[i] - '0');
+                if(mantissa != 0) mantissaDigits++;
+                exponent--;
+            }
+        }
+        if(digits == 0) return fallback(bytes, from, to);
+
+        if(i < end && (bytes[i] == 'e' || bytes[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if(i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+                negativeExponent = bytes[i] == '-';
+                i++;
+            }
+            if(i == end) return fallback(bytes, from, to);
+            int explicitExponent = 0;
+            for(; i < end && isDigit(bytes[i]); i++) {
+                explicitExponent = explicitExponent * 10 + (bytes[i] - '0');
+                if(explicitExponent > MAX_EXPONENT) return fallback(bytes, from, to);
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        if(i != end) return fallback(bytes, from, to);
+
+        if(mantissa == 0) return negative ? -0f : 0f;
+        if(mantissa >= MAX_EXACT_MANTISSA || exponent < -MAX_EXACT_POWER || exponent > MAX_EXACT_POWER)
+            return fallback(bytes, from, to);
+
+        // Both operands are exact doubles, so the single multiplication or division is correctly rounded.
+        double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+        // Narrowing to float can only round differently from a direct parse when the double sits exactly halfway.
+        if((Double.doubleToRawLongBits(value) & FLOAT_DROPPED_BITS_MASK) == FLOAT_HALFWAY_BITS)
+            return fallback(bytes, from, to);
+        float result = (float) value;
+        return negative ? -result : result;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static float fallback(byte[] bytes, int from, int to) {
+        return Float.parseFloat(toString(bytes, from, to));
+    }
+
+    private static String toString(byte[] bytes, int from, int to) {
+        return new String(bytes, from, to - from, StandardCharsets.US_ASCII);
+    }
+}
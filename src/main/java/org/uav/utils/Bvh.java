@@ -0,0 +1,145 @@
+package org.uav.utils;
+
+import org.joml.FrustumIntersection;
+
+import java.util.Arrays;
+
+/**
+ * Bounding volume hierarchy over axis aligned boxes that never move, built once by splitting each node at the median
+ * of its longest axis. Items of a subtree are stored contiguously, so a node found fully inside the frustum yields all
+ * its items without testing them one by one.
+ */
+public class Bvh {
+    private static final int LEAF_SIZE = 4;
+    private static final int BOUNDS = 6;
+
+    private final float[] itemBounds;
+    private final int[] items;
+    // Per node: min x, y, z and max x, y, z of everything below it
+    private final float[] nodeBounds;
+    // Per node: range of items below it; inner nodes keep their left child right after themselves
+    private final int[] nodeStart;
+    private final int[] nodeEnd;
+    private final int[] rightChild;
+    private int nodeCount;
+    private final int[] stack;
+
+    /**
+     * @param bounds min x, y, z and max x, y, z of each item, in item order
+     */
+    public Bvh(float[] bounds, int count) {
+        itemBounds = Arrays.copyOf(bounds, count * BOUNDS);
+        items = new int[count];
+        for(int i = 0; i < count; i++) items[i] = i;
+        int capacity = Math.max(1, 2 * count);
+        nodeBounds = new float[capacity * BOUNDS];
+        nodeStart = new int[capacity];
+        nodeEnd = new int[capacity];
+        rightChild = new int[capacity];
+        nodeCount = 0;
+        if(count > 0) build(0, count, new float[count]);
+        stack = new int[Math.max(1, nodeCount)];
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * Writes the items whose boxes are at least partly inside the frustum to {@code result}, which has to hold
+     * {@link #size()} items.
+     * @return number of items written
+     */
+    public int query(FrustumIntersection frustum, int[] result) {
+        if(nodeCount == 0) return 0;
+        int found = 0;
+        int top = 0;
+        stack[top++] = 0;
+        while(top > 0) {
+            int node = stack[--top];
+            int b = node * BOUNDS;
+            int intersection = frustum.intersectAab(
+                    nodeBounds[b], nodeBounds[b + 1], nodeBounds[b + 2],
+                    nodeBounds[b + 3], nodeBounds[b + 4], nodeBounds[b + 5]);
+            if(intersection >= 0) continue; // Index of the plane the box is behind
+            if(intersection == FrustumIntersection.INSIDE) {
+                int length = nodeEnd[node] - nodeStart[node];
+                System.arraycopy(items, nodeStart[node], result, found, length);
+                found += length;
+            } else if(rightChild[node] == 0) {
+                for(int i = nodeStart[node]; i < nodeEnd[node]; i++) {
+                    int ib = items[i] * BOUNDS;
+                    if(frustum.testAab(
+                            itemBounds[ib], itemBounds[ib + 1], itemBounds[ib + 2],
+                            itemBounds[ib + 3], itemBounds[ib + 4], itemBounds[ib + 5]))
+                        result[found++] = items[i];
+                }
+            } else {
+                stack[top++] = rightChild[node];
+                stack[top++] = node + 1;
+            }
+        }
+        return found;
+    }
+
+    private int build(int start, int end, float[] centroids) {
+        int node = nodeCount++;
+        nodeStart[node] = start;
+        nodeEnd[node] = end;
+        rightChild[node] = 0;
+        int b = node * BOUNDS;
+        for(int axis = 0; axis < 3; axis++) {
+            nodeBounds[b + axis] = Float.POSITIVE_INFINITY;
+            nodeBounds[b + 3 + axis] = Float.NEGATIVE_INFINITY;
+        }
+        for(int i = start; i < end; i++) {
+            int ib = items[i] * BOUNDS;
+            for(int axis = 0; axis < 3; axis++) {
+                nodeBounds[b + axis] = Math.min(nodeBounds[b + axis], itemBounds[ib + axis]);
+                nodeBounds[b + 3 + axis] = Math.max(nodeBounds[b + 3 + axis], itemBounds[ib + 3 + axis]);
+            }
+        }
+        if(end - start <= LEAF_SIZE) return node;
+
+        int splitAxis = 0;
+        for(int axis = 1; axis < 3; axis++)
+            if(nodeBounds[b + 3 + axis] - nodeBounds[b + axis] > nodeBounds[b + 3 + splitAxis] - nodeBounds[b + splitAxis])
+                splitAxis = axis;
+        for(int i = start; i < end; i++) {
+            int ib = items[i] * BOUNDS;
+            centroids[i] = itemBounds[ib + splitAxis] + itemBounds[ib + 3 + splitAxis];
+        }
+        int middle = (start + end) >>> 1;
+        select(centroids, start, end - 1, middle);
+
+        build(start, middle, centroids);
+        rightChild[node] = build(middle, end, centroids);
+        return node;
+    }
+
+    // Reorders items (and their centroids) between left and right, both inclusive, so the k-th is in place
+    private void select(float[] centroids, int left, int right, int k) {
+        while(left < right) {
+            float pivot = centroids[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while(i <= j) {
+                while(centroids[i] < pivot) i++;
+                while(centroids[j] > pivot) j--;
+                if(i <= j) swap(centroids, i++, j--);
+            }
+            if(k <= j) right = j;
+            else if(k >= i) left = i;
+            else return;
+        }
+    }
+
+    private void swap(float[] centroids, int i, int j) {
+        float centroid = centroids[i];
+        centroids[i] = centroids[j];
+        centroids[j] = centroid;
+        int item = items[i];
+        items[i] = items[j];
+        items[j] = item;
+    }
+}
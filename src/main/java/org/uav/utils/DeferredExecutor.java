@@ -0,0 +1,32 @@
+package org.uav.utils;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * Collects tasks submitted from any thread and runs them on whichever thread calls {@link #runPending()}.
+ */
+public class DeferredExecutor implements Executor {
+    private final Queue<Runnable> tasks;
+
+    public DeferredExecutor() {
+        tasks = new ConcurrentLinkedQueue<>();
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        tasks.add(task);
+    }
+
+    /**
+     * Runs the tasks queued so far; tasks they submit in turn wait for the next call.
+     */
+    public void runPending() {
+        for(int pending = tasks.size(); pending > 0; pending--) {
+            var task = tasks.poll();
+            if(task == null) return;
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.uav.utils;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from int keys to non-negative int values that never boxes.
+ * Removal shifts following entries back instead of leaving tombstones.
+ */
+public class IntIntMap {
+    public static final int MISSING = -1;
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public IntIntMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public IntIntMap(int expectedSize) {
+        allocate(Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, expectedSize) * 2 - 1) * 2));
+        size = 0;
+    }
+
+    public int get(int key) {
+        for(int i = indexOf(key); ; i = (i + 1) & mask) {
+            if(values[i] == MISSING) return MISSING;
+            if(keys[i] == key) return values[i];
+        }
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != MISSING;
+    }
+
+    public void put(int key, int value) {
+        if(value < 0) throw new IllegalArgumentException("Value must be non-negative: " + value);
+        if(2 * (size + 1) > keys.length) rehash(keys.length * 2);
+        for(int i = indexOf(key); ; i = (i + 1) & mask) {
+            if(values[i] == MISSING) {
+                keys[i] = key;
+                values[i] = value;
+                size++;
+                return;
+            }
+            if(keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+        }
+    }
+
+    public int remove(int key) {
+        int gap = indexOf(key);
+        while(keys[gap] != key || values[gap] == MISSING) {
+            if(values[gap] == MISSING) return MISSING;
+            gap = (gap + 1) & mask;
+        }
+        int removed = values[gap];
+        for(int i = (gap + 1) & mask; values[i] != MISSING; i = (i + 1) & mask) {
+            int home = indexOf(keys[i]);
+            if(((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        values[gap] = MISSING;
+        size--;
+        return removed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(values, MISSING);
+        size = 0;
+    }
+
+    private int indexOf(int key) {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, MISSING);
+        mask = capacity - 1;
+    }
+
+    private void rehash(int capacity) {
+        var oldKeys = keys;
+        var oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for(int i = 0; i < oldKeys.length; i++)
+            if(oldValues[i] != MISSING) put(oldKeys[i], oldValues[i]);
+    }
+}
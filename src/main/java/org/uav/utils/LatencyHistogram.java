@@ -0,0 +1,120 @@
+package org.uav.utils;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear histogram of microsecond durations. Every power of two is split into {@value SUB_BUCKETS} linear
+ * buckets, so a reported percentile is at most 1/{@value SUB_BUCKETS} above the true value while recording stays a
+ * couple of bit operations and a few atomic updates. Meant for a single recording thread and any number of readers.
+ * The histogram itself is never cleared; {@link #takeInterval} hands out what was recorded since the previous call for
+ * the same interval, so every reader keeps its own interval histogram.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_BITS = 32;
+    static final int BUCKETS = (MAX_BITS - SUB_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts;
+    private final AtomicLong count;
+    private final AtomicLong max;
+    // Largest value since each interval taken from this histogram was last taken, one per interval
+    private volatile AtomicLong[] intervalMaxima;
+    // When this is an interval: the histogram it is taken from, the bucket counts already handed to it there and the
+    // largest value recorded there since. Only touched by the thread taking this interval
+    private LatencyHistogram source;
+    private long[] taken;
+    private AtomicLong pendingMax;
+
+    public LatencyHistogram() {
+        counts = new AtomicLongArray(BUCKETS);
+        count = new AtomicLong();
+        max = new AtomicLong();
+        intervalMaxima = new AtomicLong[0];
+    }
+
+    public void recordNanos(long nanos) {
+        record(nanos / 1000);
+    }
+
+    public void record(long micros) {
+        micros = Math.max(micros, 0);
+        counts.incrementAndGet(bucketOf(micros));
+        count.incrementAndGet();
+        max.accumulateAndGet(micros, Math::max);
+        for(var intervalMax : intervalMaxima) intervalMax.accumulateAndGet(micros, Math::max);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @param quantile fraction of recorded values, between 0 and 1
+     * @return upper bound of the bucket holding the value at the given quantile, 0 when nothing was recorded
+     */
+    public long getValueAtQuantile(double quantile) {
+        long total = count.get();
+        if(total == 0) return 0;
+        long rank = Math.max((long) Math.ceil(quantile * total), 1);
+        long seen = 0;
+        for(int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if(seen >= rank) return Math.min(upperBoundOf(bucket), max.get());
+        }
+        return max.get();
+    }
+
+    /**
+     * Replaces the contents of {@code interval} with the values recorded since the previous call with the same interval.
+     * The recording thread never waits and no value is lost: each one is counted in exactly one take of every interval.
+     * An interval belongs to the histogram it was first taken from and to a single reading thread, so several readers
+     * can each follow the histogram at their own pace.
+     */
+    public void takeInterval(LatencyHistogram interval) {
+        if(interval.source == null) follow(interval);
+        else if(interval.source != this)
+            throw new IllegalArgumentException("Interval is already taken from another histogram");
+        long total = 0;
+        for(int bucket = 0; bucket < BUCKETS; bucket++) {
+            long recorded = counts.get(bucket);
+            interval.counts.set(bucket, recorded - interval.taken[bucket]);
+            total += recorded - interval.taken[bucket];
+            interval.taken[bucket] = recorded;
+        }
+        interval.count.set(total);
+        interval.max.set(interval.pendingMax.getAndSet(0));
+    }
+
+    // The first take covers everything since the start, so its maximum starts at the overall one
+    private synchronized void follow(LatencyHistogram interval) {
+        interval.source = this;
+        interval.taken = new long[BUCKETS];
+        interval.pendingMax = new AtomicLong();
+        var maxima = Arrays.copyOf(intervalMaxima, intervalMaxima.length + 1);
+        maxima[maxima.length - 1] = interval.pendingMax;
+        intervalMaxima = maxima;
+        // Read after publishing, so a value recorded meanwhile reaches the interval one way or the other
+        interval.pendingMax.accumulateAndGet(max.get(), Math::max);
+    }
+
+    static int bucketOf(long micros) {
+        if(micros < SUB_BUCKETS) return (int) micros;
+        int shift = 63 - Long.numberOfLeadingZeros(micros) - SUB_BITS;
+        int bucket = (shift + 1) * SUB_BUCKETS + (int) (micros >>> shift) - SUB_BUCKETS;
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    static long upperBoundOf(int bucket) {
+        if(bucket < SUB_BUCKETS) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long mantissa = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
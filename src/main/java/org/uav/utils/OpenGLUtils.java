@@ -2,6 +2,7 @@ package org.uav.utils;
 
 import org.joml.Vector3f;
 import org.uav.presentation.model.Texture;
+import org.uav.presentation.rendering.TextureUnits;
 
 import java.awt.color.ColorSpace;
 import java.awt.image.BufferedImage;
@@ -38,7 +39,7 @@ public class OpenGLUtils {
     public static Texture setupTexture(BufferedImage img) {
         ImageInfo imageInfo = getImageInfo(img);
         int textureId = glGenTextures();
-        glBindTexture(GL_TEXTURE_2D, textureId);
+        TextureUnits.bind(0, textureId);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
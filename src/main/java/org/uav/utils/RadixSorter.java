@@ -0,0 +1,70 @@
+package org.uav.utils;
+
+import java.util.Arrays;
+
+/**
+ * Stable least significant digit radix sort of long keys, compared as unsigned, each carrying an int value along.
+ * Scratch arrays are kept between calls, so sorting the same number of keys again allocates nothing. Byte positions
+ * on which all keys agree are skipped.
+ */
+public class RadixSorter {
+    private static final int RADIX_BITS = 8;
+    private static final int BUCKETS = 1 << RADIX_BITS;
+
+    private final int[] counts;
+    private long[] keyScratch;
+    private int[] valueScratch;
+
+    public RadixSorter() {
+        counts = new int[BUCKETS];
+        keyScratch = new long[0];
+        valueScratch = new int[0];
+    }
+
+    public void sort(long[] keys, int[] values, int count) {
+        if(keyScratch.length < count) {
+            keyScratch = new long[count];
+            valueScratch = new int[count];
+        }
+        long[] sourceKeys = keys;
+        int[] sourceValues = values;
+        long[] targetKeys = keyScratch;
+        int[] targetValues = valueScratch;
+        for(int shift = 0; shift < Long.SIZE; shift += RADIX_BITS) {
+            if(!countDigits(sourceKeys, count, shift)) continue;
+            for(int bucket = 0, offset = 0; bucket < BUCKETS; bucket++) {
+                int bucketCount = counts[bucket];
+                counts[bucket] = offset;
+                offset += bucketCount;
+            }
+            for(int i = 0; i < count; i++) {
+                int target = counts[digit(sourceKeys[i], shift)]++;
+                targetKeys[target] = sourceKeys[i];
+                targetValues[target] = sourceValues[i];
+            }
+            long[] swappedKeys = sourceKeys;
+            sourceKeys = targetKeys;
+            targetKeys = swappedKeys;
+            int[] swappedValues = sourceValues;
+            sourceValues = targetValues;
+            targetValues = swappedValues;
+        }
+        if(sourceKeys != keys) {
+            System.arraycopy(sourceKeys, 0, keys, 0, count);
+            System.arraycopy(sourceValues, 0, values, 0, count);
+        }
+    }
+
+    /**
+     * @return false if every key has the same digit at the shift, so the pass would not move anything
+     */
+    private boolean countDigits(long[] keys, int count, int shift) {
+        Arrays.fill(counts, 0);
+        for(int i = 0; i < count; i++) counts[digit(keys[i], shift)]++;
+        return count > 0 && counts[digit(keys[0], shift)] != count;
+    }
+
+    private static int digit(long key, int shift) {
+        return (int) (key >>> shift) & (BUCKETS - 1);
+    }
+}
@@ -6,16 +6,19 @@ import org.joml.Quaternionf;
 public class SlerpQuaternionInterpolator {
     public static Quaternionf interpolate( float alpha, float bound1, float bound2, Quaternionf a, Quaternionf b)
     {
-        // Adapted from javax.vecmath.Quat4f
         float ratio = (alpha - bound1) / (bound2 - bound1);
+        return interpolate(ratio, a, b, new Quaternionf());
+    }
 
+    public static Quaternionf interpolate(float ratio, Quaternionf a, Quaternionf b, Quaternionf dest)
+    {
+        // Adapted from javax.vecmath.Quat4f
         float dot = a.x * b.x + a.y * b.y + a.z * b.z + a.w * b.w;
+        // Takes the shorter way round by negating b, without modifying the key frame it came from
+        float sign = 1;
         if (dot < 0)
         {
-            b.x = -b.x;
-            b.y = -b.y;
-            b.z = -b.z;
-            b.w = -b.w;
+            sign = -1;
             dot = -dot;
         }
         float epsilon = 1e-6f;
@@ -32,10 +35,11 @@ public class SlerpQuaternionInterpolator {
             s0 = 1.0f - ratio;
             s1 = ratio;
         }
+        s1 *= sign;
         float rx = s0 * a.x + s1 * b.x;
         float ry = s0 * a.y + s1 * b.y;
         float rz = s0 * a.z + s1 * b.z;
         float rw = s0 * a.w + s1 * b.w;
-        return new Quaternionf(rx, ry, rz, rw);
+        return dest.set(rx, ry, rz, rw);
     }
 }
@@ -0,0 +1,70 @@
+package org.uav.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free single producer, single consumer snapshot exchange.
+ * The producer fills {@link #getWriteBuffer()} and calls {@link #publish()}; the consumer calls {@link #acquire()}
+ * and reads {@link #getReadBuffer()}. Neither side ever waits for the other, and a buffer is only touched by the
+ * side that currently owns it. Snapshots published over one the consumer never acquired are counted as superseded.
+ */
+public class TripleBuffer<T> {
+    private static final int INDEX_MASK = 0b11;
+    private static final int FRESH = 0b100;
+
+    private final Object[] buffers;
+    private final AtomicInteger middle;
+    private final AtomicLong publishedCount;
+    private final AtomicLong supersededCount;
+    private int writeIndex;
+    private int readIndex;
+
+    public TripleBuffer(Supplier<T> factory) {
+        buffers = new Object[]{factory.get(), factory.get(), factory.get()};
+        readIndex = 0;
+        middle = new AtomicInteger(1);
+        writeIndex = 2;
+        publishedCount = new AtomicLong();
+        supersededCount = new AtomicLong();
+    }
+
+    @SuppressWarnings("unchecked")
+    public T getWriteBuffer() {
+        return (T) buffers[writeIndex];
+    }
+
+    /**
+     * Hands the write buffer over to the consumer. The new write buffer holds an older snapshot.
+     */
+    public void publish() {
+        int previous = middle.getAndSet(writeIndex | FRESH);
+        writeIndex = previous & INDEX_MASK;
+        publishedCount.incrementAndGet();
+        if((previous & FRESH) != 0) supersededCount.incrementAndGet();
+    }
+
+    /**
+     * Swaps in the latest published snapshot.
+     * @return false if nothing was published since the last call, in which case the read buffer is unchanged.
+     */
+    public boolean acquire() {
+        if((middle.get() & FRESH) == 0) return false;
+        readIndex = middle.getAndSet(readIndex) & INDEX_MASK;
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T getReadBuffer() {
+        return (T) buffers[readIndex];
+    }
+
+    public long getPublishedCount() {
+        return publishedCount.get();
+    }
+
+    public long getSupersededCount() {
+        return supersededCount.get();
+    }
+}
@@ -3,9 +3,20 @@ package org.uav.utils;
 import org.zeromq.ZMQ;
 import zmq.ZError;
 
+import java.util.List;
+
 public class ZmqUtils {
     public static void checkErrno(ZMQ.Socket socket) {
         if(socket.errno() == ZError.EAGAIN)
             throw new RuntimeException("Failed to reach reach the server");
     }
+
+    /**
+     * Appends every frame already queued on the socket without waiting for new ones.
+     */
+    public static void drain(ZMQ.Socket socket, List<byte[]> frames) {
+        byte[] frame;
+        while((frame = socket.recv(ZMQ.DONTWAIT)) != null)
+            frames.add(frame);
+    }
 }
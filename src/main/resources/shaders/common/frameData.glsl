@@ -0,0 +1,56 @@
+// Per-frame data shared by every program through one std140 uniform buffer, see FrameUniforms.java for the offsets
+#define MAX_CASCADES 4
+
+struct DirLight {
+    vec3 direction;
+    vec3 ambient;
+    vec3 diffuse;
+    vec3 specular;
+};
+
+struct PointLight {
+    vec3 position;
+
+    float constant;
+    float linear;
+    float quadratic;
+
+    vec3 ambient;
+    vec3 diffuse;
+    vec3 specular;
+};
+
+struct SpotLight {
+    vec3 position;
+    vec3  direction;
+    float cutOff;
+    float outerCutOff;
+
+    float constant;
+    float linear;
+    float quadratic;
+
+    vec3 ambient;
+    vec3 diffuse;
+    vec3 specular;
+};
+
+struct Fog {
+    vec3 color;
+    float density;
+};
+
+layout (std140) uniform FrameData {
+    mat4 view;
+    mat4 projection;
+    mat4 cascadeLightSpace[MAX_CASCADES];
+    // Far end of each shadow cascade along the view direction
+    vec4 cascadeSplits;
+    vec3 viewPos;
+    bool spotLightOn;
+    int cascadeCount;
+    DirLight dirLight;
+    PointLight cameraPointLight;
+    SpotLight spotLight;
+    Fog fog;
+};
@@ -1,10 +1,11 @@
 #version 330 core
+#include "common/frameData.glsl"
 out vec4 fragColor;
 
 in vec2 texCoord;
 in vec3 normal;
 in vec3 fragPos;
-in vec4 fragPosDirLightSpace;
+in float viewDepth;
 
 uniform bool useAlbedoMap;
 uniform sampler2D albedoMap;
@@ -18,9 +19,8 @@ uniform sampler2D metallicRoughnessMap;
 uniform bool useAmbientOcclusionMap;
 uniform sampler2D ambientOcclusionMap;
 
-uniform sampler2D shadowMap;
+uniform sampler2DArray shadowMap;
 
-uniform vec3 viewPos;
 uniform vec3 backgroundColor;
 uniform float gammaCorrection;
 uniform bool useGammaCorrection;
@@ -35,55 +35,6 @@ struct Material {
 };
 uniform Material material;
 
-// Directional Light
-struct DirLight {
-    vec3 direction;
-    vec3 ambient;
-    vec3 diffuse;
-    vec3 specular;
-};
-uniform DirLight dirLight;
-
-
-// Point Light
-struct PointLight {
-    vec3 position;
-
-    float constant;
-    float linear;
-    float quadratic;
-
-    vec3 ambient;
-    vec3 diffuse;
-    vec3 specular;
-};
-uniform PointLight cameraPointLight;
-
-// Spot Light
-struct SpotLight {
-    vec3 position;
-    vec3  direction;
-    float cutOff;
-    float outerCutOff;
-
-    float constant;
-    float linear;
-    float quadratic;
-
-    vec3 ambient;
-    vec3 diffuse;
-    vec3 specular;
-};
-uniform SpotLight spotLight;
-uniform bool spotLightOn;
-
-// Fog
-struct Fog {
-    vec3 color;
-    float density;
-};
-uniform Fog fog;
-
 const float PI = 3.14159265359;
 
 float getFogFactor(Fog fog, float fogCoordinate)
@@ -94,23 +45,29 @@ float getFogFactor(Fog fog, float fogCoordinate)
     return result;
 }
 
-float shadowCalculation(vec4 fragPosLightSpace, vec3 lightDir, vec3 normal)
+float shadowCalculation(vec3 lightDir, vec3 normal)
 {
+    // nearest cascade reaching the fragment
+    int cascade = 0;
+    while(cascade < cascadeCount && viewDepth > cascadeSplits[cascade]) cascade++;
+    if(cascade == cascadeCount)
+        return 0.0;
+    vec4 fragPosLightSpace = cascadeLightSpace[cascade] * vec4(fragPos, 1.0);
     // perform perspective divide
     vec3 projCoords = fragPosLightSpace.xyz / fragPosLightSpace.w;
     projCoords = projCoords * 0.5 + 0.5;
     if(projCoords.z > 1.0)
         return 0.0;
-    float closestDepth = texture(shadowMap, projCoords.xy).r;
+    float closestDepth = texture(shadowMap, vec3(projCoords.xy, cascade)).r;
     float currentDepth = projCoords.z;
     float bias = max(0.05 * (1.0 - dot(normal, lightDir)), 0.005);
     float shadow = 0.0;
-    vec2 texelSize = 1.0 / textureSize(shadowMap, 0);
+    vec2 texelSize = 1.0 / vec2(textureSize(shadowMap, 0).xy);
     for(int x = -1; x <= 1; ++x)
     {
         for(int y = -1; y <= 1; ++y)
         {
-            float pcfDepth = texture(shadowMap, projCoords.xy + vec2(x, y) * texelSize).r;
+            float pcfDepth = texture(shadowMap, vec3(projCoords.xy + vec2(x, y) * texelSize, cascade)).r;
             shadow += currentDepth - bias > pcfDepth ? 1.0 : 0.0;
         }
     }
@@ -209,7 +166,7 @@ void main() {
 
         float NdotL = max(dot(N, L), 0.0);
 
-        float shadow = shadowCalculation(fragPosDirLightSpace, L, N);
+        float shadow = shadowCalculation(L, N);
         Lo += (kD * albedo.rgb / PI + specular) * radiance * NdotL * (1.0 - shadow);
     }
 
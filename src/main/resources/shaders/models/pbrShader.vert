@@ -1,25 +1,24 @@
 #version 330 core
+#include "common/frameData.glsl"
 layout (location = 0) in vec3 aPos;
 layout (location = 1) in vec3 aNormal;
 layout (location = 2) in vec2 aTexCoords;
+layout (location = 3) in mat4 aInstanceModel;
 
 out vec2 texCoord;
 out vec3 normal;
 out vec3 fragPos;
-out vec4 fragPosDirLightSpace;
+out float viewDepth;
 
 uniform mat4 model;
-uniform mat4 view;
-uniform mat4 projection;
-
-uniform mat4 directionalLightView;
-uniform mat4 directionalLightProjection;
+uniform bool instanced;
 
 void main()
 {
-    gl_Position = projection * view * model * vec4(aPos, 1.0f);
-    normal = mat3(transpose(inverse(model))) * aNormal;
-    fragPos = vec3(model * vec4(aPos, 1.0));
-    fragPosDirLightSpace = directionalLightProjection * directionalLightView * vec4(fragPos, 1.0);
+    mat4 modelMatrix = instanced ? aInstanceModel : model;
+    gl_Position = projection * view * modelMatrix * vec4(aPos, 1.0f);
+    normal = mat3(transpose(inverse(modelMatrix))) * aNormal;
+    fragPos = vec3(modelMatrix * vec4(aPos, 1.0));
+    viewDepth = -(view * vec4(fragPos, 1.0)).z;
     texCoord = aTexCoords;
 }
\ No newline at end of file
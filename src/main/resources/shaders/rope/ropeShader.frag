@@ -1,21 +1,13 @@
 #version 330 core
+#include "common/frameData.glsl"
 out vec4 fragColor;
 
 in vec3 out_color;
 in vec3 out_normal;
 in vec3 fragPos;
 
-uniform vec3 viewPos;
 uniform vec3 backgroundColor;
 
-struct DirLight {
-    vec3 direction;
-    vec3 ambient;
-    vec3 diffuse;
-    vec3 specular;
-};
-uniform DirLight dirLight;
-
 
 vec3 calcDirLight(DirLight light, vec3 normal, vec3 viewDir, vec4 objectColor);
 
@@ -1,11 +1,14 @@
 #version 330 core
+#include "common/frameData.glsl"
 layout (location = 0) in vec3 aPos;
+layout (location = 3) in mat4 aInstanceModel;
 
 uniform mat4 model;
-uniform mat4 view;
-uniform mat4 projection;
+uniform bool instanced;
+uniform int cascade;
 
 void main()
 {
-    gl_Position = projection * view * model * vec4(aPos, 1.0);
+    mat4 modelMatrix = instanced ? aInstanceModel : model;
+    gl_Position = cascadeLightSpace[cascade] * modelMatrix * vec4(aPos, 1.0);
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+import struct
+
+# Binary status frame layout, see org.uav.logic.communication.BinaryStatusFrame
+MARKER = 0
+DRONE_STATUSES = 1
+PROJECTILE_STATUSES = 2
+VERSION = 2
+
+
+def encode_drone_statuses(csv_frame, sequence):
+    records = [record.split(",") for record in csv_frame.split(";") if record]
+    frame = bytearray(struct.pack("<BBHIi", MARKER, DRONE_STATUSES, VERSION, sequence, len(records)))
+    for fields in records:
+        propellers = [float(value) for value in fields[15:]]
+        frame += struct.pack("<if13fi", int(fields[0]), *[float(value) for value in fields[1:15]], len(propellers))
+        frame += struct.pack(f"<{len(propellers)}f", *propellers)
+    return bytes(frame)
+
+
+def encode_projectile_statuses(csv_frame, sequence):
+    records = [record.split(",") for record in csv_frame.split(";")[1:] if record]
+    frame = bytearray(struct.pack("<BBHIi", MARKER, PROJECTILE_STATUSES, VERSION, sequence, len(records)))
+    for fields in records:
+        frame += struct.pack("<i6f", int(fields[0]), *[float(value) for value in fields[1:7]])
+    return bytes(frame)
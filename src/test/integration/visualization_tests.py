@@ -1,4 +1,5 @@
 import importlib
+import math
 import os.path
 import subprocess
 from shutil import copy2
@@ -6,21 +7,25 @@ from time import sleep
 import zmq
 
 import uav_state_generator_coordinates
+from status_frames import encode_drone_statuses, encode_projectile_statuses
 
 
-def perform_visualization_tests(java_home, visualization_dir, visualization_binary, assets_checksum, state_generator):
+def perform_visualization_tests(java_home, visualization_dir, visualization_binary, assets_checksum, state_generator, binary_frames=False):
     visualization_address = "127.0.0.1"
-    drone_requester_socket, drone_status_socket, drone_steering_socket, drone_utils_socket, notification_socket = set_up_sockets(visualization_address)
+    drone_requester_socket, drone_status_socket, drone_steering_socket, drone_utils_socket, notification_socket, projectile_status_socket = set_up_sockets(visualization_address)
 
     set_up_visualization(java_home, visualization_dir, visualization_binary, drone_requester_socket, assets_checksum)
 
     uav_state_generator_module = importlib.import_module(state_generator)
     state_generator = uav_state_generator_module.UAVStateGenerator()
     time = 0
+    sequence = 0
     while True:
+        sequence += 1
         server_respond_to_heartbeat(drone_utils_socket)
         server_respond_to_joystick(drone_steering_socket)
-        server_send_drone_status(drone_status_socket, state_generator.getState(time))
+        server_send_drone_status(drone_status_socket, state_generator.getState(time), sequence, binary_frames)
+        server_send_projectile_status(projectile_status_socket, time, sequence, binary_frames)
         server_send_notifications(notification_socket)
         time += 0.005
         sleep(0.005)
@@ -48,7 +53,11 @@ def set_up_sockets(visualization_address):
     drone_utils_socket = context.socket(zmq.PAIR)
     drone_utils_socket.bind(f"tcp://{visualization_address}:{drone_utils_port}")
 
-    return drone_requester_socket, drone_status_socket, drone_steering_socket, drone_utils_socket, notification_socket
+    projectile_status_port = 9100
+    projectile_status_socket = context.socket(zmq.PUB)
+    projectile_status_socket.bind(f"tcp://{visualization_address}:{projectile_status_port}")
+
+    return drone_requester_socket, drone_status_socket, drone_steering_socket, drone_utils_socket, notification_socket, projectile_status_socket
 
 
 def set_up_visualization(java_home, visualization_path, visualization_binary, drone_requester_socket, assets_checksum):
@@ -145,11 +154,20 @@ def server_respond_to_heartbeat(socket):
     print(f"[Mock Server] Sent: {server_heartbeat_response}")
 
 
-def server_send_drone_status(socket, server_drone_status):
-    socket.send(server_drone_status.encode("UTF-8"))
+def server_send_drone_status(socket, server_drone_status, sequence, binary_frames):
+    socket.send(encode_drone_statuses(server_drone_status, sequence) if binary_frames else server_drone_status.encode("UTF-8"))
     print(f"[Mock Server] Sent: {server_drone_status}")
 
 
+def server_send_projectile_status(socket, time, sequence, binary_frames):
+    # One projectile circling the origin, its model announced by server_send_notifications
+    x, y = 10 * math.cos(time), 10 * math.sin(time)
+    vx, vy = -10 * math.sin(time), 10 * math.cos(time)
+    server_projectile_status = f"{time};1,{x},{y},-5,{vx},{vy},0;"
+    socket.send(encode_projectile_statuses(server_projectile_status, sequence) if binary_frames else server_projectile_status.encode("UTF-8"))
+    print(f"[Mock Server] Sent: {server_projectile_status}")
+
+
 def server_respond_to_joystick(socket):
     try:
         message = socket.recv(flags=zmq.NOBLOCK).decode("UTF-8")
@@ -0,0 +1,270 @@
+package org.uav.logic.assets;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AssetPackInstallerTests {
+
+    @Test
+    public void installWithParallelRangesTest() throws Exception {
+        var files = assetFiles();
+        byte[] archive = archive(files);
+        var directory = Files.createTempDirectory("assets");
+        try(var server = new LocalAssetServer(archive, true, sha256sumLine(archive))) {
+            var progress = new LinkedBlockingQueue<String>();
+            var store = new AssetStore(directory);
+            new AssetPackInstaller(4, 4096, 5000).install(server.url(), server.digestUrl(), store, "pack", progress);
+
+            assertTrue(store.hasPack("pack"));
+            assertPackEquals(store.packDirectory("pack"), files);
+            assertFalse(Files.exists(store.journalPath("pack")));
+            assertFalse(Files.exists(directory.resolve("pack" + AssetStore.PARTIAL_SUFFIX)));
+            assertTrue(server.rangeRequests.get() > 1);
+            assertFalse(progress.isEmpty());
+        } finally {
+            FileUtils.deleteDirectory(directory.toFile());
+        }
+    }
+
+    @Test
+    public void installWithoutRangeSupportTest() throws Exception {
+        var files = assetFiles();
+        byte[] archive = archive(files);
+        var directory = Files.createTempDirectory("assets");
+        try(var server = new LocalAssetServer(archive, false, sha256(archive))) {
+            var store = new AssetStore(directory);
+            new AssetPackInstaller(4, 4096, 5000).install(server.url(), server.digestUrl(), store, "pack", new LinkedBlockingQueue<>());
+
+            assertPackEquals(store.packDirectory("pack"), files);
+            assertEquals(server.rangeRequests.get(), 0);
+        } finally {
+            FileUtils.deleteDirectory(directory.toFile());
+        }
+    }
+
+    static Stream<String> unverifiableDigestSource() throws NoSuchAlgorithmException {
+        return Stream.of(
+                sha256(new byte[]{1, 2, 3}),
+                // A 40 hex digit commit id, like the release tag itself
+                "0123456789abcdef0123456789abcdef01234567",
+                "not a digest"
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("unverifiableDigestSource")
+    public void unverifiableDigestTest(String publishedDigest) throws Exception {
+        byte[] archive = archive(assetFiles());
+        var directory = Files.createTempDirectory("assets");
+        try(var server = new LocalAssetServer(archive, true, publishedDigest)) {
+            var store = new AssetStore(directory);
+            var installer = new AssetPackInstaller(2, 4096, 5000);
+            assertThrows(IOException.class, () -> installer.install(server.url(), server.digestUrl(), store, "pack", new LinkedBlockingQueue<>()));
+
+            assertFalse(store.hasPack("pack"));
+            assertFalse(Files.exists(store.packDirectory("pack")));
+            assertFalse(Files.exists(store.journalPath("pack")));
+        } finally {
+            FileUtils.deleteDirectory(directory.toFile());
+        }
+    }
+
+    @Test
+    public void missingDigestInstallsUnverifiedTest() throws Exception {
+        var files = assetFiles();
+        byte[] archive = archive(files);
+        var directory = Files.createTempDirectory("assets");
+        try(var server = new LocalAssetServer(archive, true, null)) {
+            var store = new AssetStore(directory);
+            new AssetPackInstaller(2, 4096, 5000).install(server.url(), server.digestUrl(), store, "pack", new LinkedBlockingQueue<>());
+
+            assertTrue(store.hasPack("pack"));
+            assertPackEquals(store.packDirectory("pack"), files);
+        } finally {
+            FileUtils.deleteDirectory(directory.toFile());
+        }
+    }
+
+    @Test
+    public void resumeSkipsExtractedFilesTest() throws Exception {
+        var files = assetFiles();
+        byte[] archive = archive(files);
+        var directory = Files.createTempDirectory("assets");
+        try {
+            var store = new AssetStore(directory);
+            var interrupted = new AssetPackExtractor(store, "pack");
+            assertThrows(IOException.class, () -> interrupted.extract(failingAfter(archive, archive.length / 2)));
+
+            var resumed = new AssetPackExtractor(store, "pack");
+            resumed.extract(new ByteArrayInputStream(archive));
+            assertTrue(resumed.getSkipped() > 0);
+            assertTrue(resumed.getSkipped() < files.size());
+            resumed.complete();
+            assertTrue(store.hasPack("pack"));
+            store.materialize("pack");
+            assertPackEquals(store.packDirectory("pack"), files);
+        } finally {
+            FileUtils.deleteDirectory(directory.toFile());
+        }
+    }
+
+    @Test
+    public void entryEscapingPackTest() throws Exception {
+        byte[] archive = archive(Map.of("assets/../../escaped.txt", new byte[]{1}));
+        var directory = Files.createTempDirectory("assets");
+        try {
+            var extractor = new AssetPackExtractor(new AssetStore(directory.resolve("assets")), "pack");
+            assertThrows(IOException.class, () -> extractor.extract(new ByteArrayInputStream(archive)));
+            assertFalse(Files.exists(directory.resolve("escaped.txt")));
+        } finally {
+            FileUtils.deleteDirectory(directory.toFile());
+        }
+    }
+
+    private static Map<String, byte[]> assetFiles() {
+        var random = new Random(7);
+        var files = new LinkedHashMap<String, byte[]>();
+        for(int i = 0; i < 12; i++) {
+            // Random bytes do not compress, so the archive spans many download chunks
+            byte[] content = new byte[3000 + 1000 * i];
+            random.nextBytes(content);
+            files.put("assets/models/model" + i + ".bin", content);
+        }
+        files.put("assets/data/available_control_modes.yaml", "modes: {}".getBytes(StandardCharsets.UTF_8));
+        return files;
+    }
+
+    private static void assertPackEquals(Path pack, Map<String, byte[]> files) throws IOException {
+        for(var file : files.entrySet())
+            assertArrayEquals(Files.readAllBytes(pack.resolve(file.getKey().substring("assets/".length()))), file.getValue());
+    }
+
+    private static byte[] archive(Map<String, byte[]> files) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try(var tar = new TarArchiveOutputStream(new GzipCompressorOutputStream(bytes))) {
+            tar.putArchiveEntry(new TarArchiveEntry("assets/"));
+            tar.closeArchiveEntry();
+            for(var file : files.entrySet()) {
+                var entry = new TarArchiveEntry(file.getKey());
+                entry.setSize(file.getValue().length);
+                tar.putArchiveEntry(entry);
+                tar.write(file.getValue());
+                tar.closeArchiveEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String sha256(byte[] bytes) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+
+    private static String sha256sumLine(byte[] archive) throws NoSuchAlgorithmException {
+        return sha256(archive) + "  assets.tar.gz\n";
+    }
+
+    private static InputStream failingAfter(byte[] bytes, int limit) {
+        return new FilterInputStream(new ByteArrayInputStream(bytes, 0, limit)) {
+            @Override
+            public int read(byte[] buffer, int offset, int count) throws IOException {
+                int read = super.read(buffer, offset, count);
+                if(read == -1) throw new IOException("Connection reset");
+                return read;
+            }
+        };
+    }
+
+    // Serves the archive over HTTP, honouring single range requests when enabled, and its digest unless it is null
+    private static class LocalAssetServer implements AutoCloseable {
+        final AtomicInteger rangeRequests;
+        private final HttpServer server;
+        private final ExecutorService executor;
+
+        LocalAssetServer(byte[] archive, boolean acceptRanges, @Nullable String digest) throws IOException {
+            rangeRequests = new AtomicInteger();
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/assets.tar.gz.sha256", exchange -> {
+                if(digest == null) {
+                    exchange.sendResponseHeaders(404, -1);
+                } else {
+                    byte[] body = digest.getBytes(StandardCharsets.US_ASCII);
+                    exchange.sendResponseHeaders(200, body.length);
+                    try(var output = exchange.getResponseBody()) {
+                        output.write(body);
+                    }
+                }
+                exchange.close();
+            });
+            server.createContext("/assets.tar.gz", exchange -> {
+                String range = exchange.getRequestHeaders().getFirst("Range");
+                if(acceptRanges) exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+                int from = 0;
+                int to = archive.length;
+                int status = 200;
+                if(acceptRanges && range != null && range.startsWith("bytes=")) {
+                    String[] bounds = range.substring("bytes=".length()).split("-");
+                    from = Integer.parseInt(bounds[0]);
+                    to = Integer.parseInt(bounds[1]) + 1;
+                    status = 206;
+                    rangeRequests.incrementAndGet();
+                }
+                boolean head = exchange.getRequestMethod().equals("HEAD");
+                exchange.getResponseHeaders().add("Content-Length", Integer.toString(to - from));
+                exchange.sendResponseHeaders(status, head ? -1 : to - from);
+                if(!head)
+                    try(var body = exchange.getResponseBody()) {
+                        body.write(archive, from, to - from);
+                    }
+                exchange.close();
+            });
+            executor = Executors.newFixedThreadPool(4);
+            server.setExecutor(executor);
+            server.start();
+        }
+
+        URL url() throws IOException {
+            return new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/assets.tar.gz");
+        }
+
+        URL digestUrl() throws IOException {
+            return new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/assets.tar.gz.sha256");
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.uav.logic.assets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AssetStoreTests {
+
+    @Test
+    public void identicalFilesShareBlobTest() throws IOException {
+        var directory = Files.createTempDirectory("assets");
+        try {
+            var store = new AssetStore(directory);
+            writePack(store, "release1", Map.of("models/drone.obj", "drone", "data/modes.yaml", "modes: 1"));
+            writePack(store, "release2", Map.of("models/drone.obj", "drone", "data/modes.yaml", "modes: 2"));
+            assertEquals(blobCount(directory), 3);
+
+            store.materialize("release1");
+            store.materialize("release2");
+            assertEquals(Files.readString(store.packDirectory("release2").resolve("data/modes.yaml")), "modes: 2");
+            assertTrue(Files.isSameFile(
+                    store.packDirectory("release1").resolve("models/drone.obj"),
+                    store.packDirectory("release2").resolve("models/drone.obj")));
+        } finally {
+            FileUtils.deleteDirectory(directory.toFile());
+        }
+    }
+
+    @Test
+    public void hasPackChecksManifestAndBlobsTest() throws IOException {
+        var directory = Files.createTempDirectory("assets");
+        try {
+            var store = new AssetStore(directory);
+            assertFalse(store.hasPack("release1"));
+            Files.createDirectories(store.packDirectory("release1"));
+            assertFalse(store.hasPack("release1"));
+
+            writePack(store, "release2", Map.of("a.txt", "a"));
+            assertTrue(store.hasPack("release2"));
+            try(Stream<Path> blobs = Files.walk(directory.resolve("store/blobs"))) {
+                for(Path blob : blobs.filter(Files::isRegularFile).toList()) Files.delete(blob);
+            }
+            assertFalse(store.hasPack("release2"));
+        } finally {
+            FileUtils.deleteDirectory(directory.toFile());
+        }
+    }
+
+    @Test
+    public void evictLeastRecentlyUsedTest() throws IOException {
+        var directory = Files.createTempDirectory("assets");
+        try {
+            var store = new AssetStore(directory);
+            writePack(store, "oldest", Map.of("shared.bin", "x".repeat(100), "oldest.bin", "o".repeat(100)));
+            writePack(store, "middle", Map.of("shared.bin", "x".repeat(100), "middle.bin", "m".repeat(100)));
+            writePack(store, "newest", Map.of("newest.bin", "n".repeat(100)));
+            store.materialize("oldest");
+            setLastUsed(directory, "oldest", 1000);
+            setLastUsed(directory, "middle", 2000);
+            setLastUsed(directory, "newest", 3000);
+
+            // Unique blobs take 400 bytes; dropping the oldest pack frees only its own blob
+            assertEquals(store.evict(300, "newest"), 1);
+            assertFalse(store.hasPack("oldest"));
+            assertFalse(Files.exists(store.packDirectory("oldest")));
+            assertTrue(store.hasPack("middle"));
+            assertEquals(blobCount(directory), 3);
+
+            assertEquals(store.evict(0, "newest"), 1);
+            assertTrue(store.hasPack("newest"));
+            assertEquals(blobCount(directory), 1);
+        } finally {
+            FileUtils.deleteDirectory(directory.toFile());
+        }
+    }
+
+    @Test
+    public void evictRemovesUnreferencedBlobsTest() throws IOException {
+        var directory = Files.createTempDirectory("assets");
+        try {
+            var store = new AssetStore(directory);
+            store.putBlob(new ByteArrayInputStream(bytes("orphan")));
+            writePack(store, "release", Map.of("a.txt", "a"));
+            assertEquals(store.evict(Long.MAX_VALUE, "release"), 0);
+            assertEquals(blobCount(directory), 1);
+        } finally {
+            FileUtils.deleteDirectory(directory.toFile());
+        }
+    }
+
+    @Test
+    public void adoptExistingPackTest() throws IOException {
+        var directory = Files.createTempDirectory("assets");
+        try {
+            var store = new AssetStore(directory);
+            var pack = store.packDirectory("legacy");
+            Files.createDirectories(pack.resolve("maps/field"));
+            Files.writeString(pack.resolve("maps/field/map.xml"), "<map/>");
+            Files.writeString(pack.resolve("readme.txt"), "assets");
+
+            store.adopt("legacy");
+            assertTrue(store.hasPack("legacy"));
+            assertEquals(blobCount(directory), 2);
+            assertEquals(Files.readString(pack.resolve("maps/field/map.xml")), "<map/>");
+        } finally {
+            FileUtils.deleteDirectory(directory.toFile());
+        }
+    }
+
+    @Test
+    public void adoptLegacyPacksTest() throws IOException {
+        var directory = Files.createTempDirectory("assets");
+        try {
+            var store = new AssetStore(directory);
+            writePack(store, "current", Map.of("current.bin", "c".repeat(100)));
+            store.materialize("current");
+            setLastUsed(directory, "current", 3000);
+            for(String pack : new String[]{"legacy2", "legacy1"}) {
+                Files.createDirectories(store.packDirectory(pack));
+                Files.writeString(store.packDirectory(pack).resolve(pack + ".bin"), pack.repeat(20));
+                Files.setLastModifiedTime(store.packDirectory(pack), FileTime.fromMillis(1000));
+            }
+            Files.createDirectories(Path.of(store.packDirectory("other") + AssetStore.PARTIAL_SUFFIX));
+            assertEquals(store.legacyPacks(), List.of("legacy1", "legacy2"));
+
+            for(String pack : store.legacyPacks()) store.adopt(pack);
+            assertEquals(store.legacyPacks(), List.of());
+            assertEquals(blobCount(directory), 3);
+
+            // Adopted packs keep their age, so they go before the pack in use
+            assertEquals(store.evict(100, "none"), 2);
+            assertFalse(Files.exists(store.packDirectory("legacy1")));
+            assertFalse(Files.exists(store.packDirectory("legacy2")));
+            assertTrue(store.hasPack("current"));
+        } finally {
+            FileUtils.deleteDirectory(directory.toFile());
+        }
+    }
+
+    private static void writePack(AssetStore store, String pack, Map<String, String> files) throws IOException {
+        try(var journal = Files.newBufferedWriter(store.journalPath(pack), StandardCharsets.UTF_8)) {
+            for(var file : files.entrySet()) {
+                byte[] content = bytes(file.getValue());
+                String hash = store.putBlob(new ByteArrayInputStream(content));
+                journal.write(new AssetStore.ManifestEntry(hash, content.length, file.getKey()).toLine());
+                journal.newLine();
+            }
+        }
+        store.commitManifest(pack);
+    }
+
+    private static void setLastUsed(Path directory, String pack, long millis) throws IOException {
+        Files.setLastModifiedTime(directory.resolve("store/manifests").resolve(pack + AssetStore.MANIFEST_SUFFIX), FileTime.fromMillis(millis));
+    }
+
+    private static long blobCount(Path directory) throws IOException {
+        try(Stream<Path> blobs = Files.walk(directory.resolve("store/blobs"))) {
+            return blobs.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
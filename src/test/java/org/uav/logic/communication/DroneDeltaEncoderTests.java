@@ -0,0 +1,88 @@
+package org.uav.logic.communication;
+
+import org.junit.jupiter.api.Test;
+import org.uav.logic.state.drone.DroneStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DroneDeltaEncoderTests {
+
+    @Test
+    public void deltaCarriesOnlyChangedDronesTest() {
+        var encoder = new DroneDeltaEncoder(0.01f, 10);
+        var decoder = new DroneStatusDecoder();
+        var hovering = droneStatus(1, 0);
+        var moving = droneStatus(2, 0);
+        var landing = droneStatus(3, 0);
+
+        assertEquals(decoder.decode(encoder.encode(List.of(hovering, moving, landing))), 3);
+        assertTrue(decoder.isKeyframe());
+
+        hovering.position.x += 0.005f;
+        moving.position.x += 1;
+        var spawned = droneStatus(4, 7);
+        assertEquals(decoder.decode(encoder.encode(List.of(hovering, moving, spawned))), 2);
+        assertFalse(decoder.isKeyframe());
+        assertEquals(decoder.getSlot(0).id, 2);
+        assertEquals(decoder.getSlot(0).position.x, moving.position.x);
+        assertEquals(decoder.getSlot(1).id, 4);
+        assertEquals(decoder.getDespawnedCount(), 1);
+        assertEquals(decoder.getDespawned(0), 3);
+    }
+
+    @Test
+    public void driftBelowThresholdAccumulatesTest() {
+        var encoder = new DroneDeltaEncoder(0.01f, 10);
+        var decoder = new DroneStatusDecoder();
+        var drone = droneStatus(1, 0);
+        encoder.encode(List.of(drone));
+        drone.position.y += 0.006f;
+        assertEquals(decoder.decode(encoder.encode(List.of(drone))), 0);
+        drone.position.y += 0.006f;
+        assertEquals(decoder.decode(encoder.encode(List.of(drone))), 1);
+        assertEquals(decoder.getDespawnedCount(), 0);
+    }
+
+    @Test
+    public void keyframeIntervalTest() {
+        var encoder = new DroneDeltaEncoder(0.01f, 3);
+        var decoder = new DroneStatusDecoder();
+        var drones = List.of(droneStatus(1, 0));
+        for(int frame = 0; frame < 7; frame++) {
+            int count = decoder.decode(encoder.encode(drones));
+            assertEquals(decoder.isKeyframe(), frame % 3 == 0);
+            assertEquals(count, decoder.isKeyframe() ? 1 : 0);
+        }
+    }
+
+    @Test
+    public void sequenceCountsFramesTest() {
+        var encoder = new DroneDeltaEncoder(0.01f, 3);
+        var decoder = new DroneStatusDecoder();
+        var drones = List.of(droneStatus(1, 0));
+        for(int frame = 1; frame <= 5; frame++) {
+            decoder.decode(encoder.encode(drones));
+            assertEquals(decoder.getSequence(), frame);
+        }
+    }
+
+    @Test
+    public void keyframeDetectionTest() {
+        var encoder = new DroneDeltaEncoder(0.01f, 2);
+        var drones = List.of(droneStatus(1, 0));
+        assertTrue(BinaryStatusFrame.isKeyframe(encoder.encode(drones)));
+        assertFalse(BinaryStatusFrame.isKeyframe(encoder.encode(drones)));
+        assertTrue(BinaryStatusFrame.isKeyframe("1,0,1,2,3,1,0,0,0,0,0,0,0,0,0".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static DroneStatus droneStatus(int id, float offset) {
+        var status = new DroneStatus();
+        status.id = id;
+        status.position.set(id + offset, 2 * id, 3 * id);
+        status.propellersRadps = new float[]{100, 100, 100, 100};
+        return status;
+    }
+}
@@ -0,0 +1,55 @@
+package org.uav.logic.communication;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DroneIoThreadTests {
+
+    @Test
+    public void failingUtilsExchangeFailsItsFutureTest() throws Exception {
+        var thread = new DroneIoThread("test-io");
+        try {
+            var reply = thread.<String>call(() -> {
+                throw new IllegalStateException("malformed reply");
+            }, "ok;");
+            var exception = assertThrows(ExecutionException.class, () -> reply.get(5, TimeUnit.SECONDS));
+            assertEquals(exception.getCause().getMessage(), "malformed reply");
+
+            // Tasks queued behind the failed one still run
+            assertEquals(thread.call(() -> "pong", "ok;").get(5, TimeUnit.SECONDS), "pong");
+        } finally {
+            thread.shutdown();
+        }
+    }
+
+    @Test
+    public void periodicTaskSurvivesFailureTest() throws InterruptedException {
+        var thread = new DroneIoThread("test-io");
+        try {
+            var runs = new AtomicInteger();
+            var threeRuns = new CountDownLatch(3);
+            thread.scheduleAtFixedRate(() -> {
+                threeRuns.countDown();
+                if(runs.incrementAndGet() == 1) throw new NullPointerException("no reply");
+            }, 1);
+            assertTrue(threeRuns.await(5, TimeUnit.SECONDS));
+        } finally {
+            thread.shutdown();
+        }
+    }
+
+    @Test
+    public void callAfterShutdownTest() throws Exception {
+        var thread = new DroneIoThread("test-io");
+        thread.shutdown();
+        assertTrue(thread.awaitTermination(5000));
+        assertFalse(thread.execute(() -> {}));
+        assertEquals(thread.call(() -> "pong", "ok;").get(), "ok;");
+    }
+}
@@ -0,0 +1,146 @@
+package org.uav.logic.communication;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.uav.logic.state.drone.DroneStatus;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DroneStatusDecoderTests {
+
+    @ParameterizedTest
+    @MethodSource("decodeTestSource")
+    public void decodeTest(String frame) {
+        var decoder = new DroneStatusDecoder();
+        var expected = referenceParse(frame);
+        int count = decoder.decode(frame.getBytes(StandardCharsets.UTF_8));
+        assertEquals(count, expected.size());
+        for(int i = 0; i < count; i++)
+            assertStatusEquals(decoder.getSlot(i), expected.get(i));
+    }
+    static Stream<String> decodeTestSource() {
+        return Stream.of(
+                "1,0.05,0.0,1,0.0,1,0,0,0,0.0,0.0,0.0,0.0,0.0,0.0,10,10,10,10",
+                "1,12.34,1.5,-2.25,-10.125,0.7071067811865476,0.7071067811865475,0.0,0.0,0.1,-0.2,0.3,1e-3,2E2,-0.5,512.5,513.25,514,515;" +
+                        "2,12.34,3.0,4.0,5.0,1.0,0.0,0.0,0.0,0,0,0,0,0,0,100.0,200.0",
+                "7,1.0,1,2,3,1,0,0,0,4,5,6,7,8,9",
+                "3,0.1,1,1,1,1,0,0,0,0,0,0,0,0,0,1,2,3,4,5,6,7,8,9,10,11,12;"
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("decodeTestSource")
+    public void decodeBinaryTest(String csvFrame) {
+        var decoder = new DroneStatusDecoder();
+        var expected = referenceParse(csvFrame);
+        var frame = BinaryStatusFrame.encodeDroneStatuses(expected, 1);
+        int count = decoder.decode(ByteBuffer.wrap(frame));
+        assertEquals(count, expected.size());
+        for(int i = 0; i < count; i++)
+            assertStatusEquals(decoder.getSlot(i), expected.get(i));
+    }
+
+    @Test
+    public void decodeInvalidBinaryTest() {
+        var decoder = new DroneStatusDecoder();
+        var frame = BinaryStatusFrame.encodeDroneStatuses(referenceParse("1,0,1,2,3,1,0,0,0,0,0,0,0,0,0,5,5"), 1);
+        assertThrows(NoSuchElementException.class, () -> decoder.decode(Arrays.copyOf(frame, frame.length - 1)));
+        frame[1] = BinaryStatusFrame.PROJECTILE_STATUSES;
+        assertThrows(IllegalArgumentException.class, () -> decoder.decode(frame));
+    }
+
+    @ParameterizedTest
+    @MethodSource("decodeTestSource")
+    public void decodeParallelTest(String frame) {
+        var pool = new ForkJoinPool(3);
+        var decoder = new DroneStatusDecoder(pool, 0);
+        var expected = referenceParse(frame);
+        int count = decoder.decode(frame.getBytes(StandardCharsets.UTF_8));
+        assertEquals(count, expected.size());
+        for(int i = 0; i < count; i++)
+            assertStatusEquals(decoder.getSlot(i), expected.get(i));
+        pool.shutdown();
+    }
+
+    @Test
+    public void decodeLargeFrameParallelTest() {
+        var pool = new ForkJoinPool(4);
+        var frame = IntStream.range(0, 1000)
+                .mapToObj(id -> id + ",1.5," + id + ",2,3,1,0,0,0,0,0,0,0,0,0," + (id % 7) + ",5")
+                .collect(Collectors.joining(";"));
+        var sequential = new DroneStatusDecoder();
+        var parallel = new DroneStatusDecoder(pool, 1024);
+        assertEquals(parallel.decode(frame.getBytes(StandardCharsets.UTF_8)), 1000);
+        assertEquals(sequential.decode(frame.getBytes(StandardCharsets.UTF_8)), 1000);
+        for(int i = 0; i < 1000; i++)
+            assertStatusEquals(parallel.getSlot(i), sequential.getSlot(i));
+        assertEquals(parallel.decode("4,0,1,2,3,1,0,0,0,0,0,0,0,0,0".getBytes(StandardCharsets.UTF_8)), 1);
+        assertThrows(NoSuchElementException.class, () -> parallel.decode((frame + ";5,0,1").getBytes(StandardCharsets.UTF_8)));
+        pool.shutdown();
+    }
+
+    @Test
+    public void reuseSlotsTest() {
+        var decoder = new DroneStatusDecoder();
+        decoder.decode("1,0,1,2,3,1,0,0,0,0,0,0,0,0,0,5,5;2,0,4,5,6,1,0,0,0,0,0,0,0,0,0,5,5".getBytes(StandardCharsets.UTF_8));
+        var first = decoder.getSlot(0);
+        int count = decoder.decode(ByteBuffer.wrap("9,1,7,8,9,1,0,0,0,0,0,0,0,0,0,6".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(count, 1);
+        assertEquals(decoder.getSlot(0), first);
+        assertEquals(first.id, 9);
+        assertEquals(first.position.x, 7f);
+        assertArrayEquals(first.propellersRadps, new float[]{6f});
+    }
+
+    private static void assertStatusEquals(DroneStatus actual, DroneStatus expected) {
+        assertEquals(actual.id, expected.id);
+        assertEquals(actual.time, expected.time);
+        assertEquals(actual.position, expected.position);
+        assertEquals(actual.rotation, expected.rotation);
+        assertEquals(actual.linearVelocity, expected.linearVelocity);
+        assertEquals(actual.angularVelocity, expected.angularVelocity);
+        assertArrayEquals(actual.propellersRadps, expected.propellersRadps);
+    }
+
+    // Scanner based parser the decoder replaced.
+    private static List<DroneStatus> referenceParse(String input) {
+        return Arrays.stream(input.split(";")).map(DroneStatusDecoderTests::referenceToDrone).toList();
+    }
+
+    private static DroneStatus referenceToDrone(String input) {
+        var drone = new DroneStatus();
+        Scanner scanner = new Scanner(input);
+        scanner.useDelimiter(",");
+        drone.id = Integer.parseInt(scanner.next());
+        drone.time = Float.parseFloat(scanner.next());
+        drone.position.set(Float.parseFloat(scanner.next()), Float.parseFloat(scanner.next()), Float.parseFloat(scanner.next()));
+        drone.rotation.w = Float.parseFloat(scanner.next());
+        drone.rotation.x = Float.parseFloat(scanner.next());
+        drone.rotation.y = Float.parseFloat(scanner.next());
+        drone.rotation.z = Float.parseFloat(scanner.next());
+        drone.linearVelocity.set(Float.parseFloat(scanner.next()), Float.parseFloat(scanner.next()), Float.parseFloat(scanner.next()));
+        drone.angularVelocity.set(Float.parseFloat(scanner.next()), Float.parseFloat(scanner.next()), Float.parseFloat(scanner.next()));
+        var propellers = new ArrayList<Float>();
+        while (scanner.hasNext())
+            propellers.add(Float.parseFloat(scanner.next()));
+        drone.propellersRadps = new float[propellers.size()];
+        for(int i = 0; i < propellers.size(); i++)
+            drone.propellersRadps[i] = propellers.get(i);
+        return drone;
+    }
+}
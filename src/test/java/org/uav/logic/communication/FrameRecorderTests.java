@@ -0,0 +1,108 @@
+package org.uav.logic.communication;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrameRecorderTests {
+
+    @Test
+    public void recordAndReadBackAcrossSegmentsTest() throws IOException {
+        var directory = Files.createTempDirectory("frames");
+        var file = directory.resolve("frames.rec");
+        try (var recorder = new FrameRecorder(file, 64)) {
+            recorder.append(StatusStream.DRONE_STATUSES, 100, List.of(bytes("1,0,1,2,3"), bytes("2,0,4,5,6")));
+            recorder.append(StatusStream.NOTIFICATIONS, 250, bytes("t:1,quadcopter"));
+            recorder.append(StatusStream.PROJECTILE_STATUSES, 300, new byte[200]);
+        }
+        assertTrue(Files.exists(FrameRecorder.segmentPath(file, 1)));
+
+        var reader = new FrameSegmentReader(file);
+        assertTrue(reader.next());
+        assertEquals(reader.getStream(), StatusStream.DRONE_STATUSES);
+        assertEquals(reader.getReceivedNanos(), 100L);
+        assertArrayEquals(reader.getFrame(), bytes("1,0,1,2,3"));
+        assertTrue(reader.next());
+        assertArrayEquals(reader.getFrame(), bytes("2,0,4,5,6"));
+        assertTrue(reader.next());
+        assertEquals(reader.getStream(), StatusStream.NOTIFICATIONS);
+        assertEquals(reader.getReceivedNanos(), 250L);
+        assertTrue(reader.next());
+        assertEquals(reader.getStream(), StatusStream.PROJECTILE_STATUSES);
+        assertEquals(reader.getFrame().length, 200);
+        assertFalse(reader.next());
+    }
+
+    @Test
+    public void appendAfterCloseIsIgnoredTest() throws IOException {
+        var file = Files.createTempDirectory("frames").resolve("frames.rec");
+        var recorder = new FrameRecorder(file, 1024);
+        recorder.append(StatusStream.NOTIFICATIONS, 1, bytes("p:"));
+        recorder.close();
+        recorder.append(StatusStream.NOTIFICATIONS, 2, bytes("p:"));
+
+        var reader = new FrameSegmentReader(file);
+        assertTrue(reader.next());
+        assertFalse(reader.next());
+        assertFalse(Files.exists(FrameRecorder.segmentPath(file, 1)));
+    }
+
+    @Test
+    public void serverInfoOpensRecordingTest() throws IOException {
+        var file = Files.createTempDirectory("frames").resolve("frames.rec");
+        try (var recorder = new FrameRecorder(file, 1024)) {
+            recorder.appendServerInfo("0123456789abcdef", "field");
+            recorder.append(StatusStream.DRONE_STATUSES, 100, bytes("1,0,1,2,3"));
+        }
+
+        var serverInfo = FrameSegmentReader.readServerInfo(file);
+        assertEquals(serverInfo.assetChecksum, "0123456789abcdef");
+        assertEquals(serverInfo.serverMap, "field");
+        var reader = new FrameSegmentReader(file);
+        assertTrue(reader.next());
+        assertEquals(reader.getStream(), StatusStream.DRONE_STATUSES);
+        assertFalse(reader.next());
+    }
+
+    @Test
+    public void recordingWithoutServerInfoTest() throws IOException {
+        var file = Files.createTempDirectory("frames").resolve("frames.rec");
+        try (var recorder = new FrameRecorder(file, 1024)) {
+            recorder.append(StatusStream.NOTIFICATIONS, 1, bytes("p:"));
+        }
+        assertThrows(IllegalArgumentException.class, () -> FrameSegmentReader.readServerInfo(file));
+    }
+
+    // Nothing listens on any port: the replay needs only the recording
+    @Test
+    public void replayWithoutServerTest() throws IOException, InterruptedException {
+        var file = Files.createTempDirectory("frames").resolve("frames.rec");
+        try (var recorder = new FrameRecorder(file, 1024)) {
+            recorder.appendServerInfo("0123456789abcdef", "field");
+            recorder.append(StatusStream.DRONE_STATUSES, 100, bytes("1,0,1,2,3"));
+            recorder.append(StatusStream.NOTIFICATIONS, 200, bytes("p:"));
+        }
+
+        assertEquals(FrameSegmentReader.readServerInfo(file).serverMap, "field");
+        var received = new ArrayList<String>();
+        var replay = new FrameReplay(file, 0, Map.of(
+                StatusStream.DRONE_STATUSES, (frames, receivedNanos) -> received.add(new String(frames.get(0), StandardCharsets.UTF_8)),
+                StatusStream.NOTIFICATIONS, (frames, receivedNanos) -> received.add(new String(frames.get(0), StandardCharsets.UTF_8))
+        ));
+        replay.start();
+        replay.join(5000);
+        assertFalse(replay.isAlive());
+        assertEquals(received, List.of("1,0,1,2,3", "p:"));
+    }
+
+    private static byte[] bytes(String frame) {
+        return frame.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,25 @@
+package org.uav.logic.communication;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class IngestCountersTests {
+
+    @Test
+    public void throughputPublishedAfterFullWindowTest() {
+        var counters = new IngestCounters();
+        long start = System.nanoTime();
+        counters.addReceived(30, 3000);
+        counters.updateThroughput(start);
+        assertEquals(counters.getFramesPerSecond(), 0f);
+
+        counters.addReceived(30, 3000);
+        counters.updateThroughput(start + 2_000_000_000L);
+        assertEquals(Math.round(counters.getFramesPerSecond()), 30);
+        assertEquals(Math.round(counters.getBytesPerSecond()), 3000);
+
+        counters.updateThroughput(start + 3_000_000_000L);
+        assertEquals(counters.getFramesPerSecond(), 0f);
+    }
+}
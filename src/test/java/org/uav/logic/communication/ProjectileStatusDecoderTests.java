@@ -0,0 +1,58 @@
+package org.uav.logic.communication;
+
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+import org.uav.logic.state.projectile.ProjectileStatus;
+import org.uav.logic.state.projectile.ProjectileTable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ProjectileStatusDecoderTests {
+
+    @Test
+    public void decodeCsvTest() {
+        var decoder = new ProjectileStatusDecoder();
+        var table = new ProjectileTable();
+        table.put(99, 0, 0, 0, 0, 0, 0);
+        byte[] frame = "12.5;3,1.5,-2.25,1e2,0,0,-9.81;4,0,0,0,1,1,1;".getBytes(StandardCharsets.UTF_8);
+        assertEquals(decoder.decode(frame, table), 2);
+        assertFalse(table.contains(99));
+        assertEquals(table.getPosition(table.getSlot(3), new Vector3f()), new Vector3f(1.5f, -2.25f, 100));
+        assertEquals(table.getVelocity(table.getSlot(3), new Vector3f()), new Vector3f(0, 0, -9.81f));
+        assertEquals(table.getVelocity(table.getSlot(4), new Vector3f()), new Vector3f(1, 1, 1));
+        assertEquals(decoder.getServerTimeS(), 12.5);
+        assertEquals(decoder.decode("13.25".getBytes(StandardCharsets.UTF_8), table), 0);
+        assertEquals(decoder.getServerTimeS(), 13.25);
+        decoder.decode(";3,1,2,3,0,0,0;".getBytes(StandardCharsets.UTF_8), table);
+        assertEquals(decoder.getServerTimeS(), Double.NaN);
+    }
+
+    @Test
+    public void decodeBinaryTest() {
+        var decoder = new ProjectileStatusDecoder();
+        var table = new ProjectileTable();
+        var projectiles = List.of(
+                new ProjectileStatus(1, new Vector3f(1, 2, 3), new Vector3f(4, 5, 6)),
+                new ProjectileStatus(2, new Vector3f(-1, -2, -3), new Vector3f(-4, -5, -6)));
+        assertEquals(decoder.decode(BinaryStatusFrame.encodeProjectileStatuses(projectiles, 1), table), 2);
+        assertEquals(decoder.getServerTimeS(), Double.NaN);
+        for(var projectile : projectiles) {
+            int slot = table.getSlot(projectile.id);
+            assertEquals(table.getPosition(slot, new Vector3f()), projectile.position);
+            assertEquals(table.getVelocity(slot, new Vector3f()), projectile.velocity);
+        }
+    }
+
+    @Test
+    public void missingFieldsTest() {
+        var decoder = new ProjectileStatusDecoder();
+        byte[] frame = "0;1,2,3".getBytes(StandardCharsets.UTF_8);
+        assertThrows(NoSuchElementException.class, () -> decoder.decode(frame, new ProjectileTable()));
+    }
+}
@@ -0,0 +1,70 @@
+package org.uav.logic.standin;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.jupiter.api.Test;
+import org.uav.logic.communication.BinaryStatusFrame;
+import org.uav.logic.communication.DroneStatusDecoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SyntheticSwarmTests {
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 10000})
+    public void publishedFramesDecodeTest(int droneCount) {
+        var swarm = new SyntheticSwarm(droneCount);
+        swarm.update(1.5f);
+        var decoder = new DroneStatusDecoder();
+        assertEquals(decode(swarm, decoder), droneCount);
+        assertEquals(decoder.getSlot(0).time, 1.5f);
+        assertEquals(swarm.getCargos().size(), (droneCount + 9) / 10);
+        assertEquals(swarm.ropesMessage().split(";").length, swarm.getCargos().size());
+    }
+
+    @Test
+    public void cargoHangsBelowItsDroneTest() {
+        var swarm = new SyntheticSwarm(20);
+        swarm.update(3);
+        var decoder = new DroneStatusDecoder();
+        decode(swarm, decoder);
+        for(var cargo : swarm.getCargos()) {
+            var owner = decoder.getSlot(cargo.id - 1);
+            assertEquals(owner.id, cargo.id);
+            assertEquals(cargo.position.x, owner.position.x);
+            assertTrue(cargo.position.z > owner.position.z);
+        }
+    }
+
+    @Test
+    public void playerDronesSpawnAndDespawnTest() {
+        var swarm = new SyntheticSwarm(5);
+        int player = swarm.spawnPlayerDrone();
+        assertEquals(player, 6);
+        var decoder = new DroneStatusDecoder();
+        assertEquals(decode(swarm, decoder), 6);
+        assertTrue(swarm.droneModelsMessage().contains("6,defaultDrone;"));
+        swarm.despawn(player);
+        swarm.despawn(3);
+        assertEquals(decode(swarm, decoder), 5);
+    }
+
+    @Test
+    public void droneFrameIsReusedTest() {
+        var swarm = new SyntheticSwarm(5);
+        int length = swarm.encodeDroneStatuses(1);
+        var frame = swarm.getDroneFrame();
+        swarm.update(1);
+        assertEquals(swarm.encodeDroneStatuses(2), length);
+        assertSame(swarm.getDroneFrame(), frame);
+
+        swarm.spawnPlayerDrone();
+        assertTrue(swarm.encodeDroneStatuses(3) > length);
+        assertEquals(BinaryStatusFrame.readSequence(swarm.getDroneFrame(), 0), 3);
+    }
+
+    private static int decode(SyntheticSwarm swarm, DroneStatusDecoder decoder) {
+        int length = swarm.encodeDroneStatuses(1);
+        return decoder.decode(swarm.getDroneFrame(), 0, length);
+    }
+}
@@ -0,0 +1,77 @@
+package org.uav.logic.state.drone;
+
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DroneStateStoreTests {
+
+    @Test
+    public void putAndReadTest() {
+        var store = new DroneStateStore();
+        var status = droneStatus(42, 2);
+        int slot = store.put(status);
+        assertEquals(store.size(), 1);
+        assertEquals(store.getSlot(42), slot);
+        assertEquals(store.getId(slot), 42);
+        assertEquals(store.getPosition(slot, new Vector3f()), status.position);
+        assertEquals(store.getRotation(slot, new Quaternionf()), status.rotation);
+        assertEquals(store.getLinearVelocity(slot, new Vector3f()), status.linearVelocity);
+        assertEquals(store.getAngularVelocity(slot, new Vector3f()), status.angularVelocity);
+        assertEquals(store.getPropellerCount(slot), 2);
+        assertEquals(store.getPropellerRadps(slot, 1), status.propellersRadps[1]);
+        var copy = store.get(slot, new DroneStatus());
+        assertEquals(copy.id, 42);
+        assertArrayEquals(copy.propellersRadps, status.propellersRadps);
+    }
+
+    @Test
+    public void updateKeepsSlotTest() {
+        var store = new DroneStateStore();
+        int slot = store.put(droneStatus(1, 4));
+        store.setModelName(slot, "quad");
+        var moved = droneStatus(1, 4);
+        moved.position.set(-5, -6, -7);
+        assertEquals(store.put(moved), slot);
+        assertEquals(store.size(), 1);
+        assertEquals(store.getPosition(slot, new Vector3f()), moved.position);
+        assertEquals(store.getModelName(slot), "quad");
+    }
+
+    @Test
+    public void removeMovesLastDroneTest() {
+        var store = new DroneStateStore();
+        for(int id = 0; id < 100; id++)
+            store.setModelName(store.put(droneStatus(id, id % 10)), "model" + id);
+        store.removeIf(id -> id % 3 == 0);
+        assertEquals(store.size(), 66);
+        for(int id = 0; id < 100; id++) {
+            int slot = store.getSlot(id);
+            if(id % 3 == 0) {
+                assertEquals(slot, DroneStateStore.NO_SLOT);
+                continue;
+            }
+            var expected = droneStatus(id, id % 10);
+            assertEquals(store.getId(slot), id);
+            assertEquals(store.getModelName(slot), "model" + id);
+            assertEquals(store.getPosition(slot, new Vector3f()), expected.position);
+            assertArrayEquals(store.get(slot, new DroneStatus()).propellersRadps, expected.propellersRadps);
+        }
+    }
+
+    private static DroneStatus droneStatus(int id, int propellers) {
+        var status = new DroneStatus();
+        status.id = id;
+        status.time = id * 0.5f;
+        status.position.set(id, id + 1, id + 2);
+        status.rotation.set(0.5f, 0.5f, 0.5f, 0.5f);
+        status.linearVelocity.set(1, 2, id);
+        status.angularVelocity.set(id, 3, 4);
+        status.propellersRadps = new float[propellers];
+        for(int i = 0; i < propellers; i++)
+            status.propellersRadps[i] = id * 100 + i;
+        return status;
+    }
+}
@@ -0,0 +1,55 @@
+package org.uav.logic.state.projectile;
+
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProjectileTableTests {
+
+    @Test
+    public void putAndReadTest() {
+        var table = new ProjectileTable();
+        int slot = table.put(7, 1, 2, 3, 4, 5, 6);
+        assertEquals(table.size(), 1);
+        assertEquals(table.getSlot(7), slot);
+        assertEquals(table.getId(slot), 7);
+        assertEquals(table.getPosition(slot, new Vector3f()), new Vector3f(1, 2, 3));
+        assertEquals(table.getVelocity(slot, new Vector3f()), new Vector3f(4, 5, 6));
+        assertEquals(table.put(7, -1, -2, -3, 0, 0, 0), slot);
+        assertEquals(table.size(), 1);
+        assertEquals(table.getPosition(slot, new Vector3f()), new Vector3f(-1, -2, -3));
+        assertEquals(table.getSlot(8), ProjectileTable.NO_SLOT);
+    }
+
+    @Test
+    public void removeMovesLastProjectileTest() {
+        var table = new ProjectileTable();
+        for(int id = 0; id < 200; id++)
+            table.put(id, id, 0, 0, 0, 0, id);
+        for(int id = 0; id < 200; id += 3)
+            table.remove(id);
+        assertEquals(table.size(), 133);
+        var position = new Vector3f();
+        for(int id = 0; id < 200; id++) {
+            assertEquals(table.contains(id), id % 3 != 0);
+            if(id % 3 == 0) continue;
+            int slot = table.getSlot(id);
+            assertTrue(slot < table.size());
+            assertEquals(table.getId(slot), id);
+            assertEquals(table.getPosition(slot, position).x, id);
+        }
+    }
+
+    @Test
+    public void clearReusesSlotsTest() {
+        var table = new ProjectileTable();
+        for(int id = 0; id < 100; id++)
+            table.put(id, 0, 0, 0, 0, 0, 0);
+        table.clear();
+        assertEquals(table.size(), 0);
+        assertFalse(table.contains(5));
+        assertEquals(table.put(1000, 0, 0, 0, 0, 0, 0), 0);
+        assertEquals(table.put(1001, 0, 0, 0, 0, 0, 0), 1);
+    }
+}
@@ -0,0 +1,113 @@
+package org.uav.presentation.rendering;
+
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShadowCascadesTests {
+    private static final float NEAR = 0.1f;
+    private static final float DISTANCE = 300;
+    private static final float FOV = (float) Math.toRadians(100);
+    private static final float ASPECT = 16f / 9;
+    private static final Vector3f UP = new Vector3f(0, 0, -1);
+
+    static Stream<Arguments> splitDistancesSource() {
+        return Stream.of(
+                Arguments.of(1, 1),
+                Arguments.of(3, 3),
+                Arguments.of(4, 4),
+                Arguments.of(0, 1),
+                Arguments.of(7, ShadowCascades.MAX_CASCADES)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("splitDistancesSource")
+    public void splitDistancesTest(int requestedCount, int expectedCount) {
+        var cascades = new ShadowCascades(requestedCount, 1024, NEAR, DISTANCE, new Vector3f(0.3f, 0.2f, -1));
+        assertEquals(cascades.getCount(), expectedCount);
+
+        float previous = NEAR;
+        for(int i = 0; i < cascades.getCount(); i++) {
+            assertTrue(cascades.getSplitDistance(i) > previous);
+            previous = cascades.getSplitDistance(i);
+        }
+        assertEquals(cascades.getSplitDistance(cascades.getCount() - 1), DISTANCE, DISTANCE * 1e-5f);
+    }
+
+    static Stream<Arguments> cameraSource() {
+        return Stream.of(
+                Arguments.of(new Vector3f(0, 0, -5), new Vector3f(10, 0, -5), new Vector3f(0.3f, 0.2f, -1)),
+                Arguments.of(new Vector3f(12.3f, -40.7f, -20), new Vector3f(0, 0, 0), new Vector3f(-0.5f, 0.1f, -0.4f)),
+                Arguments.of(new Vector3f(-33.1f, 7.9f, -2.5f), new Vector3f(-30, 9, -2), new Vector3f(0, 0, -1)),
+                Arguments.of(new Vector3f(45.6f, 21.4f, -60), new Vector3f(45, 20, 0), new Vector3f(0.8f, -0.6f, -0.1f))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("cameraSource")
+    public void volumeMovesInWholeTexelsTest(Vector3f eye, Vector3f target, Vector3f towardsLight) {
+        int resolution = 1024;
+        var cascades = new ShadowCascades(3, resolution, NEAR, DISTANCE, towardsLight);
+        cascades.update(new Matrix4f().lookAt(eye, target, UP), FOV, ASPECT);
+
+        // A fixed world point lands on the same place within a texel however the volume moved
+        for(int i = 0; i < cascades.getCount(); i++) {
+            var origin = cascades.getLightSpace(i).transformPosition(new Vector3f());
+            float texelsX = origin.x * resolution / 2;
+            float texelsY = origin.y * resolution / 2;
+            assertEquals(texelsX, Math.round(texelsX), 1e-2f);
+            assertEquals(texelsY, Math.round(texelsY), 1e-2f);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("cameraSource")
+    public void volumeContainsSliceTest(Vector3f eye, Vector3f target, Vector3f towardsLight) {
+        var cascades = new ShadowCascades(3, 1024, NEAR, DISTANCE, towardsLight);
+        var view = new Matrix4f().lookAt(eye, target, UP);
+        cascades.update(view, FOV, ASPECT);
+
+        var corner = new Vector3f();
+        for(int i = 0; i < cascades.getCount(); i++) {
+            float sliceNear = i == 0 ? NEAR : cascades.getSplitDistance(i - 1);
+            var slice = new Matrix4f().setPerspective(FOV, ASPECT, sliceNear, cascades.getSplitDistance(i)).mul(view);
+            for(int c = 0; c < 8; c++) {
+                slice.frustumCorner(c, corner);
+                assertTrue(cascades.getFrustum(i).testPoint(corner), "cascade " + i + " corner " + c);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("cameraSource")
+    public void volumeStaysWhileCameraIsInsideMarginTest(Vector3f eye, Vector3f target, Vector3f towardsLight) {
+        var cascades = new ShadowCascades(3, 1024, NEAR, DISTANCE, towardsLight);
+        cascades.update(new Matrix4f().lookAt(eye, target, UP), FOV, ASPECT);
+        for(int i = 0; i < cascades.getCount(); i++) {
+            assertFalse(cascades.isStaticLayerValid(i));
+            cascades.staticLayerDrawn(i);
+        }
+        var lightSpace = new Matrix4f(cascades.getLightSpace(0));
+
+        // Turning around and stepping aside keeps every volume where it was
+        var movedEye = new Vector3f(eye).add(0.5f, -0.3f, 0.1f);
+        var behind = new Vector3f(movedEye).mul(2).sub(target);
+        cascades.update(new Matrix4f().lookAt(movedEye, behind, UP), FOV, ASPECT);
+        for(int i = 0; i < cascades.getCount(); i++) assertTrue(cascades.isStaticLayerValid(i));
+        assertEquals(cascades.getLightSpace(0), lightSpace);
+
+        // Leaving the nearest volume's margin moves it, but not the far ones
+        var farEye = new Vector3f(eye).add(cascades.getSplitDistance(0), 0, 0);
+        cascades.update(new Matrix4f().lookAt(farEye, new Vector3f(target).add(cascades.getSplitDistance(0), 0, 0), UP), FOV, ASPECT);
+        assertFalse(cascades.isStaticLayerValid(0));
+        assertNotEquals(cascades.getLightSpace(0), lightSpace);
+        assertTrue(cascades.isStaticLayerValid(cascades.getCount() - 1));
+    }
+}
@@ -0,0 +1,66 @@
+package org.uav.presentation.rendering;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.HashMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UniformTests {
+
+    @Test
+    public void firstUpdateIsUploadedTest() {
+        var uniform = new Uniform(3);
+        assertTrue(uniform.update(new float[]{0}, 1));
+        assertFalse(uniform.update(new float[]{0}, 1));
+    }
+
+    static Stream<Arguments> updateSource() {
+        return Stream.of(
+                Arguments.of(new float[]{1, 2, 3}, 3, new float[]{1, 2, 3}, 3, false),
+                Arguments.of(new float[]{1, 2, 3}, 3, new float[]{1, 2, 4}, 3, true),
+                // Only the first count values belong to the upload
+                Arguments.of(new float[]{1, 2, 3}, 2, new float[]{1, 2, 9}, 2, false),
+                Arguments.of(new float[]{1, 2, 0}, 2, new float[]{1, 2, 0}, 3, true),
+                Arguments.of(new float[]{0}, 1, new float[]{-0f}, 1, true),
+                Arguments.of(new float[]{Float.NaN}, 1, new float[]{Float.NaN}, 1, false),
+                Arguments.of(new float[]{Float.intBitsToFloat(7)}, 1, new float[]{Float.intBitsToFloat(7)}, 1, false)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("updateSource")
+    public void updateTest(float[] first, int firstCount, float[] second, int secondCount, boolean uploaded) {
+        var uniform = new Uniform(0);
+        uniform.update(first, firstCount);
+        assertEquals(uniform.update(second, secondCount), uploaded);
+    }
+
+    @Test
+    public void keepsOwnCopyTest() {
+        var uniform = new Uniform(0);
+        float[] scratch = {1, 2};
+        uniform.update(scratch, 2);
+        scratch[1] = 5;
+        assertTrue(uniform.update(scratch, 2));
+        assertFalse(uniform.update(new float[]{1, 5}, 2));
+    }
+
+    @Test
+    public void registerTest() {
+        var uniforms = new HashMap<String, Uniform>();
+        Uniform.register(uniforms, "model", 2);
+        Uniform.register(uniforms, "cascadeSplits[0]", 5);
+        Uniform.register(uniforms, "Frame.viewPos", -1);
+
+        assertEquals(uniforms.size(), 3);
+        assertEquals(uniforms.get("model").location, 2);
+        assertSame(uniforms.get("cascadeSplits"), uniforms.get("cascadeSplits[0]"));
+        assertEquals(uniforms.get("cascadeSplits").location, 5);
+        assertFalse(uniforms.containsKey("Frame.viewPos"));
+    }
+}
@@ -0,0 +1,52 @@
+package org.uav.utils;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.DoubleStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.uav.utils.AsciiNumberParser.parseFloat;
+import static org.uav.utils.AsciiNumberParser.parseInt;
+
+public class AsciiNumberParserTests {
+
+    @ParameterizedTest
+    @MethodSource("parseFloatTestSource")
+    public void parseFloatTest(String literal) {
+        byte[] bytes = literal.getBytes(StandardCharsets.US_ASCII);
+        assertEquals(Float.floatToRawIntBits(parseFloat(bytes, 0, bytes.length)), Float.floatToRawIntBits(Float.parseFloat(literal)));
+    }
+    static Stream<String> parseFloatTestSource() {
+        Random random = new Random(0);
+        return Stream.concat(
+                Stream.of("0", "-0.0", "1.5", " 2.25 ", ".5", "1.", "1e10", "1E-5", "+3.0", "3.4028235e38", "3.5e38",
+                        "123.456789", "0.7071067811865476", "-12345678901234567890.5", "1.00000005960464477539062499",
+                        "16777217", "NaN", "-Infinity", "1f"),
+                DoubleStream.generate(() -> (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12) - 4))
+                        .limit(1000)
+                        .mapToObj(d -> new String[]{Double.toString(d), Float.toString((float) d), String.format(Locale.US, "%.6f", d)})
+                        .flatMap(Stream::of)
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "-5", "+7", "2147483647", "-2147483648"})
+    public void parseIntTest(String literal) {
+        byte[] bytes = literal.getBytes(StandardCharsets.US_ASCII);
+        assertEquals(parseInt(bytes, 0, bytes.length), Integer.parseInt(literal));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "-", "2147483648", "12a", " 1"})
+    public void parseIntInvalidTest(String literal) {
+        byte[] bytes = literal.getBytes(StandardCharsets.US_ASCII);
+        assertThrows(NumberFormatException.class, () -> parseInt(bytes, 0, bytes.length));
+    }
+}
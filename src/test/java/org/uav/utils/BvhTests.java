@@ -0,0 +1,73 @@
+package org.uav.utils;
+
+import org.joml.FrustumIntersection;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BvhTests {
+
+    @Test
+    public void emptyTest() {
+        var bvh = new Bvh(new float[0], 0);
+        var frustum = new FrustumIntersection(new Matrix4f().ortho(-1, 1, -1, 1, -1, 1));
+        assertEquals(bvh.query(frustum, new int[0]), 0);
+    }
+
+    @Test
+    public void cullsBoxesOutsideTest() {
+        float[] bounds = {
+                -1, -1, -1, 1, 1, 1,
+                10, 10, 10, 11, 11, 11,
+                1.5f, -0.5f, -0.5f, 3, 0.5f, 0.5f
+        };
+        var bvh = new Bvh(bounds, 3);
+        var frustum = new FrustumIntersection(new Matrix4f().ortho(-2, 2, -2, 2, -2, 2));
+        int[] result = new int[3];
+        int found = bvh.query(frustum, result);
+        var visible = new TreeSet<Integer>();
+        for(int i = 0; i < found; i++) visible.add(result[i]);
+        assertEquals(visible, new TreeSet<>(List.of(0, 2)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, 100, 5000})
+    public void matchesBruteForceTest(int count) {
+        var random = new Random(count);
+        float[] bounds = new float[count * 6];
+        for(int i = 0; i < count; i++)
+            for(int axis = 0; axis < 3; axis++) {
+                float center = random.nextFloat() * 1000 - 500;
+                float halfSize = random.nextFloat() * 20;
+                bounds[6 * i + axis] = center - halfSize;
+                bounds[6 * i + 3 + axis] = center + halfSize;
+            }
+        var bvh = new Bvh(bounds, count);
+        int[] result = new int[bvh.size()];
+        for(int query = 0; query < 20; query++) {
+            var eye = new Vector3f(random.nextFloat(), random.nextFloat(), random.nextFloat()).mul(600).sub(300, 300, 300);
+            var target = new Vector3f(random.nextFloat(), random.nextFloat(), random.nextFloat()).mul(600).sub(300, 300, 300);
+            var frustum = new FrustumIntersection(new Matrix4f()
+                    .perspective((float) Math.toRadians(60), 16f / 9, 0.1f, 400)
+                    .lookAt(eye, target, new Vector3f(0, 0, 1)));
+
+            int found = bvh.query(frustum, result);
+
+            var visible = new TreeSet<Integer>();
+            for(int i = 0; i < found; i++) assertTrue(visible.add(result[i]));
+            var expected = new TreeSet<Integer>();
+            for(int i = 0; i < count; i++)
+                if(frustum.testAab(bounds[6 * i], bounds[6 * i + 1], bounds[6 * i + 2], bounds[6 * i + 3], bounds[6 * i + 4], bounds[6 * i + 5]))
+                    expected.add(i);
+            assertEquals(visible, expected);
+        }
+    }
+}
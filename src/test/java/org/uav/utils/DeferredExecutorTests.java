@@ -0,0 +1,36 @@
+package org.uav.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class DeferredExecutorTests {
+
+    @Test
+    public void runsTasksInSubmissionOrderTest() {
+        var executor = new DeferredExecutor();
+        List<Integer> ran = new ArrayList<>();
+        executor.execute(() -> ran.add(1));
+        executor.execute(() -> ran.add(2));
+        assertEquals(ran, List.of());
+        executor.runPending();
+        assertEquals(ran, List.of(1, 2));
+    }
+
+    @Test
+    public void nestedTasksWaitForNextRunTest() {
+        var executor = new DeferredExecutor();
+        List<Integer> ran = new ArrayList<>();
+        executor.execute(() -> {
+            ran.add(1);
+            executor.execute(() -> ran.add(2));
+        });
+        executor.runPending();
+        assertEquals(ran, List.of(1));
+        executor.runPending();
+        assertEquals(ran, List.of(1, 2));
+    }
+}
@@ -0,0 +1,55 @@
+package org.uav.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntIntMapTests {
+
+    @Test
+    public void putGetRemoveTest() {
+        var map = new IntIntMap();
+        assertEquals(map.get(7), IntIntMap.MISSING);
+        map.put(7, 0);
+        map.put(-3, 12);
+        map.put(7, 5);
+        assertEquals(map.get(7), 5);
+        assertEquals(map.get(-3), 12);
+        assertEquals(map.size(), 2);
+        assertEquals(map.remove(7), 5);
+        assertFalse(map.containsKey(7));
+        assertEquals(map.remove(7), IntIntMap.MISSING);
+        assertEquals(map.size(), 1);
+    }
+
+    @Test
+    public void negativeValueTest() {
+        var map = new IntIntMap();
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, -1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1000, 100000})
+    public void matchesHashMapTest(int operations) {
+        var random = new Random(operations);
+        var map = new IntIntMap();
+        var reference = new HashMap<Integer, Integer>();
+        for(int i = 0; i < operations; i++) {
+            int key = random.nextInt(operations / 4 + 1) - operations / 8;
+            if(random.nextInt(3) == 0) {
+                Integer expected = reference.remove(key);
+                assertEquals(map.remove(key), expected == null ? IntIntMap.MISSING : expected);
+            } else {
+                map.put(key, i);
+                reference.put(key, i);
+            }
+        }
+        assertEquals(map.size(), reference.size());
+        reference.forEach((key, value) -> assertEquals(map.get(key), (int) value));
+    }
+}
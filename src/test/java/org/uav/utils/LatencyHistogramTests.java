@@ -0,0 +1,109 @@
+package org.uav.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTests {
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 1, 15, 16, 17, 31, 32, 33, 1000, 123456, 4_000_000_000L})
+    public void bucketContainsValueTest(long micros) {
+        int bucket = LatencyHistogram.bucketOf(micros);
+        assertTrue(LatencyHistogram.upperBoundOf(bucket) >= micros);
+        assertTrue(bucket == 0 || LatencyHistogram.upperBoundOf(bucket - 1) < micros);
+        assertTrue(LatencyHistogram.upperBoundOf(bucket) - micros <= micros / 16);
+    }
+
+    @Test
+    public void bucketsAreContiguousTest() {
+        for(int bucket = 1; bucket < LatencyHistogram.BUCKETS; bucket++)
+            assertEquals(LatencyHistogram.bucketOf(LatencyHistogram.upperBoundOf(bucket - 1) + 1), bucket);
+    }
+
+    @Test
+    public void quantilesTest() {
+        var histogram = new LatencyHistogram();
+        assertEquals(histogram.getValueAtQuantile(0.5), 0L);
+        for(int micros = 1; micros <= 1000; micros++)
+            histogram.record(micros);
+        assertEquals(histogram.getCount(), 1000L);
+        assertEquals(histogram.getMax(), 1000L);
+        long p50 = histogram.getValueAtQuantile(0.5);
+        long p99 = histogram.getValueAtQuantile(0.99);
+        assertTrue(p50 >= 500 && p50 <= 500 + 500 / 16);
+        assertTrue(p99 >= 990 && p99 <= 1000);
+        assertEquals(histogram.getValueAtQuantile(1), 1000L);
+    }
+
+    @Test
+    public void takeIntervalTest() {
+        var histogram = new LatencyHistogram();
+        var interval = new LatencyHistogram();
+        histogram.recordNanos(5_000_000);
+        histogram.takeInterval(interval);
+        assertEquals(interval.getCount(), 1L);
+        assertEquals(interval.getMax(), 5000L);
+
+        histogram.takeInterval(interval);
+        assertEquals(interval.getCount(), 0L);
+        assertEquals(interval.getMax(), 0L);
+        assertEquals(interval.getValueAtQuantile(0.99), 0L);
+
+        histogram.record(20);
+        histogram.record(40);
+        histogram.takeInterval(interval);
+        assertEquals(interval.getCount(), 2L);
+        assertEquals(interval.getMax(), 40L);
+        assertEquals(interval.getValueAtQuantile(0.5), 20L);
+        assertEquals(histogram.getCount(), 3L);
+        assertEquals(histogram.getMax(), 5000L);
+    }
+
+    @Test
+    public void separateIntervalsTest() {
+        var histogram = new LatencyHistogram();
+        var reporter = new LatencyHistogram();
+        var widget = new LatencyHistogram();
+        histogram.record(300);
+        histogram.takeInterval(reporter);
+        histogram.record(70);
+        histogram.takeInterval(widget);
+        assertEquals(reporter.getCount(), 1L);
+        assertEquals(reporter.getMax(), 300L);
+        assertEquals(widget.getCount(), 2L);
+        assertEquals(widget.getMax(), 300L);
+
+        histogram.record(50);
+        histogram.takeInterval(reporter);
+        histogram.takeInterval(widget);
+        assertEquals(reporter.getCount(), 2L);
+        assertEquals(reporter.getMax(), 70L);
+        assertEquals(widget.getCount(), 1L);
+        assertEquals(widget.getMax(), 50L);
+
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram().takeInterval(widget));
+    }
+
+    @Test
+    public void concurrentRecordingTest() throws InterruptedException {
+        var histogram = new LatencyHistogram();
+        var interval = new LatencyHistogram();
+        int values = 1_000_000;
+        var recorder = new Thread(() -> {
+            for(int i = 0; i < values; i++) histogram.record(i % 1000);
+        });
+        recorder.start();
+        long taken = 0;
+        while(recorder.isAlive()) {
+            histogram.takeInterval(interval);
+            taken += interval.getCount();
+        }
+        recorder.join();
+        histogram.takeInterval(interval);
+        taken += interval.getCount();
+        assertEquals(taken, (long) values);
+    }
+}
@@ -0,0 +1,56 @@
+package org.uav.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RadixSorterTests {
+
+    @Test
+    public void unsignedOrderTest() {
+        var sorter = new RadixSorter();
+        long[] keys = {-1L, 5L, Long.MIN_VALUE, 0L, 5L};
+        int[] values = {0, 1, 2, 3, 4};
+        sorter.sort(keys, values, keys.length);
+        assertArrayEquals(keys, new long[]{0L, 5L, 5L, Long.MIN_VALUE, -1L});
+        assertArrayEquals(values, new int[]{3, 1, 4, 2, 0});
+    }
+
+    @Test
+    public void sortsOnlyCountTest() {
+        var sorter = new RadixSorter();
+        long[] keys = {3L, 1L, 2L, 0L};
+        int[] values = {0, 1, 2, 3};
+        sorter.sort(keys, values, 3);
+        assertArrayEquals(keys, new long[]{1L, 2L, 3L, 0L});
+        assertArrayEquals(values, new int[]{1, 2, 0, 3});
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 100, 10000})
+    public void matchesStableSortTest(int count) {
+        var random = new Random(count);
+        var sorter = new RadixSorter();
+        for(int round = 0; round < 3; round++) {
+            long[] keys = new long[count];
+            // Few distinct high parts, so equal keys are common and whole bytes are shared
+            for(int i = 0; i < count; i++) keys[i] = ((long) random.nextInt(4) << 60) | random.nextInt(count / 2 + 1);
+            int[] values = IntStream.range(0, count).toArray();
+            Integer[] expected = IntStream.range(0, count).boxed().toArray(Integer[]::new);
+            long[] original = Arrays.copyOf(keys, count);
+            Arrays.sort(expected, Comparator.comparing(i -> original[i], Long::compareUnsigned));
+
+            sorter.sort(keys, values, count);
+
+            assertArrayEquals(values, Arrays.stream(expected).mapToInt(Integer::intValue).toArray());
+            for(int i = 0; i < count; i++) assertEquals(keys[i], original[values[i]]);
+        }
+    }
+}
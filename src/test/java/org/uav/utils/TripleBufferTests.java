@@ -0,0 +1,55 @@
+package org.uav.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TripleBufferTests {
+
+    @Test
+    public void acquireWithoutPublishTest() {
+        var buffer = new TripleBuffer<>(() -> new int[1]);
+        var readBuffer = buffer.getReadBuffer();
+        assertFalse(buffer.acquire());
+        assertSame(buffer.getReadBuffer(), readBuffer);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 5})
+    public void latestPublishWinsTest(int publishCount) {
+        var buffer = new TripleBuffer<>(() -> new int[1]);
+        for(int i = 1; i <= publishCount; i++) {
+            buffer.getWriteBuffer()[0] = i;
+            buffer.publish();
+        }
+        assertTrue(buffer.acquire());
+        assertEquals(buffer.getReadBuffer()[0], publishCount);
+        assertFalse(buffer.acquire());
+        assertEquals(buffer.getPublishedCount(), (long) publishCount);
+        assertEquals(buffer.getSupersededCount(), (long) publishCount - 1);
+    }
+
+    @Test
+    public void concurrentPublishTest() throws InterruptedException {
+        var buffer = new TripleBuffer<>(() -> new int[1]);
+        int publishCount = 100_000;
+        var producer = new Thread(() -> {
+            for(int i = 1; i <= publishCount; i++) {
+                buffer.getWriteBuffer()[0] = i;
+                buffer.publish();
+            }
+        });
+        producer.start();
+        int last = 0;
+        while(last < publishCount) {
+            if(!buffer.acquire()) continue;
+            int value = buffer.getReadBuffer()[0];
+            assertTrue(value > last);
+            last = value;
+        }
+        producer.join();
+        assertEquals(last, publishCount);
+    }
+}